@@ -13,6 +13,9 @@ plugins {
     id("com.github.ksoichiro.console.reporter") version "0.6.3"
     id("com.github.nbaztec.coveralls-jacoco") version "1.2.15"
     id("io.github.gradle-nexus.publish-plugin") version "1.3.0"
+
+    // Benchmarking Plugins
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "org.slog4j"
@@ -46,6 +49,8 @@ dependencies {
     testImplementation("org.spockframework:spock-core:2.3-groovy-4.0")
 
     testRuntimeOnly("ch.qos.logback:logback-classic:1.2.11")
+
+    jmhRuntimeOnly("org.slf4j:slf4j-nop:1.7.36")
 }
 
 tasks.withType<JavaCompile> {
@@ -85,6 +90,81 @@ tasks.check {
     dependsOn(tasks.jacocoTestCoverageVerification)
 }
 
+val jmhResultsFile = layout.buildDirectory.file("results/jmh/results.json")
+val jmhBaselineFile = layout.projectDirectory.file("src/jmh/baseline.json")
+
+jmh {
+    jmhVersion.set("1.36")
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("ns")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResultsFile)
+}
+
+tasks.register<Copy>("jmhSaveBaseline") {
+    group = "benchmark"
+    description = "Records the latest JMH results as the baseline used by jmhCompare."
+    from(jmhResultsFile)
+    into(jmhBaselineFile.asFile.parentFile)
+    rename { jmhBaselineFile.asFile.name }
+}
+
+tasks.register("jmhCompare") {
+    group = "benchmark"
+    description = "Compares the latest JMH results against the recorded baseline (-PjmhTolerance=0.10)."
+    doLast {
+        val tolerance = (project.findProperty("jmhTolerance") as String?)?.toDouble() ?: 0.10
+        val baselineFile = jmhBaselineFile.asFile
+        val resultsFile = jmhResultsFile.get().asFile
+        if (!baselineFile.exists()) {
+            throw GradleException("No JMH baseline at $baselineFile: run 'jmh jmhSaveBaseline' on the reference build")
+        }
+        if (!resultsFile.exists()) {
+            throw GradleException("No JMH results at $resultsFile: run 'jmh' first")
+        }
+
+        // benchmark[params] -> (metric name -> score), where the metric names are the primary one and the
+        // normalized allocation rate published by the GC profiler
+        @Suppress("UNCHECKED_CAST")
+        fun load(file: File): Map<String, Map<String, Double>> =
+            (groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>).associate { run ->
+                val params = (run["params"] as Map<String, Any?>?)?.entries?.joinToString(",", "[", "]") ?: ""
+                val primary = run["primaryMetric"] as Map<String, Any?>
+                val secondary = (run["secondaryMetrics"] as Map<String, Map<String, Any?>>?) ?: emptyMap()
+                val metrics = mutableMapOf("score" to (primary["score"] as Number).toDouble())
+                secondary.entries.find { it.key.endsWith("gc.alloc.rate.norm") }?.let {
+                    metrics["alloc"] = (it.value["score"] as Number).toDouble()
+                }
+                "${run["benchmark"]}$params" to metrics
+            }
+
+        val baseline = load(baselineFile)
+        val current = load(resultsFile)
+        val regressions = mutableListOf<String>()
+        for ((benchmark, metrics) in current) {
+            val reference = baseline[benchmark] ?: continue
+            for ((metric, score) in metrics) {
+                val expected = reference[metric] ?: continue
+                val limit = expected * (1 + tolerance)
+                // allocations below one byte per op are noise from the profiler itself
+                val regressed = if (metric == "alloc") score > limit && score - expected >= 1.0 else score > limit
+                val line = String.format("%-90s %-5s baseline=%12.2f current=%12.2f", benchmark, metric, expected, score)
+                logger.lifecycle((if (regressed) "REGRESSION " else "ok         ") + line)
+                if (regressed) {
+                    regressions += line
+                }
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("${regressions.size} benchmark metric(s) regressed beyond ${tolerance * 100}%")
+        }
+    }
+}
+
 val groupId = group.toString()
 val artifactId = name
 
@@ -0,0 +1,27 @@
+plugins {
+    `java-library`
+    groovy
+}
+
+group = rootProject.group
+description = "Generates SLog4j converters for @LogProperties classes at compile time"
+version = rootProject.version
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation("org.yaml:snakeyaml:2.0")
+
+    testImplementation(rootProject)
+    testImplementation("org.spockframework:spock-core:2.3-groovy-4.0")
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+}
@@ -0,0 +1,381 @@
+package org.slog4j.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a <code>ToPropertiesConverter</code> for every class annotated with
+ * <code>@org.slog4j.format.LogProperties</code>, and registers them all on
+ * <code>META-INF/services/org.slog4j.format.ToPropertiesConverter</code>.
+ *
+ * <p>
+ * Fields are read directly when they are visible from the package, otherwise through their getter, either declared
+ * or generated by Lombok <code>@Value</code>, <code>@Data</code> or <code>@Getter</code>. Inherited fields are read
+ * too, before the fields of the class, and must be accessible the same way.
+ *
+ * <p>
+ * With the <code>slog4j.registry</code> option, it also writes <code>org.slog4j.generated.Slog4jRegistry</code>,
+ * which lists the generated converters, plus the ones named by the <code>slog4j.converters</code> option, and the
+ * content of the file named by the <code>slog4j.config</code> option, so that nothing is parsed at runtime. With
+ * <code>slog4j.registry=complete</code>, the registry also declares that it lists every converter, so that nothing is
+ * looked up at runtime either.
+ */
+@SupportedAnnotationTypes(LogPropertiesProcessor.LOG_PROPERTIES)
+@SupportedOptions({LogPropertiesProcessor.REGISTRY_OPTION, LogPropertiesProcessor.CONVERTERS_OPTION,
+    LogPropertiesProcessor.CONFIG_OPTION})
+public class LogPropertiesProcessor extends AbstractProcessor {
+
+    static final String LOG_PROPERTIES = "org.slog4j.format.LogProperties";
+    static final String SERVICE_FILE   = "META-INF/services/org.slog4j.format.ToPropertiesConverter";
+    static final String SUFFIX         = "PropertiesConverter";
+
+    static final String REGISTRY_OPTION   = "slog4j.registry";
+    static final String REGISTRY_COMPLETE = "complete";
+    static final String CONVERTERS_OPTION = "slog4j.converters";
+    static final String CONFIG_OPTION     = "slog4j.config";
+    static final String REGISTRY_PACKAGE  = "org.slog4j.generated";
+    static final String REGISTRY_NAME     = "Slog4jRegistry";
+
+    private static final Set<String> LOMBOK_GETTERS = new HashSet<>(Arrays.asList(
+        "lombok.Value", "lombok.Data", "lombok.Getter"));
+
+    private final Set<String> converters = new TreeSet<>();
+
+    private boolean registryWritten;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Runs on every compilation when the registry is requested, even without any <code>@LogProperties</code>.
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return isRegistryRequested() ? Collections.singleton("*") : super.getSupportedAnnotationTypes();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        final int generated = converters.size();
+        for (TypeElement annotation : annotations) {
+            if (!annotation.getQualifiedName().contentEquals(LOG_PROPERTIES)) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@LogProperties only applies to classes");
+                    continue;
+                }
+                generate((TypeElement) element);
+            }
+        }
+        // written on the first round that generates no converter, so that it's compiled on the next one
+        if (isRegistryRequested() && !registryWritten && (converters.size() == generated)) {
+            writeRegistry();
+            registryWritten = true;
+        }
+        // other processors still get the annotations they support when every annotation is requested
+        return !isRegistryRequested();
+    }
+
+    private boolean isRegistryRequested() {
+        return (processingEnv != null) && processingEnv.getOptions().containsKey(REGISTRY_OPTION)
+            && !"false".equals(processingEnv.getOptions().get(REGISTRY_OPTION));
+    }
+
+    private void generate(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, "@LogProperties classes can't be private");
+            return;
+        }
+        final Set<String> excluded = excludedFields(type);
+        // inherited fields come first, and a field hidden by a subclass is read from the subclass
+        final Map<String, String> reads = new LinkedHashMap<>();
+        for (TypeElement declaring : hierarchyOf(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(declaring.getEnclosedElements())) {
+                final Set<Modifier> modifiers = field.getModifiers();
+                final String name = field.getSimpleName().toString();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+                    || excluded.contains(name)) {
+                    continue;
+                }
+                final String read = read(type, declaring, field);
+                if (read == null) {
+                    if (declaring == type) {
+                        error(field, "private field without a getter: " + name);
+                    } else {
+                        error(type, "inherited field not accessible from " + packageOf(type).getQualifiedName()
+                            + " and without a getter: " + declaring.getQualifiedName() + '.' + name);
+                    }
+                    return;
+                }
+                reads.remove(name);
+                reads.put(name, read);
+            }
+        }
+
+        final String packageName = packageOf(type).getQualifiedName().toString();
+        final String simpleName = converterName(type);
+        final String className = packageName.isEmpty() ? simpleName : (packageName + '.' + simpleName);
+        try (Writer out = processingEnv.getFiler().createSourceFile(className, type).openWriter()) {
+            out.write(source(packageName, simpleName, type.getQualifiedName().toString(),
+                new ArrayList<>(reads.keySet()), new ArrayList<>(reads.values())));
+        } catch (IOException e) {
+            error(type, "can't write " + className + ": " + e);
+            return;
+        }
+        converters.add(className);
+    }
+
+    /**
+     * Gets the classes whose fields are read, from the topmost superclass below <code>Object</code> down to the
+     * annotated class.
+     */
+    private static List<TypeElement> hierarchyOf(TypeElement type) {
+        final List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            if (current.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            hierarchy.add(0, current);
+        }
+        return hierarchy;
+    }
+
+    private static TypeElement superclassOf(TypeElement type) {
+        final TypeMirror superclass = type.getSuperclass();
+        return (superclass.getKind() == TypeKind.DECLARED) ? (TypeElement) ((DeclaredType) superclass).asElement()
+            : null;
+    }
+
+    /**
+     * Gets the expression reading a field of <code>value</code>, or <code>null</code> if it can't be read from the
+     * package of the converter.
+     */
+    private String read(TypeElement type, TypeElement declaring, VariableElement field) {
+        final String name = field.getSimpleName().toString();
+        if (isAccessible(type, declaring, field)) {
+            return "value." + name;
+        }
+        final String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        final boolean isBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        final String getter = (isBoolean ? "is" : "get") + capitalized;
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(getter) && method.getParameters().isEmpty()
+                    && isAccessible(type, current, method)
+                    && !method.getModifiers().contains(Modifier.STATIC)) {
+                    return "value." + getter + "()";
+                }
+            }
+        }
+        if (isAccessible(type, declaring, null) && (hasLombokGetter(declaring) || hasLombokGetter(field))) {
+            return "value." + getter + "()";
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether the converter of <code>type</code>, generated in its package, can use a member of one of its
+     * classes, or the public members of that class when <code>member</code> is null.
+     */
+    private static boolean isAccessible(TypeElement type, TypeElement declaring, Element member) {
+        final Set<Modifier> modifiers = (member == null) ? Collections.singleton(Modifier.PUBLIC)
+            : member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return modifiers.contains(Modifier.PUBLIC) || packageOf(type).equals(packageOf(declaring));
+    }
+
+    private static boolean hasLombokGetter(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final Element annotation = mirror.getAnnotationType().asElement();
+            if (LOMBOK_GETTERS.contains(((TypeElement) annotation).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> excludedFields(TypeElement type) {
+        final Set<String> excluded = new HashSet<>();
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(LOG_PROPERTIES)) {
+                continue;
+            }
+            mirror.getElementValues().forEach((key, value) -> {
+                if (key.getSimpleName().contentEquals("exclude")) {
+                    for (Object item : (List<?>) value.getValue()) {
+                        excluded.add((String) ((AnnotationValue) item).getValue());
+                    }
+                }
+            });
+        }
+        return excluded;
+    }
+
+    private static PackageElement packageOf(Element element) {
+        Element current = element;
+        while (current.getKind() != ElementKind.PACKAGE) {
+            current = current.getEnclosingElement();
+        }
+        return (PackageElement) current;
+    }
+
+    /**
+     * Names the converter after the class and the classes enclosing it, e.g.
+     * <code>Order_LinePropertiesConverter</code>.
+     */
+    static String converterName(TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element outer = type.getEnclosingElement(); outer.getKind() != ElementKind.PACKAGE;
+             outer = outer.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, outer.getSimpleName());
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    static String source(String packageName, String simpleName, String typeName,
+                         List<String> names, List<String> reads) {
+        final StringBuilder src = new StringBuilder(1024);
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import org.slog4j.format.PropertySink;\n")
+            .append("import org.slog4j.format.PropertySinkConverter;\n\n")
+            .append("/**\n * Generated by slog4j-processor from {@link ").append(typeName).append("}.\n */\n")
+            .append("public final class ").append(simpleName).append(" implements PropertySinkConverter {\n\n")
+            .append("    @Override\n")
+            .append("    public Class<?> getEffectiveType() {\n")
+            .append("        return ").append(typeName).append(".class;\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public void writeTo(Object object, PropertySink sink) {\n")
+            .append("        final ").append(typeName).append(" value = (").append(typeName).append(") object;\n");
+        for (int i = 0; i < names.size(); i++) {
+            // the overload is chosen by the field type: primitives are never boxed
+            src.append("        sink.put(\"").append(names.get(i)).append("\", ").append(reads.get(i)).append(");\n");
+        }
+        return src.append("    }\n")
+            .append("}\n")
+            .toString();
+    }
+
+    private void writeRegistry() {
+        final Set<String> listed = new TreeSet<>(converters);
+        final String extra = processingEnv.getOptions().get(CONVERTERS_OPTION);
+        if (extra != null) {
+            for (String name : extra.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    listed.add(name.trim());
+                }
+            }
+        }
+        Map<String, Object> config = null;
+        final String configFile = processingEnv.getOptions().get(CONFIG_OPTION);
+        if (configFile != null) {
+            try (InputStream in = Files.newInputStream(Paths.get(configFile))) {
+                config = RegistrySource.parseConfig(in);
+            } catch (IOException | RuntimeException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "can't read " + configFile + ": " + e);
+                return;
+            }
+        }
+        final String className = REGISTRY_PACKAGE + '.' + REGISTRY_NAME;
+        try (Writer out = processingEnv.getFiler().createSourceFile(className).openWriter()) {
+            out.write(RegistrySource.source(REGISTRY_PACKAGE, REGISTRY_NAME, listed, config,
+                REGISTRY_COMPLETE.equals(processingEnv.getOptions().get(REGISTRY_OPTION))));
+        } catch (IOException | IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "can't write " + className + ": " + e);
+        }
+    }
+
+    private void writeServiceFile() {
+        if (converters.isEmpty()) {
+            return;
+        }
+        // the file replaces any hand-written one, whose converters must then be listed too
+        final Set<String> listed = new TreeSet<>(converters);
+        readServiceFile(StandardLocation.CLASS_OUTPUT, listed);
+        readServiceFile(StandardLocation.SOURCE_PATH, listed);
+        try {
+            final FileObject file = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer out = file.openWriter()) {
+                for (String converter : listed) {
+                    out.write(converter);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "can't write " + SERVICE_FILE + ": " + e);
+        }
+    }
+
+    /**
+     * Adds the converters listed by an existing service file, e.g. copied from the resources to the class output.
+     */
+    private void readServiceFile(StandardLocation location, Set<String> listed) {
+        try {
+            final FileObject file = processingEnv.getFiler().getResource(location, "", SERVICE_FILE);
+            try (BufferedReader in = new BufferedReader(file.openReader(true))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    final int comment = line.indexOf('#');
+                    final String name = ((comment < 0) ? line : line.substring(0, comment)).trim();
+                    if (!name.isEmpty()) {
+                        listed.add(name);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no such file, or a location the compiler doesn't have
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,133 @@
+package org.slog4j.processor;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the source of the <code>BuildTimeRegistry</code> of an application.
+ */
+final class RegistrySource {
+
+    private RegistrySource() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseConfig(InputStream in) {
+        final Object config = new Yaml().load(in);
+        if (config == null) {
+            return null;
+        }
+        if (!(config instanceof Map)) {
+            throw new IllegalArgumentException("the configuration must be a map");
+        }
+        return (Map<String, Object>) config;
+    }
+
+    static String source(String packageName, String simpleName, Collection<String> converters,
+                         Map<String, Object> config, boolean complete) {
+        final StringBuilder src = new StringBuilder(1024);
+        src.append("package ").append(packageName).append(";\n\n")
+            .append("import org.slog4j.format.BuildTimeRegistry;\n")
+            .append("import org.slog4j.format.Formatter;\n\n")
+            .append("import java.util.Arrays;\n")
+            .append("import java.util.LinkedHashMap;\n")
+            .append("import java.util.List;\n")
+            .append("import java.util.Map;\n\n")
+            .append("/**\n * Generated by slog4j-processor.\n */\n")
+            .append("public final class ").append(simpleName).append(" implements BuildTimeRegistry {\n\n")
+            .append("    @Override\n")
+            .append("    public List<Object> converters() {\n")
+            .append("        return Arrays.asList(");
+        String separator = "";
+        for (String converter : converters) {
+            src.append(separator).append("\n            new ").append(converter).append("()");
+            separator = ",";
+        }
+        src.append(");\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public Map<String, Object> configuration() {\n")
+            .append("        return ").append((config == null) ? "null" : literal(config)).append(";\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public Formatter newFormatter() {\n");
+        final Object formatter = (config == null) ? null : config.get("formatter");
+        if (formatter instanceof String) {
+            // instantiated directly, so that a misspelled formatter fails the build
+            src.append("        return new ").append(formatter).append("();\n");
+        } else {
+            src.append("        return null;\n");
+        }
+        return src.append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public boolean complete() {\n")
+            .append("        return ").append(complete).append(";\n")
+            .append("    }\n\n")
+            .append("    private static Map<String, Object> map(Object... entries) {\n")
+            .append("        final Map<String, Object> map = new LinkedHashMap<>();\n")
+            .append("        for (int i = 0; i < entries.length; i += 2) {\n")
+            .append("            map.put((String) entries[i], entries[i + 1]);\n")
+            .append("        }\n")
+            .append("        return map;\n")
+            .append("    }\n")
+            .append("}\n")
+            .toString();
+    }
+
+    /**
+     * Gets the expression creating a value of the configuration, as parsed by SnakeYAML.
+     */
+    static String literal(Object value) {
+        if ((value == null) || (value instanceof Boolean)) {
+            return String.valueOf(value);
+        } else if (value instanceof Integer) {
+            return "(Object) " + value;
+        } else if (value instanceof Long) {
+            return "(Object) " + value + 'L';
+        } else if (value instanceof Double) {
+            return "(Object) " + value + 'd';
+        } else if (value instanceof String) {
+            return quote((String) value);
+        } else if (value instanceof Map) {
+            final StringBuilder map = new StringBuilder("map(");
+            String separator = "";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.append(separator).append(quote(String.valueOf(entry.getKey())))
+                    .append(", ").append(literal(entry.getValue()));
+                separator = ", ";
+            }
+            return map.append(')').toString();
+        } else if (value instanceof List) {
+            final StringBuilder list = new StringBuilder("Arrays.<Object>asList(");
+            String separator = "";
+            for (Object item : (List<?>) value) {
+                list.append(separator).append(literal(item));
+                separator = ", ";
+            }
+            return list.append(')').toString();
+        }
+        throw new IllegalArgumentException("unsupported configuration value: " + value);
+    }
+
+    private static String quote(String text) {
+        final StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if ((c == '"') || (c == '\\')) {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                // octal, as unicode escapes of line terminators would end the literal
+                quoted.append(String.format("\\%03o", (int) c));
+            } else if (c > '~') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,287 @@
+package org.slog4j.processor
+
+import org.slf4j.event.Level
+import org.slog4j.format.BuildTimeRegistry
+import org.slog4j.format.JsonFormatter
+import org.slog4j.format.TextFormatter
+import org.slog4j.format.ToPropertiesConverter
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import javax.tools.ToolProvider
+import java.nio.file.Files
+import java.nio.file.Path
+
+class LogPropertiesProcessorSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    static final ORDER = '''
+        package com.acme;
+
+        import org.slog4j.format.LogProperties;
+
+        @LogProperties(exclude = "secret")
+        public class Order {
+            long id;
+            private String customer;
+            private boolean paid;
+            private String secret;
+            static int count;
+            transient Object cache;
+
+            public Order(long id, String customer, boolean paid, String secret) {
+                this.id = id;
+                this.customer = customer;
+                this.paid = paid;
+                this.secret = secret;
+            }
+
+            public String getCustomer() {
+                return customer;
+            }
+
+            public boolean isPaid() {
+                return paid;
+            }
+
+            @LogProperties
+            public static class Line {
+                public String sku = "A1";
+                public int qty = 2;
+                public char size = 'M';
+            }
+        }
+        '''
+
+    static final ORDER_ID = '''
+        package com.acme;
+
+        import org.slog4j.format.TypedToStringConverter;
+
+        public class OrderIdConverter implements TypedToStringConverter<Long> {
+            public Class<?> getEffectiveType() {
+                return Long.class;
+            }
+
+            public String convertToString(Long id) {
+                return "#" + id;
+            }
+        }
+        '''
+
+    def 'converters are generated and registered'() {
+        given:
+            def loader = compile('com/acme/Order.java': ORDER)
+            def order = loader.loadClass('com.acme.Order').newInstance(42L, 'John Smith', true, 'hunter2')
+            def line = loader.loadClass('com.acme.Order$Line').newInstance()
+
+        expect:
+            loader.findResource(LogPropertiesProcessor.SERVICE_FILE).text.readLines() ==
+                ['com.acme.OrderPropertiesConverter', 'com.acme.Order_LinePropertiesConverter']
+            converter(loader, 'com.acme.OrderPropertiesConverter').convert(order)
+                .collect { "$it.key=$it.value" as String } == ['id=42', 'customer=John Smith', 'paid=true']
+            formatWith(loader, order, line) ==
+                "evt=placed order=[id=42 customer='John Smith' paid=true] line=[sku=A1 qty=2 size=M]"
+    }
+
+    def 'hand-written converters are kept on the service file'() {
+        given: 'resources copied to the class output, as Maven does, and resources on the source path'
+            def copied = Files.createDirectories(dir.resolve('out/META-INF/services'))
+            copied.resolve('org.slog4j.format.ToPropertiesConverter').toFile().text =
+                '# written by hand\ncom.acme.MoneyConverter\n'
+            def resources = Files.createDirectories(dir.resolve('resources/META-INF/services'))
+            resources.resolve('org.slog4j.format.ToPropertiesConverter').toFile().text = 'com.acme.SkuConverter\n'
+
+        when:
+            def loader = compile(['com/acme/Order.java': ORDER], ['-sourcepath', dir.resolve('resources').toString()])
+
+        then:
+            loader.findResource(LogPropertiesProcessor.SERVICE_FILE).text.readLines() ==
+                ['com.acme.MoneyConverter', 'com.acme.OrderPropertiesConverter',
+                 'com.acme.Order_LinePropertiesConverter', 'com.acme.SkuConverter']
+    }
+
+    def 'char fields are put without boxing'() {
+        given:
+            def loader = compile('com/acme/Order.java': ORDER)
+            def line = loader.loadClass('com.acme.Order$Line').newInstance()
+            line.size = '"' as char
+
+        expect:
+            dir.resolve('out/com/acme/Order_LinePropertiesConverter.java').toFile().text
+                .contains('sink.put("size", value.size);')
+            withContextLoader(loader) { new JsonFormatter().format(Level.INFO, 'placed', 'line', line).string } ==
+                '{"evt":"placed","line":{"sku":"A1","qty":2,"size":"\\""}}'
+    }
+
+    def 'private fields need a getter'() {
+        when:
+            compile('Point.java': '''
+                @org.slog4j.format.LogProperties
+                public class Point {
+                    private int x;
+                }
+                ''')
+
+        then:
+            def e = thrown(IllegalStateException)
+            e.message.contains('private field without a getter: x')
+    }
+
+    def 'inherited fields are read before the fields of the class'() {
+        given:
+            def loader = compile([
+                'com/acme/Entity.java': '''
+                    package com.acme;
+
+                    public abstract class Entity {
+                        long id = 7;
+                        private String owner = "ops";
+                        protected String name = "base";
+
+                        public String getOwner() {
+                            return owner;
+                        }
+                    }
+                    ''',
+                'com/acme/Refund.java': '''
+                    package com.acme;
+
+                    @org.slog4j.format.LogProperties
+                    public class Refund extends Entity {
+                        protected String name = "refund";
+                        int amount = 12;
+                    }
+                    '''])
+
+        expect:
+            converter(loader, 'com.acme.RefundPropertiesConverter').convert(loader.loadClass('com.acme.Refund')
+                .newInstance()).collect { "$it.key=$it.value" as String } ==
+                ['id=7', 'owner=ops', 'name=refund', 'amount=12']
+    }
+
+    def 'inherited fields must be accessible from the package of the class'() {
+        when:
+            compile([
+                'com/acme/base/Entity.java': '''
+                    package com.acme.base;
+
+                    public abstract class Entity {
+                        protected long id;
+                    }
+                    ''',
+                'com/acme/Refund.java'     : '''
+                    package com.acme;
+
+                    @org.slog4j.format.LogProperties
+                    public class Refund extends com.acme.base.Entity {
+                    }
+                    '''])
+
+        then:
+            def e = thrown(IllegalStateException)
+            e.message.contains('inherited field not accessible from com.acme and without a getter: '
+                + 'com.acme.base.Entity.id')
+    }
+
+    def 'the registry lists the converters and the compiled configuration'() {
+        given:
+            def config = dir.resolve('slog4j.yml')
+            config.toFile().text = '''
+                formatter: org.slog4j.format.JsonFormatter
+                labels:
+                  eventId: "e\\tv"
+                context:
+                  app: shop
+                  big: 12345678901
+                '''.stripIndent()
+            def loader = compile(['com/acme/Order.java': ORDER, 'com/acme/OrderIdConverter.java': ORDER_ID],
+                ["-A$LogPropertiesProcessor.REGISTRY_OPTION", "-A$LogPropertiesProcessor.CONFIG_OPTION=$config",
+                 "-A$LogPropertiesProcessor.CONVERTERS_OPTION=com.acme.OrderIdConverter"])
+
+        when:
+            def registry = loader.loadClass(BuildTimeRegistry.CLASS_NAME).newInstance() as BuildTimeRegistry
+
+        then:
+            registry.converters()*.class*.name == ['com.acme.OrderIdConverter',
+                                                   'com.acme.OrderPropertiesConverter',
+                                                   'com.acme.Order_LinePropertiesConverter']
+            registry.configuration() == [formatter: 'org.slog4j.format.JsonFormatter', labels: [eventId: 'e\tv'],
+                                         context  : [app: 'shop', big: 12345678901L]]
+            registry.newFormatter() instanceof JsonFormatter
+            !registry.complete()
+    }
+
+    def 'the registry is written without any annotated class'() {
+        given:
+            def loader = compile(['Point.java': 'public class Point { int x; }'],
+                ["-A$LogPropertiesProcessor.REGISTRY_OPTION"])
+
+        when:
+            def registry = loader.loadClass(BuildTimeRegistry.CLASS_NAME).newInstance() as BuildTimeRegistry
+
+        then:
+            registry.converters().isEmpty()
+            registry.configuration() == null
+            registry.newFormatter() == null
+    }
+
+    def 'the registry declares it lists every converter when asked to'() {
+        given:
+            def loader = compile(['com/acme/Order.java': ORDER],
+                ["-A$LogPropertiesProcessor.REGISTRY_OPTION=$LogPropertiesProcessor.REGISTRY_COMPLETE"])
+
+        when:
+            def registry = loader.loadClass(BuildTimeRegistry.CLASS_NAME).newInstance() as BuildTimeRegistry
+
+        then:
+            registry.complete()
+            registry.converters()*.class*.name == ['com.acme.OrderPropertiesConverter',
+                                                   'com.acme.Order_LinePropertiesConverter']
+    }
+
+    private URLClassLoader compile(Map<String, String> sources, List<String> options = []) {
+        def src = Files.createDirectories(dir.resolve('src'))
+        def out = Files.createDirectories(dir.resolve('out'))
+        def files = sources.collect { name, text ->
+            def file = src.resolve(name)
+            Files.createDirectories(file.parent)
+            file.toFile().text = text
+            file.toString()
+        }
+        def errors = new ByteArrayOutputStream()
+        def status = ToolProvider.systemJavaCompiler.run(null, null, errors,
+            ['-cp', System.getProperty('java.class.path'), '-processor', LogPropertiesProcessor.name,
+             '-d', out.toString(), '-s', out.toString(), *options, *files] as String[])
+        if (status != 0) {
+            throw new IllegalStateException(errors.toString())
+        }
+        new URLClassLoader([out.toUri().toURL()] as URL[], getClass().classLoader)
+    }
+
+    /**
+     * Formats with a new formatter, that finds the registered converters through the context class loader.
+     */
+    private static String formatWith(ClassLoader loader, Object order, Object line) {
+        withContextLoader(loader) {
+            new TextFormatter().format(Level.INFO, 'placed', 'order', order, 'line', line).string
+        }
+    }
+
+    private static <T> T withContextLoader(ClassLoader loader, Closure<T> action) {
+        def thread = Thread.currentThread()
+        def previous = thread.contextClassLoader
+        thread.contextClassLoader = loader
+        try {
+            action()
+        } finally {
+            thread.contextClassLoader = previous
+        }
+    }
+
+    private static ToPropertiesConverter converter(ClassLoader loader, String name) {
+        loader.loadClass(name).newInstance() as ToPropertiesConverter
+    }
+}
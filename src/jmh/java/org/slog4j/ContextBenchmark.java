@@ -0,0 +1,35 @@
+package org.slog4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slog4j.format.TextFormatter;
+
+/**
+ * Cost of the properties of a context logger, copied already rendered, compared with passing them with every event.
+ */
+@State(Scope.Thread)
+public class ContextBenchmark {
+
+    private SLogger slog;
+    private SLogger requestLog;
+
+    @Setup
+    public void setUp() {
+        slog = SLoggerFactory.getLogger(new EnabledNopLogger("bench"), new TextFormatter());
+        requestLog = slog.with("requestId", "7f2c9a41e3b04d5c", "tenant", "acme corp", "service", "checkout",
+            "host", "ip-10-0-3-17", "version", "2.14.1");
+    }
+
+    @Benchmark
+    public void withContext() {
+        requestLog.info("ORDER_PLACED", "orderId", 1234L);
+    }
+
+    @Benchmark
+    public void passedEveryTime() {
+        slog.info("ORDER_PLACED", "requestId", "7f2c9a41e3b04d5c", "tenant", "acme corp", "service", "checkout",
+            "host", "ip-10-0-3-17", "version", "2.14.1", "orderId", 1234L);
+    }
+}
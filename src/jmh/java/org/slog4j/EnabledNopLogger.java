@@ -0,0 +1,165 @@
+package org.slog4j;
+
+import org.slf4j.helpers.MarkerIgnoringBase;
+
+/**
+ * A logger that is enabled for every level but discards every message, so benchmarks measure the whole SLog4j path
+ * without any backend I/O.
+ */
+final class EnabledNopLogger extends MarkerIgnoringBase {
+    private static final long serialVersionUID = -6454936282925617164L;
+
+    EnabledNopLogger(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return true;
+    }
+
+    @Override
+    public void trace(String msg) {
+        // discarded
+    }
+
+    @Override
+    public void trace(String format, Object arg) {
+        // discarded
+    }
+
+    @Override
+    public void trace(String format, Object arg1, Object arg2) {
+        // discarded
+    }
+
+    @Override
+    public void trace(String format, Object... arguments) {
+        // discarded
+    }
+
+    @Override
+    public void trace(String msg, Throwable t) {
+        // discarded
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return true;
+    }
+
+    @Override
+    public void debug(String msg) {
+        // discarded
+    }
+
+    @Override
+    public void debug(String format, Object arg) {
+        // discarded
+    }
+
+    @Override
+    public void debug(String format, Object arg1, Object arg2) {
+        // discarded
+    }
+
+    @Override
+    public void debug(String format, Object... arguments) {
+        // discarded
+    }
+
+    @Override
+    public void debug(String msg, Throwable t) {
+        // discarded
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public void info(String msg) {
+        // discarded
+    }
+
+    @Override
+    public void info(String format, Object arg) {
+        // discarded
+    }
+
+    @Override
+    public void info(String format, Object arg1, Object arg2) {
+        // discarded
+    }
+
+    @Override
+    public void info(String format, Object... arguments) {
+        // discarded
+    }
+
+    @Override
+    public void info(String msg, Throwable t) {
+        // discarded
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public void warn(String msg) {
+        // discarded
+    }
+
+    @Override
+    public void warn(String format, Object arg) {
+        // discarded
+    }
+
+    @Override
+    public void warn(String format, Object arg1, Object arg2) {
+        // discarded
+    }
+
+    @Override
+    public void warn(String format, Object... arguments) {
+        // discarded
+    }
+
+    @Override
+    public void warn(String msg, Throwable t) {
+        // discarded
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    public void error(String msg) {
+        // discarded
+    }
+
+    @Override
+    public void error(String format, Object arg) {
+        // discarded
+    }
+
+    @Override
+    public void error(String format, Object arg1, Object arg2) {
+        // discarded
+    }
+
+    @Override
+    public void error(String format, Object... arguments) {
+        // discarded
+    }
+
+    @Override
+    public void error(String msg, Throwable t) {
+        // discarded
+    }
+}
@@ -0,0 +1,87 @@
+package org.slog4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.helpers.NOPLogger;
+import org.slog4j.format.EventTemplate;
+import org.slog4j.format.TextFormatter;
+
+import java.net.InetSocketAddress;
+
+/**
+ * End-to-end cost of {@link Slf4jSLogger} calls: an enabled level against a backend that discards every message, and
+ * a disabled level, which must stay close to free.
+ */
+@State(Scope.Thread)
+public class SLoggerBenchmark {
+
+    private SLogger enabled;
+    private SLogger disabled;
+
+    private static final EventTemplate NEW_CLIENT =
+        SLogger.template("NEW_CLIENT", "port", "from", "protocol", "resumption");
+
+    private InetSocketAddress from;
+    private RuntimeException  exception;
+
+    @Setup
+    public void setUp() {
+        TextFormatter formatter = new TextFormatter();
+        enabled = SLoggerFactory.getLogger(new EnabledNopLogger("bench"), formatter);
+        disabled = SLoggerFactory.getLogger(NOPLogger.NOP_LOGGER, formatter);
+        from = new InetSocketAddress("10.34.21.34", 49694);
+        exception = new RuntimeException("an ordinary unchecked exception");
+    }
+
+    @Benchmark
+    public void infoEventOnly() {
+        enabled.info("CONNECT");
+    }
+
+    @Benchmark
+    public void infoNameValue() {
+        enabled.info("SSL_CONNECT", "protocol", "tlsv1.2");
+    }
+
+    @Benchmark
+    public void infoObjects() {
+        enabled.info("NEW_CLIENT", "port", 4433, "from", from, "protocol", "tls1.1", "resumption", false);
+    }
+
+    @Benchmark
+    public void infoTemplate() {
+        enabled.info(NEW_CLIENT, 4433, from, "tls1.1", false);
+    }
+
+    @Benchmark
+    public void infoBuilder() {
+        enabled.atInfo("NEW_CLIENT")
+            .with("port", 4433)
+            .with("from", from)
+            .with("protocol", "tls1.1")
+            .with("resumption", false)
+            .log();
+    }
+
+    @Benchmark
+    public void errorWithThrowable() {
+        enabled.error("USER_CREATION_FAILED", "user", "james@example.com", exception);
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        disabled.debug("NEW_CLIENT", "port", 4433, "from", from, "protocol", "tls1.1", "resumption", false);
+    }
+
+    @Benchmark
+    public void debugBuilderDisabled() {
+        disabled.atDebug("NEW_CLIENT")
+            .with("port", 4433)
+            .with("from", from)
+            .with("protocol", "tls1.1")
+            .with("resumption", false)
+            .log();
+    }
+}
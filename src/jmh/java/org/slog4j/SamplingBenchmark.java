@@ -0,0 +1,41 @@
+package org.slog4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slog4j.format.TextFormatter;
+
+/**
+ * Cost of events suppressed by a {@link SamplingSLogger}, compared with the events it lets through, which must stay
+ * close to an unsampled logger.
+ */
+@State(Scope.Thread)
+public class SamplingBenchmark {
+
+    private SLogger unsampled;
+    private SLogger sampled;
+
+    @Setup
+    public void setUp() {
+        unsampled = SLoggerFactory.getLogger(new EnabledNopLogger("bench"), new TextFormatter());
+        sampled = new SamplingSLogger.Builder()
+            .rule("RETRY", SamplingRule.perSecond(1))
+            .wrap(unsampled);
+    }
+
+    @Benchmark
+    public void withoutRule() {
+        sampled.info("SSL_CONNECT", "protocol", "tlsv1.2");
+    }
+
+    @Benchmark
+    public void suppressed() {
+        sampled.info("RETRY", "attempt", 3);
+    }
+
+    @Benchmark
+    public void unwrapped() {
+        unsampled.info("SSL_CONNECT", "protocol", "tlsv1.2");
+    }
+}
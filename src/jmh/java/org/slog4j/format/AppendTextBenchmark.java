@@ -0,0 +1,51 @@
+package org.slog4j.format;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of rendering a single string value, with and without quoting/escaping, for every predefined
+ * {@link EscapePolicy}.
+ */
+@State(Scope.Thread)
+public class AppendTextBenchmark {
+
+    @Param({"plain", "quoted", "escaped"})
+    public String kind;
+
+    @Param({"logstash_kv", "logfmt", "json"})
+    public String policyName;
+
+    private EscapePolicy     policy;
+
+    private String           value;
+    private StrBuilderResult sbr;
+
+    @Setup
+    public void setUp() {
+        switch (kind) {
+            case "plain":
+                value = "server4.datacenter-east.example.com";
+                break;
+            case "quoted":
+                value = "ACCEPT TCP 10.10.15.250:38028 -> 54.225.214.228:443";
+                break;
+            case "escaped":
+                value = "['the' error]\nat line 'one'\r\n";
+                break;
+            default:
+                throw new IllegalArgumentException(kind);
+        }
+        policy = EscapePolicy.named(policyName);
+        sbr = new StrBuilderResult(128);
+    }
+
+    @Benchmark
+    public StrBuilderResult appendText() {
+        sbr.clear();
+        return policy.appendTo(sbr, value);
+    }
+}
@@ -0,0 +1,69 @@
+package org.slog4j.format;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.event.Level;
+import org.slog4j.types.LongId;
+
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Cost of writing the same event to a byte buffer as UTF-8 text and as a binary record whose names are already
+ * defined.
+ */
+@State(Scope.Thread)
+public class BinaryFormatterBenchmark {
+
+    private PureTextFormatter textFormatter;
+    private BinaryFormatter   binaryFormatter;
+    private Object[]          props;
+    private ByteBuffer        out;
+
+    @Setup
+    public void setUp() {
+        final Clock clock = Clock.fixed(Instant.ofEpochMilli(1506397907801L), ZoneOffset.UTC);
+        textFormatter = new PureTextFormatter(clock);
+        binaryFormatter = new BinaryFormatter(clock);
+        props = new Object[]{
+            "port", 4433,
+            "from", new InetSocketAddress("10.34.21.34", 49694),
+            "protocol", "tls1.1",
+            "traceId", new LongId(0x69e3d3a6db5b8241L),
+            "message", "ACCEPT TCP 10.10.15.250:38028 -> 54.225.214.228:443",
+            "resumption", false,
+        };
+        out = ByteBuffer.allocate(4096);
+        binary();
+    }
+
+    @Benchmark
+    public int text() {
+        final Formatter.Result result = textFormatter.format(Level.INFO, "NEW_CLIENT", props);
+        try {
+            ((Buffer) out).clear();
+            out.put(result.getString().getBytes(StandardCharsets.UTF_8));
+            return out.position();
+        } finally {
+            result.clear();
+        }
+    }
+
+    @Benchmark
+    public int binary() {
+        final BinaryResult result = (BinaryResult) binaryFormatter.format(Level.INFO, "NEW_CLIENT", props);
+        try {
+            ((Buffer) out).clear();
+            return result.writeTo(out);
+        } finally {
+            result.clear();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.slog4j.format;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Cost of borrowing a buffer, formatting a small event and returning it, for every predefined {@link BufferPool},
+ * with more threads than cores.
+ */
+@State(Scope.Benchmark)
+@Threads(16)
+public class BufferPoolBenchmark {
+
+    @Param({"threadLocal", "striped", "carrierAware"})
+    public String poolName;
+
+    private BufferPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = BufferPool.named(poolName, StrBuilderResultFactory.DEFAULT_INITIAL_CAPACITY,
+            StrBuilderResult.DEFAULT_MAX_RETAINED_CAPACITY);
+    }
+
+    @Benchmark
+    public int acquireAndRelease() {
+        final StrBuilderResult sbr = pool.acquire();
+        try {
+            return sbr.append("evt=REQUEST_RECV id=").append(42L).length();
+        } finally {
+            sbr.clear();
+        }
+    }
+}
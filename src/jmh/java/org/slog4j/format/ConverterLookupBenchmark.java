@@ -0,0 +1,86 @@
+package org.slog4j.format;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slog4j.types.LongId;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+
+/**
+ * Cost of resolving converters: hits on a registered type, hits on a subtype of a registered type and misses, all of
+ * which are answered from the per-formatter render plan cache after the first lookup.
+ */
+@State(Scope.Thread)
+public class ConverterLookupBenchmark {
+
+    static final class Unconvertible {
+    }
+
+    private TextFormatter formatter;
+
+    private LongId            longId;
+    private InetSocketAddress address;
+
+    private final StrBuilderResult           sbr              = new StrBuilderResult(64);
+    private final LongIdConverter            longIdConverter  = new LongIdConverter();
+    private final InetSocketAddressConverter addressConverter = new InetSocketAddressConverter();
+
+    @Setup
+    public void setUp() {
+        formatter = new TextFormatter();
+        longId = new LongId(0x69e3d3a6db5b8241L);
+        address = new InetSocketAddress("10.34.21.34", 49694);
+    }
+
+    @Benchmark
+    public ToPropertiesConverter propertiesConverterHit() {
+        return formatter.propertiesConverter(HashMap.class);
+    }
+
+    @Benchmark
+    public ToPropertiesConverter propertiesConverterMiss() {
+        return formatter.propertiesConverter(Unconvertible.class);
+    }
+
+    @Benchmark
+    public BaseFormatter.RenderPlan renderPlanConverted() {
+        return formatter.renderPlan(LongId.class);
+    }
+
+    @Benchmark
+    public BaseFormatter.RenderPlan renderPlanComplex() {
+        return formatter.renderPlan(Unconvertible.class);
+    }
+
+    @Benchmark
+    public String convertLongId() {
+        return formatter.convertToString(longId);
+    }
+
+    @Benchmark
+    public String convertInetSocketAddress() {
+        return formatter.convertToString(address);
+    }
+
+    @Benchmark
+    public StrBuilderResult appendLongId() {
+        sbr.clear();
+        longIdConverter.appendTo(longId, sbr);
+        return sbr;
+    }
+
+    @Benchmark
+    public StrBuilderResult appendInetSocketAddress() {
+        sbr.clear();
+        addressConverter.appendTo(address, sbr);
+        return sbr;
+    }
+
+    @Benchmark
+    public String convertInteger() {
+        return formatter.convertToString(4433);
+    }
+}
@@ -0,0 +1,91 @@
+package org.slog4j.format;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.event.Level;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cost of formatting the same object through a converter that returns its properties as a map and through one that
+ * writes them into a {@link PropertySink}.
+ */
+@State(Scope.Thread)
+public class PropertySinkBenchmark {
+
+    static final class Order {
+        final long   id       = 42L;
+        final String customer = "John Smith";
+        final double amount   = 12.5d;
+        final int    items    = 3;
+    }
+
+    static final class IterableOrderConverter implements ToPropertiesConverter {
+        @Override
+        public Class<?> getEffectiveType() {
+            return Order.class;
+        }
+
+        @Override
+        public Iterable<Map.Entry<String, Object>> convert(Object object) {
+            final Order order = (Order) object;
+            final Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("id", order.id);
+            properties.put("customer", order.customer);
+            properties.put("amount", order.amount);
+            properties.put("items", order.items);
+            return properties.entrySet();
+        }
+    }
+
+    static final class SinkOrderConverter implements PropertySinkConverter {
+        @Override
+        public Class<?> getEffectiveType() {
+            return Order.class;
+        }
+
+        @Override
+        public void writeTo(Object object, PropertySink sink) {
+            final Order order = (Order) object;
+            sink.put("id", order.id)
+                .put("customer", order.customer)
+                .put("amount", order.amount)
+                .put("items", order.items);
+        }
+    }
+
+    private TextFormatter iterableFormatter;
+    private TextFormatter sinkFormatter;
+    private Order         order;
+
+    @Setup
+    public void setUp() {
+        iterableFormatter = new TextFormatter();
+        iterableFormatter.registerToPropertiesConverter(Order.class, new IterableOrderConverter());
+        sinkFormatter = new TextFormatter();
+        sinkFormatter.registerToPropertiesConverter(Order.class, new SinkOrderConverter());
+        order = new Order();
+    }
+
+    @Benchmark
+    public int iterable() {
+        return format(iterableFormatter);
+    }
+
+    @Benchmark
+    public int sink() {
+        return format(sinkFormatter);
+    }
+
+    private int format(Formatter formatter) {
+        final Formatter.Result result = formatter.format(Level.INFO, "ORDER_PLACED", "order", order);
+        try {
+            return result.getString().length();
+        } finally {
+            result.clear();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.slog4j.format;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.event.Level;
+import org.slog4j.types.LongId;
+
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cost of every {@link Formatter#format} overload, including the {@link Formatter.Result#getString()} done by
+ * {@code Slf4jSLogger} and the {@link Formatter.Result#clear()} that hands the buffer back.
+ */
+@State(Scope.Thread)
+public class TextFormatterBenchmark {
+
+    private TextFormatter     textFormatter;
+    private PureTextFormatter pureTextFormatter;
+
+    private Map<String, Object> parameters;
+    private Object[]            props;
+    private EventTemplate       template;
+    private Object[]            values;
+
+    @Setup
+    public void setUp() {
+        textFormatter = new TextFormatter();
+        pureTextFormatter = new PureTextFormatter(Clock.fixed(Instant.ofEpochMilli(1506397907801L), ZoneOffset.UTC));
+        parameters = new LinkedHashMap<>();
+        parameters.put("readerFW", "2.100");
+        parameters.put("readerModel", "RC700");
+        parameters.put("readerSN", 2147490583L);
+        props = new Object[]{
+            "port", 4433,
+            "from", new InetSocketAddress("10.34.21.34", 49694),
+            "protocol", "tls1.1",
+            "traceId", new LongId(0x69e3d3a6db5b8241L),
+            "message", "ACCEPT TCP 10.10.15.250:38028 -> 54.225.214.228:443",
+            "resumption", false,
+        };
+        template = EventTemplate.of("NEW_CLIENT", "port", "from", "protocol", "traceId", "message", "resumption");
+        values = new Object[]{
+            4433,
+            new InetSocketAddress("10.34.21.34", 49694),
+            "tls1.1",
+            new LongId(0x69e3d3a6db5b8241L),
+            "ACCEPT TCP 10.10.15.250:38028 -> 54.225.214.228:443",
+            false,
+        };
+    }
+
+    @Benchmark
+    public void formatEventOnly(Blackhole bh) {
+        consume(bh, textFormatter.format(Level.INFO, "CONNECT"));
+    }
+
+    @Benchmark
+    public void formatObject(Blackhole bh) {
+        consume(bh, textFormatter.format(Level.INFO, "REQUEST_RECV", parameters));
+    }
+
+    @Benchmark
+    public void formatNameValue(Blackhole bh) {
+        consume(bh, textFormatter.format(Level.INFO, "SSL_CONNECT", "protocol", "tlsv1.2"));
+    }
+
+    @Benchmark
+    public void formatObjects(Blackhole bh) {
+        consume(bh, textFormatter.format(Level.INFO, "NEW_CLIENT", props));
+    }
+
+    @Benchmark
+    public void formatTemplate(Blackhole bh) {
+        consume(bh, textFormatter.format(Level.INFO, template, values));
+    }
+
+    @Benchmark
+    public void pureTextFormatEventOnly(Blackhole bh) {
+        consume(bh, pureTextFormatter.format(Level.INFO, "CONNECT"));
+    }
+
+    @Benchmark
+    public void pureTextFormatObjects(Blackhole bh) {
+        consume(bh, pureTextFormatter.format(Level.INFO, "NEW_CLIENT", props));
+    }
+
+    private static void consume(Blackhole bh, Formatter.Result result) {
+        bh.consume(result.getString());
+        result.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package org.slog4j.format;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Cost of rendering the current time: the cached {@link TimestampRenderer} at every precision against formatting it
+ * with {@link BaseFormatter#FORMAT_ISO8601_MILLIS}.
+ */
+@State(Scope.Thread)
+public class TimestampBenchmark {
+
+    private final StrBuilderResult sbr   = new StrBuilderResult(64);
+    private final Clock            clock = Clock.systemDefaultZone();
+
+    private TimestampRenderer millis;
+    private TimestampRenderer micros;
+    private TimestampRenderer epochMillis;
+
+    @Setup
+    public void setUp() {
+        millis = new TimestampRenderer(clock, ZoneId.systemDefault(), TimestampPrecision.MILLIS);
+        micros = new TimestampRenderer(clock, ZoneId.systemDefault(), TimestampPrecision.MICROS);
+        epochMillis = new TimestampRenderer(clock, ZoneId.systemDefault(), TimestampPrecision.EPOCH_MILLIS);
+    }
+
+    @Benchmark
+    public int fastDateFormat() {
+        sbr.clear();
+        return sbr.append(BaseFormatter.FORMAT_ISO8601_MILLIS.format(clock.millis())).length();
+    }
+
+    @Benchmark
+    public int rendererMillis() {
+        sbr.clear();
+        return millis.appendTo(sbr).length();
+    }
+
+    @Benchmark
+    public int rendererMicros() {
+        sbr.clear();
+        return micros.appendTo(sbr).length();
+    }
+
+    @Benchmark
+    public int rendererEpochMillis() {
+        sbr.clear();
+        return epochMillis.appendTo(sbr).length();
+    }
+}
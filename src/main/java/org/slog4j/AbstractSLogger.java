@@ -0,0 +1,162 @@
+package org.slog4j;
+
+import org.slf4j.event.Level;
+
+/**
+ * Base class for {@link SLogger} implementations that handle every level the same way: the level-specific methods
+ * check {@link #isEnabled(Level)} and delegate to the level-parameterized ones.
+ */
+public abstract class AbstractSLogger implements SLogger {
+
+    @Override
+    public abstract void log(Level level, String eventId, Object... objs);
+
+    @Override
+    public abstract void log(Level level, String eventId);
+
+    @Override
+    public abstract void log(Level level, String eventId, Object obj);
+
+    @Override
+    public abstract void log(Level level, String eventId, String name, Object value);
+
+    @Override
+    public void error(String eventId, Object... objs) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, eventId, objs);
+        }
+    }
+
+    @Override
+    public void error(String eventId) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, eventId);
+        }
+    }
+
+    @Override
+    public void error(String eventId, Object obj) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, eventId, obj);
+        }
+    }
+
+    @Override
+    public void error(String eventId, String name, Object value) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, eventId, name, value);
+        }
+    }
+
+    @Override
+    public void warn(String eventId, Object... objs) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, eventId, objs);
+        }
+    }
+
+    @Override
+    public void warn(String eventId) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, eventId);
+        }
+    }
+
+    @Override
+    public void warn(String eventId, Object obj) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, eventId, obj);
+        }
+    }
+
+    @Override
+    public void warn(String eventId, String name, Object value) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, eventId, name, value);
+        }
+    }
+
+    @Override
+    public void info(String eventId, Object... objs) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, eventId, objs);
+        }
+    }
+
+    @Override
+    public void info(String eventId) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, eventId);
+        }
+    }
+
+    @Override
+    public void info(String eventId, Object obj) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, eventId, obj);
+        }
+    }
+
+    @Override
+    public void info(String eventId, String name, Object value) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, eventId, name, value);
+        }
+    }
+
+    @Override
+    public void debug(String eventId, Object... objs) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, eventId, objs);
+        }
+    }
+
+    @Override
+    public void debug(String eventId) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, eventId);
+        }
+    }
+
+    @Override
+    public void debug(String eventId, Object obj) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, eventId, obj);
+        }
+    }
+
+    @Override
+    public void debug(String eventId, String name, Object value) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, eventId, name, value);
+        }
+    }
+
+    @Override
+    public void trace(String eventId, Object... objs) {
+        if (isEnabled(Level.TRACE)) {
+            log(Level.TRACE, eventId, objs);
+        }
+    }
+
+    @Override
+    public void trace(String eventId) {
+        if (isEnabled(Level.TRACE)) {
+            log(Level.TRACE, eventId);
+        }
+    }
+
+    @Override
+    public void trace(String eventId, Object obj) {
+        if (isEnabled(Level.TRACE)) {
+            log(Level.TRACE, eventId, obj);
+        }
+    }
+
+    @Override
+    public void trace(String eventId, String name, Object value) {
+        if (isEnabled(Level.TRACE)) {
+            log(Level.TRACE, eventId, name, value);
+        }
+    }
+}
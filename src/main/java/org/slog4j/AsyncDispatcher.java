@@ -0,0 +1,372 @@
+package org.slog4j;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.event.Level;
+import org.slog4j.format.EventTemplate;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves formatting and dispatching of events off the calling threads.
+ *
+ * <p>
+ * Callers only copy the event id, the level and the argument references into a preallocated slot of a bounded
+ * ring buffer, which is drained by one or more consumer threads that hand every event to the {@link SLogger} it was
+ * logged on. Since arguments are formatted later, they must not be mutated after being logged. Events logged by the
+ * consumer threads themselves, e.g. by a delegate or a converter, are dispatched right away, since waiting for a slot
+ * could mean waiting for themselves.
+ *
+ * <pre>
+ * AsyncDispatcher dispatcher = new AsyncDispatcher(new AsyncDispatcher.Config().capacity(16384));
+ * SLogger slog = dispatcher.wrap(SLoggerFactory.getLogger(MyClass.class));
+ * </pre>
+ */
+public final class AsyncDispatcher implements Closeable {
+
+    /**
+     * What to do with an event when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait until a slot is released.
+         */
+        BLOCK,
+        /**
+         * Drop the event being logged.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the event being logged if its level is below {@link Config#dropThreshold()}, otherwise wait.
+         */
+        DROP_BELOW_LEVEL
+    }
+
+    @Getter
+    @Setter
+    @Accessors(fluent = true, chain = true)
+    public static final class Config {
+        /**
+         * Number of slots, rounded up to a power of 2.
+         */
+        private int            capacity       = 8192;
+        private int            consumers      = 1;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private Level          dropThreshold  = Level.WARN;
+        private String         threadName     = "slog4j-async";
+    }
+
+    private static final int  SPIN_TRIES     = 100;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long DROPPED = -1;
+    private static final long CLOSED  = -2;
+
+    static final int KIND_EVENT_ONLY = 0;
+    static final int KIND_OBJECT     = 1;
+    static final int KIND_NAME_VALUE = 2;
+    static final int KIND_OBJECTS    = 3;
+    static final int KIND_TEMPLATE   = 4;
+
+    private static final class Slot {
+        volatile long sequence;
+
+        SLogger  target;
+        Level    level;
+        int      kind;
+        String   eventId;
+        String   name;
+        Object   obj;
+        Object[] objs;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    private final Slot[]         slots;
+    private final int            mask;
+    private final OverflowPolicy overflowPolicy;
+    private final int            dropThreshold;
+    private final AtomicLong     tail = new AtomicLong();
+    private final AtomicLong     head = new AtomicLong();
+    private final Consumer[]     consumers;
+    private final LongAdder      dropped = new LongAdder();
+    private final LongAdder      failed  = new LongAdder();
+
+    private volatile boolean closed;
+
+    public AsyncDispatcher() {
+        this(new Config());
+    }
+
+    public AsyncDispatcher(Config config) {
+        if ((config.capacity() < 1) || (config.capacity() > (1 << 30))) {
+            throw new IllegalArgumentException("capacity out of range: " + config.capacity());
+        }
+        if (config.consumers() < 1) {
+            throw new IllegalArgumentException("at least one consumer is required");
+        }
+        int capacity = Integer.highestOneBit(config.capacity());
+        if (capacity < config.capacity()) {
+            capacity <<= 1;
+        }
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i);
+        }
+        mask = capacity - 1;
+        overflowPolicy = config.overflowPolicy();
+        dropThreshold = config.dropThreshold().toInt();
+        consumers = new Consumer[config.consumers()];
+        for (int i = 0; i < consumers.length; i++) {
+            consumers[i] = new Consumer(config.threadName() + "-" + i);
+        }
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    /**
+     * Creates a logger that queues its events to this dispatcher.
+     *
+     * @param delegate the logger that will format and dispatch the events on the consumer threads.
+     * @return the asynchronous logger.
+     */
+    public SLogger wrap(SLogger delegate) {
+        return new AsyncSLogger(delegate, this);
+    }
+
+    /**
+     * Gets the number of events dropped because the ring buffer was full.
+     *
+     * @return the number of dropped events.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of events whose dispatching failed on a consumer thread.
+     *
+     * @return the number of failed events.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Stops accepting new events, waits for the queued ones to be dispatched and stops the consumer threads. Events
+     * logged after closing are dispatched on the calling thread. If the calling thread is interrupted, it stops
+     * waiting for the consumers but still dispatches the queued events alongside them, and keeps its interrupt status.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+        boolean interrupted = false;
+        for (Consumer consumer : consumers) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                break;
+            }
+        }
+        drain();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Dispatches on the calling thread every event still queued, including the ones claimed but not yet published.
+     */
+    private void drain() {
+        while (head.get() != tail.get()) {
+            if (!consumeOne()) {
+                Thread.yield();
+            }
+        }
+    }
+
+    void publish(SLogger target, Level level, int kind, String eventId, String name, Object obj, Object[] objs) {
+        long pos = (closed || isConsumerThread()) ? CLOSED : claim(level);
+        if (pos == CLOSED) {
+            dispatch(target, level, kind, eventId, name, obj, objs);
+            return;
+        }
+        if (pos == DROPPED) {
+            dropped.increment();
+            return;
+        }
+        Slot slot = slots[(int) pos & mask];
+        slot.target = target;
+        slot.level = level;
+        slot.kind = kind;
+        slot.eventId = eventId;
+        slot.name = name;
+        slot.obj = obj;
+        slot.objs = objs;
+        slot.sequence = pos + 1;
+        if (closed) {
+            // the consumers may be gone already
+            drain();
+            return;
+        }
+        for (Consumer consumer : consumers) {
+            if (consumer.parked) {
+                LockSupport.unpark(consumer.thread);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Claims the next free slot, applying the overflow policy when the ring buffer is full.
+     *
+     * @return the position of the claimed slot, {@link #DROPPED} if the event must be dropped or {@link #CLOSED} if
+     * the dispatcher was closed while waiting.
+     */
+    private long claim(Level level) {
+        int tries = 0;
+        while (true) {
+            long pos = tail.get();
+            long available = slots[(int) pos & mask].sequence - pos;
+            if (available == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    return pos;
+                }
+            } else if (available < 0) {
+                // full
+                if ((overflowPolicy == OverflowPolicy.DROP_NEWEST)
+                    || ((overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL) && (level.toInt() < dropThreshold))) {
+                    return DROPPED;
+                }
+                if (closed) {
+                    return CLOSED;
+                }
+                backOff(++tries);
+            }
+        }
+    }
+
+    private boolean isConsumerThread() {
+        Thread current = Thread.currentThread();
+        for (Consumer consumer : consumers) {
+            if (consumer.thread == current) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void backOff(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(tries - SPIN_TRIES, 13)));
+        }
+    }
+
+    /**
+     * Takes the next published slot, if any, and dispatches its event.
+     *
+     * @return false if there was nothing to take.
+     */
+    private boolean consumeOne() {
+        while (true) {
+            long pos = head.get();
+            Slot slot = slots[(int) pos & mask];
+            long published = slot.sequence - (pos + 1);
+            if (published == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    SLogger target = slot.target;
+                    Level level = slot.level;
+                    int kind = slot.kind;
+                    String eventId = slot.eventId;
+                    String name = slot.name;
+                    Object obj = slot.obj;
+                    Object[] objs = slot.objs;
+                    slot.target = null;
+                    slot.obj = null;
+                    slot.objs = null;
+                    slot.sequence = pos + mask + 1;
+                    try {
+                        dispatch(target, level, kind, eventId, name, obj, objs);
+                    } catch (ThreadDeath e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        // a faulty converter or delegate must not stop the consumer, even with an Error
+                        failed.increment();
+                    }
+                    return true;
+                }
+            } else if (published < 0) {
+                return false;
+            }
+        }
+    }
+
+    private static void dispatch(SLogger target, Level level, int kind, String eventId, String name, Object obj,
+                                 Object[] objs) {
+        switch (kind) {
+            case KIND_EVENT_ONLY: target.log(level, eventId);                    break;
+            case KIND_OBJECT:     target.log(level, eventId, obj);               break;
+            case KIND_NAME_VALUE: target.log(level, eventId, name, obj);         break;
+            case KIND_TEMPLATE:   target.log(level, (EventTemplate) obj, objs);  break;
+            default:              target.log(level, eventId, objs);              break;
+        }
+    }
+
+    private boolean isEmpty() {
+        long pos = head.get();
+        return slots[(int) pos & mask].sequence != (pos + 1);
+    }
+
+    private boolean isDrained() {
+        return head.get() == tail.get();
+    }
+
+    private final class Consumer implements Runnable {
+        final Thread thread;
+
+        volatile boolean parked;
+
+        Consumer(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (true) {
+                if (consumeOne()) {
+                    idle = 0;
+                } else if (closed) {
+                    if (isDrained()) {
+                        return;
+                    }
+                    Thread.yield();
+                } else if (++idle < SPIN_TRIES) {
+                    Thread.yield();
+                } else {
+                    parked = true;
+                    // re-check after announcing, so a concurrent publish either sees the flag or is seen here
+                    if (isEmpty() && !closed) {
+                        LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                    }
+                    parked = false;
+                }
+            }
+        }
+    }
+}
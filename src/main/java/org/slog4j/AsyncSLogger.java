@@ -0,0 +1,59 @@
+package org.slog4j;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.event.Level;
+import org.slog4j.format.EventTemplate;
+
+import static org.slog4j.AsyncDispatcher.KIND_EVENT_ONLY;
+import static org.slog4j.AsyncDispatcher.KIND_NAME_VALUE;
+import static org.slog4j.AsyncDispatcher.KIND_OBJECT;
+import static org.slog4j.AsyncDispatcher.KIND_OBJECTS;
+import static org.slog4j.AsyncDispatcher.KIND_TEMPLATE;
+
+/**
+ * Queues enabled events to an {@link AsyncDispatcher}, whose consumer threads hand them to the delegate logger.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+class AsyncSLogger extends AbstractSLogger {
+    private final SLogger         delegate;
+    private final AsyncDispatcher dispatcher;
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return delegate.isEnabled(level);
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object... objs) {
+        dispatcher.publish(delegate, level, KIND_OBJECTS, eventId, null, null, objs);
+    }
+
+    @Override
+    public void log(Level level, String eventId) {
+        dispatcher.publish(delegate, level, KIND_EVENT_ONLY, eventId, null, null, null);
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object obj) {
+        dispatcher.publish(delegate, level, KIND_OBJECT, eventId, null, obj, null);
+    }
+
+    @Override
+    public void log(Level level, String eventId, String name, Object value) {
+        dispatcher.publish(delegate, level, KIND_NAME_VALUE, eventId, name, value, null);
+    }
+
+    @Override
+    public void log(Level level, EventTemplate template, Object... values) {
+        if (isEnabled(level)) {
+            dispatcher.publish(delegate, level, KIND_TEMPLATE, template.getEventId(), null, template, values);
+        }
+    }
+
+    @Override
+    public SLogger with(String name, Object value, Object... more) {
+        // the consumer threads add the context, already rendered by the formatter of the delegate
+        return new AsyncSLogger(delegate.with(name, value, more), dispatcher);
+    }
+}
@@ -0,0 +1,63 @@
+package org.slog4j;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.event.Level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the properties and logs them with {@link SLogger#log(Level, String, Object...)}: the fallback for loggers
+ * that cannot format incrementally, such as the asynchronous ones, which must keep the values anyway.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+final class BoxingEventBuilder implements EventBuilder {
+    private final SLogger target;
+    private final Level   level;
+    private final String  eventId;
+
+    private final List<Object> objs = new ArrayList<>();
+
+    @Override
+    public EventBuilder with(String name, long value) {
+        return add(name, value);
+    }
+
+    @Override
+    public EventBuilder with(String name, double value) {
+        return add(name, value);
+    }
+
+    @Override
+    public EventBuilder with(String name, boolean value) {
+        return add(name, value);
+    }
+
+    @Override
+    public EventBuilder with(String name, char value) {
+        return add(name, value);
+    }
+
+    @Override
+    public EventBuilder with(String name, Object value) {
+        return add(name, value);
+    }
+
+    @Override
+    public EventBuilder with(Object obj) {
+        objs.add(obj);
+        return this;
+    }
+
+    @Override
+    public void log() {
+        target.log(level, eventId, objs.toArray());
+    }
+
+    private EventBuilder add(String name, Object value) {
+        objs.add(name);
+        objs.add(value);
+        return this;
+    }
+}
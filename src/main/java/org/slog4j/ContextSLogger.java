@@ -0,0 +1,82 @@
+package org.slog4j;
+
+import org.slf4j.event.Level;
+import org.slog4j.format.EventTemplate;
+import org.slog4j.format.LogContext;
+
+/**
+ * The logger returned by {@link SLogger#with}. Over the SLF4J logger the formatter copies the already rendered
+ * context into every event; over any other logger the properties are passed before the objects of every event.
+ */
+final class ContextSLogger extends AbstractSLogger {
+    private final SLogger      delegate;
+    private final Slf4jSLogger slf4j;
+    private final LogContext   context;
+
+    ContextSLogger(SLogger delegate, LogContext context) {
+        this.delegate = delegate;
+        this.slf4j = (delegate instanceof Slf4jSLogger) ? (Slf4jSLogger) delegate : null;
+        this.context = context;
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return delegate.isEnabled(level);
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object... objs) {
+        if (slf4j != null) {
+            slf4j.log(level, context, eventId, objs);
+        } else {
+            delegate.log(level, eventId, context.toObjects(objs));
+        }
+    }
+
+    @Override
+    public void log(Level level, String eventId) {
+        log(level, eventId, new Object[0]);
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object obj) {
+        log(level, eventId, new Object[]{obj});
+    }
+
+    @Override
+    public void log(Level level, String eventId, String name, Object value) {
+        log(level, eventId, new Object[]{name, value});
+    }
+
+    @Override
+    public void log(Level level, EventTemplate template, Object... values) {
+        if (slf4j != null) {
+            slf4j.log(level, context, template, values);
+        } else if (isEnabled(level)) {
+            delegate.log(level, template.getEventId(), context.toObjects(template.toObjects(values)));
+        }
+    }
+
+    @Override
+    public EventBuilder at(Level level, String eventId) {
+        if (!isEnabled(level)) {
+            return NoopEventBuilder.INSTANCE;
+        }
+        if (slf4j != null) {
+            final EventBuilder builder = slf4j.at(level, context, eventId);
+            if (builder != null) {
+                return builder;
+            }
+        }
+        EventBuilder builder = delegate.at(level, eventId);
+        for (int i = 0; i < context.size(); i++) {
+            builder = builder.with(context.name(i), context.value(i));
+        }
+        return builder;
+    }
+
+    @Override
+    public SLogger with(String name, Object value, Object... more) {
+        return new ContextSLogger(delegate, context.plus(name, value, more));
+    }
+}
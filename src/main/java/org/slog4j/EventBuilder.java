@@ -0,0 +1,39 @@
+package org.slog4j;
+
+/**
+ * Builds an event one property at a time, avoiding the varargs array and the boxing of the <code>Object...</code>
+ * methods of {@link SLogger}:
+ *
+ * <pre>
+ * slog.atInfo("NEW_CLIENT").with("port", 4433).with("from", address).with("resumption", false).log();
+ * </pre>
+ *
+ * A builder is only valid until {@link #log()} is called and must not be kept nor shared between threads. When the
+ * level is disabled every method does nothing.
+ */
+public interface EventBuilder {
+
+    EventBuilder with(String name, long value);
+
+    EventBuilder with(String name, double value);
+
+    EventBuilder with(String name, boolean value);
+
+    EventBuilder with(String name, char value);
+
+    EventBuilder with(String name, Object value);
+
+    /**
+     * Adds a complex object, whose properties are merged into the event, or a throwable, as
+     * {@link SLogger#info(String, Object)} does.
+     *
+     * @param obj the object to add.
+     * @return this, to enable chaining.
+     */
+    EventBuilder with(Object obj);
+
+    /**
+     * Logs the event. Must be called exactly once.
+     */
+    void log();
+}
@@ -0,0 +1,518 @@
+package org.slog4j;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.event.Level;
+import org.slog4j.format.BinaryFormatter;
+import org.slog4j.format.BinaryResult;
+import org.slog4j.format.EventTemplate;
+import org.slog4j.format.Formatter;
+import org.slog4j.format.FormatterStats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes events straight to memory-mapped files, bypassing SLF4J and its backend.
+ *
+ * <p>
+ * Every event is formatted on the calling thread and copied into a region of the current file reserved with a single
+ * atomic add, so any number of threads append concurrently without locking. A new file is started when the current
+ * one is full or older than {@link Config#rollIntervalMillis()}, and a background thread forces the written pages to
+ * disk every {@link Config#forceIntervalMillis()}. With a {@link BinaryFormatter} every file defines its own
+ * dictionary and can be decoded on its own, so the formatter can't be used by another logger until this one is
+ * closed; with any other formatter, the lines are written as UTF-8 followed by the stack trace of the throwable, if
+ * any.
+ *
+ * <p>
+ * One instance owns its files, so it is meant to be shared by every class that logs to them:
+ *
+ * <pre>
+ * static final MappedFileSLogger AUDIT = new MappedFileSLogger(new BinaryFormatter(),
+ *     new MappedFileSLogger.Config().directory(Paths.get("/var/log/app")).baseName("audit"));
+ * </pre>
+ */
+public final class MappedFileSLogger extends AbstractSLogger implements Closeable {
+
+    @Getter
+    @Setter
+    @Accessors(fluent = true, chain = true)
+    public static final class Config {
+        private Path   directory           = Paths.get(".");
+        /**
+         * Files are named <code>baseName.N.bin</code> for a {@link BinaryFormatter} and <code>baseName.N.log</code>
+         * otherwise, N being the first index not used yet.
+         */
+        private String baseName            = "slog4j";
+        /**
+         * Size of every file, at most 2 GiB. Events that do not fit in a file are dropped.
+         */
+        private int    segmentSize         = 64 << 20;
+        /**
+         * Age after which a new file is started, or 0 to only roll when the file is full.
+         */
+        private long   rollIntervalMillis;
+        /**
+         * Interval between forces of the written pages to disk, or 0 to only force them when a file is completed.
+         */
+        private long   forceIntervalMillis = 1000;
+        private Level  level               = Level.INFO;
+        private String threadName          = "slog4j-mapped-file";
+    }
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The binary formatters of the open loggers: the dictionary of a formatter tracks what a single stream defined.
+     */
+    private static final Set<BinaryFormatter> CLAIMED = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private static final class Segment {
+        final Path             path;
+        final FileChannel      channel;
+        final MappedByteBuffer buffer;
+        final long             capacity;
+        /**
+         * Bytes reserved so far; beyond the capacity once the segment is sealed.
+         */
+        final AtomicLong       position = new AtomicLong();
+        final LongAdder        written  = new LongAdder();
+
+        /**
+         * Only used by the background thread.
+         */
+        long    rollAt;
+        long    forced;
+        boolean retired;
+
+        Segment(Path path, FileChannel channel, int capacity, long rollAt) throws IOException {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            this.capacity = capacity;
+            this.rollAt = rollAt;
+        }
+    }
+
+    private final Formatter       formatter;
+    private final BinaryFormatter binaryFormatter;
+    private final Path            directory;
+    private final String          baseName;
+    private final String          extension;
+    private final int             segmentSize;
+    private final long            rollIntervalMillis;
+    private final long            forceIntervalMillis;
+    private final int             level;
+    private final Thread          flusher;
+    private final AtomicInteger   retiring = new AtomicInteger();
+    private final LongAdder       dropped  = new LongAdder();
+    private final LongAdder       failed   = new LongAdder();
+
+    private int nextIndex;
+
+    private volatile Segment current;
+    private volatile boolean closed;
+
+    /**
+     * Opens the first file.
+     *
+     * @param formatter the formatter of the events.
+     * @param config    where and how to write the files.
+     * @throws IOException if the first file cannot be created.
+     */
+    public MappedFileSLogger(Formatter formatter, Config config) throws IOException {
+        if (config.segmentSize() < 1) {
+            throw new IllegalArgumentException("segmentSize must be positive: " + config.segmentSize());
+        }
+        this.formatter = formatter;
+        this.binaryFormatter = (formatter instanceof BinaryFormatter) ? (BinaryFormatter) formatter : null;
+        if (binaryFormatter != null) {
+            synchronized (CLAIMED) {
+                if (!CLAIMED.add(binaryFormatter)) {
+                    throw new IllegalArgumentException("the BinaryFormatter is already used by another logger");
+                }
+            }
+        }
+        this.directory = config.directory();
+        this.baseName = config.baseName();
+        this.extension = (binaryFormatter != null) ? ".bin" : ".log";
+        this.segmentSize = config.segmentSize();
+        this.rollIntervalMillis = config.rollIntervalMillis();
+        this.forceIntervalMillis = config.forceIntervalMillis();
+        this.level = config.level().toInt();
+        try {
+            Files.createDirectories(directory);
+            synchronized (this) {
+                current = open();
+            }
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+        if ((rollIntervalMillis > 0) || (forceIntervalMillis > 0)) {
+            flusher = new Thread(this::flush, config.threadName());
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Gets the file events are currently written to.
+     *
+     * @return the path of the current file, or null once closed.
+     */
+    public Path getCurrentPath() {
+        final Segment segment = current;
+        return (segment != null) ? segment.path : null;
+    }
+
+    /**
+     * Gets the number of events dropped because they did not fit in a file or the logger was closed.
+     *
+     * @return the number of dropped events.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of times a file could not be created, forced or completed. Once a file cannot be created every
+     * further event is dropped.
+     *
+     * @return the number of failures.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return level.toInt() >= this.level;
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object... objs) {
+        if (isEnabled(level)) {
+            while (!append(level, FormatterStats.start(), formatter.format(level, eventId, objs))) {
+                // formatted before a new file was started
+            }
+        }
+    }
+
+    @Override
+    public void log(Level level, String eventId) {
+        if (isEnabled(level)) {
+            while (!append(level, FormatterStats.start(), formatter.format(level, eventId))) {
+                // formatted before a new file was started
+            }
+        }
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object obj) {
+        if (isEnabled(level)) {
+            while (!append(level, FormatterStats.start(), formatter.format(level, eventId, obj))) {
+                // formatted before a new file was started
+            }
+        }
+    }
+
+    @Override
+    public void log(Level level, String eventId, String name, Object value) {
+        if (isEnabled(level)) {
+            while (!append(level, FormatterStats.start(), formatter.format(level, eventId, name, value))) {
+                // formatted before a new file was started
+            }
+        }
+    }
+
+    @Override
+    public void log(Level level, EventTemplate template, Object... values) {
+        if (isEnabled(level)) {
+            while (!append(level, FormatterStats.start(), formatter.format(level, template, values))) {
+                // formatted before a new file was started
+            }
+        }
+    }
+
+    /**
+     * Completes the current file and stops writing. Events logged afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Segment segment;
+        while ((segment = current) != null) {
+            seal(segment);
+        }
+        while (retiring.get() != 0) {
+            Thread.yield();
+        }
+        release();
+    }
+
+    private void release() {
+        if (binaryFormatter != null) {
+            synchronized (CLAIMED) {
+                CLAIMED.remove(binaryFormatter);
+            }
+        }
+    }
+
+    /**
+     * Copies a result into the current file, rolling it first if the result does not fit.
+     *
+     * @return false if the result was formatted before the current file was started and must be formatted again.
+     */
+    private boolean append(Level level, long formatStart, Formatter.Result result) {
+        final BinaryResult binary = (binaryFormatter != null) ? (BinaryResult) result : null;
+        boolean written = false;
+        try {
+            FormatterStats.formatted(formatter, level, result, formatStart);
+            // only a stack trace needs a copy, the other results are encoded straight into the file
+            final byte[] text = ((binary == null) && (result.getAttachment() instanceof Throwable))
+                ? withStackTrace(result) : null;
+            final int length = (binary != null) ? binary.getByteLength()
+                : (text != null) ? text.length : (result.getByteLength() + 1);
+            if (length > segmentSize) {
+                dropped.increment();
+                return true;
+            }
+            while (true) {
+                final Segment segment = current;
+                if (segment == null) {
+                    dropped.increment();
+                    return true;
+                }
+                // read after the segment, so a segment started by a republish is never written a stale event
+                if ((binary != null) && binary.isStale()) {
+                    return false;
+                }
+                final long start = segment.position.getAndAdd(length);
+                if ((start + length) <= segment.capacity) {
+                    write(segment, (int) start, length, result, text);
+                    written = true;
+                    return true;
+                }
+                if (start <= segment.capacity) {
+                    // the first reservation past the end: this thread completes the segment
+                    roll(segment, start);
+                } else {
+                    while (current == segment) {
+                        Thread.yield();
+                    }
+                }
+            }
+        } finally {
+            if ((binary != null) && !written) {
+                // the dictionary entries it defined never reached a file, so the next events must define them again
+                binary.discard();
+            } else {
+                result.clear();
+            }
+        }
+    }
+
+    /**
+     * Copies a result into the space reserved for it. The space is counted as written even if the copy fails, so the
+     * segment can still be completed, and is then padded so the decoders skip it.
+     */
+    private void write(Segment segment, int start, int length, Formatter.Result result, byte[] text) {
+        boolean copied = false;
+        try {
+            final ByteBuffer dst = segment.buffer.duplicate();
+            ((Buffer) dst).position(start);
+            if (text != null) {
+                dst.put(text);
+            } else {
+                result.writeTo(dst);
+                if (binaryFormatter == null) {
+                    dst.put((byte) '\n');
+                }
+            }
+            copied = true;
+        } finally {
+            if (!copied) {
+                dropped.increment();
+                pad(segment, start, length);
+            }
+            segment.written.add(length);
+        }
+    }
+
+    private void pad(Segment segment, int start, int length) {
+        final ByteBuffer dst = segment.buffer.duplicate();
+        ((Buffer) dst).position(start);
+        if (binaryFormatter != null) {
+            BinaryFormatter.writePadding(dst, length);
+        } else {
+            // a blank line
+            for (int i = 1; i < length; i++) {
+                dst.put((byte) ' ');
+            }
+            dst.put((byte) '\n');
+        }
+    }
+
+    private static byte[] withStackTrace(Formatter.Result result) {
+        final String line = result.getString();
+        final StringWriter writer = new StringWriter(line.length() + 1024).append(line).append('\n');
+        ((Throwable) result.getAttachment()).printStackTrace(new PrintWriter(writer));
+        return writer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes the next reservation of a segment fail, completing it if no event did so yet.
+     */
+    private void seal(Segment segment) {
+        final long start = segment.position.getAndAdd(segment.capacity + 1);
+        if (start <= segment.capacity) {
+            roll(segment, start);
+        } else {
+            while (current == segment) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Starts a new file, unless closed, and completes the sealed one once the events reserved in it are written.
+     */
+    private void roll(Segment segment, long length) {
+        synchronized (this) {
+            retiring.incrementAndGet();
+            Segment next = null;
+            if (!closed) {
+                try {
+                    next = open();
+                } catch (IOException | RuntimeException e) {
+                    // nowhere to write: every further event is dropped
+                    failed.increment();
+                }
+            }
+            current = next;
+        }
+        try {
+            while (segment.written.sum() < length) {
+                Thread.yield();
+            }
+            synchronized (segment) {
+                segment.retired = true;
+                segment.buffer.force();
+                // the decoders stop at the zero-filled tail, so failing to truncate it is harmless
+                segment.channel.truncate(length);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+        } finally {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                failed.increment();
+            }
+            retiring.decrementAndGet();
+        }
+    }
+
+    /**
+     * Creates the next file. Must be called holding the lock.
+     */
+    private Segment open() throws IOException {
+        Path path;
+        do {
+            path = directory.resolve(baseName + '.' + nextIndex++ + extension);
+        } while (Files.exists(path));
+        if (binaryFormatter != null) {
+            binaryFormatter.republish();
+        }
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            final long rollAt = (rollIntervalMillis > 0) ? (System.currentTimeMillis() + rollIntervalMillis) : 0;
+            return new Segment(path, channel, segmentSize, rollAt);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs on the background thread: rolls the files that got too old and forces the written pages periodically.
+     */
+    private void flush() {
+        long nextForce = (forceIntervalMillis > 0)
+            ? (System.currentTimeMillis() + forceIntervalMillis)
+            : Long.MAX_VALUE;
+        while (!closed) {
+            final Segment segment = current;
+            if (segment == null) {
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            if ((segment.rollAt > 0) && (now >= segment.rollAt)) {
+                if (segment.position.get() != 0) {
+                    seal(segment);
+                    continue;
+                }
+                // nothing logged yet, no point in an empty file
+                segment.rollAt = now + rollIntervalMillis;
+            }
+            if (now >= nextForce) {
+                force(segment);
+                nextForce = now + forceIntervalMillis;
+            }
+            final long wakeAt = Math.min(nextForce, (segment.rollAt > 0) ? segment.rollAt : Long.MAX_VALUE);
+            LockSupport.parkNanos(this, Math.min(MAX_PARK_NANOS, TimeUnit.MILLISECONDS.toNanos(wakeAt - now)));
+        }
+    }
+
+    private void force(Segment segment) {
+        synchronized (segment) {
+            final long written = segment.written.sum();
+            if (segment.retired || (written == segment.forced)) {
+                return;
+            }
+            try {
+                segment.buffer.force();
+                segment.forced = written;
+            } catch (RuntimeException e) {
+                failed.increment();
+            }
+        }
+    }
+}
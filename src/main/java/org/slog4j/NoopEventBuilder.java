@@ -0,0 +1,46 @@
+package org.slog4j;
+
+/**
+ * The builder returned for disabled levels, shared by every logger and thread.
+ */
+final class NoopEventBuilder implements EventBuilder {
+    static final NoopEventBuilder INSTANCE = new NoopEventBuilder();
+
+    private NoopEventBuilder() {
+    }
+
+    @Override
+    public EventBuilder with(String name, long value) {
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, double value) {
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, boolean value) {
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, char value) {
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, Object value) {
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(Object obj) {
+        return this;
+    }
+
+    @Override
+    public void log() {
+        // disabled
+    }
+}
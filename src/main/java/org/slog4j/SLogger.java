@@ -1,5 +1,12 @@
 package org.slog4j;
 
+import org.slf4j.event.Level;
+import org.slog4j.format.EventTemplate;
+import org.slog4j.format.LazyValue;
+import org.slog4j.format.LogContext;
+
+import java.util.function.Supplier;
+
 /**
  * A structured log message always adheres to the following rules:
  *
@@ -16,6 +23,17 @@ package org.slog4j;
  */
 public interface SLogger {
 
+    /**
+     * Checks whether events of a given level would be logged. Implementations that don't override it report every
+     * level as enabled, so wrappers such as the asynchronous logger hand them every event to filter.
+     *
+     * @param level the level to check.
+     * @return true if events of the given level are logged.
+     */
+    default boolean isEnabled(Level level) {
+        return true;
+    }
+
     void error(String eventId, Object... objs);
     void error(String eventId);
     void error(String eventId, Object obj);
@@ -41,4 +59,152 @@ public interface SLogger {
     void trace(String eventId);
     void trace(String eventId, Object obj);
     void trace(String eventId, String name, Object value);
+
+    // the level-parameterized counterparts
+    default void log(Level level, String eventId, Object... objs) {
+        switch (level) {
+            case ERROR: error(eventId, objs); break;
+            case WARN:  warn(eventId, objs);  break;
+            case INFO:  info(eventId, objs);  break;
+            case DEBUG: debug(eventId, objs); break;
+            default:    trace(eventId, objs); break;
+        }
+    }
+
+    default void log(Level level, String eventId) {
+        switch (level) {
+            case ERROR: error(eventId); break;
+            case WARN:  warn(eventId);  break;
+            case INFO:  info(eventId);  break;
+            case DEBUG: debug(eventId); break;
+            default:    trace(eventId); break;
+        }
+    }
+
+    default void log(Level level, String eventId, Object obj) {
+        switch (level) {
+            case ERROR: error(eventId, obj); break;
+            case WARN:  warn(eventId, obj);  break;
+            case INFO:  info(eventId, obj);  break;
+            case DEBUG: debug(eventId, obj); break;
+            default:    trace(eventId, obj); break;
+        }
+    }
+
+    default void log(Level level, String eventId, String name, Object value) {
+        switch (level) {
+            case ERROR: error(eventId, name, value); break;
+            case WARN:  warn(eventId, name, value);  break;
+            case INFO:  info(eventId, name, value);  break;
+            case DEBUG: debug(eventId, name, value); break;
+            default:    trace(eventId, name, value); break;
+        }
+    }
+
+    // the template counterparts
+
+    /**
+     * Declares the event id and property names of a call site once, so they are rendered only once per formatter.
+     *
+     * @param eventId the event id.
+     * @param names   the names of the properties whose values are passed when logging, in order.
+     * @return the template.
+     */
+    static EventTemplate template(String eventId, String... names) {
+        return EventTemplate.of(eventId, names);
+    }
+
+    /**
+     * Wraps a value that is only computed if the event is formatted, once per event.
+     *
+     * @param supplier computes the value.
+     * @param <T>      the type of the value.
+     * @return the lazy value, to be logged as any other value.
+     */
+    static <T> LazyValue<T> lazy(Supplier<? extends T> supplier) {
+        return LazyValue.of(supplier);
+    }
+
+    default void error(EventTemplate template, Object... values) {
+        log(Level.ERROR, template, values);
+    }
+
+    default void warn(EventTemplate template, Object... values) {
+        log(Level.WARN, template, values);
+    }
+
+    default void info(EventTemplate template, Object... values) {
+        log(Level.INFO, template, values);
+    }
+
+    default void debug(EventTemplate template, Object... values) {
+        log(Level.DEBUG, template, values);
+    }
+
+    default void trace(EventTemplate template, Object... values) {
+        log(Level.TRACE, template, values);
+    }
+
+    /**
+     * Logs an event declared by a template, if its level is enabled.
+     *
+     * @param level    the level of the event.
+     * @param template the event id and property names.
+     * @param values   the values of the properties, in the order of the template names.
+     */
+    default void log(Level level, EventTemplate template, Object... values) {
+        if (isEnabled(level)) {
+            log(level, template.getEventId(), template.toObjects(values));
+        }
+    }
+
+    // the fluent counterparts
+
+    default EventBuilder atError(String eventId) {
+        return at(Level.ERROR, eventId);
+    }
+
+    default EventBuilder atWarn(String eventId) {
+        return at(Level.WARN, eventId);
+    }
+
+    default EventBuilder atInfo(String eventId) {
+        return at(Level.INFO, eventId);
+    }
+
+    default EventBuilder atDebug(String eventId) {
+        return at(Level.DEBUG, eventId);
+    }
+
+    default EventBuilder atTrace(String eventId) {
+        return at(Level.TRACE, eventId);
+    }
+
+    /**
+     * Starts building an event.
+     *
+     * @param level   the level of the event.
+     * @param eventId the event id.
+     * @return a builder whose {@link EventBuilder#log()} must be called once all the properties are added. A shared
+     * no-op builder if the level is disabled.
+     */
+    default EventBuilder at(Level level, String eventId) {
+        return isEnabled(level) ? new BoxingEventBuilder(this, level, eventId) : NoopEventBuilder.INSTANCE;
+    }
+
+    // the context counterpart
+
+    /**
+     * Creates a logger whose events carry some properties right after their event id, e.g. the request id and
+     * tenant of a request handler. Loggers that format their events render the properties once and then only copy
+     * them, so the values should be immutable.
+     *
+     * @param name  the name of the first property.
+     * @param value the value of the first property.
+     * @param more  the names and values of any other properties, alternated.
+     * @return the child logger, with the same levels as this one.
+     */
+    default SLogger with(String name, Object value, Object... more) {
+        return new ContextSLogger(this, LogContext.of(name, value, more));
+    }
 }
@@ -0,0 +1,155 @@
+package org.slog4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which events of an event id and level are logged by a {@link SamplingSLogger}. The whole state of a rule
+ * is a single counter updated without locks, so the decision is made before anything is formatted.
+ */
+public abstract class SamplingRule {
+
+    private SamplingRule() {
+    }
+
+    /**
+     * Logs the first event and then one in every <code>n</code>.
+     *
+     * @param n the sampling ratio.
+     * @return the rule.
+     */
+    public static SamplingRule everyNth(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        return new EveryNth(n);
+    }
+
+    /**
+     * Logs at most <code>permits</code> events per second, allowing bursts of up to a second's worth of events: a
+     * token bucket refilled continuously.
+     *
+     * @param permits the number of events per second.
+     * @return the rule.
+     */
+    public static SamplingRule perSecond(double permits) {
+        if (!(permits > 0)) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        return new TokenBucket(permits);
+    }
+
+    /**
+     * Logs the first <code>k</code> events of every window and suppresses the rest. The suppressed events are
+     * summarized when the window closes.
+     *
+     * @param k            the number of events logged per window.
+     * @param windowMillis the length of the window.
+     * @return the rule.
+     */
+    public static SamplingRule firstPerWindow(int k, long windowMillis) {
+        if ((k < 1) || (k > FirstPerWindow.MAX_COUNT)) {
+            throw new IllegalArgumentException("k out of range: " + k);
+        }
+        if (windowMillis < 1) {
+            throw new IllegalArgumentException("windowMillis must be positive: " + windowMillis);
+        }
+        return new FirstPerWindow(k, TimeUnit.MILLISECONDS.toNanos(windowMillis));
+    }
+
+    /**
+     * @param state   the state of the event id and level, initially 0.
+     * @param elapsed nanoseconds since the state was created.
+     * @return true if the event must be logged.
+     */
+    abstract boolean tryAcquire(AtomicLong state, long elapsed);
+
+    /**
+     * @param defaultNanos the summary interval of the logger.
+     * @return the interval between summaries of the suppressed events.
+     */
+    long summaryIntervalNanos(long defaultNanos) {
+        return defaultNanos;
+    }
+
+    private static final class EveryNth extends SamplingRule {
+        private final int n;
+
+        EveryNth(int n) {
+            this.n = n;
+        }
+
+        @Override
+        boolean tryAcquire(AtomicLong state, long elapsed) {
+            return (state.getAndIncrement() % n) == 0;
+        }
+    }
+
+    /**
+     * The generic cell rate algorithm: the state is the theoretical arrival time of the next event, and an event is
+     * allowed as long as that time is not further ahead than the burst.
+     */
+    private static final class TokenBucket extends SamplingRule {
+        private final long interval;
+        private final long tolerance;
+
+        TokenBucket(double permits) {
+            interval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permits));
+            tolerance = interval * (Math.max(1L, (long) Math.ceil(permits)) - 1);
+        }
+
+        @Override
+        boolean tryAcquire(AtomicLong state, long elapsed) {
+            while (true) {
+                final long arrival = state.get();
+                final long base = Math.max(arrival, elapsed);
+                if ((base - elapsed) > tolerance) {
+                    return false;
+                }
+                if (state.compareAndSet(arrival, base + interval)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * The state packs the number of the current window and the count of events logged in it.
+     */
+    private static final class FirstPerWindow extends SamplingRule {
+        static final int  COUNT_BITS = 20;
+        static final long MAX_COUNT  = (1L << COUNT_BITS) - 1;
+
+        private final int  k;
+        private final long window;
+
+        FirstPerWindow(int k, long window) {
+            this.k = k;
+            this.window = window;
+        }
+
+        @Override
+        boolean tryAcquire(AtomicLong state, long elapsed) {
+            final long current = elapsed / window;
+            while (true) {
+                final long packed = state.get();
+                final long next;
+                if ((packed >>> COUNT_BITS) != current) {
+                    next = (current << COUNT_BITS) | 1;
+                } else if ((packed & MAX_COUNT) < k) {
+                    next = packed + 1;
+                } else {
+                    return false;
+                }
+                if (state.compareAndSet(packed, next)) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        long summaryIntervalNanos(long defaultNanos) {
+            return (defaultNanos > 0) ? window : 0;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package org.slog4j;
+
+import org.slf4j.event.Level;
+import org.slog4j.format.EventTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples or rate limits the events of noisy event ids before they are formatted, so suppressed events cost a map
+ * lookup and an atomic update.
+ *
+ * <p>
+ * Rules are set per event id, and optionally per level; events without a rule are always logged. The number of
+ * events suppressed is logged periodically, with the same level, as a summary event:
+ *
+ * <pre>
+ * SLogger slog = new SamplingSLogger.Builder()
+ *     .rule("RETRY", SamplingRule.everyNth(100))
+ *     .rule("CACHE_MISS", Level.DEBUG, SamplingRule.perSecond(10))
+ *     .wrap(SLoggerFactory.getLogger(MyClass.class));
+ * </pre>
+ *
+ * <p>
+ * logs <code>evt=EVENTS_SUPPRESSED eventId=RETRY suppressed=4950</code> once a minute while <code>RETRY</code> is
+ * being sampled. A pending summary is only logged with the next event of its id, or by {@link #flushSummaries()}.
+ * Events of disabled levels are neither sampled nor counted.
+ */
+public final class SamplingSLogger extends AbstractSLogger {
+
+    public static final String DEFAULT_SUMMARY_EVENT_ID = "EVENTS_SUPPRESSED";
+
+    private static final int LEVELS = Level.values().length;
+
+    /**
+     * Builds {@link SamplingSLogger}s. By default nothing is sampled.
+     */
+    public static final class Builder {
+        private final Map<String, SamplingRule[]> rules                 = new HashMap<>();
+        private       SamplingRule[]              defaultRules;
+        private       String                      summaryEventId        = DEFAULT_SUMMARY_EVENT_ID;
+        private       long                        summaryIntervalMillis = 60_000;
+        private       int                         maxDefaultEventIds    = 10_000;
+
+        /**
+         * Samples an event id at every level.
+         *
+         * @param eventId the event id.
+         * @param rule    the rule.
+         * @return this, to enable chaining.
+         */
+        public Builder rule(String eventId, SamplingRule rule) {
+            final SamplingRule[] byLevel = rules.computeIfAbsent(eventId, key -> new SamplingRule[LEVELS]);
+            Arrays.fill(byLevel, rule);
+            return this;
+        }
+
+        /**
+         * Samples an event id at one level, overriding for that level the rule set for every level.
+         *
+         * @param eventId the event id.
+         * @param level   the level.
+         * @param rule    the rule.
+         * @return this, to enable chaining.
+         */
+        public Builder rule(String eventId, Level level, SamplingRule rule) {
+            rules.computeIfAbsent(eventId, key -> new SamplingRule[LEVELS])[level.ordinal()] = rule;
+            return this;
+        }
+
+        /**
+         * Samples every event id without a rule of its own, each one on its own.
+         *
+         * @param rule the rule.
+         * @return this, to enable chaining.
+         */
+        public Builder defaultRule(SamplingRule rule) {
+            defaultRules = new SamplingRule[LEVELS];
+            Arrays.fill(defaultRules, rule);
+            return this;
+        }
+
+        /**
+         * Limits how many event ids the default rule tracks at once. Beyond that, the state of one of them is
+         * dropped, after logging the summary of its suppressed events, so that event ids built from unbounded data
+         * don't hold memory forever.
+         *
+         * @param maxDefaultEventIds the maximum number of event ids, at least 1.
+         * @return this, to enable chaining.
+         */
+        public Builder maxDefaultEventIds(int maxDefaultEventIds) {
+            if (maxDefaultEventIds < 1) {
+                throw new IllegalArgumentException("maxDefaultEventIds must be positive");
+            }
+            this.maxDefaultEventIds = maxDefaultEventIds;
+            return this;
+        }
+
+        /**
+         * @param summaryEventId the event id of the summaries.
+         * @return this, to enable chaining.
+         */
+        public Builder summaryEventId(String summaryEventId) {
+            this.summaryEventId = summaryEventId;
+            return this;
+        }
+
+        /**
+         * Changes how often the suppressed events are summarized, except for
+         * {@link SamplingRule#firstPerWindow(int, long)} rules, summarized when their window closes.
+         *
+         * @param summaryIntervalMillis the interval, or 0 to never log summaries.
+         * @return this, to enable chaining.
+         */
+        public Builder summaryIntervalMillis(long summaryIntervalMillis) {
+            if (summaryIntervalMillis < 0) {
+                throw new IllegalArgumentException("summaryIntervalMillis must not be negative");
+            }
+            this.summaryIntervalMillis = summaryIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Creates a logger that samples the events of another one. Every logger has its own sampling state.
+         *
+         * @param delegate the logger of the sampled events.
+         * @return the sampling logger.
+         */
+        public SamplingSLogger wrap(SLogger delegate) {
+            return new SamplingSLogger(delegate, this, System::nanoTime);
+        }
+
+        SamplingSLogger wrap(SLogger delegate, LongSupplier nanoTime) {
+            return new SamplingSLogger(delegate, this, nanoTime);
+        }
+    }
+
+    /**
+     * The sampling state of an event id and level.
+     */
+    private static final class State {
+        final SamplingRule rule;
+        final long         origin;
+        final long         summaryInterval;
+        final AtomicLong   ruleState  = new AtomicLong();
+        final AtomicLong   suppressed = new AtomicLong();
+        final AtomicLong   summaryDue;
+
+        State(SamplingRule rule, long origin, long summaryInterval) {
+            this.rule = rule;
+            this.origin = origin;
+            this.summaryInterval = summaryInterval;
+            this.summaryDue = new AtomicLong(summaryInterval);
+        }
+    }
+
+    private final SLogger                     delegate;
+    private final Map<String, SamplingRule[]> rules;
+    private final SamplingRule[]              defaultRules;
+    private final int                         maxDefaultEventIds;
+    private final String                      summaryEventId;
+    private final long                        summaryInterval;
+    private final LongSupplier                nanoTime;
+    private final Map<String, State[]>        states        = new ConcurrentHashMap<>();
+    private final Map<String, State[]>        defaultStates = new ConcurrentHashMap<>();
+    private final LongAdder                   suppressed    = new LongAdder();
+
+    private SamplingSLogger(SLogger delegate, Builder builder, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.rules = new HashMap<>();
+        builder.rules.forEach((eventId, byLevel) -> rules.put(eventId, byLevel.clone()));
+        this.defaultRules = (builder.defaultRules != null) ? builder.defaultRules.clone() : null;
+        this.maxDefaultEventIds = builder.maxDefaultEventIds;
+        this.summaryEventId = builder.summaryEventId;
+        this.summaryInterval = TimeUnit.MILLISECONDS.toNanos(builder.summaryIntervalMillis);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Gets the number of events suppressed so far, summarized or not.
+     *
+     * @return the number of suppressed events.
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    /**
+     * Logs the summaries of every event id with suppressed events not summarized yet, e.g. before shutting down.
+     */
+    public void flushSummaries() {
+        final long now = nanoTime.getAsLong();
+        states.forEach((eventId, byLevel) -> flushSummaries(eventId, byLevel, now));
+        defaultStates.forEach((eventId, byLevel) -> flushSummaries(eventId, byLevel, now));
+    }
+
+    private void flushSummaries(String eventId, State[] byLevel, long now) {
+        for (int i = 0; i < LEVELS; i++) {
+            final State state = byLevel[i];
+            if ((state != null) && (state.summaryInterval > 0)) {
+                state.summaryDue.set(now - state.origin + state.summaryInterval);
+                summarize(Level.values()[i], eventId, state);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return delegate.isEnabled(level);
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object... objs) {
+        if (isEnabled(level) && sample(level, eventId)) {
+            delegate.log(level, eventId, objs);
+        }
+    }
+
+    @Override
+    public void log(Level level, String eventId) {
+        if (isEnabled(level) && sample(level, eventId)) {
+            delegate.log(level, eventId);
+        }
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object obj) {
+        if (isEnabled(level) && sample(level, eventId)) {
+            delegate.log(level, eventId, obj);
+        }
+    }
+
+    @Override
+    public void log(Level level, String eventId, String name, Object value) {
+        if (isEnabled(level) && sample(level, eventId)) {
+            delegate.log(level, eventId, name, value);
+        }
+    }
+
+    @Override
+    public void log(Level level, EventTemplate template, Object... values) {
+        if (isEnabled(level) && sample(level, template.getEventId())) {
+            delegate.log(level, template, values);
+        }
+    }
+
+    @Override
+    public EventBuilder at(Level level, String eventId) {
+        if (isEnabled(level) && sample(level, eventId)) {
+            return delegate.at(level, eventId);
+        }
+        return NoopEventBuilder.INSTANCE;
+    }
+
+    /**
+     * Decides whether an event is logged, logging first the summary of its suppressed events if it is due.
+     */
+    private boolean sample(Level level, String eventId) {
+        final State state = state(level, eventId);
+        if (state == null) {
+            return true;
+        }
+        final long elapsed = nanoTime.getAsLong() - state.origin;
+        final boolean accepted = state.rule.tryAcquire(state.ruleState, elapsed);
+        if (!accepted) {
+            state.suppressed.incrementAndGet();
+            suppressed.increment();
+        }
+        final long due = state.summaryDue.get();
+        if ((state.summaryInterval > 0) && (elapsed >= due)
+            && state.summaryDue.compareAndSet(due, elapsed + state.summaryInterval)) {
+            summarize(level, eventId, state);
+        }
+        return accepted;
+    }
+
+    private State state(Level level, String eventId) {
+        State[] byLevel = states.get(eventId);
+        if (byLevel != null) {
+            return byLevel[level.ordinal()];
+        }
+        final SamplingRule[] levelRules = rules.get(eventId);
+        if (levelRules != null) {
+            return states.computeIfAbsent(eventId, key -> newStates(levelRules))[level.ordinal()];
+        }
+        if ((defaultRules == null) || eventId.equals(summaryEventId)) {
+            return null;
+        }
+        byLevel = defaultStates.get(eventId);
+        if (byLevel == null) {
+            if (defaultStates.size() >= maxDefaultEventIds) {
+                evictDefaultState();
+            }
+            byLevel = defaultStates.computeIfAbsent(eventId, key -> newStates(defaultRules));
+        }
+        return byLevel[level.ordinal()];
+    }
+
+    private State[] newStates(SamplingRule[] ruleSet) {
+        final long origin = nanoTime.getAsLong();
+        final State[] created = new State[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            if (ruleSet[i] != null) {
+                created[i] = new State(ruleSet[i], origin, ruleSet[i].summaryIntervalNanos(summaryInterval));
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Drops the state of any event id sampled by the default rule, logging first its pending summaries.
+     */
+    private void evictDefaultState() {
+        final Iterator<Map.Entry<String, State[]>> entries = defaultStates.entrySet().iterator();
+        if (entries.hasNext()) {
+            final Map.Entry<String, State[]> entry = entries.next();
+            if (defaultStates.remove(entry.getKey(), entry.getValue())) {
+                flushSummaries(entry.getKey(), entry.getValue(), nanoTime.getAsLong());
+            }
+        }
+    }
+
+    private void summarize(Level level, String eventId, State state) {
+        final long count = state.suppressed.getAndSet(0);
+        if (count > 0) {
+            delegate.log(level, summaryEventId, "eventId", eventId, "suppressed", count);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.slog4j;
+
+import org.slf4j.event.Level;
+import org.slog4j.format.FormatterStats;
+import org.slog4j.format.IncrementalFormatter;
+import org.slog4j.format.LogContext;
+import org.slog4j.format.StrBuilderResult;
+
+/**
+ * Formats an event straight into its own buffer as properties are added. One instance is reused by every event
+ * logged on a thread: it's taken from the thread when an event starts and given back when the event is logged. An
+ * event started meanwhile, e.g. while computing the value of a property, gets a new builder; so does the first event
+ * after one that was never logged, e.g. because computing a value threw, and that builder is then reused in turn.
+ */
+final class Slf4jEventBuilder implements EventBuilder {
+    private static final int INITIAL_CAPACITY = 128;
+
+    /**
+     * The builder of a thread, if it's not building an event.
+     */
+    private static final class Home {
+        Slf4jEventBuilder free = new Slf4jEventBuilder();
+    }
+
+    private static final ThreadLocal<Home> HOMES = ThreadLocal.withInitial(Home::new);
+
+    private final StrBuilderResult sbr = new StrBuilderResult(INITIAL_CAPACITY);
+
+    private Home                 home;
+    private Slf4jSLogger         target;
+    private IncrementalFormatter formatter;
+    private Level                level;
+    private long                 start;
+
+    static EventBuilder start(Slf4jSLogger target, IncrementalFormatter formatter, Level level, LogContext context,
+                              String eventId) {
+        final Home home = HOMES.get();
+        Slf4jEventBuilder builder = home.free;
+        if (builder == null) {
+            builder = new Slf4jEventBuilder();
+        } else {
+            home.free = null;
+        }
+        builder.home = home;
+        builder.target = target;
+        builder.formatter = formatter;
+        builder.level = level;
+        builder.start = FormatterStats.start();
+        if (context == null) {
+            formatter.begin(builder.sbr, level, eventId);
+        } else {
+            formatter.begin(builder.sbr, level, context, eventId);
+        }
+        return builder;
+    }
+
+    @Override
+    public EventBuilder with(String name, long value) {
+        formatter.appendField(sbr, name, value);
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, double value) {
+        formatter.appendField(sbr, name, value);
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, boolean value) {
+        formatter.appendField(sbr, name, value);
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, char value) {
+        formatter.appendField(sbr, name, value);
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(String name, Object value) {
+        formatter.appendField(sbr, name, value);
+        return this;
+    }
+
+    @Override
+    public EventBuilder with(Object obj) {
+        formatter.appendObject(sbr, obj);
+        return this;
+    }
+
+    @Override
+    public void log() {
+        try {
+            target.logResult(level, start, formatter.end(sbr));
+        } finally {
+            sbr.clear();
+            target = null;
+            formatter = null;
+            if (home.free == null) {
+                home.free = this;
+            }
+            home = null;
+        }
+    }
+}
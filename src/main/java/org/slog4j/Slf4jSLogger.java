@@ -4,43 +4,111 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.event.Level;
+import org.slog4j.format.EventTemplate;
 import org.slog4j.format.Formatter;
+import org.slog4j.format.FormatterStats;
+import org.slog4j.format.IncrementalFormatter;
+import org.slog4j.format.LogContext;
 
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 class Slf4jSLogger implements SLogger {
     private final Logger       log;
     private final Formatter    formatter;
 
+    @Override
+    public boolean isEnabled(Level level) {
+        switch (level) {
+            case ERROR: return log.isErrorEnabled();
+            case WARN:  return log.isWarnEnabled();
+            case INFO:  return log.isInfoEnabled();
+            case DEBUG: return log.isDebugEnabled();
+            default:    return log.isTraceEnabled();
+        }
+    }
+
+    @Override
+    public void log(Level level, EventTemplate template, Object... values) {
+        if (isEnabled(level)) {
+            logResult(level, FormatterStats.start(), formatter.format(level, template, values));
+        }
+    }
+
+    @Override
+    public EventBuilder at(Level level, String eventId) {
+        if (!isEnabled(level)) {
+            return NoopEventBuilder.INSTANCE;
+        }
+        if (formatter instanceof IncrementalFormatter) {
+            return Slf4jEventBuilder.start(this, (IncrementalFormatter) formatter, level, null, eventId);
+        }
+        return new BoxingEventBuilder(this, level, eventId);
+    }
+
+    // the counterparts used by ContextSLogger, which copy the already rendered context into every event
+
+    void log(Level level, LogContext context, String eventId, Object... objs) {
+        if (isEnabled(level)) {
+            logResult(level, FormatterStats.start(), formatter.format(level, context, eventId, objs));
+        }
+    }
+
+    void log(Level level, LogContext context, EventTemplate template, Object... values) {
+        if (isEnabled(level)) {
+            logResult(level, FormatterStats.start(), formatter.format(level, context, template, values));
+        }
+    }
+
+    /**
+     * @return a builder of an enabled event, or null if the formatter cannot format incrementally.
+     */
+    EventBuilder at(Level level, LogContext context, String eventId) {
+        if (formatter instanceof IncrementalFormatter) {
+            return Slf4jEventBuilder.start(this, (IncrementalFormatter) formatter, level, context, eventId);
+        }
+        return null;
+    }
+
+    void logResult(Level level, long start, Formatter.Result result) {
+        switch (level) {
+            case ERROR: logError(start, result); break;
+            case WARN:  logWarn(start, result);  break;
+            case INFO:  logInfo(start, result);  break;
+            case DEBUG: logDebug(start, result); break;
+            default:    logTrace(start, result); break;
+        }
+    }
+
     @Override
     public void error(String eventId, Object... objs) {
         if (log.isErrorEnabled()) {
-            logError(formatter.format(Level.ERROR, eventId, objs));
+            logError(FormatterStats.start(), formatter.format(Level.ERROR, eventId, objs));
         }
     }
 
     @Override
     public void error(String eventId) {
         if (log.isErrorEnabled()) {
-            logError(formatter.format(Level.ERROR, eventId));
+            logError(FormatterStats.start(), formatter.format(Level.ERROR, eventId));
         }
     }
 
     @Override
     public void error(String eventId, Object obj) {
         if (log.isErrorEnabled()) {
-            logError(formatter.format(Level.ERROR, eventId, obj));
+            logError(FormatterStats.start(), formatter.format(Level.ERROR, eventId, obj));
         }
     }
 
     @Override
     public void error(String eventId, String name, Object value) {
         if (log.isErrorEnabled()) {
-            logError(formatter.format(Level.ERROR, eventId, name, value));
+            logError(FormatterStats.start(), formatter.format(Level.ERROR, eventId, name, value));
         }
     }
 
-    private void logError(Formatter.Result result) {
+    private void logError(long start, Formatter.Result result) {
         try {
+            FormatterStats.formatted(formatter, Level.ERROR, result, start);
             if (result.getAttachment() instanceof Throwable) {
                 log.error(result.getString(), (Throwable) result.getAttachment());
             } else {
@@ -54,33 +122,34 @@ class Slf4jSLogger implements SLogger {
     @Override
     public void warn(String eventId, Object... objs) {
         if (log.isWarnEnabled()) {
-            logWarn(formatter.format(Level.WARN, eventId, objs));
+            logWarn(FormatterStats.start(), formatter.format(Level.WARN, eventId, objs));
         }
     }
 
     @Override
     public void warn(String eventId) {
         if (log.isWarnEnabled()) {
-            logWarn(formatter.format(Level.WARN, eventId));
+            logWarn(FormatterStats.start(), formatter.format(Level.WARN, eventId));
         }
     }
 
     @Override
     public void warn(String eventId, Object obj) {
         if (log.isWarnEnabled()) {
-            logWarn(formatter.format(Level.WARN, eventId, obj));
+            logWarn(FormatterStats.start(), formatter.format(Level.WARN, eventId, obj));
         }
     }
 
     @Override
     public void warn(String eventId, String name, Object value) {
         if (log.isWarnEnabled()) {
-            logWarn(formatter.format(Level.WARN, eventId, name, value));
+            logWarn(FormatterStats.start(), formatter.format(Level.WARN, eventId, name, value));
         }
     }
 
-    private void logWarn(Formatter.Result result) {
+    private void logWarn(long start, Formatter.Result result) {
         try {
+            FormatterStats.formatted(formatter, Level.WARN, result, start);
             if (result.getAttachment() instanceof Throwable) {
                 log.warn(result.getString(), (Throwable) result.getAttachment());
             } else {
@@ -94,33 +163,34 @@ class Slf4jSLogger implements SLogger {
     @Override
     public void info(String eventId, Object... objs) {
         if (log.isInfoEnabled()) {
-            logInfo(formatter.format(Level.INFO, eventId, objs));
+            logInfo(FormatterStats.start(), formatter.format(Level.INFO, eventId, objs));
         }
     }
 
     @Override
     public void info(String eventId) {
         if (log.isInfoEnabled()) {
-            logInfo(formatter.format(Level.INFO, eventId));
+            logInfo(FormatterStats.start(), formatter.format(Level.INFO, eventId));
         }
     }
 
     @Override
     public void info(String eventId, Object obj) {
         if (log.isInfoEnabled()) {
-            logInfo(formatter.format(Level.INFO, eventId, obj));
+            logInfo(FormatterStats.start(), formatter.format(Level.INFO, eventId, obj));
         }
     }
 
     @Override
     public void info(String eventId, String name, Object value) {
         if (log.isInfoEnabled()) {
-            logInfo(formatter.format(Level.INFO, eventId, name, value));
+            logInfo(FormatterStats.start(), formatter.format(Level.INFO, eventId, name, value));
         }
     }
 
-    private void logInfo(Formatter.Result result) {
+    private void logInfo(long start, Formatter.Result result) {
         try {
+            FormatterStats.formatted(formatter, Level.INFO, result, start);
             if (result.getAttachment() instanceof Throwable) {
                 log.info(result.getString(), (Throwable) result.getAttachment());
             } else {
@@ -134,33 +204,34 @@ class Slf4jSLogger implements SLogger {
     @Override
     public void debug(String eventId, Object... objs) {
         if (log.isDebugEnabled()) {
-            logDebug(formatter.format(Level.DEBUG, eventId, objs));
+            logDebug(FormatterStats.start(), formatter.format(Level.DEBUG, eventId, objs));
         }
     }
 
     @Override
     public void debug(String eventId) {
         if (log.isDebugEnabled()) {
-            logDebug(formatter.format(Level.DEBUG, eventId));
+            logDebug(FormatterStats.start(), formatter.format(Level.DEBUG, eventId));
         }
     }
 
     @Override
     public void debug(String eventId, Object obj) {
         if (log.isDebugEnabled()) {
-            logDebug(formatter.format(Level.DEBUG, eventId, obj));
+            logDebug(FormatterStats.start(), formatter.format(Level.DEBUG, eventId, obj));
         }
     }
 
     @Override
     public void debug(String eventId, String name, Object value) {
         if (log.isDebugEnabled()) {
-            logDebug(formatter.format(Level.DEBUG, eventId, name, value));
+            logDebug(FormatterStats.start(), formatter.format(Level.DEBUG, eventId, name, value));
         }
     }
 
-    private void logDebug(Formatter.Result result) {
+    private void logDebug(long start, Formatter.Result result) {
         try {
+            FormatterStats.formatted(formatter, Level.DEBUG, result, start);
             if (result.getAttachment() instanceof Throwable) {
                 log.debug(result.getString(), (Throwable) result.getAttachment());
             } else {
@@ -174,33 +245,34 @@ class Slf4jSLogger implements SLogger {
     @Override
     public void trace(String eventId, Object... objs) {
         if (log.isTraceEnabled()) {
-            logTrace(formatter.format(Level.TRACE, eventId, objs));
+            logTrace(FormatterStats.start(), formatter.format(Level.TRACE, eventId, objs));
         }
     }
 
     @Override
     public void trace(String eventId) {
         if (log.isTraceEnabled()) {
-            logTrace(formatter.format(Level.TRACE, eventId));
+            logTrace(FormatterStats.start(), formatter.format(Level.TRACE, eventId));
         }
     }
 
     @Override
     public void trace(String eventId, Object obj) {
         if (log.isTraceEnabled()) {
-            logTrace(formatter.format(Level.TRACE, eventId, obj));
+            logTrace(FormatterStats.start(), formatter.format(Level.TRACE, eventId, obj));
         }
     }
 
     @Override
     public void trace(String eventId, String name, Object value) {
         if (log.isTraceEnabled()) {
-            logTrace(formatter.format(Level.TRACE, eventId, name, value));
+            logTrace(FormatterStats.start(), formatter.format(Level.TRACE, eventId, name, value));
         }
     }
 
-    private void logTrace(Formatter.Result result) {
+    private void logTrace(long start, Formatter.Result result) {
         try {
+            FormatterStats.formatted(formatter, Level.TRACE, result, start);
             if (result.getAttachment() instanceof Throwable) {
                 log.trace(result.getString(), (Throwable) result.getAttachment());
             } else {
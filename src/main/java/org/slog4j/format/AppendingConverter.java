@@ -0,0 +1,31 @@
+package org.slog4j.format;
+
+/**
+ * A {@link TypedToStringConverter} that can also write its text straight into the formatter buffer, without creating
+ * any intermediate {@link String}.
+ *
+ * <p>
+ * Appending converters are registered on <code>META-INF/services/org.slog4j.format.AppendingConverter</code> and
+ * take precedence over joda-convert converters; registering them as joda-convert converters too keeps them usable
+ * by anything that only knows about joda-convert. The appended text is quoted and escaped by the formatter
+ * afterwards.
+ *
+ * @param <T> the type of the converted values.
+ */
+public interface AppendingConverter<T> extends TypedToStringConverter<T> {
+
+    /**
+     * Appends the text of a value.
+     *
+     * @param value the value to convert, never null.
+     * @param out   the buffer to append to.
+     */
+    void appendTo(T value, StrBuilderResult out);
+
+    @Override
+    default String convertToString(T value) {
+        final StrBuilderResult out = new StrBuilderResult(32);
+        appendTo(value, out);
+        return out.getString();
+    }
+}
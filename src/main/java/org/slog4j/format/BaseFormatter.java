@@ -2,8 +2,10 @@ package org.slog4j.format;
 
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 import lombok.val;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.time.FastDateFormat;
 import org.joda.convert.StringConvert;
 import org.joda.convert.StringConverter;
@@ -11,20 +13,31 @@ import org.joda.convert.ToStringConverter;
 import org.joda.convert.TypedStringConverter;
 import org.slf4j.event.Level;
 
+import java.util.ArrayDeque;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @SuppressWarnings("UnusedReturnValue")
 public abstract class BaseFormatter implements ConfigurableFormatter {
 
-    private static final String DEFAULT_TIME_LABEL     = "time";
-    private static final String DEFAULT_LEVEL_LABEL    = "level";
-    private static final String DEFAULT_EVENT_ID_LABEL = "evt";
+    static final String DEFAULT_TIME_LABEL     = "time";
+    static final String DEFAULT_LEVEL_LABEL    = "level";
+    static final String DEFAULT_EVENT_ID_LABEL = "evt";
 
-    static final String NULL_PLACEHOLDER          = "_NULL_";
-    static final String NO_CONVERTER_PLACEHOLDER  = "_NO_CONVERTER_";
-    static final String MISSING_VALUE_PLACEHOLDER = "_MISSING_";
+    static final String NULL_PLACEHOLDER              = "_NULL_";
+    static final String NO_CONVERTER_PLACEHOLDER      = "_NO_CONVERTER_";
+    static final String MISSING_VALUE_PLACEHOLDER     = "_MISSING_";
+    static final String EVALUATION_FAILED_PLACEHOLDER = "_EVALUATION_FAILED_";
+
+    /**
+     * Returned by {@link #evaluate(Object)} when the lazy value throws.
+     */
+    static final Object EVALUATION_FAILED = new Object();
 
     /**
      * The standard ISO8601/RFC3339 format for date/time but with milliseconds precision.
@@ -38,7 +51,21 @@ public abstract class BaseFormatter implements ConfigurableFormatter {
     static final FastDateFormat FORMAT_ISO8601_MILLIS = FastDateFormat.getInstance(DATE_TIME_FORMAT);
 
     private final StringConvert                     toStringConverters     = new StringConvert(true);
-    private final Map<Class<?>, ToPropertiesConverter> toPropertiesConverters = new ClassMap<>();
+    private final Map<Class<?>, ToPropertiesConverter> toPropertiesConverters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AppendingConverter<?>> appendingConverters    = new ConcurrentHashMap<>();
+    private final Map<String, Integer>                 presizes               = new ConcurrentHashMap<>();
+
+    /**
+     * The render plan of every class seen so far, including the ones without any converter. Replaced as a whole
+     * whenever a converter is registered.
+     */
+    private volatile ClassValue<RenderPlan> renderPlans = newRenderPlans();
+
+    /**
+     * Identifies the settings templates and contexts are rendered with. Replaced whenever one of them changes, so the
+     * renderings cached by templates and contexts are not used anymore.
+     */
+    private volatile Object renderStamp = new Object();
 
     @Getter(AccessLevel.PROTECTED)
     @Accessors(fluent = true)
@@ -52,6 +79,14 @@ public abstract class BaseFormatter implements ConfigurableFormatter {
     @Accessors(fluent = true)
     private String eventIdLabel = DEFAULT_EVENT_ID_LABEL;
 
+    @Getter(AccessLevel.PROTECTED)
+    @Accessors(fluent = true)
+    private TimestampPrecision timestampPrecision = TimestampPrecision.MILLIS;
+
+    @Getter(AccessLevel.PROTECTED)
+    @Accessors(fluent = true)
+    private LogContext staticContext;
+
     public BaseFormatter() {
         registerAdditionalConverters();
     }
@@ -71,11 +106,85 @@ public abstract class BaseFormatter implements ConfigurableFormatter {
     @Override
     public Formatter eventIdLabel(String eventIdLabel) {
         this.eventIdLabel = eventIdLabel;
+        renderSettingsChanged();
+        return this;
+    }
+
+    @Override
+    public Formatter timestampPrecision(TimestampPrecision timestampPrecision) {
+        this.timestampPrecision = timestampPrecision;
+        return this;
+    }
+
+    @Override
+    public Formatter presize(String eventId, int capacity) {
+        presizes.put(eventId, capacity);
+        return this;
+    }
+
+    @Override
+    public Formatter staticContext(LogContext staticContext) {
+        this.staticContext = staticContext;
         return this;
     }
 
+    Object renderStamp() {
+        return renderStamp;
+    }
+
+    /**
+     * Makes templates and contexts render again, after a setting they're rendered with changed.
+     */
+    void renderSettingsChanged() {
+        renderStamp = new Object();
+    }
+
+    /**
+     * Gets the pooled buffer of the current thread, presized for the event if configured.
+     *
+     * @param eventId the event id.
+     * @return an empty buffer.
+     */
+    protected StrBuilderResult newResult(String eventId) {
+        return reserveFor(StrBuilderResultFactory.get(), eventId);
+    }
+
+    /**
+     * Presizes a buffer for the event if configured.
+     *
+     * @param sbr     the buffer.
+     * @param eventId the event id.
+     * @return the buffer.
+     */
+    protected StrBuilderResult reserveFor(StrBuilderResult sbr, String eventId) {
+        if (!presizes.isEmpty()) {
+            val capacity = presizes.get(eventId);
+            if (capacity != null) {
+                sbr.reserve(capacity);
+            }
+        }
+        return sbr;
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     private void registerAdditionalConverters() {
+        val registry = FormatterFactory.registry();
+        if (registry != null) {
+            val complete = registry.complete();
+            if (complete) {
+                // the registry only lists the converters of the application, not the ones of this library
+                registerConverter(new LongIdConverter());
+                registerConverter(new InetSocketAddressConverter());
+                registerConverter(new MapConverter());
+            }
+            for (Object converter : registry.converters()) {
+                registerConverter(converter);
+            }
+            if (complete) {
+                return;
+            }
+        }
+        // converters listed both by the registry and by a service file are registered twice, to the same effect
         val stringConverters = ServiceLoader.load(TypedStringConverter.class);
         for (TypedStringConverter converter : stringConverters) {
             toStringConverters.register(converter.getEffectiveType(), converter);
@@ -84,6 +193,26 @@ public abstract class BaseFormatter implements ConfigurableFormatter {
         for (ToPropertiesConverter converter : propertiesConverters) {
             registerToPropertiesConverter(converter.getEffectiveType(), converter);
         }
+        val appendingConverters = ServiceLoader.load(AppendingConverter.class);
+        for (AppendingConverter converter : appendingConverters) {
+            registerAppendingConverter(converter.getEffectiveType(), converter);
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void registerConverter(Object converter) {
+        if (converter instanceof TypedStringConverter) {
+            val stringConverter = (TypedStringConverter) converter;
+            toStringConverters.register(stringConverter.getEffectiveType(), stringConverter);
+        }
+        if (converter instanceof ToPropertiesConverter) {
+            val propertiesConverter = (ToPropertiesConverter) converter;
+            registerToPropertiesConverter(propertiesConverter.getEffectiveType(), propertiesConverter);
+        }
+        if (converter instanceof AppendingConverter) {
+            val appendingConverter = (AppendingConverter) converter;
+            registerAppendingConverter(appendingConverter.getEffectiveType(), appendingConverter);
+        }
     }
 
     <T> Formatter registerToStringConverter(Class<T> clazz, final ToStringConverter<T> converter) {
@@ -98,11 +227,22 @@ public abstract class BaseFormatter implements ConfigurableFormatter {
                 return converter.convertToString(object);
             }
         });
+        renderPlans = newRenderPlans();
+        renderSettingsChanged();
         return this;
     }
 
     <T> Formatter registerToPropertiesConverter(Class<T> clazz, ToPropertiesConverter converter) {
         toPropertiesConverters.put(clazz, converter);
+        renderPlans = newRenderPlans();
+        renderSettingsChanged();
+        return this;
+    }
+
+    <T> Formatter registerAppendingConverter(Class<T> clazz, AppendingConverter<? super T> converter) {
+        appendingConverters.put(clazz, converter);
+        renderPlans = newRenderPlans();
+        renderSettingsChanged();
         return this;
     }
 
@@ -111,35 +251,169 @@ public abstract class BaseFormatter implements ConfigurableFormatter {
     }
 
     protected ToPropertiesConverter propertiesConverter(Class<?> clazz) {
-        return toPropertiesConverters.get(clazz);
+        return renderPlan(clazz).propertiesConverter();
+    }
+
+    /**
+     * Gets how values of a class must be rendered, resolving it only on the first call for that class.
+     *
+     * @param clazz the class of the value.
+     * @return its render plan.
+     */
+    protected RenderPlan renderPlan(Class<?> clazz) {
+        return renderPlans.get(clazz);
     }
 
     protected StrBuilderResult beforeAddContentsHook(StrBuilderResult sbr, Level level) {
         return sbr;
     }
 
-    private static final class ClassMap<T> extends ConcurrentHashMap<Class<?>, T> {
-        @Override
-        public T get(Object key) {
-            assert key != null;
-            T value = super.get(key);
-            if (value == null) {
-                value = getCompatible(key);
-                if (value != null) {
-                    // to speed up next look up
-                    put((Class<?>) key, value);
-                }
+    private ClassValue<RenderPlan> newRenderPlans() {
+        return new ClassValue<RenderPlan>() {
+            @Override
+            protected RenderPlan computeValue(Class<?> clazz) {
+                return resolveRenderPlan(clazz);
             }
-            return value;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private RenderPlan resolveRenderPlan(Class<?> clazz) {
+        val propertiesConverter = resolveConverter(toPropertiesConverters, clazz);
+        val throwable = Throwable.class.isAssignableFrom(clazz);
+        final ValueKind kind;
+        StringConverter<Object> stringConverter = null;
+        AppendingConverter<Object> appendingConverter = null;
+        if (clazz == String.class) {
+            kind = ValueKind.STRING;
+        } else if ((clazz == Long.class) || (clazz == Integer.class)
+            || (clazz == Short.class) || (clazz == Byte.class)) {
+            kind = ValueKind.INTEGRAL;
+        } else if ((clazz == Double.class) || (clazz == Float.class)) {
+            kind = ValueKind.FLOATING;
+        } else if (clazz == Boolean.class) {
+            kind = ValueKind.BOOLEAN;
+        } else if (ClassUtils.isPrimitiveWrapper(clazz) || clazz.isEnum()) {
+            kind = ValueKind.VERBATIM;
+        } else if ((appendingConverter = (AppendingConverter<Object>) resolveConverter(appendingConverters, clazz))
+            != null) {
+            kind = ValueKind.APPENDED;
+        } else if ((stringConverter = resolveStringConverter(clazz)) != null) {
+            kind = ValueKind.CONVERTED;
+        } else if ((propertiesConverter == null) && Supplier.class.isAssignableFrom(clazz)) {
+            kind = ValueKind.LAZY;
+        } else {
+            kind = ValueKind.COMPLEX;
         }
+        return new RenderPlan(kind, stringConverter, appendingConverter, propertiesConverter, throwable);
+    }
+
+    /**
+     * Computes a {@link ValueKind#LAZY} value.
+     *
+     * @param lazy the value, a {@link Supplier}.
+     * @return what it supplied, or {@link #EVALUATION_FAILED} if it threw.
+     */
+    static Object evaluate(Object lazy) {
+        try {
+            return ((Supplier<?>) lazy).get();
+        } catch (RuntimeException e) {
+            return EVALUATION_FAILED;
+        }
+    }
 
-        private T getCompatible(Object key) {
-            for (Entry<Class<?>, T> entry : entrySet()) {
-                if (entry.getKey().isAssignableFrom((Class<?>) key)) {
-                    return entry.getValue();
+    private StringConverter<Object> resolveStringConverter(Class<?> clazz) {
+        try {
+            return toStringConverters.isConvertible(clazz) ? toStringConverters.findConverterNoGenerics(clazz) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks for the converter registered for the class itself, then for its superclasses from the nearest one, and
+     * finally for its interfaces, breadth-first in declaration order.
+     */
+    private static <C> C resolveConverter(Map<Class<?>, C> converters, Class<?> clazz) {
+        if (converters.isEmpty()) {
+            return null;
+        }
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            val converter = converters.get(c);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        Queue<Class<?>> pending = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Class<?> iface : c.getInterfaces()) {
+                pending.add(iface);
+            }
+        }
+        Class<?> iface;
+        while ((iface = pending.poll()) != null) {
+            if (visited.add(iface)) {
+                val converter = converters.get(iface);
+                if (converter != null) {
+                    return converter;
+                }
+                for (Class<?> parent : iface.getInterfaces()) {
+                    pending.add(parent);
                 }
             }
-            return null;
         }
+        return null;
+    }
+
+    /**
+     * How a value is rendered when it's not expanded to properties.
+     */
+    protected enum ValueKind {
+        STRING,
+        /**
+         * {@link Long}, {@link Integer}, {@link Short} or {@link Byte}.
+         */
+        INTEGRAL,
+        /**
+         * {@link Double} or {@link Float}.
+         */
+        FLOATING,
+        BOOLEAN,
+        /**
+         * Other primitive wrappers and enums, whose <code>toString()</code> is used as is.
+         */
+        VERBATIM,
+        /**
+         * Appended by an {@link AppendingConverter}.
+         */
+        APPENDED,
+        /**
+         * Converted to text by a joda-convert {@link StringConverter}.
+         */
+        CONVERTED,
+        /**
+         * A {@link Supplier} without converter, such as a {@link LazyValue}, computed when the event is formatted.
+         */
+        LAZY,
+        /**
+         * None of the above: it can only be expanded to properties, attached as a throwable or reported as
+         * non-convertible.
+         */
+        COMPLEX
+    }
+
+    /**
+     * Everything needed to render values of a given class, so a value needs a single lookup per event.
+     */
+    @Getter
+    @Accessors(fluent = true)
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    protected static final class RenderPlan {
+        private final ValueKind                  kind;
+        private final StringConverter<Object>    stringConverter;
+        private final AppendingConverter<Object> appendingConverter;
+        private final ToPropertiesConverter      propertiesConverter;
+        private final boolean                    throwable;
     }
 }
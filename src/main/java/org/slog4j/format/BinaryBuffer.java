@@ -0,0 +1,137 @@
+package org.slog4j.format;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A growable byte array with the primitive writes of the {@link BinaryFormat}.
+ */
+final class BinaryBuffer {
+    private byte[] bytes;
+    private int    size;
+
+    BinaryBuffer(int initialCapacity) {
+        bytes = new byte[initialCapacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    BinaryBuffer writeByte(int value) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) value;
+        return this;
+    }
+
+    BinaryBuffer writeVarint(long value) {
+        ensureCapacity(size + 10);
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        bytes[size++] = (byte) v;
+        return this;
+    }
+
+    BinaryBuffer writeZigzag(long value) {
+        return writeVarint(BinaryFormat.zigzag(value));
+    }
+
+    BinaryBuffer writeLong(long value) {
+        ensureCapacity(size + 8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes[size++] = (byte) (value >>> shift);
+        }
+        return this;
+    }
+
+    BinaryBuffer writeInt(int value) {
+        ensureCapacity(size + 4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            bytes[size++] = (byte) (value >>> shift);
+        }
+        return this;
+    }
+
+    BinaryBuffer writeBytes(byte[] src) {
+        ensureCapacity(size + src.length);
+        System.arraycopy(src, 0, bytes, size, src.length);
+        size += src.length;
+        return this;
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its UTF-8 bytes, encoded straight from the chars.
+     */
+    BinaryBuffer writeString(CharSequence str) {
+        final int length = str.length();
+        final int utf8Length = utf8Length(str);
+        writeVarint(utf8Length);
+        ensureCapacity(size + utf8Length);
+        for (int i = 0; i < length; i++) {
+            final char c = str.charAt(i);
+            if (c < 0x80) {
+                bytes[size++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[size++] = (byte) (0xC0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && (i + 1 < length)
+                && Character.isLowSurrogate(str.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, str.charAt(++i));
+                bytes[size++] = (byte) (0xF0 | (cp >> 18));
+                bytes[size++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bytes[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, as String.getBytes(UTF_8) does
+                bytes[size++] = '?';
+            } else {
+                bytes[size++] = (byte) (0xE0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    static int utf8Length(CharSequence str) {
+        final int length = str.length();
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            final char c = str.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && (i + 1 < length) && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    // 4 bytes for 2 chars
+                    utf8Length += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    utf8Length += 2;
+                }
+            } else if (c >= 0x80) {
+                utf8Length++;
+            }
+        }
+        return utf8Length;
+    }
+
+    void writeTo(ByteBuffer dst) {
+        dst.put(bytes, 0, size);
+    }
+
+    ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            final byte[] old = bytes;
+            bytes = new byte[Math.max(capacity, old.length * 2)];
+            System.arraycopy(old, 0, bytes, 0, size);
+        }
+    }
+}
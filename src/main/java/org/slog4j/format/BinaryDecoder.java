@@ -0,0 +1,280 @@
+package org.slog4j.format;
+
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.slf4j.event.Level;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.function.IntFunction;
+
+/**
+ * Turns a stream written by {@link BinaryFormatter} back into the lines {@link TextFormatter} would have written,
+ * optionally prefixed by the time and level as {@link PureTextFormatter} writes them. Throwables are written after
+ * their event, as stack traces. Thread-safe: every stream is decoded with its own dictionary.
+ */
+public final class BinaryDecoder {
+
+    static final String UNDEFINED_PLACEHOLDER = "_UNDEFINED_";
+
+    private static final char   PROPERTY_SEP   = ' ';
+    private static final char   NAME_VALUE_SEP = '=';
+    private static final String LINE_SEP       = "\n";
+
+    private final String         eventIdLabel;
+    private final String         timeLabel;
+    private final String         levelLabel;
+    private final EscapePolicy   escapePolicy;
+    private final FastDateFormat timeFormat;
+
+    /**
+     * Creates a decoder with the default labels and escaping of {@link TextFormatter}, without time nor level.
+     */
+    public BinaryDecoder() {
+        this(BaseFormatter.DEFAULT_EVENT_ID_LABEL, BaseFormatter.DEFAULT_TIME_LABEL,
+            BaseFormatter.DEFAULT_LEVEL_LABEL, EscapePolicy.LOGSTASH_KV, null);
+    }
+
+    /**
+     * Creates a decoder with the labels and escaping of a formatter.
+     *
+     * @param textFormatter the formatter whose lines are written.
+     * @param zone          the zone of the time written before every event, or null to leave time and level out.
+     */
+    public BinaryDecoder(TextFormatter textFormatter, ZoneId zone) {
+        this(textFormatter.eventIdLabel(), textFormatter.timeLabel(), textFormatter.levelLabel(),
+            textFormatter.escapePolicy(), zone);
+    }
+
+    BinaryDecoder(String eventIdLabel, String timeLabel, String levelLabel, EscapePolicy escapePolicy, ZoneId zone) {
+        this.eventIdLabel = eventIdLabel;
+        this.timeLabel = timeLabel;
+        this.levelLabel = levelLabel;
+        this.escapePolicy = escapePolicy;
+        this.timeFormat = (zone == null)
+            ? null : FastDateFormat.getInstance(BaseFormatter.DATE_TIME_FORMAT, TimeZone.getTimeZone(zone));
+    }
+
+    /**
+     * Decodes a whole stream, until its end or a zero record length.
+     *
+     * @param in  the stream.
+     * @param out where the lines are written, each one ended by a line feed.
+     * @return the number of events decoded.
+     * @throws EOFException               if the last record is truncated.
+     * @throws StreamCorruptedException   if a record is not valid.
+     * @throws IOException                if the stream or the output fail.
+     */
+    public long decode(InputStream in, Appendable out) throws IOException {
+        final List<String> dictionary = new ArrayList<>();
+        final IntFunction<String> names = id -> (id < dictionary.size()) ? dictionary.get(id) : null;
+        byte[] body = new byte[256];
+        long events = 0;
+        while (true) {
+            final long length = readVarint(in);
+            if (length <= 0) {
+                return events;
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("record too long: " + length);
+            }
+            if (length > body.length) {
+                body = new byte[(int) Math.max(length, body.length * 2L)];
+            }
+            readFully(in, body, (int) length);
+            final ByteBuffer record = ByteBuffer.wrap(body, 0, (int) length);
+            try {
+                if (record.get(0) == BinaryFormat.PADDING) {
+                    continue;
+                }
+                if (record.get(0) == BinaryFormat.DEFINE) {
+                    record.get();
+                    final int id = (int) readVarint(record);
+                    while (dictionary.size() <= id) {
+                        dictionary.add(null);
+                    }
+                    dictionary.set(id, readString(record));
+                } else {
+                    final StrBuilderResult sbr = new StrBuilderResult(256);
+                    renderEvent(record, names, sbr);
+                    if (record.hasRemaining() && (record.get() == BinaryFormat.THROWABLE)) {
+                        renderThrowable(record, names, sbr);
+                    }
+                    out.append(sbr.getString()).append(LINE_SEP);
+                    events++;
+                }
+            } catch (RuntimeException e) {
+                throw (StreamCorruptedException) new StreamCorruptedException("invalid record").initCause(e);
+            }
+        }
+    }
+
+    /**
+     * Decodes the body of a single event record, without its throwable.
+     */
+    String decodeEvent(ByteBuffer record, IntFunction<String> names) {
+        final StrBuilderResult sbr = new StrBuilderResult(256);
+        renderEvent(record, names, sbr);
+        return sbr.getString();
+    }
+
+    private void renderEvent(ByteBuffer record, IntFunction<String> names, StrBuilderResult sbr) {
+        if (record.get() != BinaryFormat.EVENT) {
+            throw new IllegalArgumentException("not an event");
+        }
+        final Level level = Level.values()[record.get()];
+        final long epochMillis = BinaryFormat.unzigzag(readVarint(record));
+        if (timeFormat != null) {
+            sbr.append(timeLabel).append(NAME_VALUE_SEP).append(timeFormat.format(epochMillis)).append(PROPERTY_SEP);
+            escapePolicy.appendTo(sbr.append(levelLabel).append(NAME_VALUE_SEP), level.toString())
+                .append(PROPERTY_SEP);
+        }
+        escapePolicy.appendTo(sbr.append(eventIdLabel).append(NAME_VALUE_SEP), readRef(record, names));
+        renderItems(record, names, sbr, false);
+    }
+
+    private void renderItems(ByteBuffer record, IntFunction<String> names, StrBuilderResult sbr, boolean first) {
+        boolean separate = !first;
+        while (true) {
+            final int ref = (int) readVarint(record);
+            if (ref == BinaryFormat.END) {
+                return;
+            }
+            if (separate) {
+                sbr.append(PROPERTY_SEP);
+            }
+            separate = true;
+            if (ref == BinaryFormat.BARE) {
+                sbr.append(readString(record));
+            } else {
+                sbr.append(resolve(ref, record, names)).append(NAME_VALUE_SEP);
+                renderValue(record, names, sbr);
+            }
+        }
+    }
+
+    private void renderValue(ByteBuffer record, IntFunction<String> names, StrBuilderResult sbr) {
+        final byte tag = record.get();
+        switch (tag) {
+            case BinaryFormat.NULL:
+                sbr.append(BaseFormatter.NULL_PLACEHOLDER);
+                break;
+            case BinaryFormat.STRING:
+                escapePolicy.appendTo(sbr, readString(record));
+                break;
+            case BinaryFormat.VERBATIM:
+                sbr.append(readString(record));
+                break;
+            case BinaryFormat.LONG:
+                sbr.append(BinaryFormat.unzigzag(readVarint(record)));
+                break;
+            case BinaryFormat.DOUBLE:
+                sbr.append(Double.toString(Double.longBitsToDouble(record.getLong())));
+                break;
+            case BinaryFormat.FLOAT:
+                sbr.append(Float.toString(Float.intBitsToFloat(record.getInt())));
+                break;
+            case BinaryFormat.TRUE:
+                sbr.append("true");
+                break;
+            case BinaryFormat.FALSE:
+                sbr.append("false");
+                break;
+            case BinaryFormat.OBJECT:
+                sbr.append('[');
+                renderItems(record, names, sbr, true);
+                sbr.append(']');
+                break;
+            default:
+                throw new IllegalArgumentException("unknown value tag: " + tag);
+        }
+    }
+
+    /**
+     * Renders a throwable and its causes as {@link Throwable#printStackTrace()} does, after the event line.
+     */
+    private void renderThrowable(ByteBuffer record, IntFunction<String> names, StrBuilderResult sbr) {
+        boolean cause = false;
+        do {
+            sbr.append(LINE_SEP).append(cause ? "Caused by: " : "").append(readRef(record, names));
+            if (record.get() == BinaryFormat.STRING) {
+                sbr.append(": ").append(readString(record));
+            }
+            final long frames = readVarint(record);
+            for (long i = 0; i < frames; i++) {
+                sbr.append(LINE_SEP).append("\tat ").append(readRef(record, names));
+            }
+            cause = true;
+        } while (record.get() == BinaryFormat.THROWABLE);
+    }
+
+    private static String readRef(ByteBuffer record, IntFunction<String> names) {
+        return resolve((int) readVarint(record), record, names);
+    }
+
+    private static String resolve(int ref, ByteBuffer record, IntFunction<String> names) {
+        if (ref == BinaryFormat.INLINE) {
+            return readString(record);
+        }
+        final String name = names.apply(ref);
+        return (name != null) ? name : (UNDEFINED_PLACEHOLDER + ref);
+    }
+
+    private static String readString(ByteBuffer record) {
+        final int length = (int) readVarint(record);
+        final String str = new String(record.array(), record.arrayOffset() + record.position(), length,
+            StandardCharsets.UTF_8);
+        ((Buffer) record).position(record.position() + length);
+        return str;
+    }
+
+    private static long readVarint(ByteBuffer record) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = record.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Reads a varint, or returns -1 at the end of the stream.
+     */
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("truncated record length");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+    }
+
+    private static void readFully(InputStream in, byte[] bytes, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            final int count = in.read(bytes, read, length - read);
+            if (count < 0) {
+                throw new EOFException("truncated record: " + read + " of " + length + " bytes");
+            }
+            read += count;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.slog4j.format;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints streams written by {@link BinaryFormatter} as text lines:
+ *
+ * <pre>
+ * java -cp slog4j.jar org.slog4j.format.BinaryDecoderCli [--time] [--zone ZONE] [FILE...]
+ * </pre>
+ *
+ * The files are read in order, or the standard input if none is given. <code>--time</code> writes the time and level
+ * of every event first, in the system zone unless another one is given with <code>--zone</code>.
+ */
+public final class BinaryDecoderCli {
+
+    private static final String USAGE = "usage: BinaryDecoderCli [--time] [--zone ZONE] [FILE...]";
+
+    private BinaryDecoderCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        System.exit(run(args, System.in, out, System.err));
+    }
+
+    static int run(String[] args, InputStream stdin, Writer out, Appendable stderr) throws IOException {
+        boolean time = false;
+        ZoneId zone = ZoneId.systemDefault();
+        final List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--time":
+                    time = true;
+                    break;
+                case "--zone":
+                    if (++i == args.length) {
+                        stderr.append(USAGE).append('\n');
+                        return 2;
+                    }
+                    zone = ZoneId.of(args[i]);
+                    break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        stderr.append(USAGE).append('\n');
+                        return 2;
+                    }
+                    files.add(args[i]);
+            }
+        }
+
+        final BinaryDecoder decoder = new BinaryDecoder(new TextFormatter(), time ? zone : null);
+        int status = 0;
+        try {
+            if (files.isEmpty()) {
+                status = decode(decoder, new BufferedInputStream(stdin), "<stdin>", out, stderr);
+            }
+            for (String file : files) {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                    status = Math.max(status, decode(decoder, in, file, out, stderr));
+                } catch (FileNotFoundException e) {
+                    stderr.append(e.getMessage()).append('\n');
+                    status = 1;
+                }
+            }
+        } finally {
+            out.flush();
+        }
+        return status;
+    }
+
+    private static int decode(BinaryDecoder decoder, InputStream in, String name, Writer out, Appendable stderr)
+        throws IOException {
+        try {
+            decoder.decode(in, out);
+            return 0;
+        } catch (IOException e) {
+            stderr.append(name).append(": ").append(e.getMessage()).append('\n');
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.slog4j.format;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The event ids, keys and stack frames written by a {@link BinaryFormatter}, with the ids assigned on first use.
+ *
+ * <p>
+ * An entry is defined in the stream by the first event that uses it, and by every other event formatted until that
+ * one is cleared, i.e. written: only then later events can rely on it. Bumping the generation makes every entry
+ * undefined again, e.g. when a new file is started.
+ */
+final class BinaryDictionary {
+
+    static final class Entry {
+        final int    id;
+        final byte[] utf8;
+
+        /**
+         * The last generation this entry was written in.
+         */
+        private volatile int publishedGeneration = -1;
+
+        Entry(int id, String name) {
+            this.id = id;
+            this.utf8 = name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        boolean isPublished(int generation) {
+            return publishedGeneration == generation;
+        }
+
+        void publish(int generation) {
+            publishedGeneration = generation;
+        }
+    }
+
+    private final int                  maxSize;
+    private final Map<String, Entry>   entries    = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names      = new ConcurrentHashMap<>();
+    private final AtomicInteger        nextId     = new AtomicInteger(BinaryFormat.FIRST_ID);
+    private final AtomicInteger        generation = new AtomicInteger();
+
+    BinaryDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the entry of a string, creating it if there is still room.
+     *
+     * @return the entry, or null if the dictionary is full.
+     */
+    Entry lookup(String name) {
+        final Entry entry = entries.get(name);
+        if ((entry != null) || (entries.size() >= maxSize)) {
+            return entry;
+        }
+        return entries.computeIfAbsent(name, key -> {
+            final Entry created = new Entry(nextId.getAndIncrement(), key);
+            names.put(created.id, key);
+            return created;
+        });
+    }
+
+    String name(int id) {
+        return names.get(id);
+    }
+
+    int generation() {
+        return generation.get();
+    }
+
+    void republish() {
+        generation.incrementAndGet();
+    }
+}
@@ -0,0 +1,66 @@
+package org.slog4j.format;
+
+/**
+ * Constants of the stream written by {@link BinaryFormatter} and read by {@link BinaryDecoder}.
+ *
+ * <pre>
+ * stream  := record*
+ * record  := varint(body length) body
+ * body    := DEFINE varint(id) string                      a dictionary entry
+ *          | EVENT level:byte zigzag(epoch millis) ref(event id) item* END [throwable]
+ *          | PADDING byte*                                   space left by an event that could not be written
+ * item    := ref(key) value | BARE string                   a property, or a word without a name
+ * value   := NULL | STRING string | VERBATIM string | LONG zigzag | DOUBLE 8 bytes | FLOAT 4 bytes
+ *          | TRUE | FALSE | OBJECT item* END
+ * ref     := varint(id >= FIRST_ID) | INLINE string         a dictionary entry or a string not in the dictionary
+ * throwable := THROWABLE ref(class) (NULL | STRING string) varint(frame count) ref(frame)* (NULL | throwable)
+ * string  := varint(UTF-8 length) UTF-8 bytes
+ * </pre>
+ *
+ * Varints are unsigned LEB128, signed numbers are zigzag-encoded first and floating-point numbers are written
+ * big-endian. A record is never empty, so a zero length, e.g. the unused tail of a preallocated file, ends the stream.
+ */
+final class BinaryFormat {
+
+    // record types
+    static final byte DEFINE  = 'D';
+    static final byte EVENT   = 'E';
+    static final byte PADDING = 'P';
+
+    // item refs
+    static final int END      = 0;
+    static final int BARE     = 1;
+    static final int INLINE   = 2;
+    static final int FIRST_ID = 3;
+
+    // value tags
+    static final byte NULL      = 0;
+    static final byte STRING    = 1;
+    static final byte VERBATIM  = 2;
+    static final byte LONG      = 3;
+    static final byte DOUBLE    = 4;
+    static final byte FLOAT     = 5;
+    static final byte TRUE      = 6;
+    static final byte FALSE     = 7;
+    static final byte OBJECT    = 8;
+    static final byte THROWABLE = 9;
+
+    private BinaryFormat() {
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        for (long v = value >>> 7; v != 0; v >>>= 7) {
+            size++;
+        }
+        return size;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
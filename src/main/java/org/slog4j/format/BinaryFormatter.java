@@ -0,0 +1,371 @@
+package org.slog4j.format;
+
+import lombok.val;
+import org.slf4j.event.Level;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+
+/**
+ * Formats every event as a compact binary record, for streams written straight to files and read back with
+ * {@link BinaryDecoder}. Every event records its level and time, and event ids, keys and stack frames are replaced
+ * by ids of a dictionary written in the stream itself: see {@link BinaryFormat} for the layout.
+ *
+ * <p>
+ * The results are {@link BinaryResult}s, whose {@link BinaryResult#getString()} decodes the event as the line
+ * {@link TextFormatter} would have written, so this formatter still works with any logger.
+ */
+public class BinaryFormatter extends BaseFormatter {
+
+    /**
+     * Above this many entries, new strings are written inline instead of being added to the dictionary.
+     */
+    static final int DEFAULT_MAX_DICTIONARY_SIZE = 65536;
+
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    private final Clock            clock;
+    private final BinaryDictionary dictionary;
+
+    private final ThreadLocal<BinaryResult> results = ThreadLocal.withInitial(() -> new BinaryResult(this));
+
+    private volatile BinaryDecoder decoder;
+
+    public BinaryFormatter() {
+        this(Clock.systemUTC());
+    }
+
+    public BinaryFormatter(Clock clock) {
+        this(clock, DEFAULT_MAX_DICTIONARY_SIZE);
+    }
+
+    public BinaryFormatter(Clock clock, int maxDictionarySize) {
+        this.clock = clock;
+        this.dictionary = new BinaryDictionary(maxDictionarySize);
+    }
+
+    /**
+     * Makes the following events define again every dictionary entry they use, e.g. when the stream is written to a
+     * new file, so each file can be decoded on its own.
+     */
+    public void republish() {
+        dictionary.republish();
+    }
+
+    /**
+     * Fills space reserved in a stream with a record that {@link BinaryDecoder} skips, e.g. when the event it was
+     * reserved for failed to be written.
+     *
+     * @param dst    the buffer, positioned at the start of the space.
+     * @param length the length of the space, at least 2 bytes.
+     */
+    public static void writePadding(ByteBuffer dst, int length) {
+        if (length < 2) {
+            throw new IllegalArgumentException("padding too short: " + length);
+        }
+        final int bodyLength;
+        if (length <= 0x80) {
+            bodyLength = length - 1;
+            dst.put((byte) bodyLength);
+        } else {
+            // a varint padded to 5 bytes, so that its size does not depend on the value
+            bodyLength = length - 5;
+            for (int shift = 0; shift < 28; shift += 7) {
+                dst.put((byte) ((bodyLength >>> shift) | 0x80));
+            }
+            dst.put((byte) (bodyLength >>> 28));
+        }
+        dst.put(BinaryFormat.PADDING);
+        for (int i = 1; i < bodyLength; i++) {
+            dst.put((byte) 0);
+        }
+    }
+
+    @Override
+    public Result format(Level level, String eventId) {
+        return end(begin(level, eventId));
+    }
+
+    @Override
+    public Result format(Level level, String eventId, Object obj) {
+        val result = begin(level, eventId);
+        if (obj != null) {
+            appendComplexObject(result, obj, renderPlan(obj.getClass()), true);
+        }
+        return end(result);
+    }
+
+    @Override
+    public Result format(Level level, String eventId, String name, Object value) {
+        val result = begin(level, eventId);
+        appendRef(result, name);
+        appendValue(result, value);
+        return end(result);
+    }
+
+    @Override
+    public Result format(Level level, String eventId, Object... objs) {
+        return end(appendObjects(begin(level, eventId), objs));
+    }
+
+    @Override
+    public Result format(Level level, LogContext context, String eventId, Object... objs) {
+        return end(appendObjects(appendContext(begin(level, eventId), context), objs));
+    }
+
+    BinaryDictionary dictionary() {
+        return dictionary;
+    }
+
+    BinaryDecoder decoder() {
+        BinaryDecoder current = decoder;
+        if (current == null) {
+            current = new BinaryDecoder(eventIdLabel(), timeLabel(), levelLabel(), EscapePolicy.LOGSTASH_KV, null);
+            decoder = current;
+        }
+        return current;
+    }
+
+    private BinaryResult appendObjects(BinaryResult result, Object[] objs) {
+        for (int i = 0; i < objs.length; i++) {
+            final Object obj = objs[i];
+            if (obj == null) {
+                // silently ignore null keys
+                continue;
+            }
+            if (obj instanceof String) {
+                appendRef(result, (String) obj);
+                if ((i + 1) != objs.length) {
+                    appendValue(result, objs[++i]);
+                } else {
+                    result.event().writeByte(BinaryFormat.VERBATIM).writeString(MISSING_VALUE_PLACEHOLDER);
+                }
+            } else {
+                appendComplexObject(result, obj, renderPlan(obj.getClass()), true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends the properties of a context. Unlike the text formatters, they are not rendered once: their names are
+     * dictionary references, which must be defined again after every {@link #republish()}.
+     */
+    private BinaryResult appendContext(BinaryResult result, LogContext context) {
+        if (context != null) {
+            for (int i = 0; i < context.size(); i++) {
+                appendValue(appendRef(result, context.name(i)), context.value(i));
+            }
+        }
+        return result;
+    }
+
+    private BinaryResult begin(Level level, String eventId) {
+        val result = results.get().reset(dictionary.generation());
+        result.event()
+            .writeByte(BinaryFormat.EVENT)
+            .writeByte(level.ordinal())
+            .writeZigzag(clock.millis());
+        return appendContext(appendRef(result, eventId), staticContext());
+    }
+
+    private BinaryResult end(BinaryResult result) {
+        result.event().writeVarint(BinaryFormat.END);
+        if (result.getAttachment() instanceof Throwable) {
+            appendThrowable(result, (Throwable) result.getAttachment());
+        }
+        return result;
+    }
+
+    /**
+     * Appends a dictionary reference, defining the entry first if needed, or the string itself if the dictionary is
+     * full.
+     */
+    private BinaryResult appendRef(BinaryResult result, String str) {
+        val entry = dictionary.lookup(str);
+        if (entry == null) {
+            result.event().writeVarint(BinaryFormat.INLINE).writeString(str);
+            return result;
+        }
+        if (!entry.isPublished(result.generation())) {
+            result.define(entry);
+        }
+        result.event().writeVarint(entry.id);
+        return result;
+    }
+
+    private BinaryResult appendValue(BinaryResult result, Object obj) {
+        val event = result.event();
+        if (obj == null) {
+            event.writeByte(BinaryFormat.NULL);
+            return result;
+        }
+        val plan = renderPlan(obj.getClass());
+        switch (plan.kind()) {
+            case STRING:
+                event.writeByte(BinaryFormat.STRING).writeString((String) obj);
+                break;
+            case INTEGRAL:
+                event.writeByte(BinaryFormat.LONG).writeZigzag(((Number) obj).longValue());
+                break;
+            case FLOATING:
+                if (obj instanceof Double) {
+                    event.writeByte(BinaryFormat.DOUBLE).writeLong(Double.doubleToRawLongBits((Double) obj));
+                } else {
+                    event.writeByte(BinaryFormat.FLOAT).writeInt(Float.floatToRawIntBits((Float) obj));
+                }
+                break;
+            case BOOLEAN:
+                event.writeByte(((Boolean) obj) ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+                break;
+            case APPENDED:
+                val scratch = result.scratch();
+                try {
+                    plan.appendingConverter().appendTo(obj, scratch);
+                } catch (RuntimeException ignored) {
+                    FormatterStats.converterFailed();
+                    return appendNested(result, obj, plan);
+                }
+                event.writeByte(BinaryFormat.STRING).writeString(scratch.getString());
+                break;
+            case CONVERTED:
+                final String str;
+                try {
+                    str = plan.stringConverter().convertToString(obj);
+                } catch (RuntimeException ignored) {
+                    FormatterStats.converterFailed();
+                    return appendNested(result, obj, plan);
+                }
+                event.writeByte(BinaryFormat.STRING).writeString(str);
+                break;
+            case LAZY:
+                final Object value = result.evaluate(obj);
+                if (value != EVALUATION_FAILED) {
+                    return appendValue(result, value);
+                }
+                event.writeByte(BinaryFormat.STRING).writeString(EVALUATION_FAILED_PLACEHOLDER);
+                break;
+            case COMPLEX:
+                return appendNested(result, obj, plan);
+            default:
+                event.writeByte(BinaryFormat.VERBATIM).writeString(obj.toString());
+                break;
+        }
+        return result;
+    }
+
+    private BinaryResult appendNested(BinaryResult result, Object obj, RenderPlan plan) {
+        result.event().writeByte(BinaryFormat.OBJECT);
+        appendComplexObject(result, obj, plan, false);
+        result.event().writeVarint(BinaryFormat.END);
+        return result;
+    }
+
+    /**
+     * Appends the items of an object that is not a simple value, as {@link TextFormatter} does: its properties, or
+     * nothing if it's the throwable attached to the event, or a bare word reporting it has no converter.
+     */
+    private BinaryResult appendComplexObject(BinaryResult result, Object obj, RenderPlan plan, boolean topLevel) {
+        if (plan.kind() == ValueKind.LAZY) {
+            val value = result.evaluate(obj);
+            if (value != EVALUATION_FAILED) {
+                // a lazy object stands for the object it supplies, ignored if null
+                return (value == null) ? result : appendComplexObject(result, value, renderPlan(value.getClass()),
+                    topLevel);
+            }
+            result.event().writeVarint(BinaryFormat.BARE)
+                .writeString(obj.getClass().getName() + '#' + EVALUATION_FAILED_PLACEHOLDER);
+            return result;
+        }
+        val converter = plan.propertiesConverter();
+        if (converter != null) {
+            converter.writeTo(obj, new Sink(result));
+            return result;
+        }
+        if (plan.throwable() && (topLevel || (result.getAttachment() == null))) {
+            return result.setAttachment(obj);
+        }
+        FormatterStats.converterMissed();
+        result.event().writeVarint(BinaryFormat.BARE)
+            .writeString(obj.getClass().getName() + '#' + NO_CONVERTER_PLACEHOLDER);
+        return result;
+    }
+
+    private void appendThrowable(BinaryResult result, Throwable throwable) {
+        Throwable current = throwable;
+        int depth = 0;
+        do {
+            result.event().writeByte(BinaryFormat.THROWABLE);
+            appendRef(result, current.getClass().getName());
+            if (current.getMessage() == null) {
+                result.event().writeByte(BinaryFormat.NULL);
+            } else {
+                result.event().writeByte(BinaryFormat.STRING).writeString(current.getMessage());
+            }
+            final StackTraceElement[] frames = current.getStackTrace();
+            result.event().writeVarint(frames.length);
+            for (StackTraceElement frame : frames) {
+                appendRef(result, frame.toString());
+            }
+            current = current.getCause();
+        } while ((current != null) && (++depth < MAX_CAUSE_DEPTH));
+        result.event().writeByte(BinaryFormat.NULL);
+    }
+
+    /**
+     * Writes the properties of a complex object as items of the current object.
+     */
+    private final class Sink implements PropertySink {
+        private final BinaryResult result;
+
+        Sink(BinaryResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public PropertySink put(String name, long value) {
+            appendRef(result, name).event().writeByte(BinaryFormat.LONG).writeZigzag(value);
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, double value) {
+            appendRef(result, name).event().writeByte(BinaryFormat.DOUBLE).writeLong(Double.doubleToRawLongBits(value));
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, boolean value) {
+            appendRef(result, name).event().writeByte(value ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, CharSequence value) {
+            if (value == null) {
+                appendRef(result, name).event().writeByte(BinaryFormat.NULL);
+            } else {
+                appendRef(result, name).event().writeByte(BinaryFormat.STRING).writeString(value);
+            }
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, Object value) {
+            appendValue(appendRef(result, name), value);
+            return this;
+        }
+
+        @Override
+        public PropertySink beginObject(String name) {
+            appendRef(result, name).event().writeByte(BinaryFormat.OBJECT);
+            return this;
+        }
+
+        @Override
+        public PropertySink endObject() {
+            result.event().writeVarint(BinaryFormat.END);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.slog4j.format;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * An event formatted by a {@link BinaryFormatter}: the dictionary records it defines followed by its event record.
+ *
+ * <p>
+ * {@link #clear()} must only be called once the result has been written, as it lets later events rely on the
+ * dictionary entries defined here.
+ */
+public final class BinaryResult implements Formatter.Result {
+
+    private final BinaryFormatter formatter;
+    private final BinaryBuffer    definitions = new BinaryBuffer(64);
+    private final BinaryBuffer    event       = new BinaryBuffer(128);
+
+    private BinaryDictionary.Entry[] defined = new BinaryDictionary.Entry[8];
+    private int                      definedCount;
+    private int                      generation;
+    private Object                   attachment;
+
+    private final EvaluatedValues evaluated = new EvaluatedValues();
+
+    /**
+     * Scratch buffer for the text of appending converters.
+     */
+    private StrBuilderResult scratch;
+
+    BinaryResult(BinaryFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    /**
+     * Starts a new event, discarding anything left by a previous one that was never cleared, i.e. never written.
+     */
+    BinaryResult reset(int generation) {
+        Arrays.fill(defined, 0, definedCount, null);
+        definedCount = 0;
+        definitions.clear();
+        event.clear();
+        attachment = null;
+        evaluated.clear();
+        this.generation = generation;
+        return this;
+    }
+
+    Object evaluate(Object lazy) {
+        return evaluated.evaluate(lazy);
+    }
+
+    BinaryBuffer event() {
+        return event;
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * Checks whether {@link BinaryFormatter#republish()} was called since this event was formatted, in which case it
+     * may reference entries that are not defined in the new stream and must be formatted again.
+     *
+     * @return true if the event must not be written to a stream started after the republish.
+     */
+    public boolean isStale() {
+        return generation != formatter.dictionary().generation();
+    }
+
+    /**
+     * Writes the definition of an entry, unless already written by this result.
+     */
+    void define(BinaryDictionary.Entry entry) {
+        for (int i = 0; i < definedCount; i++) {
+            if (defined[i] == entry) {
+                return;
+            }
+        }
+        if (definedCount == defined.length) {
+            defined = Arrays.copyOf(defined, definedCount * 2);
+        }
+        defined[definedCount++] = entry;
+        final int bodyLength = 1 + BinaryFormat.varintSize(entry.id)
+            + BinaryFormat.varintSize(entry.utf8.length) + entry.utf8.length;
+        definitions.writeVarint(bodyLength)
+            .writeByte(BinaryFormat.DEFINE)
+            .writeVarint(entry.id)
+            .writeVarint(entry.utf8.length)
+            .writeBytes(entry.utf8);
+    }
+
+    StrBuilderResult scratch() {
+        if (scratch == null) {
+            scratch = new StrBuilderResult(64);
+        }
+        scratch.clear();
+        return scratch;
+    }
+
+    /**
+     * Decodes the event as the line {@link TextFormatter} would have written, without the throwable.
+     */
+    @Override
+    public String getString() {
+        return formatter.decoder().decodeEvent(event.asByteBuffer(), formatter.dictionary()::name);
+    }
+
+    @Override
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    BinaryResult setAttachment(Object attachment) {
+        this.attachment = attachment;
+        return this;
+    }
+
+    /**
+     * Publishes the dictionary entries defined by this result, and makes it ready for the next event.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < definedCount; i++) {
+            defined[i].publish(generation);
+            defined[i] = null;
+        }
+        definedCount = 0;
+        definitions.clear();
+        event.clear();
+        attachment = null;
+        evaluated.clear();
+    }
+
+    /**
+     * Makes this result ready for the next event without publishing the dictionary entries it defined, so the next
+     * events define them again. Used instead of {@link #clear()} when the event was not written.
+     */
+    public void discard() {
+        reset(generation);
+    }
+
+    @Override
+    public int getByteLength() {
+        return definitions.size() + BinaryFormat.varintSize(event.size()) + event.size();
+    }
+
+    @Override
+    public int writeTo(ByteBuffer dst) {
+        final int length = getByteLength();
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        definitions.writeTo(dst);
+        for (long v = event.size(); ; v >>>= 7) {
+            if ((v & ~0x7FL) == 0) {
+                dst.put((byte) v);
+                break;
+            }
+            dst.put((byte) ((v & 0x7F) | 0x80));
+        }
+        event.writeTo(dst);
+        return length;
+    }
+
+    @Override
+    public int writeTo(WritableByteChannel channel) throws IOException {
+        final ByteBuffer bytes = ByteBuffer.allocate(getByteLength());
+        writeTo(bytes);
+        ((Buffer) bytes).flip();
+        int written = 0;
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,45 @@
+package org.slog4j.format;
+
+/**
+ * Supplies the {@link StrBuilderResult} formatters write events into. A buffer is borrowed with {@link #acquire()}
+ * and returned by {@link Formatter.Result#clear()}, which every logger calls once the event has been logged.
+ *
+ * @see StrBuilderResultFactory#setPool(BufferPool)
+ */
+public interface BufferPool {
+
+    /**
+     * Borrows an empty buffer.
+     *
+     * @return a buffer, marked with {@link StrBuilderResult#borrowedFrom(BufferPool)} if it must be released.
+     */
+    StrBuilderResult acquire();
+
+    /**
+     * Takes back a buffer already cleared. Called by {@link StrBuilderResult#clear()}, at most once per
+     * {@link #acquire()}.
+     *
+     * @param sbr the buffer.
+     */
+    void release(StrBuilderResult sbr);
+
+    /**
+     * Creates one of the predefined pools by name, ignoring case: <code>threadLocal</code>, <code>striped</code> or
+     * <code>carrierAware</code>.
+     *
+     * @param name                the name of the pool.
+     * @param initialCapacity     the capacity of a new buffer.
+     * @param maxRetainedCapacity the maximum capacity a buffer keeps once cleared.
+     * @return the pool.
+     * @throws IllegalArgumentException if there is no pool with that name, or the capacities are invalid.
+     */
+    static BufferPool named(String name, int initialCapacity, int maxRetainedCapacity) {
+        switch (name.toLowerCase()) {
+            case "threadlocal":  return new ThreadLocalBufferPool(initialCapacity, maxRetainedCapacity);
+            case "striped":      return new StripedBufferPool(initialCapacity, maxRetainedCapacity);
+            case "carrieraware": return new CarrierAwareBufferPool(initialCapacity, maxRetainedCapacity);
+            default:
+                throw new IllegalArgumentException("Unknown buffer pool: " + name);
+        }
+    }
+}
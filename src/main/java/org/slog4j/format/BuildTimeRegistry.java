@@ -0,0 +1,43 @@
+package org.slog4j.format;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The converters and configuration of an application, compiled by <code>slog4j-processor</code> into
+ * {@value #CLASS_NAME} when the <code>slog4j.registry</code> option is given.
+ *
+ * <p>
+ * When the class is found, formatters register its converters before looking up the others through
+ * {@link java.util.ServiceLoader}, or instead of it when the registry is {@link #complete()}, and
+ * {@link FormatterFactory} configures its formatter from the compiled <code>slog4j.yml</code> instead of parsing it.
+ */
+public interface BuildTimeRegistry {
+
+    String CLASS_NAME = "org.slog4j.generated.Slog4jRegistry";
+
+    /**
+     * @return the {@link org.joda.convert.TypedStringConverter}s, {@link ToPropertiesConverter}s and
+     *     {@link AppendingConverter}s to register on every formatter.
+     */
+    List<Object> converters();
+
+    /**
+     * @return the content of <code>slog4j.yml</code>, as parsed at build time, or null if it wasn't compiled.
+     */
+    Map<String, Object> configuration();
+
+    /**
+     * @return a new instance of the formatter named by the configuration, or null if it doesn't name any.
+     */
+    Formatter newFormatter();
+
+    /**
+     * @return true if {@link #converters()} lists every converter of the application and of its libraries, so that
+     *     they need not be looked up through {@link java.util.ServiceLoader}: compiled with
+     *     <code>-Aslog4j.registry=complete</code>.
+     */
+    default boolean complete() {
+        return false;
+    }
+}
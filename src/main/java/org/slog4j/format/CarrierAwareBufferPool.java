@@ -0,0 +1,64 @@
+package org.slog4j.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Keeps one buffer per platform thread, as {@link ThreadLocalBufferPool}, but makes virtual threads borrow from a
+ * {@link StripedBufferPool} sized for the carrier threads they run on. Millions of short-lived virtual threads then
+ * share a few buffers, while long-lived platform threads keep the fastest path.
+ *
+ * <p>
+ * On JVMs without virtual threads it behaves exactly as {@link ThreadLocalBufferPool}.
+ */
+public final class CarrierAwareBufferPool implements BufferPool {
+
+    /**
+     * <code>Thread.isVirtual()</code>, or <code>null</code> before Java 21.
+     */
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    private final ThreadLocalBufferPool platformPool;
+    private final StripedBufferPool     virtualPool;
+
+    /**
+     * @param initialCapacity     the capacity of a new buffer.
+     * @param maxRetainedCapacity the maximum capacity a buffer keeps once cleared.
+     */
+    public CarrierAwareBufferPool(int initialCapacity, int maxRetainedCapacity) {
+        platformPool = new ThreadLocalBufferPool(initialCapacity, maxRetainedCapacity);
+        virtualPool = new StripedBufferPool(initialCapacity, maxRetainedCapacity);
+    }
+
+    @Override
+    public StrBuilderResult acquire() {
+        return isVirtual(Thread.currentThread()) ? virtualPool.acquire() : platformPool.acquire();
+    }
+
+    @Override
+    public void release(StrBuilderResult sbr) {
+        // only buffers of the virtual pool are borrowed, and they release themselves there
+        virtualPool.release(sbr);
+    }
+
+    static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup()
+                .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
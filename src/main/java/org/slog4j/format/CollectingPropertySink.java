@@ -0,0 +1,64 @@
+package org.slog4j.format;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects properties into nested maps, keeping their order.
+ */
+final class CollectingPropertySink implements PropertySink {
+    private final Map<String, Object>       properties = new LinkedHashMap<>();
+    private final List<Map<String, Object>> enclosing  = new ArrayList<>();
+    private       Map<String, Object>       current    = properties;
+
+    Map<String, Object> properties() {
+        return properties;
+    }
+
+    @Override
+    public PropertySink put(String name, long value) {
+        current.put(name, value);
+        return this;
+    }
+
+    @Override
+    public PropertySink put(String name, double value) {
+        current.put(name, value);
+        return this;
+    }
+
+    @Override
+    public PropertySink put(String name, boolean value) {
+        current.put(name, value);
+        return this;
+    }
+
+    @Override
+    public PropertySink put(String name, CharSequence value) {
+        current.put(name, (value == null) ? null : value.toString());
+        return this;
+    }
+
+    @Override
+    public PropertySink put(String name, Object value) {
+        current.put(name, value);
+        return this;
+    }
+
+    @Override
+    public PropertySink beginObject(String name) {
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        current.put(name, nested);
+        enclosing.add(current);
+        current = nested;
+        return this;
+    }
+
+    @Override
+    public PropertySink endObject() {
+        current = enclosing.remove(enclosing.size() - 1);
+        return this;
+    }
+}
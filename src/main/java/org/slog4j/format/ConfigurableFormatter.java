@@ -30,4 +30,37 @@ public interface ConfigurableFormatter extends Formatter {
      */
     Formatter eventIdLabel(String eventIdLabel);
 
+    /**
+     * Changes how the <code>time</code> property is rendered. Ignored by formatters that don't render it.
+     *
+     * @param timestampPrecision The new precision.
+     * @return this, to enable chaining.
+     */
+    default Formatter timestampPrecision(TimestampPrecision timestampPrecision) {
+        return this;
+    }
+
+    /**
+     * Presizes the buffer of every event with a given id, so events known to be large don't make it grow several
+     * times. Ignored by formatters that don't use pooled buffers.
+     *
+     * @param eventId  The event id.
+     * @param capacity The capacity, in chars.
+     * @return this, to enable chaining.
+     */
+    default Formatter presize(String eventId, int capacity) {
+        return this;
+    }
+
+    /**
+     * Adds the properties of a context to every event, right after the event id, e.g. the service name and version.
+     * Ignored by formatters that don't support it.
+     *
+     * @param context The properties, or null for none.
+     * @return this, to enable chaining.
+     */
+    default Formatter staticContext(LogContext context) {
+        return this;
+    }
+
 }
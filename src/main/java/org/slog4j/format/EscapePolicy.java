@@ -0,0 +1,281 @@
+package org.slog4j.format;
+
+/**
+ * How string values are quoted and escaped by a formatter.
+ *
+ * <p>
+ * Strings are scanned once, in place: runs of chars that need no escaping are appended in bulk, and when a char that
+ * requires quoting is found the opening quote is inserted before the value already appended. Only ASCII chars can be
+ * quoted or escaped, every other char is always copied as is.
+ *
+ * <p>
+ * Other policies can be created with a {@link Builder}:
+ *
+ * <pre>
+ * EscapePolicy policy = new EscapePolicy.Builder().quote('"').quoteOn(" =").escape('"', '"').build();
+ * </pre>
+ */
+public final class EscapePolicy {
+
+    /**
+     * Marks a char escaped as <code>&#92;u00XX</code>.
+     */
+    private static final char UNICODE_ESCAPE = 'u';
+
+    /**
+     * The format expected by the LogStash kv filter: values with spaces or brackets are single-quoted, and single
+     * quotes and line breaks are escaped. The default of {@link TextFormatter}.
+     */
+    public static final EscapePolicy LOGSTASH_KV = new Builder()
+        .quote('\'')
+        .quoteOn(" []")
+        .escape('\'', '\'')
+        .escape('\r', 'r')
+        .escape('\n', 'n')
+        .build();
+
+    /**
+     * The logfmt format: values with spaces, equal signs, double quotes, backslashes or control chars are
+     * double-quoted, and double quotes, backslashes and control chars are escaped.
+     */
+    public static final EscapePolicy LOGFMT = new Builder()
+        .quote('"')
+        .quoteOn(" =")
+        .escape('"', '"')
+        .escape('\\', '\\')
+        .escapeControlChars()
+        .escape('\n', 'n')
+        .escape('\r', 'r')
+        .escape('\t', 't')
+        .quoteOnEscape()
+        .build();
+
+    /**
+     * JSON strings: always double-quoted, with double quotes, backslashes and control chars escaped.
+     */
+    public static final EscapePolicy JSON = new Builder()
+        .quote('"')
+        .alwaysQuote()
+        .escape('"', '"')
+        .escape('\\', '\\')
+        .escapeControlChars()
+        .escape('\b', 'b')
+        .escape('\f', 'f')
+        .escape('\n', 'n')
+        .escape('\r', 'r')
+        .escape('\t', 't')
+        .build();
+
+    private final char      quote;
+    private final boolean   alwaysQuote;
+    private final boolean[] quoteOn;
+    /**
+     * For every ASCII char: 0 if it is copied verbatim, {@link #UNICODE_ESCAPE} if it is written as
+     * <code>&#92;u00XX</code>, otherwise the char written after the backslash.
+     */
+    private final char[]    escapes;
+
+    private EscapePolicy(Builder builder) {
+        quote = builder.quote;
+        alwaysQuote = builder.alwaysQuote;
+        quoteOn = builder.quoteOn.clone();
+        escapes = builder.escapes.clone();
+    }
+
+    /**
+     * Gets one of the predefined policies by name, ignoring case: <code>logstash_kv</code>, <code>logfmt</code> or
+     * <code>json</code>.
+     *
+     * @param name the name of the policy.
+     * @return the policy.
+     * @throws IllegalArgumentException if there is no policy with that name.
+     */
+    public static EscapePolicy named(String name) {
+        switch (name.toLowerCase()) {
+            case "logstash_kv": return LOGSTASH_KV;
+            case "logfmt":      return LOGFMT;
+            case "json":        return JSON;
+            default:
+                throw new IllegalArgumentException("Unknown escape policy: " + name);
+        }
+    }
+
+    /**
+     * Appends a value, quoted if the policy requires it.
+     *
+     * @param sbr the builder to append to.
+     * @param str the value to append.
+     * @return the builder, to enable chaining.
+     */
+    public StrBuilderResult appendTo(StrBuilderResult sbr, String str) {
+        final int start = sbr.length();
+        boolean quoted = alwaysQuote;
+        if (quoted) {
+            sbr.append(quote);
+        }
+        final int length = str.length();
+        int runStart = 0;
+        for (int index = 0; index < length; index++) {
+            final char c = str.charAt(index);
+            if (c >= 128) {
+                continue;
+            }
+            if (!quoted && quoteOn[c]) {
+                sbr.insert(start, quote);
+                quoted = true;
+            }
+            final char escape = escapes[c];
+            if (escape != 0) {
+                appendEscape(sbr.append(str, runStart, index - runStart), c, escape);
+                runStart = index + 1;
+            }
+        }
+        sbr.append(str, runStart, length - runStart);
+        return quoted ? sbr.append(quote) : sbr;
+    }
+
+    /**
+     * Quotes and escapes a value already appended, e.g. by an {@link AppendingConverter}, as
+     * {@link #appendTo(StrBuilderResult, String)} would have done. Values that need no escaping are quoted in place,
+     * the others are copied once.
+     *
+     * @param sbr   the builder the value was appended to.
+     * @param start the index where the value starts, the value ending at the end of the builder.
+     * @return the builder, to enable chaining.
+     */
+    public StrBuilderResult escapeAppended(StrBuilderResult sbr, int start) {
+        boolean mustQuote = alwaysQuote;
+        final int length = sbr.length();
+        for (int index = start; index < length; index++) {
+            final char c = sbr.charAt(index);
+            if (c >= 128) {
+                continue;
+            }
+            if (escapes[c] != 0) {
+                final String str = sbr.substring(start);
+                return appendTo(sbr.truncate(start), str);
+            }
+            mustQuote |= quoteOn[c];
+        }
+        return mustQuote ? sbr.insert(start, quote).append(quote) : sbr;
+    }
+
+    /**
+     * Appends a value escaped but never quoted, e.g. part of a value whose quotes are appended by the caller.
+     *
+     * @param sbr the builder to append to.
+     * @param str the value to append.
+     * @return the builder, to enable chaining.
+     */
+    public StrBuilderResult appendEscaped(StrBuilderResult sbr, String str) {
+        final int length = str.length();
+        int runStart = 0;
+        for (int index = 0; index < length; index++) {
+            final char c = str.charAt(index);
+            final char escape;
+            if ((c >= 128) || ((escape = escapes[c]) == 0)) {
+                continue;
+            }
+            appendEscape(sbr.append(str, runStart, index - runStart), c, escape);
+            runStart = index + 1;
+        }
+        return sbr.append(str, runStart, length - runStart);
+    }
+
+    private static void appendEscape(StrBuilderResult sbr, char c, char escape) {
+        sbr.append('\\').append(escape);
+        if (escape == UNICODE_ESCAPE) {
+            sbr.appendHex(c, 4);
+        }
+    }
+
+    /**
+     * Builds an {@link EscapePolicy}. By default nothing is quoted nor escaped.
+     */
+    public static final class Builder {
+        private       char      quote       = '"';
+        private       boolean   alwaysQuote;
+        private final boolean[] quoteOn     = new boolean[128];
+        private final char[]    escapes     = new char[128];
+
+        /**
+         * @param quote the char used to quote values.
+         * @return this, to enable chaining.
+         */
+        public Builder quote(char quote) {
+            this.quote = quote;
+            return this;
+        }
+
+        /**
+         * Quotes every value.
+         *
+         * @return this, to enable chaining.
+         */
+        public Builder alwaysQuote() {
+            this.alwaysQuote = true;
+            return this;
+        }
+
+        /**
+         * Quotes the values that contain any of the given chars.
+         *
+         * @param chars ASCII chars that require quoting.
+         * @return this, to enable chaining.
+         */
+        public Builder quoteOn(String chars) {
+            for (int i = 0; i < chars.length(); i++) {
+                quoteOn[ascii(chars.charAt(i))] = true;
+            }
+            return this;
+        }
+
+        /**
+         * Quotes the values that contain any char escaped so far.
+         *
+         * @return this, to enable chaining.
+         */
+        public Builder quoteOnEscape() {
+            for (int c = 0; c < 128; c++) {
+                quoteOn[c] |= escapes[c] != 0;
+            }
+            return this;
+        }
+
+        /**
+         * Escapes a char with a backslash.
+         *
+         * @param c      the ASCII char to escape.
+         * @param escape the char written after the backslash.
+         * @return this, to enable chaining.
+         */
+        public Builder escape(char c, char escape) {
+            escapes[ascii(c)] = escape;
+            return this;
+        }
+
+        /**
+         * Escapes every control char as <code>&#92;u00XX</code>. Shorter escapes can be set afterwards with
+         * {@link #escape(char, char)}.
+         *
+         * @return this, to enable chaining.
+         */
+        public Builder escapeControlChars() {
+            for (int c = 0; c < 0x20; c++) {
+                escapes[c] = UNICODE_ESCAPE;
+            }
+            return this;
+        }
+
+        public EscapePolicy build() {
+            return new EscapePolicy(this);
+        }
+
+        private static char ascii(char c) {
+            if (c >= 128) {
+                throw new IllegalArgumentException("Only ASCII chars can be quoted or escaped: " + c);
+            }
+            return c;
+        }
+    }
+}
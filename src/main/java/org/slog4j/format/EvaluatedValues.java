@@ -0,0 +1,45 @@
+package org.slog4j.format;
+
+import java.util.Arrays;
+
+/**
+ * The values supplied by the lazy values of the event being formatted, so that a lazy value referenced twice by the
+ * event is only computed once. Lazy values are found by identity in a small array kept by the result and forgotten
+ * when it is cleared, so nothing is remembered from one event to the next.
+ */
+final class EvaluatedValues {
+
+    private static final int INITIAL_SIZE = 8;
+
+    /**
+     * Lazy values and what they supplied, in pairs.
+     */
+    private Object[] entries = new Object[INITIAL_SIZE];
+    private int      size;
+
+    /**
+     * Computes a {@link BaseFormatter.ValueKind#LAZY} value, unless it was already computed for this event.
+     *
+     * @param lazy the value, a {@link java.util.function.Supplier}.
+     * @return what it supplied, or {@link BaseFormatter#EVALUATION_FAILED} if it threw.
+     */
+    Object evaluate(Object lazy) {
+        for (int i = 0; i < size; i += 2) {
+            if (entries[i] == lazy) {
+                return entries[i + 1];
+            }
+        }
+        final Object value = BaseFormatter.evaluate(lazy);
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = lazy;
+        entries[size++] = value;
+        return value;
+    }
+
+    void clear() {
+        Arrays.fill(entries, 0, size, null);
+        size = 0;
+    }
+}
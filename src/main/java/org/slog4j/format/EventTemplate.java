@@ -0,0 +1,89 @@
+package org.slog4j.format;
+
+import lombok.Getter;
+
+/**
+ * The event id and property names of a call site, declared once so that only the values are passed when logging:
+ *
+ * <pre>
+ * private static final EventTemplate ORDER_PLACED = SLogger.template("ORDER_PLACED", "orderId", "amount");
+ * ...
+ * slog.info(ORDER_PLACED, orderId, amount);
+ * </pre>
+ *
+ * Formatters render the constant parts of the event, already escaped, on first use and then only copy them.
+ * Values beyond the declared names are handled as the objects of
+ * {@link Formatter#format(org.slf4j.event.Level, String, Object)}: expanded to properties or attached as a throwable.
+ */
+public final class EventTemplate {
+
+    @Getter
+    private final String eventId;
+
+    private final String[] names;
+
+    private final RenderedCache<char[][]> rendered = new RenderedCache<>();
+
+    private EventTemplate(String eventId, String[] names) {
+        this.eventId = eventId;
+        this.names = names;
+    }
+
+    /**
+     * Declares a template.
+     *
+     * @param eventId the event id.
+     * @param names   the names of the properties whose values are passed when logging, in order.
+     * @return the template.
+     */
+    public static EventTemplate of(String eventId, String... names) {
+        for (String name : names) {
+            if (name == null) {
+                throw new IllegalArgumentException("property names must not be null");
+            }
+        }
+        return new EventTemplate(eventId, names.clone());
+    }
+
+    /**
+     * @return the number of declared property names.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Interleaves the names with the values, as expected by the <code>Object...</code> methods. Names without a
+     * value get the missing value placeholder.
+     *
+     * @param values the values logged with this template.
+     * @return the names and values.
+     */
+    public Object[] toObjects(Object... values) {
+        final int extra = Math.max(0, values.length - names.length);
+        final Object[] objs = new Object[(names.length * 2) + extra];
+        for (int i = 0; i < names.length; i++) {
+            objs[2 * i] = names[i];
+            objs[(2 * i) + 1] = (i < values.length) ? values[i] : BaseFormatter.MISSING_VALUE_PLACEHOLDER;
+        }
+        if (extra > 0) {
+            System.arraycopy(values, names.length, objs, names.length * 2, extra);
+        }
+        return objs;
+    }
+
+    /**
+     * @return the chunks rendered by a formatter with the given render stamp, null if it didn't render them yet.
+     */
+    char[][] chunks(Object stamp) {
+        return rendered.get(stamp);
+    }
+
+    char[][] chunks(Object stamp, char[][] chunks) {
+        return rendered.put(stamp, chunks);
+    }
+}
@@ -2,6 +2,12 @@ package org.slog4j.format;
 
 import org.slf4j.event.Level;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
 public interface Formatter {
 
     interface Result {
@@ -10,6 +16,48 @@ public interface Formatter {
         Object getAttachment();
 
         void clear();
+
+        /**
+         * Gets the length of the result once encoded as UTF-8.
+         *
+         * @return the number of bytes written by {@link #writeTo(ByteBuffer)}
+         */
+        default int getByteLength() {
+            return getString().getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        /**
+         * Writes the result encoded as UTF-8 into a buffer, skipping the intermediate {@link String} whenever the
+         * implementation allows it.
+         *
+         * @param dst the buffer to write to, starting at its current position
+         * @return the number of bytes written
+         * @throws BufferOverflowException if there is not enough room for the whole result, in which case nothing is
+         *                                 written
+         */
+        default int writeTo(ByteBuffer dst) {
+            byte[] bytes = getString().getBytes(StandardCharsets.UTF_8);
+            dst.put(bytes);
+            return bytes.length;
+        }
+
+        /**
+         * Writes the result encoded as UTF-8 into a channel, skipping the intermediate {@link String} whenever the
+         * implementation allows it.
+         *
+         * @param channel the channel to write to, in blocking mode: the whole result is written before returning,
+         *                so a non-blocking channel that accepts nothing would be retried in a busy loop
+         * @return the number of bytes written
+         * @throws IOException if the channel fails
+         */
+        default int writeTo(WritableByteChannel channel) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap(getString().getBytes(StandardCharsets.UTF_8));
+            int written = 0;
+            while (bytes.hasRemaining()) {
+                written += channel.write(bytes);
+            }
+            return written;
+        }
     }
 
     Result format(Level level, String eventId);
@@ -19,4 +67,42 @@ public interface Formatter {
     Result format(Level level, String eventId, String name, Object value);
 
     Result format(Level level, String eventId, Object... objs);
+
+    /**
+     * Formats an event declared by a template.
+     *
+     * @param level    the level of the event.
+     * @param template the event id and property names.
+     * @param values   the values of the properties, in the order of the template names.
+     * @return the formatted event.
+     */
+    default Result format(Level level, EventTemplate template, Object... values) {
+        return format(level, template.getEventId(), template.toObjects(values));
+    }
+
+    /**
+     * Formats an event with the properties of a context right after its event id.
+     *
+     * @param level   the level of the event.
+     * @param context the properties shared by the events of a logger.
+     * @param eventId the event id.
+     * @param objs    the objects of the event, as in {@link #format(Level, String, Object...)}.
+     * @return the formatted event.
+     */
+    default Result format(Level level, LogContext context, String eventId, Object... objs) {
+        return format(level, eventId, context.toObjects(objs));
+    }
+
+    /**
+     * Formats an event declared by a template with the properties of a context right after its event id.
+     *
+     * @param level    the level of the event.
+     * @param context  the properties shared by the events of a logger.
+     * @param template the event id and property names.
+     * @param values   the values of the properties, in the order of the template names.
+     * @return the formatted event.
+     */
+    default Result format(Level level, LogContext context, EventTemplate template, Object... values) {
+        return format(level, context, template.getEventId(), template.toObjects(values));
+    }
 }
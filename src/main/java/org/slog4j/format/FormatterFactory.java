@@ -4,43 +4,141 @@ import lombok.experimental.UtilityClass;
 import lombok.val;
 import org.yaml.snakeyaml.Yaml;
 
-import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @UtilityClass
 public class FormatterFactory {
 
-    private static Formatter INSTANCE;
+    /**
+     * The registry found on a given class loader.
+     */
+    private static final class FoundRegistry {
+        final ClassLoader       loader;
+        final BuildTimeRegistry registry;
+
+        FoundRegistry(ClassLoader loader, BuildTimeRegistry registry) {
+            this.loader = loader;
+            this.registry = registry;
+        }
+    }
+
+    private static volatile Formatter INSTANCE;
+
+    private static volatile FoundRegistry foundRegistry;
 
     public static Formatter getInstance() {
-        if (INSTANCE == null) {
-            val configInput = FormatterFactory.class.getResourceAsStream("/slog4j.yml");
-            if (configInput != null) {
-                try {
-                    INSTANCE = loadFormatterFromStream(configInput);
-                } catch (Exception e) {
-                    throw new ConfigurationError("Error loading SLog4j configuration", e);
+        // double-checked: only the first calls may lock
+        Formatter instance = INSTANCE;
+        if (instance == null) {
+            synchronized (FormatterFactory.class) {
+                instance = INSTANCE;
+                if (instance == null) {
+                    instance = createInstance();
+                    INSTANCE = instance;
                 }
             }
-            if (INSTANCE == null) {
-                INSTANCE = getDefaultInstance();
+        }
+        return instance;
+    }
+
+    private static Formatter createInstance() {
+        val registry = registry();
+        if ((registry != null) && (registry.configuration() != null)) {
+            try {
+                return configure(registry.configuration(), registry.newFormatter());
+            } catch (Exception e) {
+                throw new ConfigurationError("Error loading the compiled SLog4j configuration", e);
+            }
+        }
+        val configInput = FormatterFactory.class.getResourceAsStream("/slog4j.yml");
+        if (configInput != null) {
+            try {
+                return configure(new Yaml().loadAs(configInput, Map.class), null);
+            } catch (Exception e) {
+                throw new ConfigurationError("Error loading SLog4j configuration", e);
             }
         }
-        return INSTANCE;
+        return getDefaultInstance();
+    }
+
+    /**
+     * Gets the {@link BuildTimeRegistry} generated for the application, looked up once per context class loader.
+     *
+     * @return the registry, or null if it wasn't generated.
+     */
+    static BuildTimeRegistry registry() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = FormatterFactory.class.getClassLoader();
+        }
+        FoundRegistry found = foundRegistry;
+        if ((found == null) || (found.loader != loader)) {
+            found = new FoundRegistry(loader, loadRegistry(loader));
+            foundRegistry = found;
+        }
+        return found.registry;
+    }
+
+    private static BuildTimeRegistry loadRegistry(ClassLoader loader) {
+        final Class<?> registryClass;
+        try {
+            registryClass = Class.forName(BuildTimeRegistry.CLASS_NAME, true, loader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (BuildTimeRegistry) registryClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ConfigurationError("Error loading " + BuildTimeRegistry.CLASS_NAME, e);
+        }
     }
 
+    /**
+     * Configures SLog4j from the content of <code>slog4j.yml</code>.
+     *
+     * @param yaml      the content.
+     * @param formatter the formatter to configure, or null to instantiate the one named by the content.
+     */
     @SuppressWarnings("unchecked")
-    private static Formatter loadFormatterFromStream(InputStream is)
+    static Formatter configure(Map<String, Object> yaml, Formatter formatter)
         throws ReflectiveOperationException {
         val cl = FormatterFactory.class.getClassLoader();
-        val yaml = new Yaml().loadAs(is, Map.class);
-        val formatterClassName = (String) yaml.get("formatter");
-        final Formatter formatter;
-        if (formatterClassName == null) {
-            formatter = getDefaultInstance();
-        } else {
-            val formatterClass = cl.loadClass(formatterClassName);
-            formatter = (Formatter) formatterClass.getDeclaredConstructor().newInstance();
+        val buffersEntry = (Map<String, Object>) yaml.get("buffers");
+        if (buffersEntry != null) {
+            val poolName = (String) buffersEntry.get("pool");
+            val initialCapacity = (Integer) buffersEntry.get("initialCapacity");
+            val maxRetainedCapacity = (Integer) buffersEntry.get("maxRetainedCapacity");
+            if ((poolName != null) || (initialCapacity != null) || (maxRetainedCapacity != null)) {
+                StrBuilderResultFactory.setPool(BufferPool.named(
+                    (poolName != null) ? poolName : "threadLocal",
+                    (initialCapacity != null)
+                        ? initialCapacity : StrBuilderResultFactory.DEFAULT_INITIAL_CAPACITY,
+                    (maxRetainedCapacity != null)
+                        ? maxRetainedCapacity : StrBuilderResult.DEFAULT_MAX_RETAINED_CAPACITY));
+            }
+        }
+        val statsEntry = (Map<String, Object>) yaml.get("stats");
+        if (statsEntry != null) {
+            val enabled = (Boolean) statsEntry.get("enabled");
+            if (enabled != null) {
+                FormatterStats.setEnabled(enabled);
+            }
+            val slowFormatThresholdMicros = (Integer) statsEntry.get("slowFormatThresholdMicros");
+            if (slowFormatThresholdMicros != null) {
+                FormatterStats.setSlowFormatThresholdNanos(
+                    TimeUnit.MICROSECONDS.toNanos(slowFormatThresholdMicros));
+            }
+        }
+        if (formatter == null) {
+            val formatterClassName = (String) yaml.get("formatter");
+            if (formatterClassName == null) {
+                formatter = getDefaultInstance();
+            } else {
+                val formatterClass = cl.loadClass(formatterClassName);
+                formatter = (Formatter) formatterClass.getDeclaredConstructor().newInstance();
+            }
         }
         if (formatter instanceof ConfigurableFormatter) {
             val configurableFormatter = (ConfigurableFormatter) formatter;
@@ -58,6 +156,45 @@ public class FormatterFactory {
                     }
                 }
             }
+            val contextEntry = (Map<String, Object>) yaml.get("context");
+            if ((contextEntry != null) && !contextEntry.isEmpty()) {
+                configurableFormatter.staticContext(LogContext.of(contextEntry));
+            }
+            val timestampPrecision = (String) yaml.get("timestampPrecision");
+            if (timestampPrecision != null) {
+                configurableFormatter.timestampPrecision(TimestampPrecision.valueOf(timestampPrecision.toUpperCase()));
+            }
+            if (buffersEntry != null) {
+                val presizeEntry = (Map<String, Integer>) buffersEntry.get("presize");
+                if (presizeEntry != null) {
+                    for (val entry : presizeEntry.entrySet()) {
+                        configurableFormatter.presize(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+        if (formatter instanceof TextFormatter) {
+            val escapePolicy = (String) yaml.get("escapePolicy");
+            if (escapePolicy != null) {
+                ((TextFormatter) formatter).escapePolicy(EscapePolicy.named(escapePolicy));
+            }
+            val throwablesEntry = (Map<String, Object>) yaml.get("throwables");
+            if ((throwablesEntry != null) && Boolean.TRUE.equals(throwablesEntry.get("inline"))) {
+                val builder = new ThrowableRenderer.Builder();
+                val maxFrames = (Integer) throwablesEntry.get("maxFrames");
+                if (maxFrames != null) {
+                    builder.maxFrames(maxFrames);
+                }
+                val excludePackages = (List<String>) throwablesEntry.get("excludePackages");
+                if (excludePackages != null) {
+                    builder.excludePackages(excludePackages.toArray(new String[0]));
+                }
+                val cacheSize = (Integer) throwablesEntry.get("cacheSize");
+                if (cacheSize != null) {
+                    builder.cacheSize(cacheSize);
+                }
+                ((TextFormatter) formatter).throwableRenderer(builder.build());
+            }
         }
         return formatter;
     }
@@ -0,0 +1,291 @@
+package org.slog4j.format;
+
+import lombok.experimental.UtilityClass;
+import org.slf4j.event.Level;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Statistics of the formatting pipeline: events and bytes formatted by formatter class and level, time spent
+ * formatting, values without a converter and converters that failed. Disabled by default, when the pipeline only
+ * reads a volatile flag per event; enabled with <code>-Dslog4j.stats=true</code>, by <code>slog4j.yml</code>:
+ *
+ * <pre>
+ * stats:
+ *   enabled: true
+ *   slowFormatThresholdMicros: 500
+ * </pre>
+ *
+ * or at runtime through {@link #setEnabled(boolean)} or JMX, once {@link #registerMBean()} has been called.
+ *
+ * <p>
+ * While enabled, every event that takes longer than the slow format threshold to be formatted is also recorded as an
+ * <code>org.slog4j.SlowFormat</code> Java Flight Recorder event, on JVMs that have JFR.
+ */
+@UtilityClass
+public class FormatterStats {
+
+    public static final long DEFAULT_SLOW_FORMAT_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final Level[] LEVELS = Level.values();
+
+    /**
+     * The statistics of a formatter class.
+     */
+    private static final class Counters {
+        final LongAdder[] events = new LongAdder[LEVELS.length];
+        final LongAdder   bytes  = new LongAdder();
+        final LongAdder   nanos  = new LongAdder();
+
+        Counters() {
+            for (int i = 0; i < events.length; i++) {
+                events[i] = new LongAdder();
+            }
+        }
+    }
+
+    private static final Map<Class<?>, Counters> COUNTERS         = new ConcurrentHashMap<>();
+    private static final LongAdder               CONVERTER_MISSES = new LongAdder();
+    private static final LongAdder               CONVERTER_FAILS  = new LongAdder();
+    private static final LongAdder               SLOW_FORMATS     = new LongAdder();
+
+    private static volatile boolean enabled                  = Boolean.getBoolean("slog4j.stats");
+    private static volatile long    slowFormatThresholdNanos = DEFAULT_SLOW_FORMAT_THRESHOLD_NANOS;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops collecting statistics. The statistics collected so far are kept.
+     *
+     * @param enabled true to collect statistics.
+     */
+    public static void setEnabled(boolean enabled) {
+        FormatterStats.enabled = enabled;
+    }
+
+    public static long getSlowFormatThresholdNanos() {
+        return slowFormatThresholdNanos;
+    }
+
+    /**
+     * @param slowFormatThresholdNanos the time to format an event above which it is counted, and recorded with JFR,
+     *                                 as a slow format.
+     */
+    public static void setSlowFormatThresholdNanos(long slowFormatThresholdNanos) {
+        if (slowFormatThresholdNanos < 0) {
+            throw new IllegalArgumentException("slowFormatThresholdNanos must not be negative");
+        }
+        FormatterStats.slowFormatThresholdNanos = slowFormatThresholdNanos;
+    }
+
+    /**
+     * Marks the start of the formatting of an event, to be passed to
+     * {@link #formatted(Formatter, Level, Formatter.Result, long)} once it is formatted.
+     *
+     * @return the current time, or 0 if statistics are disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a formatted event. Does nothing unless {@link #start()} was called while statistics were enabled.
+     *
+     * @param formatter the formatter of the event.
+     * @param level     the level of the event.
+     * @param result    the formatted event, not cleared yet.
+     * @param start     the value returned by {@link #start()} before formatting the event.
+     */
+    public static void formatted(Formatter formatter, Level level, Formatter.Result result, long start) {
+        if (start == 0) {
+            return;
+        }
+        final long nanos = System.nanoTime() - start;
+        final int bytes = result.getByteLength();
+        Counters counters = COUNTERS.get(formatter.getClass());
+        if (counters == null) {
+            counters = COUNTERS.computeIfAbsent(formatter.getClass(), key -> new Counters());
+        }
+        counters.events[level.ordinal()].increment();
+        counters.bytes.add(bytes);
+        counters.nanos.add(nanos);
+        if (nanos > slowFormatThresholdNanos) {
+            SLOW_FORMATS.increment();
+            SlowFormatEvents.commit(formatter.getClass().getName(), level.name(), nanos, bytes);
+        }
+    }
+
+    static void converterMissed() {
+        if (enabled) {
+            CONVERTER_MISSES.increment();
+        }
+    }
+
+    static void converterFailed() {
+        if (enabled) {
+            CONVERTER_FAILS.increment();
+        }
+    }
+
+    /**
+     * Gets the number of events formatted, by <code>FormatterSimpleName/LEVEL</code>.
+     *
+     * @return the counts, sorted by key.
+     */
+    public static Map<String, Long> getEventCounts() {
+        final Map<String, Long> counts = new TreeMap<>();
+        COUNTERS.forEach((formatterClass, counters) -> {
+            for (Level level : LEVELS) {
+                final long count = counters.events[level.ordinal()].sum();
+                if (count > 0) {
+                    counts.put(formatterClass.getSimpleName() + '/' + level, count);
+                }
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * @return the number of UTF-8 bytes formatted, by formatter simple class name.
+     */
+    public static Map<String, Long> getFormattedBytes() {
+        return byFormatter(counters -> counters.bytes.sum());
+    }
+
+    /**
+     * @return the nanoseconds spent formatting, by formatter simple class name.
+     */
+    public static Map<String, Long> getFormatNanos() {
+        return byFormatter(counters -> counters.nanos.sum());
+    }
+
+    /**
+     * @return the number of objects logged without a converter, formatted as <code>_NO_CONVERTER_</code>.
+     */
+    public static long getConverterMissCount() {
+        return CONVERTER_MISSES.sum();
+    }
+
+    /**
+     * @return the number of exceptions thrown by converters, whose values were formatted as complex objects.
+     */
+    public static long getConverterFailureCount() {
+        return CONVERTER_FAILS.sum();
+    }
+
+    /**
+     * @return the number of events that took longer than the threshold to be formatted.
+     */
+    public static long getSlowFormatCount() {
+        return SLOW_FORMATS.sum();
+    }
+
+    /**
+     * Forgets the statistics collected so far, except the buffer counts of {@link StrBuilderResult}.
+     */
+    public static void reset() {
+        COUNTERS.clear();
+        CONVERTER_MISSES.reset();
+        CONVERTER_FAILS.reset();
+        SLOW_FORMATS.reset();
+    }
+
+    /**
+     * Registers a {@link FormatterStatsMXBean} on the platform MBean server, as
+     * <code>org.slog4j:type=FormatterStats</code>.
+     *
+     * @return the name of the MBean, to unregister it.
+     * @throws JMException if the MBean cannot be registered, e.g. if it already is.
+     */
+    public static ObjectName registerMBean() throws JMException {
+        final ObjectName objectName = new ObjectName("org.slog4j", "type", "FormatterStats");
+        ManagementFactory.getPlatformMBeanServer()
+            .registerMBean(new StandardMBean(new MXBean(), FormatterStatsMXBean.class, true), objectName);
+        return objectName;
+    }
+
+    private static Map<String, Long> byFormatter(ToLongFunction<Counters> value) {
+        final Map<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((formatterClass, counters) -> values.put(formatterClass.getSimpleName(),
+            value.applyAsLong(counters)));
+        return values;
+    }
+
+    private static final class MXBean implements FormatterStatsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return FormatterStats.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            FormatterStats.setEnabled(enabled);
+        }
+
+        @Override
+        public long getSlowFormatThresholdNanos() {
+            return FormatterStats.getSlowFormatThresholdNanos();
+        }
+
+        @Override
+        public void setSlowFormatThresholdNanos(long slowFormatThresholdNanos) {
+            FormatterStats.setSlowFormatThresholdNanos(slowFormatThresholdNanos);
+        }
+
+        @Override
+        public Map<String, Long> getEventCounts() {
+            return FormatterStats.getEventCounts();
+        }
+
+        @Override
+        public Map<String, Long> getFormattedBytes() {
+            return FormatterStats.getFormattedBytes();
+        }
+
+        @Override
+        public Map<String, Long> getFormatNanos() {
+            return FormatterStats.getFormatNanos();
+        }
+
+        @Override
+        public long getBufferGrowCount() {
+            return StrBuilderResult.getGrowCount();
+        }
+
+        @Override
+        public long getBufferShrinkCount() {
+            return StrBuilderResult.getShrinkCount();
+        }
+
+        @Override
+        public long getConverterMissCount() {
+            return FormatterStats.getConverterMissCount();
+        }
+
+        @Override
+        public long getConverterFailureCount() {
+            return FormatterStats.getConverterFailureCount();
+        }
+
+        @Override
+        public long getSlowFormatCount() {
+            return FormatterStats.getSlowFormatCount();
+        }
+
+        @Override
+        public void reset() {
+            FormatterStats.reset();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.slog4j.format;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the {@link FormatterStats}, registered by {@link FormatterStats#registerMBean()}.
+ */
+public interface FormatterStatsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSlowFormatThresholdNanos();
+
+    void setSlowFormatThresholdNanos(long slowFormatThresholdNanos);
+
+    /**
+     * @return the number of events formatted by <code>FormatterSimpleName/LEVEL</code>.
+     */
+    Map<String, Long> getEventCounts();
+
+    /**
+     * @return the number of UTF-8 bytes formatted by formatter.
+     */
+    Map<String, Long> getFormattedBytes();
+
+    /**
+     * @return the nanoseconds spent formatting by formatter.
+     */
+    Map<String, Long> getFormatNanos();
+
+    /**
+     * @return the number of times a buffer had to grow, counted even when statistics are disabled.
+     */
+    long getBufferGrowCount();
+
+    /**
+     * @return the number of times a buffer was shrunk, counted even when statistics are disabled.
+     */
+    long getBufferShrinkCount();
+
+    long getConverterMissCount();
+
+    long getConverterFailureCount();
+
+    long getSlowFormatCount();
+
+    /**
+     * Forgets the statistics collected so far, except the buffer counts.
+     */
+    void reset();
+}
@@ -0,0 +1,78 @@
+package org.slog4j.format;
+
+import org.slf4j.event.Level;
+
+/**
+ * A {@link Formatter} that can also format an event one property at a time, so primitive values are appended
+ * without being boxed.
+ *
+ * <p>
+ * An event is formatted by calling {@link #begin}, then any of the <code>append</code> methods, then {@link #end},
+ * all on the same buffer.
+ */
+public interface IncrementalFormatter extends Formatter {
+
+    /**
+     * Starts an event.
+     *
+     * @param sbr     an empty buffer, owned by the caller until the event is logged.
+     * @param level   the level of the event.
+     * @param eventId the event id.
+     * @return the buffer, to enable chaining.
+     */
+    StrBuilderResult begin(StrBuilderResult sbr, Level level, String eventId);
+
+    /**
+     * Starts an event with the properties of a context right after its event id.
+     *
+     * @param sbr     an empty buffer, owned by the caller until the event is logged.
+     * @param level   the level of the event.
+     * @param context the properties shared by the events of a logger.
+     * @param eventId the event id.
+     * @return the buffer, to enable chaining.
+     */
+    default StrBuilderResult begin(StrBuilderResult sbr, Level level, LogContext context, String eventId) {
+        begin(sbr, level, eventId);
+        for (int i = 0; i < context.size(); i++) {
+            appendField(sbr, context.name(i), context.value(i));
+        }
+        return sbr;
+    }
+
+    StrBuilderResult appendField(StrBuilderResult sbr, String name, long value);
+
+    StrBuilderResult appendField(StrBuilderResult sbr, String name, double value);
+
+    StrBuilderResult appendField(StrBuilderResult sbr, String name, boolean value);
+
+    /**
+     * Appends a char as a one-char string. Formatters that don't override it box the char.
+     *
+     * @param sbr   the buffer of the event.
+     * @param name  the property name.
+     * @param value the char.
+     * @return the buffer, to enable chaining.
+     */
+    default StrBuilderResult appendField(StrBuilderResult sbr, String name, char value) {
+        return appendField(sbr, name, (Object) value);
+    }
+
+    StrBuilderResult appendField(StrBuilderResult sbr, String name, Object value);
+
+    /**
+     * Appends a complex object or a throwable, as {@link #format(Level, String, Object)} does.
+     *
+     * @param sbr the buffer of the event.
+     * @param obj the object to append.
+     * @return the buffer, to enable chaining.
+     */
+    StrBuilderResult appendObject(StrBuilderResult sbr, Object obj);
+
+    /**
+     * Completes an event.
+     *
+     * @param sbr the buffer of the event.
+     * @return the formatted event.
+     */
+    Result end(StrBuilderResult sbr);
+}
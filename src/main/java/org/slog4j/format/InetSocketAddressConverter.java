@@ -1,8 +1,9 @@
 package org.slog4j.format;
 
+import java.net.Inet4Address;
 import java.net.InetSocketAddress;
 
-public class InetSocketAddressConverter implements TypedToStringConverter<InetSocketAddress> {
+public class InetSocketAddressConverter implements AppendingConverter<InetSocketAddress> {
 
     @Override
     public Class<?> getEffectiveType() {
@@ -10,12 +11,18 @@ public class InetSocketAddressConverter implements TypedToStringConverter<InetSo
     }
 
     @Override
-    public String convertToString(InetSocketAddress value) {
-        String text = value.toString();
-        int sep;
-        if ((sep = text.indexOf('/')) >= 0) {
-            return text.substring(sep + 1);
+    public void appendTo(InetSocketAddress value, StrBuilderResult out) {
+        if (value.getAddress() instanceof Inet4Address) {
+            byte[] address = value.getAddress().getAddress();
+            for (int i = 0; i < address.length; i++) {
+                out.appendSeparator('.', i).append(address[i] & 0xff);
+            }
+            out.append(':').append(value.getPort());
+        } else {
+            // unresolved and IPv6 addresses are rendered differently by every JDK
+            String text = value.toString();
+            int sep = text.indexOf('/');
+            out.append(text, sep + 1, text.length() - (sep + 1));
         }
-        return text;
     }
 }
@@ -0,0 +1,434 @@
+package org.slog4j.format;
+
+import lombok.val;
+import org.slf4j.event.Level;
+
+/**
+ * Formats every event as a single-line JSON object, written straight into the pooled {@link StrBuilderResult}.
+ *
+ * <p>
+ * Properties expanded by a {@link ToPropertiesConverter} are rendered as nested objects and throwables as structured
+ * objects (class, message, stack trace and cause chain) under the <code>exception</code> field, so they are never
+ * handed to the underlying logging framework as attachments.
+ */
+public class JsonFormatter extends BaseFormatter implements IncrementalFormatter {
+    protected static final String EXCEPTION_LABEL = "exception";
+
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    @Override
+    public Result format(Level level, String eventId) {
+        val sbr = newResult(eventId).append('{');
+        beforeAddContentsHook(sbr, level);
+        return appendEventId(sbr, eventId).append('}');
+    }
+
+    @Override
+    public Result format(Level level, String eventId, Object obj) {
+        val sbr = newResult(eventId).append('{');
+        beforeAddContentsHook(sbr, level);
+        appendEventId(sbr, eventId);
+        return appendComplexObject(sbr, obj, true).append('}');
+    }
+
+    @Override
+    public Result format(Level level, String eventId, String name, Object value) {
+        val sbr = newResult(eventId).append('{');
+        beforeAddContentsHook(sbr, level);
+        appendEventId(sbr, eventId);
+        return appendValue(appendName(sbr, name), value).append('}');
+    }
+
+    @Override
+    public Result format(Level level, String eventId, Object... objs) {
+        val sbr = newResult(eventId).append('{');
+        beforeAddContentsHook(sbr, level);
+        appendEventId(sbr, eventId);
+        return appendObjects(sbr, objs).append('}');
+    }
+
+    @Override
+    public Result format(Level level, LogContext context, String eventId, Object... objs) {
+        val sbr = newResult(eventId).append('{');
+        beforeAddContentsHook(sbr, level);
+        appendEventId(sbr, eventId);
+        return appendObjects(appendContext(sbr, context), objs).append('}');
+    }
+
+    @Override
+    public Result format(Level level, EventTemplate template, Object... values) {
+        return format(level, null, template, values);
+    }
+
+    @Override
+    public Result format(Level level, LogContext context, EventTemplate template, Object... values) {
+        val sbr = newResult(template.getEventId()).append('{');
+        beforeAddContentsHook(sbr, level);
+        char[][] chunks = template.chunks(renderStamp());
+        if (chunks == null) {
+            chunks = template.chunks(renderStamp(), renderTemplate(template));
+        }
+        if (sbr.charAt(sbr.length() - 1) != '{') {
+            sbr.append(',');
+        }
+        sbr.append(chunks[0], 0, chunks[0].length);
+        appendContext(appendContext(sbr, staticContext()), context);
+        for (int i = 1; i < chunks.length; i++) {
+            sbr.append(chunks[i], 0, chunks[i].length);
+            if (i <= values.length) {
+                appendValue(sbr, values[i - 1]);
+            } else {
+                appendString(sbr, MISSING_VALUE_PLACEHOLDER);
+            }
+        }
+        for (int i = template.size(); i < values.length; i++) {
+            if (values[i] != null) {
+                appendComplexObject(sbr, values[i], true);
+            }
+        }
+        return sbr.append('}');
+    }
+
+    /**
+     * Renders the event id member and the name of every other member, each with its leading comma but the first.
+     */
+    private char[][] renderTemplate(EventTemplate template) {
+        val chunks = new char[template.size() + 1][];
+        val sbr = new StrBuilderResult(64);
+        chunks[0] = appendString(appendString(sbr, eventIdLabel()).append(':'), template.getEventId())
+            .getString().toCharArray();
+        for (int i = 0; i < template.size(); i++) {
+            sbr.clear();
+            chunks[i + 1] = appendString(sbr.append(','), template.name(i)).append(':').getString().toCharArray();
+        }
+        return chunks;
+    }
+
+    @Override
+    public StrBuilderResult begin(StrBuilderResult sbr, Level level, String eventId) {
+        beforeAddContentsHook(reserveFor(sbr, eventId).append('{'), level);
+        return appendEventId(sbr, eventId);
+    }
+
+    @Override
+    public StrBuilderResult begin(StrBuilderResult sbr, Level level, LogContext context, String eventId) {
+        return appendContext(begin(sbr, level, eventId), context);
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, long value) {
+        return appendName(sbr, name).append(value);
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, double value) {
+        return appendDouble(appendName(sbr, name), value);
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, boolean value) {
+        return appendName(sbr, name).append(value ? "true" : "false");
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, char value) {
+        final int start = appendName(sbr, name).length();
+        return EscapePolicy.JSON.escapeAppended(sbr.append(value), start);
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, Object value) {
+        return appendValue(appendName(sbr, name), value);
+    }
+
+    @Override
+    public StrBuilderResult appendObject(StrBuilderResult sbr, Object obj) {
+        // silently ignore nulls, as the Object... methods do
+        return (obj == null) ? sbr : appendComplexObject(sbr, obj, true);
+    }
+
+    @Override
+    public Result end(StrBuilderResult sbr) {
+        return sbr.append('}');
+    }
+
+    protected StrBuilderResult appendNameValue(StrBuilderResult sbr, String name, String value) {
+        return appendString(appendName(sbr, name), value);
+    }
+
+    /**
+     * Appends the event id member, followed by the members of the static context.
+     */
+    private StrBuilderResult appendEventId(StrBuilderResult sbr, String eventId) {
+        return appendContext(appendNameValue(sbr, eventIdLabel(), eventId), staticContext());
+    }
+
+    /**
+     * Copies the members of a context, rendering them on first use.
+     */
+    private StrBuilderResult appendContext(StrBuilderResult sbr, LogContext context) {
+        if (context == null) {
+            return sbr;
+        }
+        char[] chars = context.rendered(renderStamp());
+        if (chars == null) {
+            chars = context.rendered(renderStamp(), renderContext(context));
+        }
+        return sbr.append(chars, 0, chars.length);
+    }
+
+    /**
+     * Renders the members of a context, each with its leading comma.
+     */
+    private char[] renderContext(LogContext context) {
+        val sbr = new StrBuilderResult(64);
+        for (int i = 0; i < context.size(); i++) {
+            appendValue(appendString(sbr.append(','), context.name(i)).append(':'), context.value(i));
+        }
+        return sbr.getString().toCharArray();
+    }
+
+    /**
+     * Appends a member name, preceded by a comma unless it is the first member of the enclosing object.
+     */
+    protected static StrBuilderResult appendName(StrBuilderResult sbr, String name) {
+        if (sbr.charAt(sbr.length() - 1) != '{') {
+            sbr.append(',');
+        }
+        return appendString(sbr, name).append(':');
+    }
+
+    static StrBuilderResult appendString(StrBuilderResult sbr, String str) {
+        return EscapePolicy.JSON.appendTo(sbr, str);
+    }
+
+    private static StrBuilderResult appendEscaped(StrBuilderResult sbr, String str) {
+        return EscapePolicy.JSON.appendEscaped(sbr, str);
+    }
+
+    private StrBuilderResult appendObjects(StrBuilderResult sbr, Object[] objs) {
+        for (int i = 0; i < objs.length; i++) {
+            Object obj = objs[i];
+            if (obj == null) {
+                // silently ignore null keys
+                continue;
+            }
+            if (obj instanceof String) {
+                appendName(sbr, (String) obj);
+                if ((i + 1) != objs.length) {
+                    appendValue(sbr, objs[++i]);
+                } else {
+                    appendString(sbr, MISSING_VALUE_PLACEHOLDER);
+                }
+            } else {
+                appendComplexObject(sbr, obj, true);
+            }
+        }
+        return sbr;
+    }
+
+    private StrBuilderResult appendValue(StrBuilderResult sbr, Object obj) {
+        if (obj == null) {
+            return sbr.append("null");
+        }
+        val plan = renderPlan(obj.getClass());
+        switch (plan.kind()) {
+            case STRING:
+                return appendString(sbr, (String) obj);
+            case INTEGRAL:
+                return sbr.append(((Number) obj).longValue());
+            case FLOATING:
+                return (obj instanceof Double)
+                    ? appendDouble(sbr, (Double) obj)
+                    : appendFloat(sbr, (Float) obj);
+            case BOOLEAN:
+                return sbr.append(obj.toString());
+            case APPENDED:
+                final int start = sbr.length();
+                try {
+                    plan.appendingConverter().appendTo(obj, sbr);
+                } catch (RuntimeException ignored) {
+                    FormatterStats.converterFailed();
+                    return appendComplexObject(sbr.truncate(start), obj, plan, false);
+                }
+                return EscapePolicy.JSON.escapeAppended(sbr, start);
+            case CONVERTED:
+                final String str;
+                try {
+                    str = plan.stringConverter().convertToString(obj);
+                } catch (RuntimeException ignored) {
+                    FormatterStats.converterFailed();
+                    return appendComplexObject(sbr, obj, plan, false);
+                }
+                return appendString(sbr, str);
+            case LAZY:
+                final Object value = sbr.evaluate(obj);
+                return (value == EVALUATION_FAILED)
+                    ? appendString(sbr, EVALUATION_FAILED_PLACEHOLDER)
+                    : appendValue(sbr, value);
+            case COMPLEX:
+                return appendComplexObject(sbr, obj, plan, false);
+            default:
+                return appendString(sbr, obj.toString());
+        }
+    }
+
+    private static StrBuilderResult appendDouble(StrBuilderResult sbr, double value) {
+        // NaN and infinities are not valid JSON numbers
+        return Double.isFinite(value) ? sbr.append(Double.toString(value)) : appendString(sbr, Double.toString(value));
+    }
+
+    private static StrBuilderResult appendFloat(StrBuilderResult sbr, float value) {
+        return Float.isFinite(value) ? sbr.append(Float.toString(value)) : appendString(sbr, Float.toString(value));
+    }
+
+    private StrBuilderResult appendComplexObject(StrBuilderResult sbr, Object obj, boolean topLevel) {
+        return appendComplexObject(sbr, obj, renderPlan(obj.getClass()), topLevel);
+    }
+
+    /**
+     * Appends an object that is not a simple value: at the top level its properties are merged into the event,
+     * otherwise they are rendered as a nested object.
+     */
+    private StrBuilderResult appendComplexObject(StrBuilderResult sbr, Object obj, RenderPlan plan, boolean topLevel) {
+        if (plan.kind() == ValueKind.LAZY) {
+            val value = sbr.evaluate(obj);
+            if (value != EVALUATION_FAILED) {
+                // a lazy object stands for the object it supplies, ignored if null
+                return (value == null) ? sbr : appendComplexObject(sbr, value, topLevel);
+            }
+            if (topLevel) {
+                return appendString(appendName(sbr, obj.getClass().getName()), EVALUATION_FAILED_PLACEHOLDER);
+            }
+            return appendString(sbr, obj.getClass().getName() + '#' + EVALUATION_FAILED_PLACEHOLDER);
+        }
+        val converter = plan.propertiesConverter();
+        if (converter != null) {
+            if (topLevel) {
+                converter.writeTo(obj, new Sink(sbr));
+                return sbr;
+            }
+            converter.writeTo(obj, new Sink(sbr.append('{')));
+            return sbr.append('}');
+        }
+        if (plan.throwable()) {
+            if (topLevel) {
+                appendName(sbr, EXCEPTION_LABEL);
+            }
+            return appendThrowable(sbr, (Throwable) obj);
+        }
+        FormatterStats.converterMissed();
+        if (topLevel) {
+            return appendString(appendName(sbr, obj.getClass().getName()), NO_CONVERTER_PLACEHOLDER);
+        }
+        return appendString(sbr, obj.getClass().getName() + '#' + NO_CONVERTER_PLACEHOLDER);
+    }
+
+    /**
+     * Writes the properties of a complex object as members of the current JSON object.
+     */
+    private final class Sink implements PropertySink {
+        private final StrBuilderResult sbr;
+
+        Sink(StrBuilderResult sbr) {
+            this.sbr = sbr;
+        }
+
+        @Override
+        public PropertySink put(String name, long value) {
+            appendName(sbr, name).append(value);
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, double value) {
+            appendDouble(appendName(sbr, name), value);
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, boolean value) {
+            appendName(sbr, name).append(value ? "true" : "false");
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, char value) {
+            appendField(sbr, name, value);
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, CharSequence value) {
+            if (value == null) {
+                appendName(sbr, name).append("null");
+            } else {
+                appendString(appendName(sbr, name), value.toString());
+            }
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, Object value) {
+            appendValue(appendName(sbr, name), value);
+            return this;
+        }
+
+        @Override
+        public PropertySink beginObject(String name) {
+            appendName(sbr, name).append('{');
+            return this;
+        }
+
+        @Override
+        public PropertySink endObject() {
+            sbr.append('}');
+            return this;
+        }
+    }
+
+    private StrBuilderResult appendThrowable(StrBuilderResult sbr, Throwable throwable) {
+        Throwable current = throwable;
+        int depth = 0;
+        do {
+            if (depth++ > 0) {
+                appendName(sbr, "cause");
+            }
+            appendString(appendName(sbr.append('{'), "class"), current.getClass().getName());
+            if (current.getMessage() != null) {
+                appendString(appendName(sbr, "message"), current.getMessage());
+            }
+            appendName(sbr, "stackTrace").append('[');
+            StackTraceElement[] frames = current.getStackTrace();
+            for (int i = 0; i < frames.length; i++) {
+                appendFrame(sbr.appendSeparator(',', i), frames[i]);
+            }
+            sbr.append(']');
+            current = current.getCause();
+        } while ((current != null) && (depth < MAX_CAUSE_DEPTH));
+        for (; depth > 0; depth--) {
+            sbr.append('}');
+        }
+        return sbr;
+    }
+
+    /**
+     * Appends a stack frame in the same format as {@link StackTraceElement#toString()}, without creating any
+     * intermediate {@link String}.
+     */
+    private static void appendFrame(StrBuilderResult sbr, StackTraceElement frame) {
+        appendEscaped(sbr.append('"'), frame.getClassName()).append('.');
+        appendEscaped(sbr, frame.getMethodName()).append('(');
+        if (frame.isNativeMethod()) {
+            sbr.append("Native Method");
+        } else if (frame.getFileName() == null) {
+            sbr.append("Unknown Source");
+        } else {
+            appendEscaped(sbr, frame.getFileName());
+            if (frame.getLineNumber() >= 0) {
+                sbr.append(':').append(frame.getLineNumber());
+            }
+        }
+        sbr.append(')').append('"');
+    }
+}
@@ -0,0 +1,48 @@
+package org.slog4j.format;
+
+import java.util.function.Supplier;
+
+/**
+ * A property value computed only if the event is formatted, i.e. never when its level is disabled or when it is
+ * suppressed by sampling:
+ *
+ * <pre>
+ * slog.debug("CACHE_STATS", "entries", SLogger.lazy(cache::size), "summary", SLogger.lazy(() -> summarize(cache)));
+ * </pre>
+ *
+ * Formatters evaluate any {@link Supplier} value that has no properties converter, once per event even when the
+ * event references it twice; logging it again with another event computes it again. If the computation throws, the
+ * value is rendered as <code>_EVALUATION_FAILED_</code> and the rest of the event is formatted as usual.
+ *
+ * @param <T> the type of the value.
+ */
+public final class LazyValue<T> implements Supplier<T> {
+
+    private final Supplier<? extends T> supplier;
+
+    private LazyValue(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * @param supplier computes the value.
+     * @param <T>      the type of the value.
+     * @return the lazy value.
+     */
+    public static <T> LazyValue<T> of(Supplier<? extends T> supplier) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("supplier must not be null");
+        }
+        return new LazyValue<>(supplier);
+    }
+
+    /**
+     * Computes the value.
+     *
+     * @return the value.
+     */
+    @Override
+    public T get() {
+        return supplier.get();
+    }
+}
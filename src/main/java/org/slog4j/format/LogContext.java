@@ -0,0 +1,136 @@
+package org.slog4j.format;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Properties shared by every event of a logger, such as the request id or tenant of a handler, logged right after
+ * the event id:
+ *
+ * <pre>
+ * SLogger requestLog = slog.with("requestId", requestId, "tenant", tenant);
+ * requestLog.info("ORDER_PLACED", "orderId", orderId);
+ * </pre>
+ *
+ * Formatters render the properties, already escaped, the first time they format an event of the context and then
+ * only copy them, so the values should be immutable. The properties of the <code>context</code> entry of
+ * <code>slog4j.yml</code> are added the same way to every event of the configured formatter.
+ */
+public final class LogContext {
+
+    private final String[] names;
+    private final Object[] values;
+
+    private final RenderedCache<char[]> rendered = new RenderedCache<>();
+
+    private LogContext(String[] names, Object[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Declares a context.
+     *
+     * @param name  the name of the first property.
+     * @param value the value of the first property.
+     * @param more  the names and values of any other properties, alternated.
+     * @return the context.
+     */
+    public static LogContext of(String name, Object value, Object... more) {
+        return new LogContext(new String[0], new Object[0]).plus(name, value, more);
+    }
+
+    /**
+     * Declares a context from a map, e.g. from a configuration file.
+     *
+     * @param properties the properties, in iteration order.
+     * @return the context.
+     */
+    public static LogContext of(Map<String, ?> properties) {
+        final String[] names = new String[properties.size()];
+        final Object[] values = new Object[properties.size()];
+        int i = 0;
+        for (Map.Entry<String, ?> entry : properties.entrySet()) {
+            names[i] = checkName(entry.getKey());
+            values[i++] = entry.getValue();
+        }
+        return new LogContext(names, values);
+    }
+
+    /**
+     * Creates a context with the properties of this one followed by others.
+     *
+     * @param name  the name of the first added property.
+     * @param value the value of the first added property.
+     * @param more  the names and values of any other added properties, alternated.
+     * @return the new context.
+     */
+    public LogContext plus(String name, Object value, Object... more) {
+        if ((more.length % 2) != 0) {
+            throw new IllegalArgumentException("every property name must be followed by its value");
+        }
+        final int size = names.length + 1 + (more.length / 2);
+        final String[] newNames = Arrays.copyOf(names, size);
+        final Object[] newValues = Arrays.copyOf(values, size);
+        newNames[names.length] = checkName(name);
+        newValues[names.length] = value;
+        for (int i = 0; i < more.length; i += 2) {
+            if (!(more[i] instanceof String)) {
+                throw new IllegalArgumentException("property names must be strings: " + more[i]);
+            }
+            newNames[names.length + 1 + (i / 2)] = (String) more[i];
+            newValues[names.length + 1 + (i / 2)] = more[i + 1];
+        }
+        return new LogContext(newNames, newValues);
+    }
+
+    /**
+     * @return the number of properties.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public Object value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Interleaves the names with the values, followed by the objects of an event, as expected by the
+     * <code>Object...</code> methods.
+     *
+     * @param objs the objects logged with this context.
+     * @return the names, values and objects.
+     */
+    public Object[] toObjects(Object... objs) {
+        final Object[] all = new Object[(names.length * 2) + objs.length];
+        for (int i = 0; i < names.length; i++) {
+            all[2 * i] = names[i];
+            all[(2 * i) + 1] = values[i];
+        }
+        System.arraycopy(objs, 0, all, names.length * 2, objs.length);
+        return all;
+    }
+
+    /**
+     * @return the properties rendered by a formatter with the given render stamp, null if it didn't render them yet.
+     */
+    char[] rendered(Object stamp) {
+        return rendered.get(stamp);
+    }
+
+    char[] rendered(Object stamp, char[] chars) {
+        return rendered.put(stamp, chars);
+    }
+
+    private static String checkName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("property names must not be null");
+        }
+        return name;
+    }
+}
@@ -0,0 +1,28 @@
+package org.slog4j.format;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@link ToPropertiesConverter} for the annotated class at compile time, with the
+ * <code>slog4j-processor</code> annotation processor. The converter reads every non-static, non-transient field,
+ * directly or through its getter, and is registered on <code>META-INF/services</code>: no reflection nor
+ * {@link java.util.Map} is involved when the object is logged.
+ *
+ * <p>
+ * The converter is named after the class, e.g. <code>PersonPropertiesConverter</code> for <code>Person</code> or
+ * <code>Order_LinePropertiesConverter</code> for <code>Order.Line</code>, in the same package.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface LogProperties {
+
+    /**
+     * @return the names of the fields not logged, e.g. secrets.
+     */
+    String[] exclude() default {};
+}
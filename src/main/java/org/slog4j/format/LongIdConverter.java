@@ -2,7 +2,7 @@ package org.slog4j.format;
 
 import org.slog4j.types.LongId;
 
-public class LongIdConverter implements TypedToStringConverter<LongId> {
+public class LongIdConverter implements AppendingConverter<LongId> {
 
     @Override
     public Class<?> getEffectiveType() {
@@ -10,11 +10,7 @@ public class LongIdConverter implements TypedToStringConverter<LongId> {
     }
 
     @Override
-    public String convertToString(LongId longId) {
-        return convertToString(longId.getValue());
-    }
-
-    static String convertToString(long value) {
-        return String.format("%016x", value);
+    public void appendTo(LongId longId, StrBuilderResult out) {
+        out.appendHex(longId.getValue(), 16);
     }
 }
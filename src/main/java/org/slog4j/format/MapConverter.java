@@ -14,4 +14,10 @@ public class MapConverter implements ToPropertiesConverter {
     public Iterable<Map.Entry<String, Object>> convert(Object map) {
         return ((Map<String, Object>) map).entrySet();
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeTo(Object map, PropertySink sink) {
+        ((Map<String, Object>) map).forEach(sink::put);
+    }
 }
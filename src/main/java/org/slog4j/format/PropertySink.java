@@ -0,0 +1,56 @@
+package org.slog4j.format;
+
+/**
+ * Receives the properties of an object from a {@link PropertySinkConverter}. Formatters implement it to write each
+ * property straight into their buffer, so primitives are never boxed and no entry nor iterator is created.
+ *
+ * <p>
+ * Nested objects are written either as a single {@link #put(String, Object)}, rendered with their own converter, or
+ * property by property between {@link #beginObject(String)} and {@link #endObject()}.
+ */
+public interface PropertySink {
+
+    PropertySink put(String name, long value);
+
+    PropertySink put(String name, double value);
+
+    PropertySink put(String name, boolean value);
+
+    /**
+     * @param name  the property name.
+     * @param value the char, rendered as a boxed {@link Character} would be.
+     * @return this, to enable chaining.
+     */
+    default PropertySink put(String name, char value) {
+        return put(name, (Object) value);
+    }
+
+    /**
+     * @param name  the property name.
+     * @param value the text, quoted and escaped as any string value; may be null.
+     * @return this, to enable chaining.
+     */
+    PropertySink put(String name, CharSequence value);
+
+    /**
+     * @param name  the property name.
+     * @param value any value, rendered as if it had been passed to the logger; may be null.
+     * @return this, to enable chaining.
+     */
+    PropertySink put(String name, Object value);
+
+    /**
+     * Starts a nested object: the following properties belong to it until {@link #endObject()}.
+     *
+     * @param name the property name of the nested object.
+     * @return this, to enable chaining.
+     */
+    PropertySink beginObject(String name);
+
+    /**
+     * Ends the nested object started by the last {@link #beginObject(String)}.
+     *
+     * @return this, to enable chaining.
+     */
+    PropertySink endObject();
+}
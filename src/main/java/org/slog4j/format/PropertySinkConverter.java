@@ -0,0 +1,25 @@
+package org.slog4j.format;
+
+import java.util.Map;
+
+/**
+ * A {@link ToPropertiesConverter} that writes the properties of an object into a {@link PropertySink} instead of
+ * returning them. Registered as any other properties converter, on
+ * <code>META-INF/services/org.slog4j.format.ToPropertiesConverter</code>.
+ */
+public interface PropertySinkConverter extends ToPropertiesConverter {
+
+    @Override
+    void writeTo(Object object, PropertySink sink);
+
+    /**
+     * Collects the properties written by {@link #writeTo(Object, PropertySink)}, for callers that still iterate them.
+     * Nested objects written with {@link PropertySink#beginObject(String)} are collected as maps.
+     */
+    @Override
+    default Iterable<Map.Entry<String, Object>> convert(Object object) {
+        final CollectingPropertySink sink = new CollectingPropertySink();
+        writeTo(object, sink);
+        return sink.properties().entrySet();
+    }
+}
@@ -0,0 +1,48 @@
+package org.slog4j.format;
+
+import org.slf4j.event.Level;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+public class PureJsonFormatter extends JsonFormatter {
+    private final Clock clock;
+
+    private TimestampRenderer timestampRenderer;
+
+    public PureJsonFormatter() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public PureJsonFormatter(Clock clock) {
+        this.clock = clock;
+        this.timestampRenderer = newTimestampRenderer();
+    }
+
+    @Override
+    public Formatter timestampPrecision(TimestampPrecision timestampPrecision) {
+        super.timestampPrecision(timestampPrecision);
+        timestampRenderer = newTimestampRenderer();
+        return this;
+    }
+
+    @Override
+    protected StrBuilderResult beforeAddContentsHook(StrBuilderResult sbr, Level level) {
+        return appendTimeAndLevel(sbr, level);
+    }
+
+    private StrBuilderResult appendTimeAndLevel(StrBuilderResult sbr, Level level) {
+        appendName(sbr, timeLabel());
+        if (timestampRenderer.isNumeric()) {
+            timestampRenderer.appendTo(sbr);
+        } else {
+            timestampRenderer.appendTo(sbr.append('"')).append('"');
+        }
+        return appendNameValue(sbr, levelLabel(), level.toString());
+    }
+
+    private TimestampRenderer newTimestampRenderer() {
+        // same zone as FORMAT_ISO8601_MILLIS
+        return new TimestampRenderer(clock, ZoneId.systemDefault(), timestampPrecision());
+    }
+}
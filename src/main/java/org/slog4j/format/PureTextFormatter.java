@@ -1,26 +1,43 @@
 package org.slog4j.format;
 
-import lombok.RequiredArgsConstructor;
 import org.slf4j.event.Level;
 
 import java.time.Clock;
+import java.time.ZoneId;
 
-@RequiredArgsConstructor
 public class PureTextFormatter extends TextFormatter {
     private final Clock clock;
 
+    private TimestampRenderer timestampRenderer;
+
     public PureTextFormatter() {
         this(Clock.systemDefaultZone());
     }
 
+    public PureTextFormatter(Clock clock) {
+        this.clock = clock;
+        this.timestampRenderer = newTimestampRenderer();
+    }
+
+    @Override
+    public Formatter timestampPrecision(TimestampPrecision timestampPrecision) {
+        super.timestampPrecision(timestampPrecision);
+        timestampRenderer = newTimestampRenderer();
+        return this;
+    }
+
     @Override
     protected StrBuilderResult beforeAddContentsHook(StrBuilderResult sbr, Level level) {
         return appendTimeAndLevel(sbr, level);
     }
 
     private StrBuilderResult appendTimeAndLevel(StrBuilderResult sbr, Level level) {
-        sbr.append(timeLabel()).append(NAME_VALUE_SEP)
-            .append(FORMAT_ISO8601_MILLIS.format(clock.millis()));
+        timestampRenderer.appendTo(sbr.append(timeLabel()).append(NAME_VALUE_SEP));
         return appendNameValue(sbr, levelLabel(), level.toString());
     }
+
+    private TimestampRenderer newTimestampRenderer() {
+        // same zone as FORMAT_ISO8601_MILLIS
+        return new TimestampRenderer(clock, ZoneId.systemDefault(), timestampPrecision());
+    }
 }
@@ -0,0 +1,59 @@
+package org.slog4j.format;
+
+/**
+ * The renderings of a template or a context by the last few formatters that used it, each one keyed by the
+ * {@link BaseFormatter#renderStamp() render stamp} of its formatter, so that changing a setting of the formatter
+ * renders them again.
+ *
+ * <p>
+ * The entries are immutable and the table is replaced as a whole, the most recent rendering first: readers never
+ * lock, and an update lost to a concurrent one only costs rendering again.
+ */
+final class RenderedCache<T> {
+
+    /**
+     * The number of formatters remembered, enough for e.g. a console and a file logger.
+     */
+    static final int SIZE = 4;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private static final class Entry {
+        final Object stamp;
+        final Object value;
+
+        Entry(Object stamp, Object value) {
+            this.stamp = stamp;
+            this.value = value;
+        }
+    }
+
+    private volatile Object[] entries = EMPTY;
+
+    /**
+     * @return the rendering for the given stamp, or null if there's none.
+     */
+    @SuppressWarnings("unchecked")
+    T get(Object stamp) {
+        for (Object entry : entries) {
+            if (((Entry) entry).stamp == stamp) {
+                return (T) ((Entry) entry).value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a rendering, forgetting the least recent one if the cache is full.
+     *
+     * @return the rendering.
+     */
+    T put(Object stamp, T value) {
+        final Object[] current = entries;
+        final Object[] updated = new Object[Math.min(current.length + 1, SIZE)];
+        updated[0] = new Entry(stamp, value);
+        System.arraycopy(current, 0, updated, 1, updated.length - 1);
+        entries = updated;
+        return value;
+    }
+}
@@ -0,0 +1,107 @@
+package org.slog4j.format;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Commits <code>org.slog4j.SlowFormat</code> JFR events. The event type is defined at runtime with
+ * <code>jdk.jfr.EventFactory</code>, looked up reflectively, so nothing breaks on JVMs without JFR, where
+ * {@link #commit} does nothing.
+ */
+final class SlowFormatEvents {
+
+    /**
+     * <code>EventFactory.newEvent()</code>, or <code>null</code> without JFR.
+     */
+    private static final MethodHandle NEW_EVENT;
+    private static final MethodHandle SET;
+    private static final MethodHandle SHOULD_COMMIT;
+    private static final MethodHandle COMMIT;
+
+    static {
+        MethodHandle newEvent = null;
+        MethodHandle set = null;
+        MethodHandle shouldCommit = null;
+        MethodHandle commit = null;
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+            final Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+            final Class<?> annotationClass = Class.forName("jdk.jfr.AnnotationElement");
+            final Class<?> valueClass = Class.forName("jdk.jfr.ValueDescriptor");
+            final MethodHandle annotation = lookup.findConstructor(annotationClass,
+                MethodType.methodType(void.class, Class.class, Object.class));
+            final MethodHandle value = lookup.findConstructor(valueClass,
+                MethodType.methodType(void.class, Class.class, String.class, List.class));
+
+            final List<Object> eventAnnotations = Arrays.asList(
+                annotation.invoke(jfrAnnotation("Name"), "org.slog4j.SlowFormat"),
+                annotation.invoke(jfrAnnotation("Label"), "Slow Format"),
+                annotation.invoke(jfrAnnotation("Category"), new String[]{"SLog4j"}),
+                annotation.invoke(jfrAnnotation("Description"),
+                    "An event took longer than the threshold of FormatterStats to be formatted"));
+            final List<Object> fields = Arrays.asList(
+                value.invoke(String.class, "formatter", Collections.singletonList(
+                    annotation.invoke(jfrAnnotation("Label"), "Formatter"))),
+                value.invoke(String.class, "level", Collections.singletonList(
+                    annotation.invoke(jfrAnnotation("Label"), "Level"))),
+                value.invoke(long.class, "formatTime", Arrays.asList(
+                    annotation.invoke(jfrAnnotation("Label"), "Format Time"),
+                    annotation.invoke(jfrAnnotation("Timespan"), "NANOSECONDS"))),
+                value.invoke(int.class, "bytes", Arrays.asList(
+                    annotation.invoke(jfrAnnotation("Label"), "Bytes"),
+                    annotation.invoke(jfrAnnotation("DataAmount"), "BYTES"))));
+            final Object factory = lookup.findStatic(factoryClass, "create",
+                MethodType.methodType(factoryClass, List.class, List.class))
+                .invoke(eventAnnotations, fields);
+
+            newEvent = lookup.findVirtual(factoryClass, "newEvent", MethodType.methodType(eventClass))
+                .bindTo(factory);
+            set = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class));
+            shouldCommit = lookup.findVirtual(eventClass, "shouldCommit", MethodType.methodType(boolean.class));
+            commit = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class));
+        } catch (Throwable e) {
+            // no JFR on this JVM
+            newEvent = null;
+        }
+        NEW_EVENT = newEvent;
+        SET = set;
+        SHOULD_COMMIT = shouldCommit;
+        COMMIT = commit;
+    }
+
+    private SlowFormatEvents() {
+    }
+
+    static boolean isAvailable() {
+        return NEW_EVENT != null;
+    }
+
+    static void commit(String formatter, String level, long formatNanos, int bytes) {
+        if (NEW_EVENT == null) {
+            return;
+        }
+        try {
+            final Object event = NEW_EVENT.invoke();
+            if ((boolean) SHOULD_COMMIT.invoke(event)) {
+                SET.invoke(event, 0, formatter);
+                SET.invoke(event, 1, level);
+                SET.invoke(event, 2, formatNanos);
+                SET.invoke(event, 3, bytes);
+                COMMIT.invoke(event);
+            }
+        } catch (Throwable ignored) {
+            // never let the recording break logging
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> jfrAnnotation(String name) throws ClassNotFoundException {
+        return (Class<? extends Annotation>) Class.forName("jdk.jfr." + name);
+    }
+}
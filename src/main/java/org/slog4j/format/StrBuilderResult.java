@@ -20,11 +20,39 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * A {@link Formatter.Result} backed by a stripped-down version of {@link org.apache.commons.lang3.text.StrBuilder}.
  */
 public final class StrBuilderResult implements Formatter.Result {
 
+    /**
+     * Size of the direct buffer used to stage bytes written to a channel.
+     */
+    private static final int CHANNEL_BUFFER_SIZE = 8192;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Default limit of the capacity kept by {@link #clear()}, in chars.
+     */
+    public static final int DEFAULT_MAX_RETAINED_CAPACITY = 16384;
+
+    /**
+     * The high-water mark loses 1/16 of its value on every {@link #clear()}, so a single large event only keeps the
+     * buffer large for a few dozen events.
+     */
+    private static final int HIGH_WATER_MARK_DECAY_SHIFT = 4;
+
+    private static final LongAdder GROW_COUNT   = new LongAdder();
+    private static final LongAdder SHRINK_COUNT = new LongAdder();
+
     /**
      * Internal data storage.
      */
@@ -35,26 +63,86 @@ public final class StrBuilderResult implements Formatter.Result {
      */
     private final int initialCapacity;
 
+    /**
+     * Maximum capacity kept by {@link #clear()}.
+     */
+    private final int maxRetainedCapacity;
+
     /**
      * Current size of the buffer.
      */
     private int size;
 
+    /**
+     * Decaying maximum of the sizes seen by {@link #clear()}.
+     */
+    private int highWaterMark;
+
+    /**
+     * Capacity of the last {@link #reserve(int)}, below which {@link #clear()} never shrinks the buffer.
+     */
+    private int reserved;
+
+    /**
+     * The pool this builder was borrowed from, until it's released by {@link #clear()}.
+     */
+    private BufferPool pool;
+
     @Getter
     @Setter
     @Accessors(chain = true)
     private Object attachment;
 
+    /**
+     * Direct buffer reused by every {@link #writeTo(WritableByteChannel)}, allocated on first use.
+     */
+    private ByteBuffer channelBuffer;
+
+    /**
+     * What the lazy values of the event supplied, allocated on first use.
+     */
+    private EvaluatedValues evaluated;
+
     /**
      * Constructor that creates an empty builder the specified initial capacity.
      *
      * @param initialCapacity the initial capacity, zero or less will be converted to 32
      */
     public StrBuilderResult(int initialCapacity) {
+        this(initialCapacity, DEFAULT_MAX_RETAINED_CAPACITY);
+    }
+
+    /**
+     * Constructor that creates an empty builder with the specified initial capacity, whose {@link #clear()} keeps a
+     * grown buffer as long as recent contents needed it, up to a limit.
+     *
+     * @param initialCapacity     the initial capacity
+     * @param maxRetainedCapacity the maximum capacity kept by {@link #clear()}
+     */
+    public StrBuilderResult(int initialCapacity, int maxRetainedCapacity) {
         this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = Math.max(initialCapacity, maxRetainedCapacity);
         buffer = new char[initialCapacity];
     }
 
+    /**
+     * Gets how many times any buffer had to grow while being appended to.
+     *
+     * @return the number of reallocations due to growth
+     */
+    public static long getGrowCount() {
+        return GROW_COUNT.sum();
+    }
+
+    /**
+     * Gets how many times any buffer was shrunk by {@link #clear()}.
+     *
+     * @return the number of reallocations due to shrinking
+     */
+    public static long getShrinkCount() {
+        return SHRINK_COUNT.sum();
+    }
+
     /**
      * Gets a String version of the string builder, creating a new instance
      * each time the method is called.
@@ -69,6 +157,148 @@ public final class StrBuilderResult implements Formatter.Result {
         return new String(buffer, 0, size);
     }
 
+    /**
+     * Gets the length of the builder contents once encoded as UTF-8.
+     *
+     * @return the number of bytes written by {@link #writeTo(ByteBuffer)}
+     */
+    @Override
+    public int getByteLength() {
+        final char[] buf = buffer;
+        int length = size;
+        for (int i = 0; i < size; i++) {
+            final char c = buf[i];
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    length += 1;
+                } else if (!Character.isSurrogate(c)) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && (i + 1 < size) && Character.isLowSurrogate(buf[i + 1])) {
+                    // 4 bytes for 2 chars
+                    length += 2;
+                    i++;
+                }
+                // unpaired surrogates are replaced by a single '?'
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encodes the builder contents as UTF-8 straight into a buffer, without creating any intermediate
+     * {@link String}.
+     *
+     * @param dst the buffer to write to, starting at its current position
+     * @return the number of bytes written
+     * @throws BufferOverflowException if there is not enough room for the whole contents, in which case nothing is
+     *                                 written
+     */
+    @Override
+    public int writeTo(final ByteBuffer dst) {
+        // every char takes at most 3 bytes, so the exact length is only computed on tight buffers
+        if ((dst.remaining() < size * 3L) && (getByteLength() > dst.remaining())) {
+            throw new BufferOverflowException();
+        }
+        final int start = dst.position();
+        encodeUtf8(0, dst);
+        return dst.position() - start;
+    }
+
+    /**
+     * Encodes the builder contents as UTF-8 into a channel through a reusable direct buffer, without creating any
+     * intermediate {@link String}.
+     *
+     * @param channel the channel to write to, in blocking mode: the whole result is written before returning,
+     *            so a non-blocking channel that accepts nothing would be retried in a busy loop
+     * @return the number of bytes written
+     * @throws IOException if the channel fails
+     */
+    @Override
+    public int writeTo(final WritableByteChannel channel) throws IOException {
+        if (channelBuffer == null) {
+            channelBuffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE);
+        }
+        final ByteBuffer bytes = channelBuffer;
+        int written = 0;
+        int index = 0;
+        do {
+            ((Buffer) bytes).clear();
+            index = encodeUtf8(index, bytes);
+            ((Buffer) bytes).flip();
+            while (bytes.hasRemaining()) {
+                written += channel.write(bytes);
+            }
+        } while (index < size);
+        return written;
+    }
+
+    /**
+     * Encodes as many chars as fit into a buffer, never splitting a character.
+     *
+     * @param from the index of the first char to encode
+     * @param dst  the buffer to write to
+     * @return the index of the first char not encoded
+     */
+    private int encodeUtf8(final int from, final ByteBuffer dst) {
+        final char[] buf = buffer;
+        final int end = size;
+        int i = from;
+        // ASCII fast path
+        if (dst.hasArray()) {
+            final byte[] bytes = dst.array();
+            final int offset = dst.arrayOffset();
+            int pos = offset + dst.position();
+            final int asciiEnd = Math.min(end, i + dst.remaining());
+            while ((i < asciiEnd) && (buf[i] < 0x80)) {
+                bytes[pos++] = (byte) buf[i++];
+            }
+            ((Buffer) dst).position(pos - offset);
+        } else {
+            final int asciiEnd = Math.min(end, i + dst.remaining());
+            while ((i < asciiEnd) && (buf[i] < 0x80)) {
+                dst.put((byte) buf[i++]);
+            }
+        }
+        for (; i < end; i++) {
+            final char c = buf[i];
+            if (c < 0x80) {
+                if (!dst.hasRemaining()) {
+                    break;
+                }
+                dst.put((byte) c);
+            } else if (c < 0x800) {
+                if (dst.remaining() < 2) {
+                    break;
+                }
+                dst.put((byte) (0xc0 | (c >> 6)))
+                    .put((byte) (0x80 | (c & 0x3f)));
+            } else if (!Character.isSurrogate(c)) {
+                if (dst.remaining() < 3) {
+                    break;
+                }
+                dst.put((byte) (0xe0 | (c >> 12)))
+                    .put((byte) (0x80 | ((c >> 6) & 0x3f)))
+                    .put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && (i + 1 < end) && Character.isLowSurrogate(buf[i + 1])) {
+                if (dst.remaining() < 4) {
+                    break;
+                }
+                final int cp = Character.toCodePoint(c, buf[++i]);
+                dst.put((byte) (0xf0 | (cp >> 18)))
+                    .put((byte) (0x80 | ((cp >> 12) & 0x3f)))
+                    .put((byte) (0x80 | ((cp >> 6) & 0x3f)))
+                    .put((byte) (0x80 | (cp & 0x3f)));
+            } else {
+                // same replacement as String.getBytes(UTF_8)
+                if (!dst.hasRemaining()) {
+                    break;
+                }
+                dst.put((byte) '?');
+            }
+        }
+        return i;
+    }
+
     /**
      * Appends a separator to the builder if the loop index is greater than zero.
      * The separator is appended using {@link #append(char)}.
@@ -150,6 +380,108 @@ public final class StrBuilderResult implements Formatter.Result {
         return this;
     }
 
+    /**
+     * Appends part of a string to this string builder.
+     *
+     * @param str        the string to append
+     * @param startIndex the start index, inclusive, must be valid
+     * @param length     the length to append, must be valid
+     * @return this, to enable chaining
+     */
+    public StrBuilderResult append(final String str, final int startIndex, final int length) {
+        if (length > 0) {
+            final int len = size;
+            ensureCapacity(len + length);
+            str.getChars(startIndex, startIndex + length, buffer, len);
+            size += length;
+        }
+        return this;
+    }
+
+    /**
+     * Appends the decimal representation of a long value, without creating any intermediate {@link String}.
+     *
+     * @param value the value to append
+     * @return this, to enable chaining
+     */
+    public StrBuilderResult append(final long value) {
+        if (value == Long.MIN_VALUE) {
+            return append("-9223372036854775808");
+        }
+        long abs = value;
+        if (value < 0) {
+            append('-');
+            abs = -value;
+        }
+        int digits = 1;
+        for (long limit = 10; (digits < 19) && (abs >= limit); limit *= 10) {
+            digits++;
+        }
+        ensureCapacity(size + digits);
+        for (int pos = size + digits - 1; pos >= size; pos--) {
+            buffer[pos] = (char) ('0' + (abs % 10));
+            abs /= 10;
+        }
+        size += digits;
+        return this;
+    }
+
+    /**
+     * Appends the decimal representation of a non-negative value, left padded with zeros to a fixed width. Digits
+     * beyond the width are dropped.
+     *
+     * @param value the value to append, must not be negative
+     * @param width the number of digits to append
+     * @return this, to enable chaining
+     */
+    public StrBuilderResult appendZeroPadded(final long value, final int width) {
+        ensureCapacity(size + width);
+        long remaining = value;
+        for (int pos = size + width - 1; pos >= size; pos--) {
+            buffer[pos] = (char) ('0' + (remaining % 10));
+            remaining /= 10;
+        }
+        size += width;
+        return this;
+    }
+
+    /**
+     * Appends the lowercase hexadecimal representation of a value, left padded with zeros to a fixed width. Digits
+     * beyond the width are dropped.
+     *
+     * @param value the value to append, as unsigned
+     * @param width the number of digits to append, at most 16
+     * @return this, to enable chaining
+     */
+    public StrBuilderResult appendHex(final long value, final int width) {
+        ensureCapacity(size + width);
+        long remaining = value;
+        for (int pos = size + width - 1; pos >= size; pos--) {
+            buffer[pos] = HEX_DIGITS[(int) (remaining & 0xf)];
+            remaining >>>= 4;
+        }
+        size += width;
+        return this;
+    }
+
+    /**
+     * Appends a char sequence to this string builder.
+     *
+     * @param seq the char sequence to append
+     * @return this, to enable chaining
+     */
+    public StrBuilderResult append(final CharSequence seq) {
+        if (seq instanceof String) {
+            return append((String) seq);
+        }
+        final int seqLen = seq.length();
+        ensureCapacity(size + seqLen);
+        for (int i = 0; i < seqLen; i++) {
+            buffer[size++] = seq.charAt(i);
+        }
+        return this;
+    }
+
     /**
      * Appends a string to this string builder, preceded by a separator if the buffer is empty.
      *
@@ -182,6 +514,77 @@ public final class StrBuilderResult implements Formatter.Result {
         return this;
     }
 
+    /**
+     * Inserts a char value into the string builder, shifting the chars after it.
+     *
+     * @param index the index to insert at, must be valid
+     * @param ch    the value to insert
+     * @return this, to enable chaining
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public StrBuilderResult insert(final int index, final char ch) {
+        if ((index < 0) || (index > size)) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(buffer, index, buffer, index + 1, size - index);
+        buffer[index] = ch;
+        size++;
+        return this;
+    }
+
+    /**
+     * Extracts the chars from an index to the end as a new String.
+     *
+     * @param start the start index, inclusive, must be valid
+     * @return the new string
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public String substring(final int start) {
+        if ((start < 0) || (start > size)) {
+            throw new StringIndexOutOfBoundsException(start);
+        }
+        return new String(buffer, start, size - start);
+    }
+
+    /**
+     * Truncates the string builder, e.g. to discard what was appended by a failed converter.
+     *
+     * @param length the new length, not greater than the current one
+     * @return this, to enable chaining
+     * @throws IndexOutOfBoundsException if the length is invalid
+     */
+    public StrBuilderResult truncate(final int length) {
+        if ((length < 0) || (length > size)) {
+            throw new StringIndexOutOfBoundsException(length);
+        }
+        size = length;
+        return this;
+    }
+
+    /**
+     * Gets the length of the string builder.
+     *
+     * @return the length
+     */
+    public int length() {
+        return size;
+    }
+
+    /**
+     * Gets the character at the specified index.
+     *
+     * @param index the index to retrieve, must be valid
+     * @return the character at the index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public char charAt(final int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return buffer[index];
+    }
+
     /**
      * Checks the capacity and ensures that it is at least the size specified.
      *
@@ -189,28 +592,97 @@ public final class StrBuilderResult implements Formatter.Result {
      */
     private void ensureCapacity(final int capacity) {
         if (capacity > buffer.length) {
-            final char[] old = buffer;
-            buffer = new char[capacity * 2];
-            System.arraycopy(old, 0, buffer, 0, size);
+            resize(capacity * 2);
+            GROW_COUNT.increment();
         }
     }
 
     /**
-     * Clears the string builder and restore its initial size.
+     * Ensures the capacity is at least the size specified, e.g. before appending an event known to be large.
+     * {@link #clear()} then keeps that capacity, even past the retention limit, until a smaller one is reserved.
+     *
+     * @param capacity the capacity to ensure
+     * @return this, to enable chaining
+     */
+    public StrBuilderResult reserve(final int capacity) {
+        reserved = capacity;
+        if (capacity > buffer.length) {
+            resize(capacity);
+        }
+        return this;
+    }
+
+    private void resize(final int capacity) {
+        final char[] old = buffer;
+        buffer = new char[capacity];
+        System.arraycopy(old, 0, buffer, 0, size);
+    }
+
+    /**
+     * Gets the current capacity of the buffer.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Clears the string builder, keeping its capacity only as long as recent contents needed it, and hands it back to
+     * the {@link BufferPool} it was borrowed from, if any. The builder must not be used afterwards.
      */
     @Override
     public void clear() {
-        this.size = 0;
         this.attachment = null;
-        minimizeCapacity();
+        if (evaluated != null) {
+            evaluated.clear();
+        }
+        if (size != 0) {
+            highWaterMark = Math.max(size, highWaterMark - (highWaterMark >>> HIGH_WATER_MARK_DECAY_SHIFT));
+            this.size = 0;
+            retainCapacity();
+        }
+        final BufferPool owner = pool;
+        if (owner != null) {
+            // cleared twice only releases once
+            pool = null;
+            owner.release(this);
+        }
+    }
+
+    /**
+     * Computes a lazy value of the event being appended, only once however many times the event references it.
+     *
+     * @param lazy the value, a {@link java.util.function.Supplier}.
+     * @return what it supplied, or {@link BaseFormatter#EVALUATION_FAILED} if it threw.
+     */
+    Object evaluate(Object lazy) {
+        if (evaluated == null) {
+            evaluated = new EvaluatedValues();
+        }
+        return evaluated.evaluate(lazy);
+    }
+
+    /**
+     * Marks the builder as borrowed from a pool, so {@link #clear()} returns it there.
+     *
+     * @param owner the pool the builder was taken from
+     * @return this, to enable chaining
+     */
+    public StrBuilderResult borrowedFrom(BufferPool owner) {
+        this.pool = owner;
+        return this;
     }
 
     /**
-     * Minimizes the capacity to the initial size of the buffer.
+     * Shrinks the buffer to the high-water mark when it's more than twice as large, or larger than the retention
+     * limit, but never below the last reservation.
      */
-    private void minimizeCapacity() {
-        if (buffer.length > initialCapacity) {
-            buffer = new char[initialCapacity];
+    private void retainCapacity() {
+        final int target = Math.max(Math.min(Math.max(initialCapacity, highWaterMark), maxRetainedCapacity), reserved);
+        if (buffer.length > Math.max(Math.min(2 * target, maxRetainedCapacity), reserved)) {
+            buffer = new char[target];
+            SHRINK_COUNT.increment();
         }
     }
 }
@@ -6,24 +6,38 @@ import lombok.experimental.UtilityClass;
 public class StrBuilderResultFactory {
 
     // Use a more suitable size for typical log messages
-    private static final int INITIAL_CAPACITY = 128;
+    static final int DEFAULT_INITIAL_CAPACITY = 128;
 
-    private static final ThreadLocal<StrBuilderResult> RESULT_POOL = new ThreadLocal<StrBuilderResult>() {
+    private static volatile BufferPool pool =
+        new ThreadLocalBufferPool(DEFAULT_INITIAL_CAPACITY, StrBuilderResult.DEFAULT_MAX_RETAINED_CAPACITY);
 
-        @Override
-        protected StrBuilderResult initialValue() {
-            return new StrBuilderResult(INITIAL_CAPACITY);
-        }
+    /**
+     * Borrows an empty buffer from the current pool, returned to it by {@link StrBuilderResult#clear()}.
+     *
+     * @return an empty buffer.
+     */
+    public static StrBuilderResult get() {
+        return pool.acquire();
+    }
 
-        @Override
-        public StrBuilderResult get() {
-            StrBuilderResult result = super.get();
-            result.clear();
-            return result;
-        }
-    };
+    public static BufferPool getPool() {
+        return pool;
+    }
 
-    public static StrBuilderResult get() {
-        return RESULT_POOL.get();
+    /**
+     * Changes the pool buffers are borrowed from, usually from <code>slog4j.yml</code> before anything is logged.
+     * Buffers borrowed from the previous pool are still returned to it.
+     *
+     * @param pool the new pool.
+     */
+    public static void setPool(BufferPool pool) {
+        StrBuilderResultFactory.pool = pool;
+    }
+
+    static void checkCapacities(int initialCapacity, int maxRetainedCapacity) {
+        if ((initialCapacity < 1) || (maxRetainedCapacity < initialCapacity)) {
+            throw new IllegalArgumentException(
+                "invalid buffer capacities: " + initialCapacity + ", " + maxRetainedCapacity);
+        }
     }
 }
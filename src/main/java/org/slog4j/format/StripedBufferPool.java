@@ -0,0 +1,109 @@
+package org.slog4j.format;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, lock-free pool shared by all threads. Buffers are kept in a fixed number of slots: a thread starts
+ * looking for a free buffer, or a free slot to return one, at the slot its id hashes to and only probes a few
+ * neighbours, so threads rarely contend on the same slot. When no buffer is found a new one is created, and when no
+ * slot is free the returned buffer is left to the garbage collector.
+ *
+ * <p>
+ * The memory held no longer depends on the number of threads, which suits virtual threads and large executors.
+ */
+public final class StripedBufferPool implements BufferPool {
+
+    /**
+     * Maximum number of slots looked at by {@link #acquire()} and {@link #release(StrBuilderResult)}.
+     */
+    private static final int MAX_PROBES = 4;
+
+    private final int                                    initialCapacity;
+    private final int                                    maxRetainedCapacity;
+    private final AtomicReferenceArray<StrBuilderResult> slots;
+    private final int                                    mask;
+    private final LongAdder                              missCount = new LongAdder();
+
+    /**
+     * Creates a pool with 4 slots per available processor.
+     *
+     * @param initialCapacity     the capacity of a new buffer.
+     * @param maxRetainedCapacity the maximum capacity a buffer keeps once cleared.
+     */
+    public StripedBufferPool(int initialCapacity, int maxRetainedCapacity) {
+        this(initialCapacity, maxRetainedCapacity, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param initialCapacity     the capacity of a new buffer.
+     * @param maxRetainedCapacity the maximum capacity a buffer keeps once cleared.
+     * @param maxPooled           the maximum number of idle buffers kept, rounded up to a power of two.
+     */
+    public StripedBufferPool(int initialCapacity, int maxRetainedCapacity, int maxPooled) {
+        StrBuilderResultFactory.checkCapacities(initialCapacity, maxRetainedCapacity);
+        if (maxPooled < 1) {
+            throw new IllegalArgumentException("invalid pool size: " + maxPooled);
+        }
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+        final int size = (maxPooled == 1) ? 1 : Integer.highestOneBit(maxPooled - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public StrBuilderResult acquire() {
+        final int start = probe();
+        for (int i = 0; i < Math.min(MAX_PROBES, slots.length()); i++) {
+            final int index = (start + i) & mask;
+            final StrBuilderResult sbr = slots.get(index);
+            if ((sbr != null) && slots.compareAndSet(index, sbr, null)) {
+                return sbr.borrowedFrom(this);
+            }
+        }
+        missCount.increment();
+        return new StrBuilderResult(initialCapacity, maxRetainedCapacity).borrowedFrom(this);
+    }
+
+    @Override
+    public void release(StrBuilderResult sbr) {
+        final int start = probe();
+        for (int i = 0; i < Math.min(MAX_PROBES, slots.length()); i++) {
+            final int index = (start + i) & mask;
+            if ((slots.get(index) == null) && slots.compareAndSet(index, null, sbr)) {
+                return;
+            }
+        }
+        // the pool is full, let the buffer go
+    }
+
+    /**
+     * Gets how many times a new buffer had to be created because none was free nearby.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Gets the number of idle buffers currently pooled. Only an estimate while other threads use the pool.
+     *
+     * @return the number of idle buffers
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int probe() {
+        // Fibonacci hashing spreads consecutive thread ids over the slots
+        return (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
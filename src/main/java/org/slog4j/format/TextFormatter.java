@@ -1,87 +1,226 @@
 package org.slog4j.format;
 
 import lombok.val;
-import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.event.Level;
 
-import java.util.Map;
-
-public class TextFormatter extends BaseFormatter {
+public class TextFormatter extends BaseFormatter implements IncrementalFormatter {
     protected static final char PROPERTY_SEP   = ' ';
     protected static final char NAME_VALUE_SEP = '=';
 
+    protected static final String EXCEPTION_LABEL = "exception";
+
     private static final char OPEN_SUBFIELD  = '[';
     private static final char CLOSE_SUBFIELD = ']';
 
+    private EscapePolicy escapePolicy = EscapePolicy.LOGSTASH_KV;
+
+    private ThrowableRenderer throwableRenderer;
+
+    /**
+     * Changes how string values are quoted and escaped, {@link EscapePolicy#LOGSTASH_KV} by default.
+     *
+     * @param escapePolicy The new policy.
+     * @return this, to enable chaining.
+     */
+    public Formatter escapePolicy(EscapePolicy escapePolicy) {
+        this.escapePolicy = escapePolicy;
+        renderSettingsChanged();
+        return this;
+    }
+
+    EscapePolicy escapePolicy() {
+        return escapePolicy;
+    }
+
+    /**
+     * Renders throwables on a single line, as the <code>exception</code> property or as the value of their own
+     * property, instead of attaching them to the event for the logging backend to print.
+     *
+     * @param throwableRenderer the renderer, or null to attach throwables again.
+     * @return this, to enable chaining.
+     */
+    public Formatter throwableRenderer(ThrowableRenderer throwableRenderer) {
+        this.throwableRenderer = throwableRenderer;
+        return this;
+    }
+
     @Override
     public Result format(Level level, String eventId) {
-        val sbr = StrBuilderResultFactory.get();
+        val sbr = newResult(eventId);
         beforeAddContentsHook(sbr, level);
-        return appendNameValue(sbr, eventIdLabel(), eventId);
+        return appendEventId(sbr, eventId);
     }
 
     @Override
     public Result format(Level level, String eventId, Object obj) {
-        val sbr = StrBuilderResultFactory.get();
+        val sbr = newResult(eventId);
         beforeAddContentsHook(sbr, level);
-        appendNameValue(sbr, eventIdLabel(), eventId);
+        appendEventId(sbr, eventId);
         return appendComplexObject(sbr, obj, true);
     }
 
     @Override
     public Result format(Level level, String eventId, String name, Object value) {
-        val sbr = StrBuilderResultFactory.get();
+        val sbr = newResult(eventId);
         beforeAddContentsHook(sbr, level);
-        appendNameValue(sbr, eventIdLabel(), eventId);
+        appendEventId(sbr, eventId);
         return appendValue(sbr.appendWithSeparator(PROPERTY_SEP, name).append(NAME_VALUE_SEP), value);
     }
 
     @Override
     public Result format(Level level, String eventId, Object... objs) {
-        val sbr = StrBuilderResultFactory.get();
+        val sbr = newResult(eventId);
         beforeAddContentsHook(sbr, level);
-        appendNameValue(sbr, eventIdLabel(), eventId);
+        appendEventId(sbr, eventId);
         return appendObjects(sbr, objs);
     }
 
-    protected StrBuilderResult appendNameValue(StrBuilderResult sbr, String name, String value) {
-        return appendText(sbr.appendWithSeparator(PROPERTY_SEP, name).append(NAME_VALUE_SEP), value);
-    }
-
-    private static StrBuilderResult appendText(StrBuilderResult sbr, String str) {
-        boolean mustQuote = StringUtils.indexOfAny(str, PROPERTY_SEP, OPEN_SUBFIELD, CLOSE_SUBFIELD) >= 0;
-        if (mustQuote) {
-            sbr.append('\'');
-        }
-        char[] chars = str.toCharArray();
-        int startIndex = 0;
-        int index;
-        for (index = 0; index < chars.length; index++) {
-            char c = chars[index];
-            final int charToScape;
-            switch (c) {
-                case '\'': charToScape = c;   break;
-                case '\r': charToScape = 'r'; break;
-                case '\n': charToScape = 'n'; break;
-                default:
-                    continue;
+    @Override
+    public Result format(Level level, LogContext context, String eventId, Object... objs) {
+        val sbr = newResult(eventId);
+        beforeAddContentsHook(sbr, level);
+        appendEventId(sbr, eventId);
+        return appendObjects(appendContext(sbr, context), objs);
+    }
+
+    @Override
+    public Result format(Level level, EventTemplate template, Object... values) {
+        return format(level, null, template, values);
+    }
+
+    @Override
+    public Result format(Level level, LogContext context, EventTemplate template, Object... values) {
+        val sbr = newResult(template.getEventId());
+        beforeAddContentsHook(sbr, level);
+        char[][] chunks = template.chunks(renderStamp());
+        if (chunks == null) {
+            chunks = template.chunks(renderStamp(), renderTemplate(template));
+        }
+        sbr.appendSeparator(PROPERTY_SEP).append(chunks[0], 0, chunks[0].length);
+        appendContext(appendContext(sbr, staticContext()), context);
+        for (int i = 1; i < chunks.length; i++) {
+            sbr.append(chunks[i], 0, chunks[i].length);
+            if (i <= values.length) {
+                appendValue(sbr, values[i - 1]);
+            } else {
+                sbr.append(MISSING_VALUE_PLACEHOLDER);
             }
-            sbr.append(chars, startIndex, index - startIndex)
-                // TODO: check if LogStash kv filter supports escaped chars!
-                .append('\\')
-                .append((char) charToScape);
-            startIndex = index + 1;
         }
-        if (startIndex < chars.length) {
-            sbr.append(chars, startIndex, str.length() - startIndex);
+        for (int i = template.size(); i < values.length; i++) {
+            if (values[i] != null) {
+                appendComplexObject(sbr, values[i], true);
+            }
         }
-        if (mustQuote) {
-            sbr.append('\'');
+        return sbr;
+    }
+
+    /**
+     * Renders the event id property and the name of every other property, each with its leading separator.
+     */
+    private char[][] renderTemplate(EventTemplate template) {
+        val chunks = new char[template.size() + 1][];
+        val sbr = new StrBuilderResult(64);
+        chunks[0] = appendNameValue(sbr, eventIdLabel(), template.getEventId()).getString().toCharArray();
+        for (int i = 0; i < template.size(); i++) {
+            sbr.clear();
+            chunks[i + 1] = sbr.append(PROPERTY_SEP).append(template.name(i)).append(NAME_VALUE_SEP)
+                .getString().toCharArray();
         }
+        return chunks;
+    }
+
+    @Override
+    public StrBuilderResult begin(StrBuilderResult sbr, Level level, String eventId) {
+        beforeAddContentsHook(reserveFor(sbr, eventId), level);
+        return appendEventId(sbr, eventId);
+    }
+
+    @Override
+    public StrBuilderResult begin(StrBuilderResult sbr, Level level, LogContext context, String eventId) {
+        return appendContext(begin(sbr, level, eventId), context);
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, long value) {
+        return appendName(sbr, name).append(value);
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, double value) {
+        return appendName(sbr, name).append(Double.toString(value));
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, boolean value) {
+        return appendName(sbr, name).append(value ? "true" : "false");
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, char value) {
+        // verbatim, as a boxed Character would be
+        return appendName(sbr, name).append(value);
+    }
+
+    @Override
+    public StrBuilderResult appendField(StrBuilderResult sbr, String name, Object value) {
+        return appendValue(appendName(sbr, name), value);
+    }
+
+    @Override
+    public StrBuilderResult appendObject(StrBuilderResult sbr, Object obj) {
+        // silently ignore nulls, as the Object... methods do
+        return (obj == null) ? sbr : appendComplexObject(sbr, obj, true);
+    }
+
+    @Override
+    public Result end(StrBuilderResult sbr) {
         return sbr;
     }
 
+    protected StrBuilderResult appendNameValue(StrBuilderResult sbr, String name, String value) {
+        return appendText(appendName(sbr, name), value);
+    }
+
+    /**
+     * Appends the event id property, followed by the properties of the static context.
+     */
+    private StrBuilderResult appendEventId(StrBuilderResult sbr, String eventId) {
+        return appendContext(appendNameValue(sbr, eventIdLabel(), eventId), staticContext());
+    }
+
+    /**
+     * Copies the properties of a context, rendering them on first use.
+     */
+    private StrBuilderResult appendContext(StrBuilderResult sbr, LogContext context) {
+        if (context == null) {
+            return sbr;
+        }
+        char[] chars = context.rendered(renderStamp());
+        if (chars == null) {
+            chars = context.rendered(renderStamp(), renderContext(context));
+        }
+        return sbr.append(chars, 0, chars.length);
+    }
+
+    /**
+     * Renders the properties of a context, each with its leading separator.
+     */
+    private char[] renderContext(LogContext context) {
+        val sbr = new StrBuilderResult(64);
+        for (int i = 0; i < context.size(); i++) {
+            appendValue(sbr.append(PROPERTY_SEP).append(context.name(i)).append(NAME_VALUE_SEP), context.value(i));
+        }
+        return sbr.getString().toCharArray();
+    }
+
+    private static StrBuilderResult appendName(StrBuilderResult sbr, String name) {
+        return sbr.appendWithSeparator(PROPERTY_SEP, name).append(NAME_VALUE_SEP);
+    }
+
+    StrBuilderResult appendText(StrBuilderResult sbr, String str) {
+        return escapePolicy.appendTo(sbr, str);
+    }
+
     @SuppressWarnings({
         "squid:ForLoopCounterChangedCheck"  // "for" loop stop conditions should be invariant
     })
@@ -108,54 +247,166 @@ public class TextFormatter extends BaseFormatter {
         return sbr;
     }
 
-    @SuppressWarnings("squid:S2259")    // Null pointers should not be dereferenced
     private StrBuilderResult appendValue(StrBuilderResult sbr, Object obj) {
-        try {
-            return appendSimpleObject(sbr, obj);
-        } catch (RuntimeException ignored) {
-            return appendComplexObject(sbr.append(OPEN_SUBFIELD), obj, false)
-                .append(CLOSE_SUBFIELD);
-        }
-    }
-
-    private StrBuilderResult appendSimpleObject(StrBuilderResult sbr, Object obj) {
         if (obj == null) {
             return sbr.append(NULL_PLACEHOLDER);
         }
-        if (obj instanceof String) {
-            return appendText(sbr, (String) obj);
-        }
-        if (ClassUtils.isPrimitiveWrapper(obj.getClass()) || obj.getClass().isEnum()) {
-            // don't need to handle special characters here
-            return sbr.append(obj.toString());
+        val plan = renderPlan(obj.getClass());
+        switch (plan.kind()) {
+            case STRING:
+                return appendText(sbr, (String) obj);
+            case APPENDED:
+                final int start = sbr.length();
+                try {
+                    plan.appendingConverter().appendTo(obj, sbr);
+                } catch (RuntimeException ignored) {
+                    FormatterStats.converterFailed();
+                    return appendBracketed(sbr.truncate(start), obj, plan);
+                }
+                return escapePolicy.escapeAppended(sbr, start);
+            case CONVERTED:
+                final String str;
+                try {
+                    str = plan.stringConverter().convertToString(obj);
+                } catch (RuntimeException ignored) {
+                    FormatterStats.converterFailed();
+                    return appendBracketed(sbr, obj, plan);
+                }
+                return appendText(sbr, str);
+            case LAZY:
+                final Object value = sbr.evaluate(obj);
+                return (value == EVALUATION_FAILED)
+                    ? sbr.append(EVALUATION_FAILED_PLACEHOLDER)
+                    : appendValue(sbr, value);
+            case COMPLEX:
+                if (plan.throwable() && (throwableRenderer != null)) {
+                    return appendThrowable(sbr, (Throwable) obj);
+                }
+                return appendBracketed(sbr, obj, plan);
+            default:
+                // don't need to handle special characters here
+                return sbr.append(obj.toString());
         }
-        String str = convertToString(obj);
-        return appendText(sbr, str);
+    }
+
+    private StrBuilderResult appendBracketed(StrBuilderResult sbr, Object obj, RenderPlan plan) {
+        return appendComplexObject(sbr.append(OPEN_SUBFIELD), obj, plan, false)
+            .append(CLOSE_SUBFIELD);
     }
 
     private StrBuilderResult appendComplexObject(StrBuilderResult sbr, Object obj, boolean topLevel) {
-        val converter = propertiesConverter(obj.getClass());
+        return appendComplexObject(sbr, obj, renderPlan(obj.getClass()), topLevel);
+    }
+
+    private StrBuilderResult appendComplexObject(StrBuilderResult sbr, Object obj, RenderPlan plan, boolean topLevel) {
         int loopIndex = topLevel ? 1 : 0;
+        if (plan.kind() == ValueKind.LAZY) {
+            val value = sbr.evaluate(obj);
+            if (value != EVALUATION_FAILED) {
+                // a lazy object stands for the object it supplies, ignored if null
+                return (value == null) ? sbr : appendComplexObject(sbr, value, topLevel);
+            }
+            return sbr.appendSeparator(PROPERTY_SEP, loopIndex)
+                .append(obj.getClass().getName())
+                .append('#')
+                .append(EVALUATION_FAILED_PLACEHOLDER);
+        }
+        val converter = plan.propertiesConverter();
         if (converter != null) {
-            return appendProperties(sbr.appendSeparator(PROPERTY_SEP, loopIndex), converter.convert(obj));
+            converter.writeTo(obj, new Sink(sbr.appendSeparator(PROPERTY_SEP, loopIndex)));
+            return sbr;
+        }
+        if (plan.throwable() && (throwableRenderer != null)) {
+            return appendThrowable(sbr.appendSeparator(PROPERTY_SEP, loopIndex).append(EXCEPTION_LABEL)
+                .append(NAME_VALUE_SEP), (Throwable) obj);
         }
-        if ((obj instanceof Throwable) && (topLevel || (sbr.getAttachment() == null))) {
+        if (plan.throwable() && (topLevel || (sbr.getAttachment() == null))) {
             return sbr.setAttachment(obj);
         }
+        FormatterStats.converterMissed();
         return sbr.appendSeparator(PROPERTY_SEP, loopIndex)
             .append(obj.getClass().getName())
             .append('#')
             .append(NO_CONVERTER_PLACEHOLDER);
     }
 
-    private StrBuilderResult appendProperties(StrBuilderResult sbr, Iterable<Map.Entry<String, Object>> props) {
-        int loopIndex = 0;
-        for (Map.Entry<String, Object> prop : props) {
-            sbr.appendSeparator(PROPERTY_SEP, loopIndex++)
-                .append(prop.getKey())
-                .append(NAME_VALUE_SEP);
-            appendValue(sbr, prop.getValue());
+    private StrBuilderResult appendThrowable(StrBuilderResult sbr, Throwable throwable) {
+        final int start = sbr.length();
+        return escapePolicy.escapeAppended(throwableRenderer.appendTo(sbr, throwable), start);
+    }
+
+    /**
+     * Writes the properties of a complex object as space-separated name/value pairs.
+     */
+    private final class Sink implements PropertySink {
+        private final StrBuilderResult sbr;
+        private       boolean          first = true;
+
+        Sink(StrBuilderResult sbr) {
+            this.sbr = sbr;
+        }
+
+        private StrBuilderResult name(String name) {
+            if (!first) {
+                sbr.append(PROPERTY_SEP);
+            }
+            first = false;
+            return sbr.append(name).append(NAME_VALUE_SEP);
+        }
+
+        @Override
+        public PropertySink put(String name, long value) {
+            name(name).append(value);
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, double value) {
+            name(name).append(Double.toString(value));
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, boolean value) {
+            name(name).append(value ? "true" : "false");
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, char value) {
+            // verbatim, as a boxed Character would be
+            name(name).append(value);
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, CharSequence value) {
+            if (value == null) {
+                name(name).append(NULL_PLACEHOLDER);
+            } else {
+                appendText(name(name), value.toString());
+            }
+            return this;
+        }
+
+        @Override
+        public PropertySink put(String name, Object value) {
+            appendValue(name(name), value);
+            return this;
+        }
+
+        @Override
+        public PropertySink beginObject(String name) {
+            name(name).append(OPEN_SUBFIELD);
+            first = true;
+            return this;
+        }
+
+        @Override
+        public PropertySink endObject() {
+            sbr.append(CLOSE_SUBFIELD);
+            first = false;
+            return this;
         }
-        return sbr;
     }
 }
@@ -0,0 +1,32 @@
+package org.slog4j.format;
+
+/**
+ * Keeps one buffer per thread, the default. The fastest option for a bounded number of platform threads, but every
+ * thread that ever logged keeps its own buffer.
+ */
+public final class ThreadLocalBufferPool implements BufferPool {
+
+    private final ThreadLocal<StrBuilderResult> buffers;
+
+    /**
+     * @param initialCapacity     the capacity of a new buffer.
+     * @param maxRetainedCapacity the maximum capacity a buffer keeps once cleared.
+     */
+    public ThreadLocalBufferPool(int initialCapacity, int maxRetainedCapacity) {
+        StrBuilderResultFactory.checkCapacities(initialCapacity, maxRetainedCapacity);
+        buffers = ThreadLocal.withInitial(() -> new StrBuilderResult(initialCapacity, maxRetainedCapacity));
+    }
+
+    @Override
+    public StrBuilderResult acquire() {
+        final StrBuilderResult result = buffers.get();
+        // the buffer of the thread is reused even if the previous event was not cleared
+        result.clear();
+        return result;
+    }
+
+    @Override
+    public void release(StrBuilderResult sbr) {
+        // never borrowed, the buffer stays with its thread
+    }
+}
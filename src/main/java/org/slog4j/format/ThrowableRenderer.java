@@ -0,0 +1,249 @@
+package org.slog4j.format;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renders a throwable and its causes on a single line, for formatters that write them as a regular property instead
+ * of attaching them to the event:
+ *
+ * <pre>
+ * java.io.IOException: closed at com.acme.Pool.get(Pool.java:42) ... 3 filtered ... 12 more caused by: ...
+ * </pre>
+ *
+ * <p>
+ * At most {@link Builder#maxFrames(int)} frames are rendered per throwable, runs of frames of the excluded packages
+ * are collapsed, and the frames a cause has in common with the throwable it caused are only counted. The frames are
+ * rendered once per distinct stack, then copied from a bounded cache, so a storm of identical errors only costs the
+ * class and message of every throwable.
+ */
+public final class ThrowableRenderer {
+
+    public static final int DEFAULT_MAX_FRAMES = 16;
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    /**
+     * The frames of a stack, as rendered.
+     */
+    private static final class Rendered {
+        final int                 hash;
+        final StackTraceElement[] frames;
+        final int                 common;
+        final char[]              chars;
+
+        Rendered(int hash, StackTraceElement[] frames, int common, char[] chars) {
+            this.hash = hash;
+            this.frames = frames;
+            this.common = common;
+            this.chars = chars;
+        }
+
+        boolean matches(int hash, StackTraceElement[] frames, int common) {
+            return (this.hash == hash) && (this.common == common) && Arrays.equals(this.frames, frames);
+        }
+    }
+
+    private final int      maxFrames;
+    private final String[] excludedPackages;
+
+    /**
+     * Direct-mapped on the hash of the stack: a stack evicts the one of the same slot. Entries are immutable, so
+     * they're safely shared without any lock.
+     */
+    private final Rendered[] cache;
+
+    private ThrowableRenderer(Builder builder) {
+        this.maxFrames = builder.maxFrames;
+        this.excludedPackages = builder.excludedPackages.toArray(new String[0]);
+        int size = 1;
+        while (size < builder.cacheSize) {
+            size <<= 1;
+        }
+        this.cache = new Rendered[size];
+    }
+
+    /**
+     * Appends a throwable and its causes.
+     *
+     * @param sbr       the builder to append to.
+     * @param throwable the throwable to render.
+     * @return the builder, to enable chaining.
+     */
+    public StrBuilderResult appendTo(StrBuilderResult sbr, Throwable throwable) {
+        Throwable current = throwable;
+        StackTraceElement[] enclosing = null;
+        int depth = 0;
+        do {
+            if (depth++ > 0) {
+                sbr.append(" caused by: ");
+            }
+            sbr.append(current.getClass().getName());
+            if (current.getMessage() != null) {
+                sbr.append(": ").append(current.getMessage());
+            }
+            final StackTraceElement[] frames = current.getStackTrace();
+            final char[] chars = frames(frames, commonFrames(frames, enclosing));
+            sbr.append(chars, 0, chars.length);
+            enclosing = frames;
+            current = current.getCause();
+        } while ((current != null) && (depth < MAX_CAUSE_DEPTH));
+        return sbr;
+    }
+
+    /**
+     * Checks whether the frames of a stack are cached.
+     */
+    boolean isCached(StackTraceElement[] frames, int common) {
+        final int hash = hash(frames, common);
+        final Rendered rendered = cache[hash & (cache.length - 1)];
+        return (rendered != null) && rendered.matches(hash, frames, common);
+    }
+
+    private char[] frames(StackTraceElement[] frames, int common) {
+        final int hash = hash(frames, common);
+        final int slot = hash & (cache.length - 1);
+        final Rendered cached = cache[slot];
+        if ((cached != null) && cached.matches(hash, frames, common)) {
+            return cached.chars;
+        }
+        final char[] chars = render(frames, common);
+        cache[slot] = new Rendered(hash, frames, common, chars);
+        return chars;
+    }
+
+    private char[] render(StackTraceElement[] frames, int common) {
+        final StrBuilderResult sbr = new StrBuilderResult(16 + (64 * Math.min(frames.length, maxFrames + 1)));
+        final int unique = frames.length - common;
+        int shown = 0;
+        int filtered = 0;
+        int i = 0;
+        for (; (i < unique) && (shown < maxFrames); i++) {
+            if (isExcluded(frames[i].getClassName())) {
+                filtered++;
+                continue;
+            }
+            if (filtered > 0) {
+                sbr.append(" ... ").append(filtered).append(" filtered");
+                filtered = 0;
+            }
+            appendFrame(sbr.append(" at "), frames[i]);
+            shown++;
+        }
+        if (filtered > 0) {
+            sbr.append(" ... ").append(filtered).append(" filtered");
+        }
+        if (i < unique) {
+            sbr.append(" ... ").append(unique - i).append(" more");
+        }
+        if (common > 0) {
+            sbr.append(" ... ").append(common).append(" common");
+        }
+        return sbr.getString().toCharArray();
+    }
+
+    private boolean isExcluded(String className) {
+        for (String excluded : excludedPackages) {
+            if (className.startsWith(excluded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends a stack frame in the same format as {@link StackTraceElement#toString()} on Java 8.
+     */
+    private static void appendFrame(StrBuilderResult sbr, StackTraceElement frame) {
+        sbr.append(frame.getClassName()).append('.').append(frame.getMethodName()).append('(');
+        if (frame.isNativeMethod()) {
+            sbr.append("Native Method");
+        } else if (frame.getFileName() == null) {
+            sbr.append("Unknown Source");
+        } else {
+            sbr.append(frame.getFileName());
+            if (frame.getLineNumber() >= 0) {
+                sbr.append(':').append(frame.getLineNumber());
+            }
+        }
+        sbr.append(')');
+    }
+
+    /**
+     * Counts the frames at the bottom of a stack that are the same as the ones of the enclosing throwable, as
+     * {@link Throwable#printStackTrace()} does.
+     */
+    private static int commonFrames(StackTraceElement[] frames, StackTraceElement[] enclosing) {
+        if (enclosing == null) {
+            return 0;
+        }
+        int m = frames.length - 1;
+        int n = enclosing.length - 1;
+        while ((m >= 0) && (n >= 0) && frames[m].equals(enclosing[n])) {
+            m--;
+            n--;
+        }
+        return frames.length - 1 - m;
+    }
+
+    private static int hash(StackTraceElement[] frames, int common) {
+        final int hash = (31 * Arrays.hashCode(frames)) + common;
+        // spreads the high bits over the slot index, as HashMap does
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Builds a {@link ThrowableRenderer}. By default up to {@value ThrowableRenderer#DEFAULT_MAX_FRAMES} frames are
+     * rendered per throwable, no package is excluded and {@value ThrowableRenderer#DEFAULT_CACHE_SIZE} stacks are
+     * cached.
+     */
+    public static final class Builder {
+        private final List<String> excludedPackages = new ArrayList<>();
+        private       int          maxFrames        = DEFAULT_MAX_FRAMES;
+        private       int          cacheSize        = DEFAULT_CACHE_SIZE;
+
+        /**
+         * @param maxFrames the number of frames rendered per throwable, the others are only counted.
+         * @return this, to enable chaining.
+         */
+        public Builder maxFrames(int maxFrames) {
+            if (maxFrames < 0) {
+                throw new IllegalArgumentException("maxFrames must not be negative: " + maxFrames);
+            }
+            this.maxFrames = maxFrames;
+            return this;
+        }
+
+        /**
+         * Collapses the frames of classes of the given packages, e.g. <code>java.lang.reflect</code> or
+         * <code>sun.reflect</code>.
+         *
+         * @param packages the package names, which also exclude their subpackages.
+         * @return this, to enable chaining.
+         */
+        public Builder excludePackages(String... packages) {
+            for (String pkg : packages) {
+                excludedPackages.add(pkg.endsWith(".") ? pkg : (pkg + '.'));
+            }
+            return this;
+        }
+
+        /**
+         * @param cacheSize the number of rendered stacks kept, rounded up to a power of two.
+         * @return this, to enable chaining.
+         */
+        public Builder cacheSize(int cacheSize) {
+            if (cacheSize < 1) {
+                throw new IllegalArgumentException("cacheSize must be positive: " + cacheSize);
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public ThrowableRenderer build() {
+            return new ThrowableRenderer(this);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.slog4j.format;
+
+/**
+ * How the time of an event is rendered.
+ */
+public enum TimestampPrecision {
+    /**
+     * ISO8601/RFC3339 with milliseconds, e.g. <code>2017-09-26T03:51:47.801+0000</code>. The default.
+     */
+    MILLIS,
+    /**
+     * ISO8601/RFC3339 with microseconds, e.g. <code>2017-09-26T03:51:47.801234+0000</code>.
+     */
+    MICROS,
+    /**
+     * ISO8601/RFC3339 with nanoseconds, e.g. <code>2017-09-26T03:51:47.801234567+0000</code>.
+     */
+    NANOS,
+    /**
+     * Milliseconds since the epoch, e.g. <code>1506397907801</code>, rendered as a number.
+     */
+    EPOCH_MILLIS
+}
@@ -0,0 +1,117 @@
+package org.slog4j.format;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Appends the current time of a {@link Clock} to a {@link StrBuilderResult}.
+ *
+ * <p>
+ * The ISO8601 date, time and zone offset only change once per second, so they are rendered once and cached: every
+ * other event of the same second only appends the cached chars and the fraction digits, without creating any
+ * intermediate {@link String}. Thread-safe.
+ */
+public final class TimestampRenderer {
+
+    /**
+     * An immutable rendered second, replaced as a whole so it can be shared by every thread without locking.
+     */
+    private static final class Second {
+        final long   epochSecond;
+        final char[] dateTime;
+        final char[] offset;
+
+        Second(long epochSecond, char[] dateTime, char[] offset) {
+            this.epochSecond = epochSecond;
+            this.dateTime = dateTime;
+            this.offset = offset;
+        }
+    }
+
+    private final Clock              clock;
+    private final ZoneId             zone;
+    private final TimestampPrecision precision;
+
+    private volatile Second second;
+
+    /**
+     * @param clock     the clock to read.
+     * @param zone      the time zone whose offset is rendered.
+     * @param precision how the time is rendered.
+     */
+    public TimestampRenderer(Clock clock, ZoneId zone, TimestampPrecision precision) {
+        this.clock = clock;
+        this.zone = zone;
+        this.precision = precision;
+    }
+
+    /**
+     * @return true if the time is rendered as a number, so it must not be quoted.
+     */
+    public boolean isNumeric() {
+        return precision == TimestampPrecision.EPOCH_MILLIS;
+    }
+
+    /**
+     * Appends the current time of the clock.
+     *
+     * @param sbr the builder to append to.
+     * @return the builder, to enable chaining.
+     */
+    public StrBuilderResult appendTo(StrBuilderResult sbr) {
+        switch (precision) {
+            case EPOCH_MILLIS:
+                return sbr.append(clock.millis());
+            case MILLIS:
+                final long millis = clock.millis();
+                return appendTo(sbr, Math.floorDiv(millis, 1000L), Math.floorMod(millis, 1000L), 3);
+            default:
+                final Instant now = clock.instant();
+                if (precision == TimestampPrecision.MICROS) {
+                    return appendTo(sbr, now.getEpochSecond(), now.getNano() / 1000, 6);
+                }
+                return appendTo(sbr, now.getEpochSecond(), now.getNano(), 9);
+        }
+    }
+
+    private StrBuilderResult appendTo(StrBuilderResult sbr, long epochSecond, long fraction, int digits) {
+        Second current = second;
+        if ((current == null) || (current.epochSecond != epochSecond)) {
+            current = render(epochSecond);
+            second = current;
+        }
+        return sbr.append(current.dateTime, 0, current.dateTime.length)
+            .append('.')
+            .appendZeroPadded(fraction, digits)
+            .append(current.offset, 0, current.offset.length);
+    }
+
+    private Second render(long epochSecond) {
+        final ZoneOffset offset = zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+        final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+        final StrBuilderResult sbr = new StrBuilderResult(32);
+        final int year = dateTime.getYear();
+        if ((year >= 0) && (year <= 9999)) {
+            sbr.appendZeroPadded(year, 4);
+        } else {
+            sbr.append((long) year);
+        }
+        sbr.append('-')
+            .appendZeroPadded(dateTime.getMonthValue(), 2).append('-')
+            .appendZeroPadded(dateTime.getDayOfMonth(), 2).append('T')
+            .appendZeroPadded(dateTime.getHour(), 2).append(':')
+            .appendZeroPadded(dateTime.getMinute(), 2).append(':')
+            .appendZeroPadded(dateTime.getSecond(), 2);
+        final char[] dateTimeChars = sbr.getString().toCharArray();
+        // same as the 'Z' pattern of SimpleDateFormat: +HHMM
+        final int offsetMinutes = Math.abs(offset.getTotalSeconds()) / 60;
+        sbr.clear();
+        sbr.append(offset.getTotalSeconds() < 0 ? '-' : '+')
+            .appendZeroPadded(offsetMinutes / 60, 2)
+            .appendZeroPadded(offsetMinutes % 60, 2);
+        return new Second(epochSecond, dateTimeChars, sbr.getString().toCharArray());
+    }
+}
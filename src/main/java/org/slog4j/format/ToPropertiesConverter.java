@@ -11,4 +11,17 @@ public interface ToPropertiesConverter {
     Class<?> getEffectiveType();
 
     Iterable<Map.Entry<String, Object>> convert(Object object);
+
+    /**
+     * Writes the properties of an object into a sink. Formatters always call this method: by default it adapts
+     * {@link #convert(Object)}, while a {@link PropertySinkConverter} writes the properties directly.
+     *
+     * @param object the object to convert, never null.
+     * @param sink   the sink to write to.
+     */
+    default void writeTo(Object object, PropertySink sink) {
+        for (Map.Entry<String, Object> property : convert(object)) {
+            sink.put(property.getKey(), property.getValue());
+        }
+    }
 }
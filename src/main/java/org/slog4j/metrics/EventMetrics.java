@@ -0,0 +1,204 @@
+package org.slog4j.metrics;
+
+import org.slf4j.event.Level;
+import org.slog4j.SLogger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the events logged through the loggers it wraps, by event id and level, and records the values of some
+ * numeric properties into histograms, by event id and property name. The metrics are collected while logging, so
+ * they need no second pass over the log files:
+ *
+ * <pre>
+ * EventMetrics metrics = new EventMetrics("latencyMs", "bytes");
+ * metrics.registerMBean("http");
+ * SLogger slog = metrics.wrap(SLoggerFactory.getLogger(MyClass.class));
+ * ...
+ * long p99 = metrics.snapshot().getHistogram("REQUEST_DONE", "latencyMs").getP99();
+ * </pre>
+ *
+ * Only name/value pairs are inspected: the properties of complex objects are not recorded. Events suppressed by a
+ * wrapped {@link org.slog4j.SamplingSLogger} are only counted if this one wraps it.
+ */
+public final class EventMetrics {
+
+    private static final Level[] LEVELS = Level.values();
+
+    /**
+     * The metrics of an event id.
+     */
+    static final class EventStats {
+        private final LongAdder[]            counts     = new LongAdder[LEVELS.length];
+        private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+        EventStats() {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        void count(Level level) {
+            counts[level.ordinal()].increment();
+        }
+
+        void record(String key, long value) {
+            Histogram histogram = histograms.get(key);
+            if (histogram == null) {
+                histogram = histograms.computeIfAbsent(key, k -> new Histogram());
+            }
+            histogram.record(value);
+        }
+    }
+
+    private final Set<String>             histogramKeys;
+    private final Map<String, EventStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param histogramKeys the names of the numeric properties whose values are recorded.
+     */
+    public EventMetrics(String... histogramKeys) {
+        this.histogramKeys = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(histogramKeys)));
+    }
+
+    /**
+     * Creates a logger that collects metrics of the events logged to another one.
+     *
+     * @param delegate the logger of the events.
+     * @return the logger.
+     */
+    public SLogger wrap(SLogger delegate) {
+        return new MetricsSLogger(delegate, this);
+    }
+
+    /**
+     * Copies the current metrics. The counters keep being updated while copied, so the snapshot is not atomic.
+     *
+     * @return the snapshot.
+     */
+    public MetricsSnapshot snapshot() {
+        final Map<String, long[]> counts = new TreeMap<>();
+        final Map<String, Map<String, HistogramSnapshot>> histograms = new TreeMap<>();
+        stats.forEach((eventId, eventStats) -> {
+            final long[] byLevel = new long[LEVELS.length];
+            for (int i = 0; i < byLevel.length; i++) {
+                byLevel[i] = eventStats.counts[i].sum();
+            }
+            counts.put(eventId, byLevel);
+            if (!eventStats.histograms.isEmpty()) {
+                final Map<String, HistogramSnapshot> byKey = new TreeMap<>();
+                eventStats.histograms.forEach((key, histogram) -> byKey.put(key, histogram.snapshot()));
+                histograms.put(eventId, byKey);
+            }
+        });
+        return new MetricsSnapshot(counts, histograms);
+    }
+
+    /**
+     * Registers an {@link EventMetricsMXBean} on the platform MBean server, as
+     * <code>org.slog4j:type=EventMetrics,name=<em>name</em></code>.
+     *
+     * @param name the name of these metrics.
+     * @return the name of the MBean, to unregister it.
+     * @throws JMException if the MBean cannot be registered, e.g. if the name is taken.
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        final Hashtable<String, String> properties = new Hashtable<>();
+        properties.put("type", "EventMetrics");
+        properties.put("name", name);
+        final ObjectName objectName = new ObjectName("org.slog4j", properties);
+        ManagementFactory.getPlatformMBeanServer()
+            .registerMBean(new StandardMBean(new MXBean(), EventMetricsMXBean.class, true), objectName);
+        return objectName;
+    }
+
+    EventStats stats(String eventId) {
+        final EventStats eventStats = stats.get(eventId);
+        return (eventStats != null) ? eventStats : stats.computeIfAbsent(eventId, key -> new EventStats());
+    }
+
+    boolean hasHistograms() {
+        return !histogramKeys.isEmpty();
+    }
+
+    /**
+     * Records a property value if its name is one of the histogram keys and the value is a number.
+     */
+    void record(EventStats eventStats, String name, Object value) {
+        if ((value instanceof Number) && histogramKeys.contains(name)) {
+            record(eventStats, name, (Number) value);
+        }
+    }
+
+    void record(EventStats eventStats, String name, long value) {
+        if (histogramKeys.contains(name)) {
+            eventStats.record(name, value);
+        }
+    }
+
+    void record(EventStats eventStats, String name, double value) {
+        if (histogramKeys.contains(name)) {
+            eventStats.record(name, Math.round(value));
+        }
+    }
+
+    private static void record(EventStats eventStats, String name, Number value) {
+        if ((value instanceof Double) || (value instanceof Float)) {
+            eventStats.record(name, Math.round(value.doubleValue()));
+        } else {
+            eventStats.record(name, value.longValue());
+        }
+    }
+
+    private final class MXBean implements EventMetricsMXBean {
+        @Override
+        public long getTotalCount() {
+            long total = 0;
+            for (EventStats eventStats : stats.values()) {
+                for (LongAdder count : eventStats.counts) {
+                    total += count.sum();
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public Map<String, Long> getCounts() {
+            final Map<String, Long> counts = new LinkedHashMap<>();
+            final MetricsSnapshot snapshot = snapshot();
+            for (String eventId : snapshot.getEventIds()) {
+                for (Level level : LEVELS) {
+                    final long count = snapshot.getCount(eventId, level);
+                    if (count > 0) {
+                        counts.put(eventId + '/' + level, count);
+                    }
+                }
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, HistogramSnapshot> getHistograms() {
+            final Map<String, HistogramSnapshot> histograms = new LinkedHashMap<>();
+            final MetricsSnapshot snapshot = snapshot();
+            for (String eventId : snapshot.getEventIds()) {
+                snapshot.getHistograms(eventId).forEach((key, histogram) -> histograms.put(eventId + '/' + key,
+                    histogram));
+            }
+            return histograms;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.slog4j.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of an {@link EventMetrics}, registered by {@link EventMetrics#registerMBean(String)}.
+ */
+public interface EventMetricsMXBean {
+
+    /**
+     * @return the number of events logged so far.
+     */
+    long getTotalCount();
+
+    /**
+     * @return the number of events logged by <code>eventId/LEVEL</code>.
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * @return the values recorded by <code>eventId/key</code>.
+     */
+    Map<String, HistogramSnapshot> getHistograms();
+}
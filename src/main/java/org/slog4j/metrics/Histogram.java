@@ -0,0 +1,78 @@
+package org.slog4j.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records non-negative values into log-linear buckets, as HdrHistogram does: every power of 2 is split into
+ * {@link #SUB_BUCKETS} buckets, so any value is known within about 3% and the whole long range fits in under 2000
+ * counters. Values are recorded without locks.
+ */
+final class Histogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder       count  = new LongAdder();
+    private final LongAdder       sum    = new LongAdder();
+    private final AtomicLong      min    = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong      max    = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param value the value to record; negative values are recorded as 0.
+     */
+    void record(long value) {
+        final long v = Math.max(0, value);
+        counts.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+        long current;
+        while ((v < (current = min.get())) && !min.compareAndSet(current, v)) {
+            // retry
+        }
+        while ((v > (current = max.get())) && !max.compareAndSet(current, v)) {
+            // retry
+        }
+    }
+
+    HistogramSnapshot snapshot() {
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        return new HistogramSnapshot(snapshot, total, sum.sum(), (total > 0) ? min.get() : 0,
+            (total > 0) ? max.get() : 0);
+    }
+
+    /**
+     * Values below {@link #SUB_BUCKETS} get a bucket each; above, a value with its highest bit at position
+     * <code>e</code> goes to group <code>e - SUB_BUCKET_BITS + 1</code>, indexed by its next
+     * {@link #SUB_BUCKET_BITS} bits.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * @return the highest value that goes to a bucket.
+     */
+    static long highestValue(int index) {
+        final int group = index >>> SUB_BUCKET_BITS;
+        final long sub = index & (SUB_BUCKETS - 1);
+        if (group == 0) {
+            return sub;
+        }
+        final long lowest = (SUB_BUCKETS + sub) << (group - 1);
+        return lowest + (1L << (group - 1)) - 1;
+    }
+}
@@ -0,0 +1,81 @@
+package org.slog4j.metrics;
+
+/**
+ * The values recorded for a key of an event id at some point in time. Percentiles are reported as the highest value
+ * of their bucket, so they are never below the actual value and exceed it by about 3% at most.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long   count;
+    private final long   sum;
+    private final long   min;
+    private final long   max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long min, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return (count > 0) ? ((double) sum / count) : 0;
+    }
+
+    /**
+     * Gets the value below which a percentage of the recorded values fall.
+     *
+     * @param percentile the percentage, between 0 and 100.
+     * @return the value, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil((Math.min(100, percentile) / 100) * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Histogram.highestValue(i));
+            }
+        }
+        return max;
+    }
+
+    public long getP50() {
+        return getValueAtPercentile(50);
+    }
+
+    public long getP90() {
+        return getValueAtPercentile(90);
+    }
+
+    public long getP99() {
+        return getValueAtPercentile(99);
+    }
+
+    public long getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " min=" + min + " mean=" + getMean() + " p50=" + getP50() + " p90=" + getP90()
+            + " p99=" + getP99() + " max=" + max;
+    }
+}
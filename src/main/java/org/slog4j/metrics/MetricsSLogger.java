@@ -0,0 +1,144 @@
+package org.slog4j.metrics;
+
+import org.slf4j.event.Level;
+import org.slog4j.AbstractSLogger;
+import org.slog4j.EventBuilder;
+import org.slog4j.SLogger;
+import org.slog4j.format.EventTemplate;
+
+/**
+ * Updates the metrics of every event and hands it to the delegate logger.
+ */
+final class MetricsSLogger extends AbstractSLogger {
+    private final SLogger      delegate;
+    private final EventMetrics metrics;
+
+    MetricsSLogger(SLogger delegate, EventMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return delegate.isEnabled(level);
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object... objs) {
+        final EventMetrics.EventStats stats = count(level, eventId);
+        if (metrics.hasHistograms()) {
+            for (int i = 0; i < (objs.length - 1); i++) {
+                if (objs[i] instanceof String) {
+                    metrics.record(stats, (String) objs[i], objs[++i]);
+                }
+            }
+        }
+        delegate.log(level, eventId, objs);
+    }
+
+    @Override
+    public void log(Level level, String eventId) {
+        count(level, eventId);
+        delegate.log(level, eventId);
+    }
+
+    @Override
+    public void log(Level level, String eventId, Object obj) {
+        count(level, eventId);
+        delegate.log(level, eventId, obj);
+    }
+
+    @Override
+    public void log(Level level, String eventId, String name, Object value) {
+        metrics.record(count(level, eventId), name, value);
+        delegate.log(level, eventId, name, value);
+    }
+
+    @Override
+    public void log(Level level, EventTemplate template, Object... values) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        final EventMetrics.EventStats stats = count(level, template.getEventId());
+        if (metrics.hasHistograms()) {
+            final int size = Math.min(template.size(), values.length);
+            for (int i = 0; i < size; i++) {
+                metrics.record(stats, template.name(i), values[i]);
+            }
+        }
+        delegate.log(level, template, values);
+    }
+
+    @Override
+    public EventBuilder at(Level level, String eventId) {
+        if (!isEnabled(level)) {
+            return delegate.at(level, eventId);
+        }
+        final EventMetrics.EventStats stats = count(level, eventId);
+        final EventBuilder builder = delegate.at(level, eventId);
+        return metrics.hasHistograms() ? new RecordingEventBuilder(builder, stats) : builder;
+    }
+
+    private EventMetrics.EventStats count(Level level, String eventId) {
+        final EventMetrics.EventStats stats = metrics.stats(eventId);
+        stats.count(level);
+        return stats;
+    }
+
+    /**
+     * Records the numeric properties while the delegate builder collects them.
+     */
+    private final class RecordingEventBuilder implements EventBuilder {
+        private final EventBuilder            builder;
+        private final EventMetrics.EventStats stats;
+
+        RecordingEventBuilder(EventBuilder builder, EventMetrics.EventStats stats) {
+            this.builder = builder;
+            this.stats = stats;
+        }
+
+        @Override
+        public EventBuilder with(String name, long value) {
+            metrics.record(stats, name, value);
+            builder.with(name, value);
+            return this;
+        }
+
+        @Override
+        public EventBuilder with(String name, double value) {
+            metrics.record(stats, name, value);
+            builder.with(name, value);
+            return this;
+        }
+
+        @Override
+        public EventBuilder with(String name, boolean value) {
+            builder.with(name, value);
+            return this;
+        }
+
+        @Override
+        public EventBuilder with(String name, char value) {
+            builder.with(name, value);
+            return this;
+        }
+
+        @Override
+        public EventBuilder with(String name, Object value) {
+            metrics.record(stats, name, value);
+            builder.with(name, value);
+            return this;
+        }
+
+        @Override
+        public EventBuilder with(Object obj) {
+            builder.with(obj);
+            return this;
+        }
+
+        @Override
+        public void log() {
+            builder.log();
+        }
+    }
+}
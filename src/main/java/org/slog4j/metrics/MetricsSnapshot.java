@@ -0,0 +1,67 @@
+package org.slog4j.metrics;
+
+import org.slf4j.event.Level;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The counters and histograms of an {@link EventMetrics} at some point in time.
+ */
+public final class MetricsSnapshot {
+
+    private final Map<String, long[]>                         counts;
+    private final Map<String, Map<String, HistogramSnapshot>> histograms;
+
+    MetricsSnapshot(Map<String, long[]> counts, Map<String, Map<String, HistogramSnapshot>> histograms) {
+        this.counts = counts;
+        this.histograms = histograms;
+    }
+
+    /**
+     * @return the ids of the events logged so far.
+     */
+    public Set<String> getEventIds() {
+        return Collections.unmodifiableSet(counts.keySet());
+    }
+
+    /**
+     * @param eventId the event id.
+     * @return the number of events logged with that id, at any level.
+     */
+    public long getCount(String eventId) {
+        long total = 0;
+        for (long count : counts.getOrDefault(eventId, new long[0])) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @param eventId the event id.
+     * @param level   the level.
+     * @return the number of events logged with that id and level.
+     */
+    public long getCount(String eventId, Level level) {
+        final long[] byLevel = counts.get(eventId);
+        return (byLevel != null) ? byLevel[level.ordinal()] : 0;
+    }
+
+    /**
+     * @param eventId the event id.
+     * @param key     the name of a numeric property.
+     * @return the values of the property logged with that event id, or null if there is none.
+     */
+    public HistogramSnapshot getHistogram(String eventId, String key) {
+        return getHistograms(eventId).get(key);
+    }
+
+    /**
+     * @param eventId the event id.
+     * @return the histograms of the event id by property name.
+     */
+    public Map<String, HistogramSnapshot> getHistograms(String eventId) {
+        return Collections.unmodifiableMap(histograms.getOrDefault(eventId, Collections.emptyMap()));
+    }
+}
@@ -0,0 +1,52 @@
+package org.slog4j.reader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 bytes seen as chars, one per byte. Every char that delimits fields is ASCII, and the bytes of multibyte
+ * chars are never ASCII, so the lines can be scanned without decoding them; only the spans turned into strings are.
+ */
+final class ByteChars implements CharSequence {
+    private final ByteBuffer bytes;
+    private final int        offset;
+    private final int        length;
+
+    ByteChars(ByteBuffer bytes) {
+        this.bytes = bytes;
+        this.offset = bytes.position();
+        this.length = bytes.remaining();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (bytes.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new Span(this, start, end);
+    }
+
+    String decode(int start, int end) {
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + offset + start, end - start,
+                StandardCharsets.UTF_8);
+        }
+        final byte[] copy = new byte[end - start];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = bytes.get(offset + start + i);
+        }
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return decode(0, length);
+    }
+}
@@ -0,0 +1,264 @@
+package org.slog4j.reader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A cursor over the fields of an event, or of a subfield, read by a {@link KvReader}.
+ *
+ * <p>
+ * The names and values returned as {@link CharSequence} are views over the text, reused by the cursor: they're only
+ * valid until it moves. Over bytes, their chars are the UTF-8 bytes of the text, one per char, and their
+ * {@link Object#toString()} decodes them.
+ *
+ * <p>
+ * Values are unescaped as {@link org.slog4j.format.EscapePolicy#LOGSTASH_KV} escapes them. That policy doesn't
+ * escape backslashes, so a string holding a backslash followed by <code>'</code>, <code>n</code> or <code>r</code>
+ * is read as the escaped char, and the placeholders below are indistinguishable from strings with the same text.
+ */
+public final class KvField {
+
+    private final KvReader reader;
+    private final Span     name  = new Span();
+    private final Span     value = new Span();
+
+    private int     parent;
+    private int     index;
+    private KvField children;
+
+    KvField(KvReader reader) {
+        this.reader = reader;
+    }
+
+    KvField reset(int parent) {
+        this.parent = parent;
+        this.index = -1;
+        return this;
+    }
+
+    /**
+     * Moves to the next field.
+     *
+     * @return false if there are no more fields.
+     */
+    public boolean next() {
+        final int end = (parent < 0) ? reader.count() : reader.sibling(parent);
+        final int candidate;
+        if (index < 0) {
+            candidate = parent + 1;
+        } else {
+            candidate = (index < end) ? reader.sibling(index) : end;
+        }
+        index = Math.min(candidate, end);
+        return index < end;
+    }
+
+    /**
+     * @return the name, empty for the objects written without any, such as the ones without a converter.
+     */
+    public CharSequence name() {
+        return nameSpan();
+    }
+
+    /**
+     * @param text an ASCII name.
+     * @return whether the field has that name.
+     */
+    public boolean nameEquals(CharSequence text) {
+        return nameSpan().contentEquals(text);
+    }
+
+    /**
+     * @return the value as written, without its quotes nor brackets, escaped.
+     */
+    public CharSequence rawValue() {
+        return valueSpan();
+    }
+
+    /**
+     * @return whether the value is made of fields, written between brackets.
+     */
+    public boolean isSubfield() {
+        return (reader.flags(index) & KvReader.SUBFIELD) != 0;
+    }
+
+    /**
+     * Gets a cursor over the fields of this subfield. The cursor is reused, so it's reset by every call.
+     *
+     * @return the cursor, positioned before the first field.
+     * @throws IllegalStateException if this field is not a subfield.
+     */
+    public KvField subfields() {
+        if (!isSubfield()) {
+            throw new IllegalStateException("not a subfield: " + name());
+        }
+        if (children == null) {
+            children = new KvField(reader);
+        }
+        return children.reset(index);
+    }
+
+    public boolean isQuoted() {
+        return (reader.flags(index) & KvReader.QUOTED) != 0;
+    }
+
+    public boolean isNull() {
+        return !isQuoted() && valueSpan().contentEquals(KvReader.NULL_PLACEHOLDER);
+    }
+
+    public boolean isMissing() {
+        return !isQuoted() && valueSpan().contentEquals(KvReader.MISSING_VALUE_PLACEHOLDER);
+    }
+
+    /**
+     * @return whether the value was an object without any converter, written as its class name followed by
+     *     <code>#_NO_CONVERTER_</code>.
+     */
+    public boolean isNoConverter() {
+        return !isQuoted() && endsWith(rawValue(), KvReader.NO_CONVERTER_PLACEHOLDER);
+    }
+
+    /**
+     * @return whether the value was a lazy value that failed, written as <code>_EVALUATION_FAILED_</code> or, at the
+     *     top level, as its class name followed by <code>#_EVALUATION_FAILED_</code>.
+     */
+    public boolean isEvaluationFailed() {
+        return !isQuoted() && endsWith(rawValue(), KvReader.EVALUATION_FAILED_PLACEHOLDER);
+    }
+
+    /**
+     * Compares the value, unescaped, with a string. Unless the value is escaped, or the text is bytes and the string
+     * is not ASCII, nothing is allocated.
+     *
+     * @param expected the string.
+     * @return whether the value is the string.
+     */
+    public boolean valueEquals(String expected) {
+        if (((reader.flags(index) & KvReader.ESCAPED) != 0)
+            || ((reader.text() instanceof ByteChars) && !isAscii(expected))) {
+            return value().equals(expected);
+        }
+        return valueSpan().contentEquals(expected);
+    }
+
+    /**
+     * Gets the value, unescaped. Subfields are returned as written.
+     *
+     * @return the value, as a new string.
+     */
+    public String value() {
+        final CharSequence raw = rawValue();
+        if ((reader.flags(index) & KvReader.ESCAPED) == 0) {
+            return raw.toString();
+        }
+        return appendValue(new StringBuilder(raw.length())).toString();
+    }
+
+    /**
+     * Appends the value, unescaped. Over chars, nothing is allocated.
+     *
+     * @param out where to append the value.
+     * @param <A> the type of the output.
+     * @return the output.
+     */
+    public <A extends Appendable> A appendValue(A out) {
+        final CharSequence raw = (reader.text() instanceof ByteChars) ? rawValue().toString() : rawValue();
+        try {
+            if ((reader.flags(index) & KvReader.ESCAPED) == 0) {
+                out.append(raw);
+                return out;
+            }
+            int runStart = 0;
+            for (int i = 0; i < raw.length(); i++) {
+                if ((raw.charAt(i) == '\\') && ((i + 1) < raw.length())) {
+                    out.append(raw, runStart, i).append(unescape(raw.charAt(i + 1)));
+                    runStart = i + 2;
+                    i++;
+                }
+            }
+            out.append(raw, runStart, raw.length());
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses the value as a decimal integer, without creating any string.
+     *
+     * @return the value.
+     * @throws NumberFormatException if the value is not an integer.
+     */
+    public long longValue() {
+        final CharSequence raw = rawValue();
+        final int length = raw.length();
+        final boolean negative = (length > 0) && (raw.charAt(0) == '-');
+        int i = negative ? 1 : 0;
+        if ((i == length) || isQuoted() || (length > 20)) {
+            throw new NumberFormatException("not an integer: " + raw);
+        }
+        long result = 0;
+        for (; i < length; i++) {
+            final int digit = raw.charAt(i) - '0';
+            if ((digit < 0) || (digit > 9)) {
+                throw new NumberFormatException("not an integer: " + raw);
+            }
+            // accumulated as a negative number, whose range includes Long.MIN_VALUE
+            final long next = (result * 10) - digit;
+            if ((result < (Long.MIN_VALUE / 10)) || (next > result)) {
+                throw new NumberFormatException("out of range: " + raw);
+            }
+            result = next;
+        }
+        if (!negative && (result == Long.MIN_VALUE)) {
+            throw new NumberFormatException("out of range: " + raw);
+        }
+        return negative ? result : -result;
+    }
+
+    @Override
+    public String toString() {
+        return name() + "=" + rawValue();
+    }
+
+    private Span nameSpan() {
+        return name.set(reader.text(), reader.nameStart(index), reader.nameEnd(index));
+    }
+
+    private Span valueSpan() {
+        return value.set(reader.text(), reader.valueStart(index), reader.valueEnd(index));
+    }
+
+    private static char unescape(char escape) {
+        switch (escape) {
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            default:
+                return escape;
+        }
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean endsWith(CharSequence text, String suffix) {
+        final int offset = text.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (text.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
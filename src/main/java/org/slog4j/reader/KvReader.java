@@ -0,0 +1,359 @@
+package org.slog4j.reader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the lines written by {@link org.slog4j.format.TextFormatter}, with its default
+ * {@link org.slog4j.format.EscapePolicy#LOGSTASH_KV} escaping, one event at a time:
+ *
+ * <pre>
+ * KvReader reader = KvReader.map(Paths.get("/var/log/app/slog4j.0.log"));
+ * while (reader.next()) {
+ *     KvField order = reader.field("order");
+ *     if ((order != null) &amp;&amp; order.isSubfield()) {
+ *         KvField line = order.subfields();
+ *         while (line.next()) {
+ *             ...
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * Every line is scanned once, recording where its names and values start and end, and its fields are then read
+ * through cursors over the text, reused from line to line: nothing is copied nor decoded unless a value is asked for
+ * as a {@link String}. Lines that are not events, such as the stack traces written after them, are skipped.
+ *
+ * <p>
+ * Not thread-safe. The text must not change while it's read.
+ */
+public final class KvReader {
+
+    static final int QUOTED   = 1;
+    static final int SUBFIELD = 2;
+    static final int ESCAPED  = 4;
+
+    private static final char PROPERTY_SEP   = ' ';
+    private static final char NAME_VALUE_SEP = '=';
+    private static final char OPEN_SUBFIELD  = '[';
+    private static final char CLOSE_SUBFIELD = ']';
+    private static final char QUOTE          = '\'';
+    private static final char ESCAPE         = '\\';
+
+    // as written by org.slog4j.format.BaseFormatter
+    static final String NULL_PLACEHOLDER              = "_NULL_";
+    static final String MISSING_VALUE_PLACEHOLDER     = "_MISSING_";
+    static final String NO_CONVERTER_PLACEHOLDER      = "#_NO_CONVERTER_";
+    static final String EVALUATION_FAILED_PLACEHOLDER = "_EVALUATION_FAILED_";
+
+    private final CharSequence text;
+
+    private int  position;
+    private int  lineStart;
+    private int  lineEnd;
+    private long skippedLines;
+
+    /*
+     * The fields of the current line, nested ones included, in the order they're written: a subfield is followed by
+     * its own fields, and sibling() is the index of the field after them.
+     */
+    private int   count;
+    private int[] nameStarts  = new int[16];
+    private int[] nameEnds    = new int[16];
+    private int[] valueStarts = new int[16];
+    private int[] valueEnds   = new int[16];
+    private int[] siblings    = new int[16];
+    private int[] flags       = new int[16];
+
+    private final Span    line   = new Span();
+    private final KvField fields = new KvField(this);
+    private final KvField found  = new KvField(this);
+
+    private KvReader(CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * Reads lines from text.
+     *
+     * @param text the lines.
+     * @return the reader, positioned before the first event.
+     */
+    public static KvReader of(CharSequence text) {
+        return new KvReader(text);
+    }
+
+    /**
+     * Reads lines encoded as UTF-8, from the position of a buffer up to its limit or up to the first zero byte, as
+     * found at the end of a file of {@link org.slog4j.MappedFileSLogger}.
+     *
+     * @param bytes the lines.
+     * @return the reader, positioned before the first event.
+     */
+    public static KvReader of(ByteBuffer bytes) {
+        return new KvReader(new ByteChars(bytes));
+    }
+
+    /**
+     * Reads the lines of a file of at most 2 GiB, memory-mapped.
+     *
+     * @param file the file, UTF-8 encoded.
+     * @return the reader, positioned before the first event.
+     * @throws IOException if the file can't be mapped.
+     */
+    public static KvReader map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("file larger than 2 GiB: " + file);
+            }
+            return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Moves to the next event.
+     *
+     * @return false if there are no more events.
+     */
+    public boolean next() {
+        final int length = text.length();
+        while ((position < length) && (text.charAt(position) != 0)) {
+            lineStart = position;
+            lineEnd = lineStart;
+            while ((lineEnd < length) && (text.charAt(lineEnd) != '\n') && (text.charAt(lineEnd) != 0)) {
+                lineEnd++;
+            }
+            position = (lineEnd < length) && (text.charAt(lineEnd) == '\n') ? (lineEnd + 1) : lineEnd;
+            if ((lineEnd > lineStart) && (text.charAt(lineEnd - 1) == '\r')) {
+                lineEnd--;
+            }
+            count = 0;
+            if ((lineEnd > lineStart) && (parseFields(lineStart, -1) == lineEnd)) {
+                return true;
+            }
+            skippedLines++;
+        }
+        count = 0;
+        return false;
+    }
+
+    /**
+     * @return the current line, as written.
+     */
+    public CharSequence line() {
+        return line.set(text, lineStart, lineEnd);
+    }
+
+    /**
+     * Gets a cursor over the fields of the current event. The cursor is reused, so it's reset by every call.
+     *
+     * @return the cursor, positioned before the first field.
+     */
+    public KvField fields() {
+        return fields.reset(-1);
+    }
+
+    /**
+     * Finds a field of the current event, not counting the fields of subfields.
+     *
+     * @param name the ASCII name of the field.
+     * @return a cursor positioned on the first field with that name, reused by every call, or null if none has it.
+     */
+    public KvField field(String name) {
+        found.reset(-1);
+        while (found.next()) {
+            if (found.nameEquals(name)) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of lines skipped so far because they're not events.
+     */
+    public long skippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Scans fields up to the end of the line, or up to the end of the subfield they belong to.
+     *
+     * @param start  where the first field, or its separator, starts.
+     * @param parent the subfield of the fields, or -1 for the fields of the event.
+     * @return where the fields end, or -1 if they're malformed.
+     */
+    private int parseFields(int start, int parent) {
+        int p = start;
+        while (p < lineEnd) {
+            final char c = text.charAt(p);
+            if (c == PROPERTY_SEP) {
+                p++;
+                continue;
+            }
+            if (c == CLOSE_SUBFIELD) {
+                return (parent >= 0) ? p : -1;
+            }
+            final int field = add(p);
+            while ((p < lineEnd) && (text.charAt(p) != NAME_VALUE_SEP) && !isValueEnd(p)) {
+                p++;
+            }
+            if ((p == lineEnd) || (text.charAt(p) != NAME_VALUE_SEP)) {
+                p = parseBareValue(field, nameStarts[field], p);
+            } else if (p == nameStarts[field]) {
+                return -1;
+            } else {
+                nameEnds[field] = p++;
+                p = parseValue(field, p);
+            }
+            if ((p < 0) || !isValueEnd(p)) {
+                return -1;
+            }
+            siblings[field] = count;
+        }
+        return (parent < 0) ? p : -1;
+    }
+
+    private int parseValue(int field, int start) {
+        if ((start < lineEnd) && (text.charAt(start) == OPEN_SUBFIELD)) {
+            flags[field] = SUBFIELD;
+            valueStarts[field] = start + 1;
+            final int end = parseFields(start + 1, field);
+            if (end < 0) {
+                return -1;
+            }
+            valueEnds[field] = end;
+            return end + 1;
+        }
+        if ((start < lineEnd) && (text.charAt(start) == QUOTE)) {
+            int p = start + 1;
+            int fieldFlags = QUOTED;
+            while ((p < lineEnd) && (text.charAt(p) != QUOTE)) {
+                if (text.charAt(p) == ESCAPE) {
+                    fieldFlags |= ESCAPED;
+                    p++;
+                }
+                p++;
+            }
+            if (p >= lineEnd) {
+                return -1;
+            }
+            flags[field] = fieldFlags;
+            valueStarts[field] = start + 1;
+            valueEnds[field] = p;
+            return p + 1;
+        }
+        int p = start;
+        int fieldFlags = 0;
+        while (p < lineEnd) {
+            final char c = text.charAt(p);
+            if ((c == PROPERTY_SEP) || (c == CLOSE_SUBFIELD)) {
+                break;
+            }
+            if (c == ESCAPE) {
+                fieldFlags |= ESCAPED;
+            }
+            p++;
+        }
+        flags[field] = fieldFlags;
+        valueStarts[field] = start;
+        valueEnds[field] = p;
+        return p;
+    }
+
+    /**
+     * Accepts a value without any name, as written for the objects that have no converter or whose evaluation
+     * failed.
+     */
+    private int parseBareValue(int field, int start, int end) {
+        if (!endsWith(start, end, NO_CONVERTER_PLACEHOLDER) && !endsWith(start, end, EVALUATION_FAILED_PLACEHOLDER)) {
+            return -1;
+        }
+        nameEnds[field] = start;
+        valueStarts[field] = start;
+        valueEnds[field] = end;
+        flags[field] = 0;
+        return end;
+    }
+
+    private boolean endsWith(int start, int end, String suffix) {
+        if ((end - start) < suffix.length()) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (text.charAt((end - suffix.length()) + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isValueEnd(int p) {
+        return (p == lineEnd) || (text.charAt(p) == PROPERTY_SEP) || (text.charAt(p) == CLOSE_SUBFIELD);
+    }
+
+    private int add(int nameStart) {
+        if (count == nameStarts.length) {
+            final int capacity = count * 2;
+            nameStarts = Arrays.copyOf(nameStarts, capacity);
+            nameEnds = Arrays.copyOf(nameEnds, capacity);
+            valueStarts = Arrays.copyOf(valueStarts, capacity);
+            valueEnds = Arrays.copyOf(valueEnds, capacity);
+            siblings = Arrays.copyOf(siblings, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        nameStarts[count] = nameStart;
+        return count++;
+    }
+
+    /**
+     * @return where the current line starts, from the start of the text.
+     */
+    int lineOffset() {
+        return lineStart;
+    }
+
+    /**
+     * @return where the next line starts, or where the text ends.
+     */
+    int offset() {
+        return position;
+    }
+
+    CharSequence text() {
+        return text;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int nameStart(int field) {
+        return nameStarts[field];
+    }
+
+    int nameEnd(int field) {
+        return nameEnds[field];
+    }
+
+    int valueStart(int field) {
+        return valueStarts[field];
+    }
+
+    int valueEnd(int field) {
+        return valueEnds[field];
+    }
+
+    int sibling(int field) {
+        return siblings[field];
+    }
+
+    int flags(int field) {
+        return flags[field];
+    }
+}
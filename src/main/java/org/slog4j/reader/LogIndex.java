@@ -0,0 +1,439 @@
+package org.slog4j.reader;
+
+import org.slf4j.event.Level;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The sidecar index of a log file, kept next to it as <code>FILE.idx</code>.
+ *
+ * <p>
+ * The file is split into blocks of about {@link LogSearch.Config#blockSize()} bytes, each one summarized by the
+ * levels and the time range of its events, and every event id is mapped to the blocks it occurs in. Only the lines
+ * already ended by a line feed are indexed: when the file grows, its new lines are indexed as new blocks, and the
+ * index is rebuilt only when the file was replaced or the configuration changed.
+ */
+public final class LogIndex {
+
+    static final String SUFFIX = ".idx";
+
+    /**
+     * The suffix of the temporary files an index is written to, named <code>FILE.idx.RANDOM.tmp</code>.
+     */
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int MAGIC   = 0x534c4958;
+    private static final int VERSION = 1;
+
+    /**
+     * The bytes whose checksum tells whether the file was replaced.
+     */
+    private static final int HEAD_LENGTH = 4096;
+
+    /**
+     * The most bytes mapped at once while indexing, so files of any size can be indexed.
+     */
+    private static final int WINDOW_SIZE = 256 << 20;
+
+    /**
+     * A range of lines of the file.
+     */
+    static final class Block {
+        final long start;
+        final long end;
+        final int  events;
+        final long minTime;
+        final long maxTime;
+        final int  levels;
+
+        Block(long start, long end, int events, long minTime, long maxTime, int levels) {
+            this.start = start;
+            this.end = end;
+            this.events = events;
+            this.minTime = minTime;
+            this.maxTime = maxTime;
+            this.levels = levels;
+        }
+    }
+
+    private final Path                file;
+    private final String              configKey;
+    private final List<Block>         blocks;
+    private final Map<String, BitSet> postings;
+    private       long                indexedLength;
+    private       long                headChecksum;
+
+    private LogIndex(Path file, String configKey) {
+        this.file = file;
+        this.configKey = configKey;
+        this.blocks = new ArrayList<>();
+        this.postings = new HashMap<>();
+    }
+
+    /**
+     * Loads the index of a file, indexing the lines added since it was saved, and saves it again if they're any.
+     *
+     * @param file   the log file.
+     * @param config the labels and block size.
+     * @return the index, up to date.
+     * @throws IOException if the file can't be read or the index can't be written.
+     */
+    public static LogIndex update(Path file, LogSearch.Config config) throws IOException {
+        final String configKey = config.eventIdLabel() + '\n' + config.levelLabel() + '\n' + config.timeLabel()
+            + '\n' + config.blockSize();
+        LogIndex index = load(file, configKey);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if ((index == null) || (channel.size() < index.indexedLength)
+                || (index.headChecksum != headChecksum(channel, index.indexedLength))) {
+                index = new LogIndex(file, configKey);
+            }
+            final long indexed = index.indexedLength;
+            index.append(channel, config);
+            if (index.indexedLength != indexed) {
+                index.headChecksum = headChecksum(channel, index.indexedLength);
+                index.save();
+            }
+        }
+        return index;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * @return the number of bytes of the file indexed so far.
+     */
+    public long indexedLength() {
+        return indexedLength;
+    }
+
+    public int blockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * @return the number of events indexed so far.
+     */
+    public long eventCount() {
+        long events = 0;
+        for (Block block : blocks) {
+            events += block.events;
+        }
+        return events;
+    }
+
+    /**
+     * Selects the blocks that may hold events of a query, as told by the event ids, levels and times of the blocks.
+     */
+    List<Block> candidates(LogQuery query) {
+        final BitSet selected = new BitSet(blocks.size());
+        if (query.eventIds().isEmpty()) {
+            selected.set(0, blocks.size());
+        } else {
+            for (String eventId : query.eventIds()) {
+                final BitSet posting = postings.get(eventId);
+                if (posting != null) {
+                    selected.or(posting);
+                }
+            }
+        }
+        int levels = 0;
+        for (Level level : query.levels()) {
+            levels |= levelBit(level);
+        }
+        final List<Block> candidates = new ArrayList<>();
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            final Block block = blocks.get(i);
+            if ((levels != 0) && ((block.levels & levels) == 0)) {
+                continue;
+            }
+            if (query.hasTimeRange() && ((block.maxTime < query.from()) || (block.minTime >= query.to()))) {
+                continue;
+            }
+            candidates.add(block);
+        }
+        return candidates;
+    }
+
+    static int levelBit(Level level) {
+        return 1 << level.ordinal();
+    }
+
+    /**
+     * Indexes the lines past the indexed length. A last block not full yet is indexed again with them, the event ids
+     * it was posted under staying right as the block only grows.
+     */
+    private void append(FileChannel channel, LogSearch.Config config) throws IOException {
+        final long size = channel.size();
+        final TimeParser timeParser = new TimeParser();
+        final EventIdTable eventIds = new EventIdTable();
+        long position = indexedLength;
+        if (!blocks.isEmpty() && (position < size)) {
+            final Block last = blocks.get(blocks.size() - 1);
+            if ((last.end - last.start) < config.blockSize()) {
+                blocks.remove(blocks.size() - 1);
+                position = last.start;
+            }
+        }
+        long blockStart = position;
+        int events = 0;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        int levels = 0;
+        while (position < size) {
+            final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                Math.min(size - position, WINDOW_SIZE));
+            final int limit = lastLineEnd(window);
+            if (limit == 0) {
+                if ((window.get(0) != 0) && ((position + window.capacity()) < size)) {
+                    throw new IOException(file + ": line longer than " + WINDOW_SIZE + " bytes at " + position);
+                }
+                break;
+            }
+            ((Buffer) window).limit(limit);
+            final KvReader reader = KvReader.of(window);
+            while (reader.next()) {
+                final KvField eventId = reader.field(config.eventIdLabel());
+                if (eventId != null) {
+                    eventIds.posting(eventId).set(blocks.size());
+                }
+                final KvField level = reader.field(config.levelLabel());
+                if (level != null) {
+                    levels |= levelBit(level);
+                }
+                final KvField time = reader.field(config.timeLabel());
+                final long millis = (time == null) ? TimeParser.NO_TIME : timeParser.parse(time.rawValue());
+                if (millis != TimeParser.NO_TIME) {
+                    minTime = Math.min(minTime, millis);
+                    maxTime = Math.max(maxTime, millis);
+                }
+                events++;
+                final long lineEnd = position + reader.offset();
+                if ((lineEnd - blockStart) >= config.blockSize()) {
+                    blocks.add(new Block(blockStart, lineEnd, events, minTime, maxTime, levels));
+                    blockStart = lineEnd;
+                    events = 0;
+                    minTime = Long.MAX_VALUE;
+                    maxTime = Long.MIN_VALUE;
+                    levels = 0;
+                }
+            }
+            final boolean zeroFilled = reader.offset() < limit;
+            position += reader.offset();
+            if (zeroFilled) {
+                // the tail of a file of MappedFileSLogger, that may still be written
+                break;
+            }
+        }
+        if (position > blockStart) {
+            blocks.add(new Block(blockStart, position, events, minTime, maxTime, levels));
+        }
+        indexedLength = position;
+    }
+
+    private static int levelBit(KvField level) {
+        for (Level candidate : Level.values()) {
+            if (level.valueEquals(candidate.toString())) {
+                return levelBit(candidate);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the length of the complete lines, up to the last line feed.
+     */
+    private static int lastLineEnd(ByteBuffer window) {
+        for (int i = window.limit() - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static long headChecksum(FileChannel channel, long indexedLength) throws IOException {
+        final ByteBuffer head = ByteBuffer.allocate((int) Math.min(indexedLength, HEAD_LENGTH));
+        while (head.hasRemaining()) {
+            if (channel.read(head, head.position()) < 0) {
+                break;
+            }
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(head.array(), 0, head.position());
+        return crc.getValue();
+    }
+
+    private static Path indexFile(Path file) {
+        return file.toAbsolutePath().resolveSibling(file.getFileName() + SUFFIX);
+    }
+
+    /**
+     * @param name the name of a file.
+     * @return whether it's an index or the temporary file of one.
+     */
+    static boolean isIndexFile(String name) {
+        return name.endsWith(SUFFIX) || (name.endsWith(TEMP_SUFFIX) && name.contains(SUFFIX + '.'));
+    }
+
+    private static LogIndex load(Path file, String configKey) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Files.newInputStream(indexFile(file))))) {
+            if ((in.readInt() != MAGIC) || (in.readInt() != VERSION) || !configKey.equals(in.readUTF())) {
+                return null;
+            }
+            final LogIndex index = new LogIndex(file, configKey);
+            index.indexedLength = in.readLong();
+            index.headChecksum = in.readLong();
+            final int blockCount = in.readInt();
+            for (int i = 0; i < blockCount; i++) {
+                index.blocks.add(new Block(in.readLong(), in.readLong(), in.readInt(), in.readLong(), in.readLong(),
+                    in.readInt()));
+            }
+            final int postingCount = in.readInt();
+            for (int i = 0; i < postingCount; i++) {
+                final String eventId = in.readUTF();
+                final long[] words = new long[in.readInt()];
+                for (int w = 0; w < words.length; w++) {
+                    words[w] = in.readLong();
+                }
+                index.postings.put(eventId, BitSet.valueOf(words));
+            }
+            return index;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // a truncated or otherwise unreadable index is just rebuilt
+            return null;
+        }
+    }
+
+    /**
+     * Writes the index to a temporary file of its own first, so that a concurrent search never reads it half
+     * written, nor writes the same temporary file.
+     */
+    private void save() throws IOException {
+        final Path target = indexFile(file);
+        final Path temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", TEMP_SUFFIX);
+        try {
+            write(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void write(Path temp) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(configKey);
+            out.writeLong(indexedLength);
+            out.writeLong(headChecksum);
+            out.writeInt(blocks.size());
+            for (Block block : blocks) {
+                out.writeLong(block.start);
+                out.writeLong(block.end);
+                out.writeInt(block.events);
+                out.writeLong(block.minTime);
+                out.writeLong(block.maxTime);
+                out.writeInt(block.levels);
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, BitSet> posting : postings.entrySet()) {
+                out.writeUTF(posting.getKey());
+                final long[] words = posting.getValue().toLongArray();
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+        }
+    }
+
+    List<Block> blocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    /**
+     * Finds the posting of the event id of a line by hashing and comparing its chars, so that a string is only
+     * created for the first line of every spelling of an id. Open addressing, kept at most half full.
+     */
+    private final class EventIdTable {
+        private int      size;
+        private int[]    hashes   = new int[64];
+        private String[] ids      = new String[64];
+        private BitSet[] postings = new BitSet[64];
+
+        BitSet posting(KvField eventId) {
+            final CharSequence raw = eventId.rawValue();
+            int hash = 0;
+            for (int i = 0; i < raw.length(); i++) {
+                hash = (31 * hash) + raw.charAt(i);
+            }
+            final int mask = ids.length - 1;
+            int slot = mix(hash) & mask;
+            while (ids[slot] != null) {
+                if ((hashes[slot] == hash) && eventId.valueEquals(ids[slot])) {
+                    return postings[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            final String id = eventId.value();
+            final BitSet posting = LogIndex.this.postings.computeIfAbsent(id, key -> new BitSet());
+            hashes[slot] = hash;
+            ids[slot] = id;
+            postings[slot] = posting;
+            if (++size > (ids.length >>> 1)) {
+                grow();
+            }
+            return posting;
+        }
+
+        private void grow() {
+            final int[] oldHashes = hashes;
+            final String[] oldIds = ids;
+            final BitSet[] oldPostings = postings;
+            hashes = new int[oldIds.length * 2];
+            ids = new String[oldIds.length * 2];
+            postings = new BitSet[oldIds.length * 2];
+            final int mask = ids.length - 1;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != null) {
+                    int slot = mix(oldHashes[i]) & mask;
+                    while (ids[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    hashes[slot] = oldHashes[i];
+                    ids[slot] = oldIds[i];
+                    postings[slot] = oldPostings[i];
+                }
+            }
+        }
+
+        private int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
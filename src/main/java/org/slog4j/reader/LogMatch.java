@@ -0,0 +1,18 @@
+package org.slog4j.reader;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * A line found by a {@link LogSearch}.
+ */
+@Value
+public class LogMatch {
+    Path   file;
+    /**
+     * Where the line starts in the file, in bytes.
+     */
+    long   offset;
+    String line;
+}
@@ -0,0 +1,98 @@
+package org.slog4j.reader;
+
+import org.slf4j.event.Level;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The events searched by a {@link LogSearch}: every condition given must hold, and a condition on a field the event
+ * doesn't have never holds.
+ *
+ * <pre>
+ * LogQuery query = new LogQuery().eventId("ORDER_FAILED").levels(Level.WARN, Level.ERROR)
+ *     .from(Instant.parse("2023-06-01T00:00:00Z")).where("tenant", "acme");
+ * </pre>
+ */
+public final class LogQuery {
+    private final Set<String>         eventIds = new LinkedHashSet<>();
+    private final Set<Level>          levels   = EnumSet.noneOf(Level.class);
+    private final Map<String, String> where    = new LinkedHashMap<>();
+    private       long                from     = Long.MIN_VALUE;
+    private       long                to       = Long.MAX_VALUE;
+
+    /**
+     * @param ids event ids, any of which matches.
+     * @return this, to enable chaining.
+     */
+    public LogQuery eventId(String... ids) {
+        Collections.addAll(eventIds, ids);
+        return this;
+    }
+
+    /**
+     * @param matched levels, any of which matches.
+     * @return this, to enable chaining.
+     */
+    public LogQuery levels(Level... matched) {
+        Collections.addAll(levels, matched);
+        return this;
+    }
+
+    /**
+     * @param time the earliest time matched, inclusive.
+     * @return this, to enable chaining.
+     */
+    public LogQuery from(Instant time) {
+        this.from = time.toEpochMilli();
+        return this;
+    }
+
+    /**
+     * @param time the latest time matched, exclusive.
+     * @return this, to enable chaining.
+     */
+    public LogQuery to(Instant time) {
+        this.to = time.toEpochMilli();
+        return this;
+    }
+
+    /**
+     * @param name  the name of a field of the event, not of a subfield.
+     * @param value the value the field must have, unescaped.
+     * @return this, to enable chaining.
+     */
+    public LogQuery where(String name, String value) {
+        where.put(name, value);
+        return this;
+    }
+
+    Set<String> eventIds() {
+        return eventIds;
+    }
+
+    Set<Level> levels() {
+        return levels;
+    }
+
+    Map<String, String> where() {
+        return where;
+    }
+
+    long from() {
+        return from;
+    }
+
+    long to() {
+        return to;
+    }
+
+    boolean hasTimeRange() {
+        return (from != Long.MIN_VALUE) || (to != Long.MAX_VALUE);
+    }
+}
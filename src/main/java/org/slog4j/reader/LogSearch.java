@@ -0,0 +1,236 @@
+package org.slog4j.reader;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Searches the lines written by {@link org.slog4j.format.TextFormatter} across files, such as the files rolled by
+ * {@link org.slog4j.MappedFileSLogger}:
+ *
+ * <pre>
+ * List&lt;LogMatch&gt; matches = new LogSearch(new LogSearch.Config())
+ *     .search(new LogQuery().eventId("ORDER_FAILED").levels(Level.ERROR), files);
+ * </pre>
+ *
+ * <p>
+ * Every file is first brought up to date with its {@link LogIndex}, which only reads the lines added since the last
+ * search. The blocks the indexes can't rule out are then scanned on a fork/join pool, each one memory-mapped and read
+ * with a {@link KvReader}, and the matches are returned in the order of the files and of their lines.
+ */
+public final class LogSearch {
+
+    @Getter
+    @Setter
+    @Accessors(fluent = true, chain = true)
+    public static final class Config {
+        private String       eventIdLabel = "evt";
+        private String       levelLabel   = "level";
+        private String       timeLabel    = "time";
+        /**
+         * Size of the blocks of the indexes, the unit of scanning: blocks end with the first line past this size.
+         */
+        private int          blockSize    = 64 << 10;
+        private ForkJoinPool pool         = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Ranges of at most this many blocks are scanned by a single task.
+     */
+    private static final int SPLIT_THRESHOLD = 2;
+
+    private final Config config;
+
+    public LogSearch(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Brings the index of a file up to date.
+     *
+     * @param file the log file.
+     * @return the index.
+     * @throws IOException if the file can't be read or the index can't be written.
+     */
+    public LogIndex index(Path file) throws IOException {
+        return LogIndex.update(file, config);
+    }
+
+    /**
+     * Finds the events of a query, updating the index of every file first.
+     *
+     * @param query the query.
+     * @param files the files, in the order their matches are returned.
+     * @return the lines matched, in order.
+     * @throws IOException if a file can't be read or its index can't be written.
+     */
+    public List<LogMatch> search(LogQuery query, List<Path> files) throws IOException {
+        final List<Future<LogIndex>> updates = new ArrayList<>(files.size());
+        for (Path file : files) {
+            updates.add(config.pool().submit(() -> index(file)));
+        }
+        final List<Segment> segments = new ArrayList<>();
+        final List<FileChannel> channels = new ArrayList<>(files.size());
+        try {
+            for (Future<LogIndex> update : updates) {
+                final LogIndex index = get(update);
+                final List<LogIndex.Block> candidates = index.candidates(query);
+                if (candidates.isEmpty()) {
+                    continue;
+                }
+                final FileChannel channel = FileChannel.open(index.file(), StandardOpenOption.READ);
+                channels.add(channel);
+                for (LogIndex.Block block : candidates) {
+                    segments.add(new Segment(index.file(), channel, block));
+                }
+            }
+            return config.pool().invoke(new ScanTask(query, segments, 0, segments.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    private static LogIndex get(Future<LogIndex> update) throws IOException {
+        try {
+            return update.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * A block of a file to scan.
+     */
+    private static final class Segment {
+        final Path           file;
+        final FileChannel    channel;
+        final LogIndex.Block block;
+
+        Segment(Path file, FileChannel channel, LogIndex.Block block) {
+            this.file = file;
+            this.channel = channel;
+            this.block = block;
+        }
+    }
+
+    /**
+     * Scans a range of segments, halving it until it's small enough.
+     */
+    private final class ScanTask extends RecursiveTask<List<LogMatch>> {
+        private final LogQuery      query;
+        private final List<Segment> segments;
+        private final int           start;
+        private final int           end;
+
+        ScanTask(LogQuery query, List<Segment> segments, int start, int end) {
+            this.query = query;
+            this.segments = segments;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<LogMatch> compute() {
+            if ((end - start) > SPLIT_THRESHOLD) {
+                final int middle = (start + end) >>> 1;
+                final ScanTask second = new ScanTask(query, segments, middle, end);
+                second.fork();
+                final List<LogMatch> matches = new ScanTask(query, segments, start, middle).compute();
+                matches.addAll(second.join());
+                return matches;
+            }
+            final List<LogMatch> matches = new ArrayList<>();
+            final TimeParser timeParser = new TimeParser();
+            for (int i = start; i < end; i++) {
+                try {
+                    scan(segments.get(i), timeParser, matches);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return matches;
+        }
+
+        private void scan(Segment segment, TimeParser timeParser, List<LogMatch> matches) throws IOException {
+            final LogIndex.Block block = segment.block;
+            final KvReader reader = KvReader.of(segment.channel.map(FileChannel.MapMode.READ_ONLY, block.start,
+                block.end - block.start));
+            while (reader.next()) {
+                if (matches(reader, timeParser)) {
+                    matches.add(new LogMatch(segment.file, block.start + reader.lineOffset(),
+                        reader.line().toString()));
+                }
+            }
+        }
+
+        private boolean matches(KvReader reader, TimeParser timeParser) {
+            if (!query.eventIds().isEmpty() && !anyValueEquals(reader.field(config.eventIdLabel()),
+                query.eventIds())) {
+                return false;
+            }
+            if (!query.levels().isEmpty() && !anyLevelEquals(reader.field(config.levelLabel()))) {
+                return false;
+            }
+            if (query.hasTimeRange()) {
+                final KvField time = reader.field(config.timeLabel());
+                final long millis = (time == null) ? TimeParser.NO_TIME : timeParser.parse(time.rawValue());
+                if ((millis == TimeParser.NO_TIME) || (millis < query.from()) || (millis >= query.to())) {
+                    return false;
+                }
+            }
+            for (Map.Entry<String, String> condition : query.where().entrySet()) {
+                final KvField field = reader.field(condition.getKey());
+                if ((field == null) || !field.valueEquals(condition.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean anyValueEquals(KvField field, Iterable<String> values) {
+            if (field != null) {
+                for (String value : values) {
+                    if (field.valueEquals(value)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean anyLevelEquals(KvField field) {
+            if (field != null) {
+                for (Level level : query.levels()) {
+                    if (field.valueEquals(level.toString())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.slog4j.reader;
+
+import org.slf4j.event.Level;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prints the lines of text log files that match a query:
+ *
+ * <pre>
+ * java -cp slog4j.jar org.slog4j.reader.LogSearchCli [--evt ID]... [--level LEVEL]... [--from INSTANT]
+ *     [--to INSTANT] [--where NAME=VALUE]... FILE|DIR...
+ * </pre>
+ *
+ * A directory stands for its files, oldest first, and the lines are prefixed with their file when there are several.
+ * Every option may be repeated: the events match any of the ids and levels given and all the conditions on fields.
+ * Instants are ISO8601, such as <code>2023-06-01T10:15:30Z</code>, and the index of every file is kept next to it.
+ */
+public final class LogSearchCli {
+
+    private static final String USAGE = "usage: LogSearchCli [--evt ID]... [--level LEVEL]... [--from INSTANT]"
+        + " [--to INSTANT] [--where NAME=VALUE]... FILE|DIR...";
+
+    private LogSearchCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        System.exit(run(args, out, System.err));
+    }
+
+    static int run(String[] args, Writer out, Appendable stderr) throws IOException {
+        final LogQuery query = new LogQuery();
+        final List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--")) {
+                    addFiles(Paths.get(args[i]), files);
+                    continue;
+                }
+                if ((i + 1) == args.length) {
+                    stderr.append(USAGE).append('\n');
+                    return 2;
+                }
+                final String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--evt":
+                        query.eventId(value);
+                        break;
+                    case "--level":
+                        query.levels(Level.valueOf(value));
+                        break;
+                    case "--from":
+                        query.from(Instant.parse(value));
+                        break;
+                    case "--to":
+                        query.to(Instant.parse(value));
+                        break;
+                    case "--where":
+                        final int equals = value.indexOf('=');
+                        if (equals <= 0) {
+                            stderr.append(USAGE).append('\n');
+                            return 2;
+                        }
+                        query.where(value.substring(0, equals), value.substring(equals + 1));
+                        break;
+                    default:
+                        stderr.append(USAGE).append('\n');
+                        return 2;
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            stderr.append(e.getMessage()).append('\n').append(USAGE).append('\n');
+            return 2;
+        }
+        if (files.isEmpty()) {
+            stderr.append(USAGE).append('\n');
+            return 2;
+        }
+
+        try {
+            final List<LogMatch> matches = new LogSearch(new LogSearch.Config()).search(query, files);
+            for (LogMatch match : matches) {
+                if (files.size() > 1) {
+                    out.append(match.getFile().toString()).append(':');
+                }
+                out.append(match.getLine()).append('\n');
+            }
+            return 0;
+        } catch (IOException e) {
+            stderr.append(String.valueOf(e.getMessage())).append('\n');
+            return 1;
+        } finally {
+            out.flush();
+        }
+    }
+
+    private static void addFiles(Path path, List<Path> files) throws IOException {
+        if (!Files.isDirectory(path)) {
+            files.add(path);
+            return;
+        }
+        try (Stream<Path> children = Files.list(path)) {
+            files.addAll(children
+                .filter(child -> Files.isRegularFile(child) && !LogIndex.isIndexFile(child.getFileName().toString()))
+                .sorted(Comparator.comparing(LogSearchCli::lastModified).thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.slog4j.reader;
+
+/**
+ * A range of the text being read, without copying it. Spans returned by the reader are reused, so they're only
+ * valid until the reader or the field moves.
+ */
+final class Span implements CharSequence {
+    private CharSequence source;
+    private int          start;
+    private int          end;
+
+    Span() {
+    }
+
+    Span(CharSequence source, int start, int end) {
+        set(source, start, end);
+    }
+
+    Span set(CharSequence source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return new Span(source, start + from, start + to);
+    }
+
+    boolean contentEquals(CharSequence text) {
+        if (text.length() != length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (source instanceof ByteChars) {
+            return ((ByteChars) source).decode(start, end);
+        }
+        return source.subSequence(start, end).toString();
+    }
+}
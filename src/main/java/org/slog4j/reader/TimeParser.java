@@ -0,0 +1,98 @@
+package org.slog4j.reader;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Parses the times written by {@link org.slog4j.format.TimestampRenderer}, either ISO8601 with 3 to 9 fraction digits
+ * and a <code>+HHMM</code> offset, or milliseconds since the epoch.
+ *
+ * <p>
+ * As the renderer, it only works out the date, time and offset once per second: every other time of the same second
+ * is compared in place and only its fraction is parsed. Not thread-safe.
+ */
+final class TimeParser {
+
+    /**
+     * Returned for a text that's not a time.
+     */
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int DATE_TIME_LENGTH = "yyyy-MM-ddTHH:mm:ss".length();
+    private static final int OFFSET_LENGTH    = "+HHMM".length();
+
+    private final char[]  dateTime = new char[DATE_TIME_LENGTH];
+    private final char[]  offset   = new char[OFFSET_LENGTH];
+    private       long    epochSecond;
+    private       boolean cached;
+
+    /**
+     * @param text the time.
+     * @return the time in milliseconds since the epoch, or {@link #NO_TIME}.
+     */
+    long parse(CharSequence text) {
+        final int length = text.length();
+        if (length == 0) {
+            return NO_TIME;
+        }
+        if ((length < (DATE_TIME_LENGTH + OFFSET_LENGTH)) || (text.charAt(4) != '-')) {
+            return parseEpochMillis(text);
+        }
+        final int offsetStart = length - OFFSET_LENGTH;
+        if (!cached || !matches(text, 0, dateTime) || !matches(text, offsetStart, offset)) {
+            try {
+                final ZoneOffset zoneOffset = ZoneOffset.of(text.subSequence(offsetStart, length).toString());
+                epochSecond = LocalDateTime.parse(text.subSequence(0, DATE_TIME_LENGTH).toString())
+                    .toEpochSecond(zoneOffset);
+            } catch (DateTimeException e) {
+                cached = false;
+                return NO_TIME;
+            }
+            for (int i = 0; i < DATE_TIME_LENGTH; i++) {
+                dateTime[i] = text.charAt(i);
+            }
+            for (int i = 0; i < OFFSET_LENGTH; i++) {
+                offset[i] = text.charAt(offsetStart + i);
+            }
+            cached = true;
+        }
+        return (epochSecond * 1000) + parseMillis(text, DATE_TIME_LENGTH, offsetStart);
+    }
+
+    private static long parseEpochMillis(CharSequence text) {
+        long millis = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final int digit = text.charAt(i) - '0';
+            if ((digit < 0) || (digit > 9) || (i >= 18)) {
+                return NO_TIME;
+            }
+            millis = (millis * 10) + digit;
+        }
+        return millis;
+    }
+
+    /**
+     * Parses the milliseconds of the fraction, ignoring any further digit.
+     */
+    private static long parseMillis(CharSequence text, int start, int end) {
+        if ((start == end) || (text.charAt(start) != '.')) {
+            return 0;
+        }
+        long millis = 0;
+        for (int i = start + 1; i < (start + 4); i++) {
+            final int digit = (i < end) ? (text.charAt(i) - '0') : 0;
+            millis = (millis * 10) + (((digit >= 0) && (digit <= 9)) ? digit : 0);
+        }
+        return millis;
+    }
+
+    private static boolean matches(CharSequence text, int start, char[] chars) {
+        for (int i = 0; i < chars.length; i++) {
+            if (text.charAt(start + i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
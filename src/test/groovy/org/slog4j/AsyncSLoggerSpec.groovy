@@ -0,0 +1,184 @@
+package org.slog4j
+
+import org.slf4j.Logger
+import org.slf4j.event.Level
+import org.slog4j.format.TextFormatter
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+
+class AsyncSLoggerSpec extends Specification {
+
+    static class RecordingSLogger extends AbstractSLogger {
+        final List<List> events = Collections.synchronizedList([])
+        Closure onEvent = { Level level, String eventId -> }
+
+        @Override
+        boolean isEnabled(Level level) {
+            true
+        }
+
+        @Override
+        void log(Level level, String eventId, Object... objs) {
+            record(level, eventId, objs.toList())
+        }
+
+        @Override
+        void log(Level level, String eventId) {
+            record(level, eventId, [])
+        }
+
+        @Override
+        void log(Level level, String eventId, Object obj) {
+            record(level, eventId, [obj])
+        }
+
+        @Override
+        void log(Level level, String eventId, String name, Object value) {
+            record(level, eventId, [name, value])
+        }
+
+        private void record(Level level, String eventId, List args) {
+            onEvent(level, eventId)
+            events << [level, eventId, *args]
+        }
+    }
+
+    def 'events are dispatched with the same throwable attachment semantics'() {
+        given:
+            def log = Mock(Logger)
+            log.isErrorEnabled() >> true
+            log.isInfoEnabled() >> true
+            def dispatcher = new AsyncDispatcher()
+            def slog = dispatcher.wrap(SLoggerFactory.getLogger(log, new TextFormatter()))
+            def re = new RuntimeException('an ordinary unchecked exception')
+
+        when:
+            slog.info('CONNECT')
+            slog.info('SSL_CONNECT', 'protocol', 'tlsv1.2')
+            slog.error('user_creation_failed', 'user', 'james@example.com', re)
+            slog.debug('disabled')
+            dispatcher.close()
+
+        then:
+            1 * log.info('evt=CONNECT')
+            1 * log.info('evt=SSL_CONNECT protocol=tlsv1.2')
+            1 * log.error('evt=user_creation_failed user=james@example.com', re)
+            0 * log.debug(_)
+    }
+
+    def 'every event from concurrent producers is dispatched'() {
+        given:
+            def delegate = new RecordingSLogger()
+            def dispatcher = new AsyncDispatcher(new AsyncDispatcher.Config().capacity(64).consumers(2))
+            def slog = dispatcher.wrap(delegate)
+
+        when:
+            def producers = (1..4).collect { p -> Thread.start { 1000.times { slog.info('TICK', 'n', it) } } }
+            producers*.join()
+            dispatcher.close()
+
+        then:
+            delegate.events.size() == 4000
+            dispatcher.droppedCount == 0
+    }
+
+    def 'events below the threshold are dropped when the ring buffer is full'() {
+        given:
+            def entered = new CountDownLatch(1)
+            def gate = new CountDownLatch(1)
+            def delegate = new RecordingSLogger(onEvent: { Level level, String eventId ->
+                if (level == Level.INFO) {
+                    entered.countDown()
+                    gate.await()
+                }
+            })
+            def config = new AsyncDispatcher.Config()
+                .capacity(4)
+                .overflowPolicy(AsyncDispatcher.OverflowPolicy.DROP_BELOW_LEVEL)
+                .dropThreshold(Level.WARN)
+            def dispatcher = new AsyncDispatcher(config)
+            def slog = dispatcher.wrap(delegate)
+
+        when:
+            slog.info('NOISE')
+            entered.await()
+            19.times { slog.info('NOISE') }
+            Thread.start { sleep(100); gate.countDown() }
+            slog.error('FAILURE')
+            dispatcher.close()
+
+        then: 'the consumer holds one event, the ring buffer four more and the rest is dropped'
+            dispatcher.droppedCount == 15
+            delegate.events.count { it[1] == 'NOISE' } == 5
+            delegate.events.last()[0..1] == [Level.ERROR, 'FAILURE']
+    }
+
+    def 'errors thrown by the delegate are counted without stopping the consumer'() {
+        given:
+            def delegate = new RecordingSLogger(onEvent: { Level level, String eventId ->
+                if (eventId == 'BROKEN') {
+                    throw new AssertionError('broken delegate')
+                }
+            })
+            def dispatcher = new AsyncDispatcher()
+            def slog = dispatcher.wrap(delegate)
+
+        when:
+            slog.info('BROKEN')
+            slog.info('FINE')
+            dispatcher.close()
+
+        then:
+            dispatcher.failedCount == 1
+            delegate.events*.get(1) == ['FINE']
+    }
+
+    def 'events logged by the consumer thread are dispatched right away'() {
+        given:
+            def slog
+            def delegate = new RecordingSLogger(onEvent: { Level level, String eventId ->
+                if (eventId == 'OUTER') {
+                    3.times { slog.info('INNER') }
+                }
+            })
+            def dispatcher = new AsyncDispatcher(new AsyncDispatcher.Config().capacity(1))
+            slog = dispatcher.wrap(delegate)
+
+        when: 'waiting before closing, since closing would release a consumer stuck on a full ring buffer'
+            slog.info('OUTER')
+            new PollingConditions(timeout: 5).eventually {
+                assert delegate.events.size() == 4
+            }
+            dispatcher.close()
+
+        then:
+            delegate.events*.get(1) == ['INNER', 'INNER', 'INNER', 'OUTER']
+            dispatcher.droppedCount == 0
+            dispatcher.failedCount == 0
+    }
+
+    def 'closing from an interrupted thread still drains the queue'() {
+        given:
+            def gate = new CountDownLatch(1)
+            def delegate = new RecordingSLogger(onEvent: { Level level, String eventId -> gate.await() })
+            def dispatcher = new AsyncDispatcher()
+            def slog = dispatcher.wrap(delegate)
+            def interrupted = false
+
+        when:
+            3.times { slog.info('QUEUED') }
+            def closer = Thread.start {
+                Thread.currentThread().interrupt()
+                dispatcher.close()
+                interrupted = Thread.currentThread().isInterrupted()
+            }
+            gate.countDown()
+            closer.join()
+
+        then:
+            interrupted
+            delegate.events.size() == 3
+    }
+}
@@ -0,0 +1,134 @@
+package org.slog4j
+
+import org.slf4j.Logger
+import org.slf4j.event.Level
+import org.slog4j.format.BinaryFormatter
+import org.slog4j.format.JsonFormatter
+import org.slog4j.format.LogContext
+import org.slog4j.format.TextFormatter
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.function.Supplier
+
+import static org.slog4j.AsyncSLoggerSpec.RecordingSLogger
+
+class ContextSLoggerSpec extends Specification {
+
+    def log = Mock(Logger) {
+        isInfoEnabled() >> true
+    }
+
+    @Unroll
+    def 'the context follows the event id of every kind of call // #formatter.class.simpleName'() {
+        given:
+            def slog = SLoggerFactory.getLogger(log, formatter).with('requestId', 'r 1', 'tenant', 'acme')
+            def lines = []
+            log.info(_ as String) >> { String line -> lines << line }
+
+        when:
+            slog.info('START')
+            slog.info('START', 'a', 1)
+            slog.info(SLogger.template('PLACED', 'orderId'), 7)
+            slog.atInfo('DONE').with('n', 2L).log()
+            slog.with('user', 'u').info('NESTED')
+
+        then:
+            lines == expected
+
+        where:
+            formatter             || expected
+            new TextFormatter()   || ["evt=START requestId='r 1' tenant=acme",
+                                      "evt=START requestId='r 1' tenant=acme a=1",
+                                      "evt=PLACED requestId='r 1' tenant=acme orderId=7",
+                                      "evt=DONE requestId='r 1' tenant=acme n=2",
+                                      "evt=NESTED requestId='r 1' tenant=acme user=u"]
+            new JsonFormatter()   || ['{"evt":"START","requestId":"r 1","tenant":"acme"}',
+                                      '{"evt":"START","requestId":"r 1","tenant":"acme","a":1}',
+                                      '{"evt":"PLACED","requestId":"r 1","tenant":"acme","orderId":7}',
+                                      '{"evt":"DONE","requestId":"r 1","tenant":"acme","n":2}',
+                                      '{"evt":"NESTED","requestId":"r 1","tenant":"acme","user":"u"}']
+            new BinaryFormatter() || ["evt=START requestId='r 1' tenant=acme",
+                                      "evt=START requestId='r 1' tenant=acme a=1",
+                                      "evt=PLACED requestId='r 1' tenant=acme orderId=7",
+                                      "evt=DONE requestId='r 1' tenant=acme n=2",
+                                      "evt=NESTED requestId='r 1' tenant=acme user=u"]
+    }
+
+    def 'the context is rendered once'() {
+        given:
+            int calls = 0
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter()).with('calls', { ++calls } as Supplier)
+
+        when:
+            3.times { slog.info('START', 'n', it) }
+
+        then:
+            1 * log.info('evt=START calls=1 n=0')
+            1 * log.info('evt=START calls=1 n=2')
+            calls == 1
+    }
+
+    def 'a context shared by formatters is rendered once by each one'() {
+        given:
+            int calls = 0
+            def context = LogContext.of('calls', { ++calls } as Supplier)
+            def text = SLoggerFactory.getLogger(log, new TextFormatter().staticContext(context))
+            def json = SLoggerFactory.getLogger(log, new JsonFormatter().staticContext(context))
+
+        when:
+            3.times {
+                text.info('START')
+                json.info('START')
+            }
+
+        then:
+            3 * log.info('evt=START calls=1')
+            3 * log.info('{"evt":"START","calls":2}')
+            calls == 2
+    }
+
+    def 'other loggers get the context as the first properties of every event'() {
+        given:
+            def delegate = new RecordingSLogger()
+            def slog = delegate.with('requestId', 'r1')
+
+        when:
+            slog.info('START', 'a', 1)
+            slog.warn('START', new RuntimeException())
+            slog.info(SLogger.template('PLACED', 'orderId'), 7)
+            slog.atInfo('DONE').with('n', 2L).log()
+
+        then:
+            delegate.events*.take(4) == [
+                [Level.INFO, 'START', 'requestId', 'r1'],
+                [Level.WARN, 'START', 'requestId', 'r1'],
+                [Level.INFO, 'PLACED', 'requestId', 'r1'],
+                [Level.INFO, 'DONE', 'requestId', 'r1'],
+            ]
+            delegate.events*.drop(4) == [['a', 1], [delegate.events[1][4]], ['orderId', 7], ['n', 2L]]
+    }
+
+    def 'the static context follows the event id of every event of the formatter'() {
+        given:
+            def formatter = new TextFormatter()
+            formatter.staticContext(LogContext.of(new LinkedHashMap(service: 'checkout', version: '1.2')))
+            def slog = SLoggerFactory.getLogger(log, formatter)
+
+        when:
+            slog.info('START', 'a', 1)
+            slog.with('requestId', 'r1').atInfo('DONE').log()
+
+        then:
+            1 * log.info('evt=START service=checkout version=1.2 a=1')
+            1 * log.info('evt=DONE service=checkout version=1.2 requestId=r1')
+    }
+
+    def 'every name must have a value'() {
+        when:
+            new RecordingSLogger().with('a', 1, 'b')
+
+        then:
+            thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,119 @@
+package org.slog4j
+
+import org.slf4j.Logger
+import org.slf4j.event.Level
+import org.slog4j.format.JsonFormatter
+import org.slog4j.format.TextFormatter
+import spock.lang.Specification
+
+class EventBuilderSpec extends Specification {
+
+    def 'properties are formatted as they are added'() {
+        given:
+            def log = Mock(Logger)
+            log.isInfoEnabled() >> true
+            def slog = SLoggerFactory.getLogger(log, formatter)
+
+        when:
+            slog.atInfo('NEW_CLIENT')
+                .with('port', 4433L)
+                .with('ratio', 0.5d)
+                .with('resumption', false)
+                .with('grade', 'A' as char)
+                .with('protocol', 'tls 1.1')
+                .log()
+
+        then:
+            1 * log.info(expected)
+
+        where:
+            formatter           || expected
+            new TextFormatter() || "evt=NEW_CLIENT port=4433 ratio=0.5 resumption=false grade=A protocol='tls 1.1'"
+            new JsonFormatter() || '{"evt":"NEW_CLIENT","port":4433,"ratio":0.5,"resumption":false,"grade":"A","protocol":"tls 1.1"}'
+    }
+
+    def 'throwables are attached'() {
+        given:
+            def log = Mock(Logger)
+            log.isErrorEnabled() >> true
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+            def re = new RuntimeException('an ordinary unchecked exception')
+
+        when:
+            slog.atError('user_creation_failed').with('user', 'james@example.com').with(re).log()
+
+        then:
+            1 * log.error('evt=user_creation_failed user=james@example.com', re)
+    }
+
+    def 'disabled levels share a no-op builder'() {
+        given:
+            def slog = SLoggerFactory.getLogger(Mock(Logger), new TextFormatter())
+
+        expect:
+            slog.atDebug('A').is(slog.atTrace('B'))
+            slog.atDebug('A').with('n', 1L).with('s', 's').log() == null
+    }
+
+    def 'events logged while building another one are not mixed'() {
+        given:
+            def log = Mock(Logger)
+            log.isInfoEnabled() >> true
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+            def compute = {
+                slog.atInfo('INNER').with('n', 2L).log()
+                42L
+            }
+
+        when:
+            slog.atInfo('OUTER').with('n', 1L).with('computed', compute()).log()
+            slog.atInfo('AFTER').log()
+
+        then:
+            1 * log.info('evt=INNER n=2')
+        then:
+            1 * log.info('evt=OUTER n=1 computed=42')
+        then:
+            1 * log.info('evt=AFTER')
+    }
+
+    def 'a builder never logged does not stop the next ones from being reused'() {
+        given:
+            def log = Mock(Logger)
+            log.isInfoEnabled() >> true
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+            def fail = { throw new IllegalStateException('no value') }
+
+        when:
+            slog.atInfo('ABANDONED').with('n', 1L).with('computed', fail())
+
+        then:
+            thrown(IllegalStateException)
+
+        when:
+            def first = slog.atInfo('FIRST').with('n', 2L)
+            first.log()
+            def second = slog.atInfo('SECOND')
+            second.log()
+
+        then:
+            1 * log.info('evt=FIRST n=2')
+        then:
+            1 * log.info('evt=SECOND')
+            first.is(second)
+    }
+
+    def 'loggers that cannot format incrementally fall back to the Object... methods'() {
+        given:
+            def delegate = new AsyncSLoggerSpec.RecordingSLogger()
+            def dispatcher = new AsyncDispatcher()
+            def slog = dispatcher.wrap(delegate)
+
+        when:
+            slog.atWarn('SLOW').with('millis', 1500L).with('path', '/x').log()
+            dispatcher.close()
+
+        then:
+            delegate.events == [[Level.WARN, 'SLOW', 'millis', 1500L, 'path', '/x']]
+    }
+}
@@ -0,0 +1,100 @@
+package org.slog4j
+
+import org.slf4j.Logger
+import org.slf4j.event.Level
+import org.slog4j.format.JsonFormatter
+import org.slog4j.format.TextFormatter
+import org.slog4j.types.LongId
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static org.slog4j.format.TextFormatterSpec.Person
+
+class EventTemplateSpec extends Specification {
+
+    static final ORDER_PLACED = SLogger.template('ORDER PLACED', 'orderId', 'customer', 'amount')
+
+    @Unroll
+    def 'templates are formatted as the equivalent Object... call // #formatter.class.simpleName #values'() {
+        expect:
+            formatter.format(Level.INFO, ORDER_PLACED, values as Object[]).getString() ==
+                formatter.format(Level.INFO, ORDER_PLACED.eventId, ORDER_PLACED.toObjects(values as Object[])).getString()
+
+        where:
+            [formatter, values] << [
+                [new TextFormatter(), new JsonFormatter()],
+                [
+                    [new LongId(0x69e3d3a6db5b8241L), 'John Smith', 12.5d],
+                    [42L, null, 7],
+                    [42L],
+                    [42L, 'John', 7, new Person(firstName: 'John', lastName: 'Smith', age: 40)],
+                ]
+            ].combinations()
+    }
+
+    def 'constant parts are escaped'() {
+        given:
+            def formatter = new TextFormatter()
+
+        expect:
+            formatter.format(Level.INFO, ORDER_PLACED, 1, 'x', 2).getString() ==
+                "evt='ORDER PLACED' orderId=1 customer=x amount=2"
+    }
+
+    def 'a missing value gets the placeholder'() {
+        expect:
+            new JsonFormatter().format(Level.INFO, ORDER_PLACED, 1).getString() ==
+                '{"evt":"ORDER PLACED","orderId":1,"customer":"_MISSING_","amount":"_MISSING_"}'
+    }
+
+    def 'templates keep their rendering for every formatter'() {
+        given:
+            def template = SLogger.template('start', 'aName')
+            def first = new TextFormatter()
+            def second = new TextFormatter()
+            second.eventIdLabel('event')
+
+        when:
+            first.format(Level.INFO, template, 'a')
+            def rendered = template.chunks(first.renderStamp())
+
+        then:
+            second.format(Level.INFO, template, 'b').getString() == 'event=start aName=b'
+            first.format(Level.INFO, template, 'c').getString() == 'evt=start aName=c'
+            template.chunks(first.renderStamp()).is(rendered)
+            template.chunks(second.renderStamp()) != null
+    }
+
+    def 'templates are rendered again when the event id label changes'() {
+        given:
+            def template = SLogger.template('start', 'aName')
+            def formatter = new JsonFormatter()
+
+        expect:
+            formatter.format(Level.INFO, template, 'a').getString() == '{"evt":"start","aName":"a"}'
+            formatter.eventIdLabel('event').format(Level.INFO, template, 'b').getString() ==
+                '{"event":"start","aName":"b"}'
+    }
+
+    def 'loggers dispatch templates with the throwable attached'() {
+        given:
+            def log = Mock(Logger)
+            log.isErrorEnabled() >> true
+            def dispatcher = new AsyncDispatcher()
+            def sync = SLoggerFactory.getLogger(log, new TextFormatter())
+            def async = dispatcher.wrap(sync)
+            def re = new RuntimeException('an ordinary unchecked exception')
+            def failed = SLogger.template('user_creation_failed', 'user')
+
+        when:
+            sync.error(failed, 'james@example.com', re)
+            async.error(failed, 'john@example.com', re)
+            async.debug(failed, 'disabled')
+            dispatcher.close()
+
+        then:
+            1 * log.error('evt=user_creation_failed user=james@example.com', re)
+            1 * log.error('evt=user_creation_failed user=john@example.com', re)
+            0 * log.debug(_)
+    }
+}
@@ -0,0 +1,204 @@
+package org.slog4j
+
+import org.slf4j.event.Level
+import org.slog4j.format.BinaryDecoder
+import org.slog4j.format.BinaryFormatter
+import org.slog4j.format.Formatter
+import org.slog4j.format.TextFormatter
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.util.concurrent.PollingConditions
+
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+
+class MappedFileSLoggerSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def 'events are written as lines followed by their stack trace'() {
+        given:
+            def log = new MappedFileSLogger(new TextFormatter(), new MappedFileSLogger.Config().directory(dir))
+            def path = log.getCurrentPath()
+
+        when:
+            log.info('start', 'aName', 'a b')
+            log.debug('disabled')
+            log.error('failed', 'user', 'john', new RuntimeException('boom'))
+            log.close()
+            def lines = path.toFile().readLines('UTF-8')
+
+        then:
+            path.fileName.toString() == 'slog4j.0.log'
+            lines[0] == "evt=start aName='a b'"
+            lines[1] == 'evt=failed user=john'
+            lines[2] == 'java.lang.RuntimeException: boom'
+            lines[3].startsWith('\tat ')
+            log.getCurrentPath() == null
+    }
+
+    def 'concurrent events are all written, every file defining its own dictionary'() {
+        given:
+            def log = new MappedFileSLogger(new BinaryFormatter(),
+                new MappedFileSLogger.Config().directory(dir).baseName('audit').segmentSize(4096))
+
+        when:
+            (0..<4).collect { t ->
+                Thread.start {
+                    1000.times { i -> log.info('evt' + (i % 20), 'thread', t, 'i', i, 'k' + (i % 7), 'v') }
+                }
+            }*.join()
+            log.close()
+            def files = Files.list(dir).withCloseable { it.collect() }
+            def lines = files.collectMany { decode(it) }
+
+        then:
+            files.size() > 1
+            files.every { it.fileName.toString() ==~ /audit\.\d+\.bin/ && Files.size(it) <= 4096 }
+            lines.size() == 4000
+            lines.every { it ==~ /evt=evt\d+ thread=\d i=\d+ k\d=v/ }
+            log.getDroppedCount() == 0
+            log.getFailedCount() == 0
+    }
+
+    def 'events that do not fit in a file or are logged after closing are dropped'() {
+        given:
+            def log = new MappedFileSLogger(new TextFormatter(),
+                new MappedFileSLogger.Config().directory(dir).segmentSize(64))
+
+        when:
+            log.info('big', 'value', 'x' * 100)
+            log.info('small')
+            log.close()
+            log.info('late')
+
+        then:
+            log.getDroppedCount() == 2
+            dir.resolve('slog4j.0.log').toFile().text == 'evt=small\n'
+    }
+
+    def 'the names defined by a dropped binary event are defined again by the next events'() {
+        given:
+            def log = new MappedFileSLogger(new BinaryFormatter(),
+                new MappedFileSLogger.Config().directory(dir).segmentSize(256))
+
+        when:
+            log.info('big', 'key', 'x' * 1000)
+            log.info('small', 'key', 'v')
+            log.close()
+
+        then:
+            log.getDroppedCount() == 1
+            decode(dir.resolve('slog4j.0.bin')) == ['evt=small key=v']
+    }
+
+    def 'files are rolled once full'() {
+        given:
+            def log = new MappedFileSLogger(new TextFormatter(),
+                new MappedFileSLogger.Config().directory(dir).segmentSize(16).forceIntervalMillis(0))
+
+        when:
+            log.info('first')
+            log.info('second')
+            log.info('third')
+            log.close()
+
+        then:
+            dir.resolve('slog4j.0.log').toFile().text == 'evt=first\n'
+            dir.resolve('slog4j.1.log').toFile().text == 'evt=second\n'
+            dir.resolve('slog4j.2.log').toFile().text == 'evt=third\n'
+            !Files.exists(dir.resolve('slog4j.3.log'))
+    }
+
+    def 'files are rolled once they get too old'() {
+        given:
+            def log = new MappedFileSLogger(new TextFormatter(),
+                new MappedFileSLogger.Config().directory(dir).rollIntervalMillis(10).forceIntervalMillis(0))
+
+        when:
+            log.info('first')
+            new PollingConditions(timeout: 10).eventually {
+                assert log.getCurrentPath() == dir.resolve('slog4j.1.log')
+            }
+            log.close()
+
+        then:
+            dir.resolve('slog4j.0.log').toFile().text == 'evt=first\n'
+            Files.size(dir.resolve('slog4j.1.log')) == 0
+            !Files.exists(dir.resolve('slog4j.2.log'))
+    }
+
+    def 'the space of an event that failed to be written is padded'() {
+        given:
+            def log = new MappedFileSLogger(new FailingFormatter(), new MappedFileSLogger.Config().directory(dir)
+                .segmentSize(64).forceIntervalMillis(0))
+
+        when:
+            log.info('first')
+            log.info('broken')
+
+        then:
+            thrown(IllegalStateException)
+
+        when:
+            log.info('last')
+            log.close()
+
+        then:
+            dir.resolve('slog4j.0.log').toFile().text == 'evt=first\n' + (' ' * 10) + '\nevt=last\n'
+            log.getDroppedCount() == 1
+    }
+
+    def 'a binary formatter is used by a single logger at a time'() {
+        given:
+            def formatter = new BinaryFormatter()
+            def config = new MappedFileSLogger.Config().directory(dir).forceIntervalMillis(0)
+            def first = new MappedFileSLogger(formatter, config)
+
+        when:
+            new MappedFileSLogger(formatter, config)
+
+        then:
+            thrown(IllegalArgumentException)
+
+        when:
+            first.close()
+            def second = new MappedFileSLogger(formatter, config)
+            second.close()
+
+        then:
+            notThrown(IllegalArgumentException)
+    }
+
+    /**
+     * Fails to copy the events with the id "broken" into the file.
+     */
+    static class FailingFormatter extends TextFormatter {
+        @Override
+        Formatter.Result format(Level level, String eventId) {
+            def result = super.format(level, eventId)
+            if (eventId != 'broken') {
+                return result
+            }
+            new Formatter.Result() {
+                String getString() { result.getString() }
+
+                Object getAttachment() { result.getAttachment() }
+
+                void clear() { result.clear() }
+
+                int getByteLength() { result.getByteLength() }
+
+                int writeTo(ByteBuffer dst) { throw new IllegalStateException('broken') }
+            }
+        }
+    }
+
+    private static List<String> decode(Path file) {
+        def out = new StringBuilder()
+        Files.newInputStream(file).withCloseable { new BinaryDecoder().decode(it, out) }
+        out.readLines()
+    }
+}
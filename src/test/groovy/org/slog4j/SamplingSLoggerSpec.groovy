@@ -0,0 +1,140 @@
+package org.slog4j
+
+import org.slf4j.Logger
+import org.slf4j.event.Level
+import org.slog4j.format.Formatter
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+import java.util.function.LongSupplier
+
+import static org.slog4j.AsyncSLoggerSpec.RecordingSLogger
+
+class SamplingSLoggerSpec extends Specification {
+
+    long now = 1000
+
+    def delegate = new RecordingSLogger()
+
+    def 'every nth event is logged'() {
+        given:
+            def slog = sampled(new SamplingSLogger.Builder().rule('RETRY', SamplingRule.everyNth(3)))
+
+        when:
+            7.times { slog.info('RETRY', 'n', it) }
+            slog.info('OTHER')
+
+        then:
+            delegate.events*.getAt(3) == [0, 3, 6, null]
+            slog.getSuppressedCount() == 4
+    }
+
+    def 'a token bucket allows a burst and then its rate'() {
+        given:
+            def slog = sampled(new SamplingSLogger.Builder().rule('RETRY', SamplingRule.perSecond(4)))
+
+        when:
+            10.times { slog.info('RETRY') }
+            advance(500)
+            10.times { slog.info('RETRY') }
+
+        then:
+            delegate.events.size() == 6
+    }
+
+    def 'the first events of every window are logged and the rest summarized'() {
+        given:
+            def slog = sampled(new SamplingSLogger.Builder()
+                .rule('RETRY', Level.WARN, SamplingRule.firstPerWindow(2, 1000)))
+
+        when:
+            5.times { slog.warn('RETRY', 'n', it) }
+            5.times { slog.info('RETRY', 'n', it) }
+            advance(1000)
+            slog.warn('RETRY', 'n', 5)
+
+        then:
+            delegate.events == [
+                [Level.WARN, 'RETRY', 'n', 0],
+                [Level.WARN, 'RETRY', 'n', 1],
+                *(0..4).collect { [Level.INFO, 'RETRY', 'n', it] },
+                [Level.WARN, 'EVENTS_SUPPRESSED', 'eventId', 'RETRY', 'suppressed', 3L],
+                [Level.WARN, 'RETRY', 'n', 5],
+            ]
+    }
+
+    def 'pending summaries are logged on demand'() {
+        given:
+            def slog = sampled(new SamplingSLogger.Builder().defaultRule(SamplingRule.everyNth(10)))
+
+        when:
+            4.times { slog.info('A') }
+            2.times { slog.error('B') }
+            slog.flushSummaries()
+            slog.flushSummaries()
+
+        then:
+            delegate.events.findAll { it[1] == 'EVENTS_SUPPRESSED' } as Set == [
+                [Level.INFO, 'EVENTS_SUPPRESSED', 'eventId', 'A', 'suppressed', 3L],
+                [Level.ERROR, 'EVENTS_SUPPRESSED', 'eventId', 'B', 'suppressed', 1L],
+            ] as Set
+    }
+
+    def 'events of disabled levels are not sampled'() {
+        given:
+            delegate = new RecordingSLogger() {
+                @Override
+                boolean isEnabled(Level level) {
+                    level != Level.DEBUG
+                }
+            }
+            def slog = sampled(new SamplingSLogger.Builder().rule('RETRY', SamplingRule.everyNth(2)))
+
+        when:
+            5.times { slog.debug('RETRY', 'n', it) }
+            slog.info('RETRY', 'n', 5)
+
+        then:
+            slog.getSuppressedCount() == 0
+            delegate.events == [[Level.INFO, 'RETRY', 'n', 5]]
+    }
+
+    def 'the event ids of the default rule are tracked up to a limit'() {
+        given:
+            def slog = sampled(new SamplingSLogger.Builder().defaultRule(SamplingRule.everyNth(10))
+                .maxDefaultEventIds(2))
+
+        when:
+            3.times { slog.info('A') }
+            100.times { slog.info('ID' + it) }
+            slog.flushSummaries()
+
+        then:
+            slog.@defaultStates.size() == 2
+            delegate.events.contains([Level.INFO, 'EVENTS_SUPPRESSED', 'eventId', 'A', 'suppressed', 2L])
+    }
+
+    def 'suppressed events are never formatted'() {
+        given:
+            def formatter = Mock(Formatter)
+            def log = Mock(Logger)
+            log.isInfoEnabled() >> true
+            def slog = new SamplingSLogger.Builder().rule('RETRY', SamplingRule.everyNth(100)).summaryIntervalMillis(0)
+                .wrap(SLoggerFactory.getLogger(log, formatter))
+
+        when:
+            100.times { slog.info('RETRY', 'n', it) }
+            100.times { slog.atInfo('RETRY').with('n', it).log() }
+
+        then:
+            2 * formatter.format(*_) >> Stub(Formatter.Result)
+    }
+
+    private SamplingSLogger sampled(SamplingSLogger.Builder builder) {
+        builder.wrap(delegate, { now } as LongSupplier)
+    }
+
+    private void advance(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis)
+    }
+}
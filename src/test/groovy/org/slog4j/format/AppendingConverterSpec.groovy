@@ -0,0 +1,71 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import org.slog4j.types.LongId
+import spock.lang.Specification
+
+class AppendingConverterSpec extends Specification {
+
+    static class Money {
+        long cents
+        String currency
+    }
+
+    static class MoneyConverter implements AppendingConverter<Money> {
+        @Override
+        Class<?> getEffectiveType() {
+            Money
+        }
+
+        @Override
+        void appendTo(Money value, StrBuilderResult out) {
+            if (value.currency == null) {
+                throw new IllegalStateException('no currency')
+            }
+            out.append(value.cents.intdiv(100) as long).append('.').appendZeroPadded(value.cents % 100, 2)
+                .append(' ' as char).append(value.currency)
+        }
+    }
+
+    def 'built-in converters append straight into the buffer'() {
+        given:
+            def formatter = new TextFormatter()
+
+        expect:
+            formatter.renderPlan(LongId).kind() == BaseFormatter.ValueKind.APPENDED
+            formatter.format(Level.INFO, 'sent', 'traceId', new LongId(0x69e3d3a6db5b8241L), 'spanId', new LongId(-1L),
+                'from', new InetSocketAddress('10.34.21.34', 49694)).getString() ==
+                'evt=sent traceId=69e3d3a6db5b8241 spanId=ffffffffffffffff from=10.34.21.34:49694'
+    }
+
+    def 'the joda-convert path gives the same text'() {
+        expect:
+            new LongIdConverter().convertToString(new LongId(0x1fL)) == '000000000000001f'
+            new InetSocketAddressConverter().convertToString(new InetSocketAddress('10.34.21.34', 443)) == '10.34.21.34:443'
+    }
+
+    def 'appended text is quoted and escaped by the formatter'() {
+        given:
+            def text = new TextFormatter()
+            def json = new JsonFormatter()
+            [text, json]*.registerAppendingConverter(Money, new MoneyConverter())
+            def price = new Money(cents: 1999, currency: 'EUR')
+            def odd = new Money(cents: 5, currency: 'it\'s "X"')
+
+        expect:
+            text.format(Level.INFO, 'paid', 'price', price).getString() == "evt=paid price='19.99 EUR'"
+            text.format(Level.INFO, 'paid', 'price', odd).getString() == "evt=paid price='0.05 it\\'s \"X\"'"
+            json.format(Level.INFO, 'paid', 'price', price).getString() == '{"evt":"paid","price":"19.99 EUR"}'
+            json.format(Level.INFO, 'paid', 'price', odd).getString() == '{"evt":"paid","price":"0.05 it\'s \\"X\\""}'
+    }
+
+    def 'a failing converter is discarded'() {
+        given:
+            def formatter = new TextFormatter()
+            formatter.registerAppendingConverter(Money, new MoneyConverter())
+
+        expect:
+            formatter.format(Level.INFO, 'paid', 'price', new Money(cents: 1)).getString() ==
+                "evt=paid price=[org.slog4j.format.AppendingConverterSpec\$Money#_NO_CONVERTER_]"
+    }
+}
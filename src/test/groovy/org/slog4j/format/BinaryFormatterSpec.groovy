@@ -0,0 +1,174 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import org.slog4j.types.LongId
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+
+import static org.slog4j.format.TextFormatterSpec.Person
+
+class BinaryFormatterSpec extends Specification {
+
+    static final CLOCK = Clock.fixed(Instant.parse('2024-03-01T10:15:30.123Z'), ZoneOffset.UTC)
+
+    @Unroll
+    def 'events decode to the text TextFormatter writes // #values'() {
+        expect:
+            new BinaryFormatter().format(Level.INFO, 'start', values as Object[]).getString() ==
+                new TextFormatter().format(Level.INFO, 'start', values as Object[]).getString()
+
+        where:
+            values << [
+                [],
+                ['aName', 'a b', 'quote', "it's\nhere", 'unicode', 'ação'],
+                ['long', -42L, 'int', 7, 'double', 12.5d, 'float', 1.5f, 'bool', true, 'char', 'x' as char],
+                ['nothing', null, 'id', new LongId(0x69e3d3a6db5b8241L), 'level', Level.WARN],
+                [new Person(firstName: 'John', lastName: 'Smith', age: 40)],
+                ['person', new Person(firstName: 'John', lastName: null, age: 40), 'tags', [first: true, n: 2]],
+                ['missing'],
+                ['object', new Object() { String toString() { 'x' } }],
+            ]
+    }
+
+    def 'the throwable is attached and not encoded in the text'() {
+        given:
+            def re = new RuntimeException('failed')
+
+        when:
+            def result = new BinaryFormatter().format(Level.ERROR, 'failed', 'user', 'john', re)
+
+        then:
+            result.getString() == 'evt=failed user=john'
+            result.getAttachment().is(re)
+    }
+
+    def 'names are defined once per stream'() {
+        given:
+            def formatter = new BinaryFormatter(CLOCK)
+
+        when:
+            def first = bytes(formatter.format(Level.INFO, 'start', 'aName', 'a'))
+            def second = bytes(formatter.format(Level.INFO, 'start', 'aName', 'a'))
+            formatter.republish()
+            def third = bytes(formatter.format(Level.INFO, 'start', 'aName', 'a'))
+
+        then:
+            second.length < first.length
+            third == first
+            decode(concat(first, second)) == 'evt=start aName=a\nevt=start aName=a\n'
+    }
+
+    def 'names are only published once the result is cleared'() {
+        given:
+            def formatter = new BinaryFormatter(CLOCK)
+
+        when:
+            formatter.format(Level.INFO, 'lost', 'aName', 'a')
+            def record = bytes(formatter.format(Level.INFO, 'lost', 'aName', 'a'))
+
+        then:
+            decode(record) == 'evt=lost aName=a\n'
+    }
+
+    def 'names beyond the dictionary size are written inline'() {
+        given:
+            def formatter = new BinaryFormatter(CLOCK, 2)
+            def stream = new ByteArrayOutputStream()
+
+        when:
+            (1..4).each { stream.write(bytes(formatter.format(Level.INFO, 'event' + it, 'name' + it, it))) }
+
+        then:
+            decode(stream.toByteArray()) ==
+                'evt=event1 name1=1\nevt=event2 name2=2\nevt=event3 name3=3\nevt=event4 name4=4\n'
+    }
+
+    def 'the decoder writes the time, level and stack trace'() {
+        given:
+            def formatter = new BinaryFormatter(CLOCK)
+            def re = new RuntimeException('failed')
+            def out = new StringBuilder()
+
+        when:
+            new BinaryDecoder(new TextFormatter(), ZoneOffset.UTC).decode(new ByteArrayInputStream(
+                bytes(formatter.format(Level.WARN, 'start', 'a', 1, re))), out)
+
+        then:
+            out.toString().startsWith(new PureTextFormatter(CLOCK).format(Level.WARN, 'start', 'a', 1).getString() +
+                '\njava.lang.RuntimeException: failed\n\tat ')
+    }
+
+    def 'a zero length ends the stream'() {
+        given:
+            def formatter = new BinaryFormatter(CLOCK)
+            def record = bytes(formatter.format(Level.INFO, 'start'))
+
+        expect:
+            decode(concat(record, new byte[16], record)) == 'evt=start\n'
+    }
+
+    @Unroll
+    def 'padding is skipped by the decoder // #length bytes'() {
+        given:
+            def record = bytes(new BinaryFormatter(CLOCK).format(Level.INFO, 'start'))
+            def padding = ByteBuffer.allocate(length)
+            BinaryFormatter.writePadding(padding, length)
+
+        expect:
+            !padding.hasRemaining()
+            decode(concat(record, padding.array(), record)) == 'evt=start\nevt=start\n'
+
+        where:
+            length << [2, 128, 129, 130, 100000]
+    }
+
+    def 'truncated streams are reported'() {
+        given:
+            def record = bytes(new BinaryFormatter(CLOCK).format(Level.INFO, 'start', 'aName', 'a'))
+
+        when:
+            decode(Arrays.copyOf(record, record.length - 2))
+
+        then:
+            thrown(EOFException)
+    }
+
+    def 'the command line decoder prints every file'() {
+        given:
+            def formatter = new BinaryFormatter(CLOCK)
+            def file = File.createTempFile('slog4j', '.bin')
+            file.deleteOnExit()
+            file.bytes = bytes(formatter.format(Level.INFO, 'start', 'a', 1))
+            def out = new StringWriter()
+            def err = new StringBuilder()
+
+        expect:
+            BinaryDecoderCli.run(['--time', '--zone', 'UTC', file.path] as String[], null, out, err) == 0
+            out.toString() == 'time=2024-03-01T10:15:30.123+0000 level=INFO evt=start a=1\n'
+            BinaryDecoderCli.run(['--bogus'] as String[], null, out, err) == 2
+    }
+
+    private static byte[] bytes(Formatter.Result result) {
+        def buffer = ByteBuffer.allocate((result as BinaryResult).getByteLength())
+        (result as BinaryResult).writeTo(buffer)
+        result.clear()
+        buffer.array()
+    }
+
+    private static byte[] concat(byte[]... records) {
+        def stream = new ByteArrayOutputStream()
+        records.each { stream.write(it) }
+        stream.toByteArray()
+    }
+
+    private static String decode(byte[] stream) {
+        def out = new StringBuilder()
+        new BinaryDecoder().decode(new ByteArrayInputStream(stream), out)
+        out.toString()
+    }
+}
@@ -0,0 +1,112 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class BufferPoolSpec extends Specification {
+
+    def 'the thread-local pool hands out the buffer of the thread'() {
+        given:
+            def pool = new ThreadLocalBufferPool(128, 1024)
+
+        when:
+            def first = pool.acquire().append('abc')
+            def second = pool.acquire()
+
+        then:
+            first.is(second)
+            second.length() == 0
+    }
+
+    def 'the striped pool reuses released buffers'() {
+        given:
+            def pool = new StripedBufferPool(128, 1024, 8)
+
+        when:
+            def first = pool.acquire().append('abc')
+            first.clear()
+            def second = pool.acquire()
+
+        then:
+            first.is(second)
+            pool.missCount == 1
+            pool.pooledCount == 0
+    }
+
+    def 'buffers cleared twice are only released once'() {
+        given:
+            def pool = new StripedBufferPool(128, 1024, 8)
+            def sbr = pool.acquire().append('abc')
+
+        when:
+            sbr.clear()
+            sbr.clear()
+
+        then:
+            pool.pooledCount == 1
+    }
+
+    def 'the striped pool is bounded'() {
+        given:
+            def pool = new StripedBufferPool(128, 1024, 2)
+            def borrowed = (1..5).collect { pool.acquire() }
+
+        when:
+            borrowed*.clear()
+
+        then:
+            pool.pooledCount == 2
+    }
+
+    def 'platform threads use their own buffer on the carrier-aware pool'() {
+        given:
+            def pool = new CarrierAwareBufferPool(128, 1024)
+
+        expect:
+            !CarrierAwareBufferPool.isVirtual(Thread.currentThread())
+            pool.acquire().is(pool.acquire())
+    }
+
+    def 'unknown pools are rejected'() {
+        when:
+            BufferPool.named('random', 128, 1024)
+
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    def 'formatters return their buffers through Result.clear()'() {
+        given:
+            def previous = StrBuilderResultFactory.pool
+            def pool = new StripedBufferPool(128, 1024, 16)
+            StrBuilderResultFactory.pool = pool
+            def formatter = new TextFormatter()
+            def executor = Executors.newFixedThreadPool(8)
+            def texts = Collections.synchronizedList([])
+
+        when:
+            (1..1000).each { i ->
+                executor.submit {
+                    def result = formatter.format(Level.INFO, 'evt', 'i', i)
+                    try {
+                        texts << result.string
+                    } finally {
+                        result.clear()
+                    }
+                }
+            }
+            executor.shutdown()
+            executor.awaitTermination(10, TimeUnit.SECONDS)
+
+        then:
+            texts.toSet() == (1..1000).collect { "evt=evt i=$it" as String }.toSet()
+            pool.pooledCount <= 16
+            pool.missCount <= 100
+
+        cleanup:
+            StrBuilderResultFactory.pool = previous
+    }
+}
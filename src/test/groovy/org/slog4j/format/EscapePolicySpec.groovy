@@ -0,0 +1,66 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class EscapePolicySpec extends Specification {
+
+    @Unroll
+    def '#policyName: #description'() {
+        given:
+            def sbr = new StrBuilderResult(16).append('k=')
+
+        when:
+            EscapePolicy.named(policyName).appendTo(sbr, value)
+
+        then:
+            sbr.getString() == 'k=' + expected
+
+        where:
+            policyName    | description               | value                 || expected
+            'logstash_kv' | 'plain'                   | 'server4'             || 'server4'
+            'logstash_kv' | 'space'                   | 'a b'                 || "'a b'"
+            'logstash_kv' | 'brackets'                | '[x]'                 || "'[x]'"
+            'logstash_kv' | 'quote without quoting'   | "it's"                || "it\\'s"
+            'logstash_kv' | 'quoting after escaping'  | "it's\nhere now"      || "'it\\'s\\nhere now'"
+            'logstash_kv' | 'non-ASCII'               | 'ação'                || 'ação'
+            'logfmt'      | 'plain'                   | 'server4'             || 'server4'
+            'logfmt'      | 'space'                   | 'a b'                 || '"a b"'
+            'logfmt'      | 'equal sign'              | 'a=b'                 || '"a=b"'
+            'logfmt'      | 'double quote'            | 'say "hi"'            || '"say \\"hi\\""'
+            'logfmt'      | 'backslash'               | 'C:\\dir'             || '"C:\\\\dir"'
+            'logfmt'      | 'control char'            | 'a\u0001'             || '"a\\u0001"'
+            'json'        | 'plain'                   | 'server4'             || '"server4"'
+            'json'        | 'empty'                   | ''                    || '""'
+            'json'        | 'escapes'                 | "\"the\" error\\\n\t" || '"\\"the\\" error\\\\\\n\\t"'
+    }
+
+    def 'unknown policies are rejected'() {
+        when:
+            EscapePolicy.named('csv')
+
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    def 'custom policies can be built and used by TextFormatter'() {
+        given:
+            def policy = new EscapePolicy.Builder().quote('|' as char).quoteOn(' ').escape('|' as char, '|' as char).build()
+            def formatter = new TextFormatter()
+            formatter.escapePolicy(policy)
+
+        expect:
+            formatter.format(Level.INFO, 'start', 'aName', 'a b|c').getString() == 'evt=start aName=|a b\\|c|'
+    }
+
+    def 'TextFormatter can use logfmt'() {
+        given:
+            def formatter = new TextFormatter()
+            formatter.escapePolicy(EscapePolicy.LOGFMT)
+
+        expect:
+            formatter.format(Level.INFO, 'start', 'message', "don't panic", 'path', '/tmp').getString() ==
+                'evt=start message="don\'t panic" path=/tmp'
+    }
+}
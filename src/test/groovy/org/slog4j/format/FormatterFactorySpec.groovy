@@ -0,0 +1,133 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import org.slog4j.types.LongId
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+
+class FormatterFactorySpec extends Specification {
+
+    static final REGISTRY = '''
+        package org.slog4j.generated
+
+        import org.slog4j.format.*
+
+        class Slog4jRegistry implements BuildTimeRegistry {
+            List<Object> converters() {
+                [new ShortIdConverter()]
+            }
+
+            Map<String, Object> configuration() {
+                [labels: [eventId: 'event'], context: [app: 'shop']]
+            }
+
+            Formatter newFormatter() {
+                new JsonFormatter()
+            }
+
+            boolean complete() {
+                COMPLETE
+            }
+        }
+        '''
+
+    static final RESPONSE = new TextFormatterSpec.Response(clntNii: 0x83d9, servNii: 0x0955, seq: 0, bodyLen: 1453)
+
+    def previous = FormatterFactory.INSTANCE
+
+    def cleanup() {
+        FormatterFactory.INSTANCE = previous
+    }
+
+    def 'the registry is looked up once per context class loader'() {
+        given:
+            def loader = registryLoader()
+
+        when:
+            def found = withContextLoader(loader) { FormatterFactory.registry() }
+
+        then:
+            found.class.name == BuildTimeRegistry.CLASS_NAME
+            withContextLoader(loader) { FormatterFactory.registry() }.is(found)
+            FormatterFactory.registry() == null
+    }
+
+    def 'formatters built with a registry register its converters and the ones of the service files'() {
+        given:
+            def values = ['id', new LongId(0x69e3d3a6db5b8241L), 'address', new InetSocketAddress('localhost', 80),
+                          'map', [a: 1], 'sid', new TextFormatterSpec.ShortId(id: 42), 'resp', RESPONSE] as Object[]
+
+        expect:
+            withContextLoader(registryLoader()) { new TextFormatter().format(Level.INFO, 'sent', values).string } ==
+                new TextFormatter().format(Level.INFO, 'sent', values).string
+    }
+
+    def 'formatters built with a complete registry register its converters and the built-in ones only'() {
+        given:
+            def values = ['id', new LongId(0x69e3d3a6db5b8241L), 'address', new InetSocketAddress('localhost', 80),
+                          'map', [a: 1], 'sid', new TextFormatterSpec.ShortId(id: 42)] as Object[]
+
+        when:
+            def text = withContextLoader(registryLoader(true)) {
+                [new TextFormatter().format(Level.INFO, 'sent', values).string,
+                 new TextFormatter().format(Level.INFO, 'sent', 'resp', RESPONSE).string]
+            }
+
+        then:
+            text[0] == new TextFormatter().format(Level.INFO, 'sent', values).string
+            text[1] == "evt=sent resp=[${TextFormatterSpec.Response.name}#_NO_CONVERTER_]"
+    }
+
+    def 'the formatter is created once from the compiled configuration'() {
+        given:
+            FormatterFactory.INSTANCE = null
+            def start = new CountDownLatch(1)
+            def instances = Collections.synchronizedList([])
+
+        when:
+            withContextLoader(registryLoader()) {
+                def threads = (0..<4).collect {
+                    Thread.start {
+                        start.await()
+                        instances << FormatterFactory.getInstance()
+                    }
+                }
+                start.countDown()
+                threads*.join()
+            }
+
+        then:
+            instances.size() == 4
+            instances.every { it.is(instances[0]) }
+            FormatterFactory.getInstance().is(instances[0])
+            instances[0] instanceof JsonFormatter
+            instances[0].format(Level.INFO, 'sent').string == '{"event":"sent","app":"shop"}'
+    }
+
+    def 'the configuration names the formatter when none is given'() {
+        when:
+            def formatter = FormatterFactory.configure([formatter: JsonFormatter.name, labels: [eventId: 'e']], null)
+
+        then:
+            formatter instanceof JsonFormatter
+            formatter.format(Level.INFO, 'sent').string == '{"e":"sent"}'
+    }
+
+    private ClassLoader registryLoader(boolean complete = false) {
+        def loader = new GroovyClassLoader(getClass().classLoader)
+        loader.parseClass(REGISTRY.replace('COMPLETE', String.valueOf(complete)))
+        loader
+    }
+
+    private static <T> T withContextLoader(ClassLoader loader, Closure<T> action) {
+        def thread = Thread.currentThread()
+        def previous = thread.contextClassLoader
+        thread.contextClassLoader = loader
+        try {
+            action()
+        } finally {
+            thread.contextClassLoader = previous
+        }
+    }
+}
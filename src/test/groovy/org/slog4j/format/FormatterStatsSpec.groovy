@@ -0,0 +1,136 @@
+package org.slog4j.format
+
+import org.slf4j.Logger
+import org.slf4j.event.Level
+import org.slog4j.SLoggerFactory
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+import javax.management.openmbean.TabularData
+import java.lang.management.ManagementFactory
+import java.nio.file.Files
+
+import static org.slog4j.format.AppendingConverterSpec.Money
+import static org.slog4j.format.AppendingConverterSpec.MoneyConverter
+
+class FormatterStatsSpec extends Specification {
+
+    def log = Mock(Logger) {
+        isInfoEnabled() >> true
+        isWarnEnabled() >> true
+    }
+
+    def setup() {
+        FormatterStats.reset()
+        FormatterStats.enabled = true
+    }
+
+    def cleanup() {
+        FormatterStats.enabled = false
+        FormatterStats.slowFormatThresholdNanos = FormatterStats.DEFAULT_SLOW_FORMAT_THRESHOLD_NANOS
+        FormatterStats.reset()
+    }
+
+    def 'formatted events are counted by formatter and level'() {
+        given:
+            def text = SLoggerFactory.getLogger(log, new TextFormatter())
+            def json = SLoggerFactory.getLogger(log, new JsonFormatter())
+
+        when:
+            text.info('START', 'a', 1)
+            text.atWarn('DONE').with('b', 2L).log()
+            json.info('START')
+
+        then:
+            FormatterStats.eventCounts == ['JsonFormatter/INFO': 1L, 'TextFormatter/INFO': 1L, 'TextFormatter/WARN': 1L]
+            FormatterStats.formattedBytes == [JsonFormatter: '{"evt":"START"}'.length() as long,
+                                              TextFormatter: 'evt=START a=1evt=DONE b=2'.length() as long]
+            FormatterStats.formatNanos.keySet() == ['JsonFormatter', 'TextFormatter'] as Set
+    }
+
+    def 'values without a converter and failing converters are counted'() {
+        given:
+            def formatter = new TextFormatter()
+            formatter.registerAppendingConverter(Money, new MoneyConverter())
+
+        when:
+            formatter.format(Level.INFO, 'paid', 'price', new Money(cents: 1))
+            formatter.format(Level.INFO, 'paid', 'who', new Object())
+
+        then:
+            FormatterStats.converterFailureCount == 1
+            FormatterStats.converterMissCount == 2
+    }
+
+    def 'nothing is collected while disabled'() {
+        given:
+            FormatterStats.enabled = false
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+
+        when:
+            slog.info('START', 'who', new Object())
+
+        then:
+            FormatterStats.eventCounts.isEmpty()
+            FormatterStats.converterMissCount == 0
+    }
+
+    def 'events slower than the threshold are counted'() {
+        given:
+            FormatterStats.slowFormatThresholdNanos = 0
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+
+        when:
+            3.times { slog.info('START') }
+
+        then:
+            FormatterStats.slowFormatCount == 3
+    }
+
+    @IgnoreIf({ !SlowFormatEvents.available })
+    def 'slow formats are recorded by JFR'() {
+        given:
+            FormatterStats.slowFormatThresholdNanos = 0
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+            def recording = Class.forName('jdk.jfr.Recording').getDeclaredConstructor().newInstance()
+            recording.enable('org.slog4j.SlowFormat')
+            def file = Files.createTempFile('slow-format', '.jfr')
+
+        when:
+            recording.start()
+            slog.warn('START', 'a', 1)
+            recording.stop()
+            recording.dump(file)
+            def events = Class.forName('jdk.jfr.consumer.RecordingFile').readAllEvents(file)
+
+        then:
+            events.size() == 1
+            events[0].getString('formatter') == TextFormatter.name
+            events[0].getString('level') == 'WARN'
+            events[0].getInt('bytes') == 'evt=START a=1'.length()
+
+        cleanup:
+            recording.close()
+            Files.delete(file)
+    }
+
+    def 'statistics are published through JMX'() {
+        given:
+            def server = ManagementFactory.getPlatformMBeanServer()
+            def name = FormatterStats.registerMBean()
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+
+        when:
+            slog.info('START', 'who', new Object())
+
+        then:
+            server.getAttribute(name, 'Enabled') == true
+            (server.getAttribute(name, 'EventCounts') as TabularData)
+                .get(['TextFormatter/INFO'] as Object[]).get('value') == 1
+            server.getAttribute(name, 'ConverterMissCount') == 1
+            server.getAttribute(name, 'BufferGrowCount') == StrBuilderResult.growCount
+
+        cleanup:
+            server.unregisterMBean(name)
+    }
+}
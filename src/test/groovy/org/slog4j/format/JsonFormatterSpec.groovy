@@ -0,0 +1,75 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import org.slog4j.types.LongId
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+
+import static org.slog4j.format.TextFormatterSpec.Person
+import static org.slog4j.format.TextFormatterSpec.Response
+
+class JsonFormatterSpec extends Specification {
+
+    @Unroll
+    def 'event: #eventId // #description'() {
+        given:
+            def formatter = new JsonFormatter()
+
+        when:
+            def msg = formatter.format(Level.INFO, eventId, props as Object[]).getString()
+
+        then:
+            msg == expectedMessage
+
+        where:
+            description             | eventId          | props                                                                   || expectedMessage
+            'no properties'         | 'restart'        | []                                                                      || '{"evt":"restart"}'
+            'a simple byte array'   | 'TOKEN_RECEIVED' | ['token', [1, 2, 3, 4, 5, 6, 7, 8] as byte[]]                            || '{"evt":"TOKEN_RECEIVED","token":"AQIDBAUGBwg="}'
+            'response object'       | 'respSent'       | [new Response(clntNii: 0x83d9, servNii: 0x0955, seq: 0, bodyLen: 1453)] || '{"evt":"respSent","clntNii":"0x83d9","servNii":"0x0955","seq":0,"bodyLen":1453}'
+            'typed values'          | 'dataSent'       | ['len', 560, 'ratio', 0.5d, 'ok', true, 'nan', Double.NaN, 'c', 'x' as char]  || '{"evt":"dataSent","len":560,"ratio":0.5,"ok":true,"nan":"NaN","c":"x"}'
+            'ignore null, LongId'   | 'dataSent'       | ['obj', 'server4', null, 'traceId', new LongId(0x69e3d3a6db5b8241L)]   || '{"evt":"dataSent","obj":"server4","traceId":"69e3d3a6db5b8241"}'
+            'value w/ special chars'| 'procError'      | ['message', "\"the\" error\\\n\t\u0001"]                                || '{"evt":"procError","message":"\\"the\\" error\\\\\\n\\t\\u0001"}'
+            'null and missing'      | 'start'          | ['aName', null, 'other']                                                || '{"evt":"start","aName":null,"other":"_MISSING_"}'
+            'value is map'          | 'requestRecv'    | ['parameters', [readerModel: 'RC700', limits: [min: 1, max: 2]]]        || '{"evt":"requestRecv","parameters":{"readerModel":"RC700","limits":{"min":1,"max":2}}}'
+            'non-convertible value' | 'start'          | ['aName', new Person()]                                                 || '{"evt":"start","aName":"org.slog4j.format.TextFormatterSpec$Person#_NO_CONVERTER_"}'
+            'non-convertible object'| 'start'          | [new Person()]                                                          || '{"evt":"start","org.slog4j.format.TextFormatterSpec$Person":"_NO_CONVERTER_"}'
+    }
+
+    def 'throwables are rendered as structured fields'() {
+        given:
+            def formatter = new JsonFormatter()
+            def cause = new IllegalStateException('root cause')
+            cause.stackTrace = [new StackTraceElement('org.example.Dao', 'load', 'Dao.java', 42)]
+            def re = new RuntimeException('failed', cause)
+            re.stackTrace = [new StackTraceElement('org.example.Service', 'create', null, -1)]
+
+        when:
+            def result = formatter.format(Level.ERROR, 'user_creation_failed', 'user', 'james@example.com', re)
+
+        then:
+            result.getString() == '{"evt":"user_creation_failed","user":"james@example.com","exception":' +
+                '{"class":"java.lang.RuntimeException","message":"failed",' +
+                '"stackTrace":["org.example.Service.create(Unknown Source)"],' +
+                '"cause":{"class":"java.lang.IllegalStateException","message":"root cause",' +
+                '"stackTrace":["org.example.Dao.load(Dao.java:42)"]}}}'
+            result.attachment == null
+    }
+
+    def 'time, level and event labels are honoured'() {
+        given:
+            def clock = Clock.fixed(Instant.ofEpochMilli(1506397907801L), ZoneOffset.UTC)
+            def formatter = new PureJsonFormatter(clock)
+            formatter.timeLabel('t').levelLabel('l').eventIdLabel('event')
+
+        when:
+            def msg = formatter.format(Level.WARN, 'start', 'aName', 'aValue').getString()
+
+        then:
+            msg == '{"t":"' + BaseFormatter.FORMAT_ISO8601_MILLIS.format(clock.millis()) +
+                '","l":"WARN","event":"start","aName":"aValue"}'
+    }
+}
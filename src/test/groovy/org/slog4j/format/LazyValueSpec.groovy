@@ -0,0 +1,100 @@
+package org.slog4j.format
+
+import org.slf4j.Logger
+import org.slf4j.event.Level
+import org.slog4j.SLogger
+import org.slog4j.SLoggerFactory
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.function.Supplier
+
+class LazyValueSpec extends Specification {
+
+    @Unroll
+    def 'lazy values are rendered as the value they supply // #formatter.class.simpleName'() {
+        given:
+            def values = ['size', SLogger.lazy { 42 }, 'who', { 'me' } as Supplier, 'none', SLogger.lazy { null },
+                          SLogger.lazy { [first: true, n: 2] }] as Object[]
+
+        expect:
+            formatter.format(Level.INFO, 'stats', values).getString() == expected
+
+        where:
+            formatter             || expected
+            new TextFormatter()   || 'evt=stats size=42 who=me none=_NULL_ first=true n=2'
+            new JsonFormatter()   || '{"evt":"stats","size":42,"who":"me","none":null,"first":true,"n":2}'
+            new BinaryFormatter() || 'evt=stats size=42 who=me none=_NULL_ first=true n=2'
+    }
+
+    @Unroll
+    def 'a failing lazy value is rendered as a placeholder // #formatter.class.simpleName'() {
+        given:
+            def failing = SLogger.lazy { throw new IllegalStateException('boom') }
+
+        expect:
+            formatter.format(Level.INFO, 'stats', 'size', failing, 'after', 1).getString() == expected
+
+        where:
+            formatter             || expected
+            new TextFormatter()   || 'evt=stats size=_EVALUATION_FAILED_ after=1'
+            new JsonFormatter()   || '{"evt":"stats","size":"_EVALUATION_FAILED_","after":1}'
+            new BinaryFormatter() || 'evt=stats size=_EVALUATION_FAILED_ after=1'
+    }
+
+    @Unroll
+    def 'a lazy value is computed once per event // #formatter.class.simpleName'() {
+        given:
+            int calls = 0
+            def lazy = SLogger.lazy { ++calls }
+
+        when:
+            def first = formatter.format(Level.INFO, 'stats', 'a', lazy, 'b', lazy).getString()
+            def second = formatter.format(Level.INFO, 'stats', 'a', lazy).getString()
+
+        then:
+            [first, second] == expected
+            calls == 2
+
+        where:
+            formatter             || expected
+            new TextFormatter()   || ['evt=stats a=1 b=1', 'evt=stats a=2']
+            new JsonFormatter()   || ['{"evt":"stats","a":1,"b":1}', '{"evt":"stats","a":2}']
+            new BinaryFormatter() || ['evt=stats a=1 b=1', 'evt=stats a=2']
+    }
+
+    def 'a supplier with a properties converter is converted rather than computed'() {
+        given:
+            def response = new SuppliedResponse(clntNii: 0x83d9, servNii: 0x0955, seq: 0, bodyLen: 1453)
+
+        expect:
+            new TextFormatter().format(Level.INFO, 'sent', response).getString() ==
+                'evt=sent clntNii=0x83d9 servNii=0x0955 seq=0 bodyLen=1453'
+    }
+
+    def 'lazy values of disabled levels are never computed'() {
+        given:
+            def log = Mock(Logger) {
+                isDebugEnabled() >> false
+                isInfoEnabled() >> true
+            }
+            def slog = SLoggerFactory.getLogger(log, new TextFormatter())
+            def supplier = Mock(Supplier)
+
+        when:
+            slog.debug('stats', 'size', SLogger.lazy(supplier))
+            slog.atDebug('stats').with('size', supplier).log()
+            slog.info('stats', 'size', SLogger.lazy(supplier))
+
+        then:
+            1 * supplier.get() >> 3
+            1 * log.info('evt=stats size=3')
+    }
+
+    static class SuppliedResponse extends TextFormatterSpec.Response implements Supplier<String> {
+        @Override
+        String get() {
+            throw new AssertionError('converted objects are never computed')
+        }
+    }
+}
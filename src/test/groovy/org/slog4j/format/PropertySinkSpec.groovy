@@ -0,0 +1,85 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PropertySinkSpec extends Specification {
+
+    static class Order {
+        long id
+        String customer
+        double amount
+        boolean paid
+        String street
+        String city
+    }
+
+    static class OrderConverter implements PropertySinkConverter {
+        @Override
+        Class<?> getEffectiveType() {
+            Order
+        }
+
+        @Override
+        void writeTo(Object object, PropertySink sink) {
+            def order = object as Order
+            sink.put('id', order.id)
+                .put('customer', order.customer as CharSequence)
+                .put('amount', order.amount)
+                .put('paid', order.paid)
+                .beginObject('address')
+                .put('street', order.street as CharSequence)
+                .put('city', order.city as CharSequence)
+                .endObject()
+                .put('tags', [first: true])
+        }
+    }
+
+    static final ORDER = new Order(id: 42, customer: 'John Smith', amount: 12.5, paid: true, street: null, city: 'Lisbon')
+
+    @Unroll
+    def 'properties are written straight into the buffer // #formatter.class.simpleName'() {
+        given:
+            formatter.registerToPropertiesConverter(Order, new OrderConverter())
+
+        expect:
+            formatter.format(Level.INFO, 'placed', 'order', ORDER, 'n', 1).getString() == nested
+            formatter.format(Level.INFO, 'placed', ORDER).getString() == topLevel
+
+        where:
+            formatter           | nested | topLevel
+            new TextFormatter() |
+                "evt=placed order=[id=42 customer='John Smith' amount=12.5 paid=true " +
+                'address=[street=_NULL_ city=Lisbon] tags=[first=true]] n=1' |
+                "evt=placed id=42 customer='John Smith' amount=12.5 paid=true " +
+                'address=[street=_NULL_ city=Lisbon] tags=[first=true]'
+            new JsonFormatter() |
+                '{"evt":"placed","order":{"id":42,"customer":"John Smith","amount":12.5,"paid":true,' +
+                '"address":{"street":null,"city":"Lisbon"},"tags":{"first":true}},"n":1}' |
+                '{"evt":"placed","id":42,"customer":"John Smith","amount":12.5,"paid":true,' +
+                '"address":{"street":null,"city":"Lisbon"},"tags":{"first":true}}'
+    }
+
+    def 'sink converters can still be iterated'() {
+        expect:
+            new OrderConverter().convert(ORDER).collectEntries { [it.key, it.value] } == [
+                id: 42L, customer: 'John Smith', amount: 12.5d, paid: true,
+                address: [street: null, city: 'Lisbon'], tags: [first: true]
+            ]
+    }
+
+    def 'iterable converters are adapted'() {
+        given:
+            def sink = Mock(PropertySink)
+
+        when:
+            new MapConverter().writeTo([a: 1, b: 'x'], sink)
+            ([getEffectiveType: { Map }, convert: { [c: 2L].entrySet() }] as ToPropertiesConverter).writeTo(null, sink)
+
+        then:
+            1 * sink.put('a', 1 as Object)
+            1 * sink.put('b', 'x' as Object)
+            1 * sink.put('c', 2L as Object)
+    }
+}
@@ -0,0 +1,160 @@
+package org.slog4j.format
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+import java.nio.charset.StandardCharsets
+
+class StrBuilderResultSpec extends Specification {
+
+    @Unroll
+    def 'UTF-8 encoding of #description'() {
+        given:
+            def sbr = new StrBuilderResult(16).append(text)
+
+        when:
+            def bytes = ByteBuffer.allocate(sbr.byteLength)
+            def written = sbr.writeTo(bytes)
+
+        then:
+            written == expected.length
+            bytes.array() == expected
+
+        where:
+            description         | text
+            'ASCII'             | 'evt=CONNECT port=443'
+            'latin-1'           | 'evt=LOGIN user=José'
+            'BMP'               | 'evt=GREET text=你好'
+            'surrogate pairs'   | 'evt=EMOJI text=😀!'
+            'unpaired surrogate'| 'evt=BROKEN text=\ud83d!'
+
+            expected = text.getBytes(StandardCharsets.UTF_8)
+    }
+
+    def 'encoding into a direct buffer'() {
+        given:
+            def text = 'evt=LOGIN user=José text=😀'
+            def sbr = new StrBuilderResult(16).append(text)
+            def bytes = ByteBuffer.allocateDirect(64)
+
+        when:
+            sbr.writeTo(bytes)
+            bytes.flip()
+            def encoded = new byte[bytes.remaining()]
+            bytes.get(encoded)
+
+        then:
+            encoded == text.getBytes(StandardCharsets.UTF_8)
+    }
+
+    def 'nothing is written when the buffer is too small'() {
+        given:
+            def sbr = new StrBuilderResult(16).append('evt=LOGIN user=José')
+            def bytes = ByteBuffer.allocate(sbr.byteLength - 1)
+
+        when:
+            sbr.writeTo(bytes)
+
+        then:
+            thrown(BufferOverflowException)
+            bytes.position() == 0
+    }
+
+    def 'encoding into a channel larger than the staging buffer'() {
+        given:
+            def text = ('evt=GREET text=你好😀 ' * 1000)
+            def sbr = new StrBuilderResult(16).append(text)
+            def out = new ByteArrayOutputStream()
+
+        when:
+            def written = sbr.writeTo(Channels.newChannel(out))
+
+        then:
+            out.toByteArray() == text.getBytes(StandardCharsets.UTF_8)
+            written == out.size()
+    }
+
+    def 'a grown buffer is kept while recent contents need it'() {
+        given:
+            def sbr = new StrBuilderResult(128, 16384)
+            def large = 'x' * 1000
+            def grows = StrBuilderResult.growCount
+
+        when:
+            sbr.append(large).clear()
+            def capacity = sbr.capacity()
+            sbr.append(large).clear()
+
+        then:
+            capacity >= 1000
+            sbr.capacity() == capacity
+            StrBuilderResult.growCount > grows
+    }
+
+    def 'the retained capacity decays back after small contents'() {
+        given:
+            def sbr = new StrBuilderResult(128, 16384)
+            def shrinks = StrBuilderResult.shrinkCount
+
+        when:
+            sbr.append('x' * 1000).clear()
+            100.times { sbr.append('small event').clear() }
+
+        then:
+            sbr.capacity() < 2 * 128
+            StrBuilderResult.shrinkCount > shrinks
+    }
+
+    def 'the retained capacity is capped'() {
+        given:
+            def sbr = new StrBuilderResult(128, 4096)
+
+        when:
+            sbr.append('x' * 100000).clear()
+
+        then:
+            sbr.capacity() == 4096
+    }
+
+    def 'buffers are presized per event id'() {
+        given:
+            def formatter = new TextFormatter()
+            formatter.presize('REQUEST_RECV', 8192)
+
+        when:
+            def result = formatter.format(org.slf4j.event.Level.INFO, 'REQUEST_RECV', 'a', 'b')
+
+        then:
+            result.capacity() >= 8192
+            result.getString() == 'evt=REQUEST_RECV a=b'
+
+        cleanup:
+            result.clear()
+    }
+
+    def 'a presized buffer is neither reallocated nor shrunk by the next events with the same id'() {
+        given:
+            def formatter = new TextFormatter()
+            formatter.presize('REPORT_SENT', 8192)
+            def first = formatter.format(org.slf4j.event.Level.INFO, 'REPORT_SENT', 'a', 'b')
+            def buffer = first.@buffer
+            first.clear()
+            def shrinks = StrBuilderResult.shrinkCount
+
+        when:
+            def same = (1..100).every {
+                def result = formatter.format(org.slf4j.event.Level.INFO, 'REPORT_SENT', 'a', 'b')
+                def reused = result.@buffer.is(buffer)
+                result.clear()
+                reused
+            }
+
+        then:
+            buffer.length >= 8192
+            same
+            StrBuilderResult.shrinkCount == shrinks
+    }
+}
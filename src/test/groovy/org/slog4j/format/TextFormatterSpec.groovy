@@ -110,6 +110,35 @@ class TextFormatterSpec extends Specification {
             msg == "evt=start org.slog4j.format.TextFormatterSpec\$Person#_NO_CONVERTER_"
     }
 
+    interface Named {
+        String getName()
+    }
+
+    static class Tenant implements Named {
+        String name
+    }
+
+    static class PremiumTenant extends Tenant {
+        int tier
+    }
+
+    def 'converters registered after first use are picked up, nearest superclass first'() {
+        given:
+            def formatter = new TextFormatter()
+            def tenant = new PremiumTenant(name: 'acme', tier: 2)
+
+        when: 'no converter is known for the value'
+            def before = formatter.format(Level.INFO, 'login', 'tenant', tenant).getString()
+        and: 'converters are registered for an interface and a superclass'
+            formatter.registerToPropertiesConverter(Named, [convert: { [name: it.name].entrySet() }] as ToPropertiesConverter)
+            formatter.registerToPropertiesConverter(Tenant, [convert: { [tenant: it.name].entrySet() }] as ToPropertiesConverter)
+            def after = formatter.format(Level.INFO, 'login', 'tenant', tenant).getString()
+
+        then:
+            before == "evt=login tenant=[org.slog4j.format.TextFormatterSpec\$PremiumTenant#_NO_CONVERTER_]"
+            after == 'evt=login tenant=[tenant=acme]'
+    }
+
     @Immutable
     static class GeoLocation {
         double latitude
@@ -0,0 +1,104 @@
+package org.slog4j.format
+
+import org.slf4j.event.Level
+import spock.lang.Specification
+
+class ThrowableRendererSpec extends Specification {
+
+    static final StackTraceElement[] MAIN = [frame('com.acme.Pool', 'get', 42),
+                                             frame('java.lang.reflect.Method', 'invoke', 1),
+                                             frame('sun.reflect.Accessor', 'invoke', 2),
+                                             frame('com.acme.Main', 'run', 7),
+                                             frame('com.acme.Main', 'main', 3)]
+
+    static final StackTraceElement[] CAUSE = [frame('com.acme.Conn', 'read', 9),
+                                              frame('com.acme.Main', 'run', 7),
+                                              frame('com.acme.Main', 'main', 3)]
+
+    def renderer = new ThrowableRenderer.Builder()
+        .maxFrames(2)
+        .excludePackages('java.lang.reflect', 'sun.reflect')
+        .build()
+
+    def 'throwables are rendered on a single line instead of being attached'() {
+        given:
+            def formatter = new TextFormatter().throwableRenderer(renderer)
+
+        when:
+            def result = formatter.format(Level.ERROR, 'failed', 'id', 1, newThrowable())
+
+        then:
+            result.getString() == "evt=failed id=1 exception='java.lang.IllegalStateException: it\\'s closed " +
+                'at com.acme.Pool.get(Pool.java:42) ... 2 filtered at com.acme.Main.run(Main.java:7) ... 1 more ' +
+                "caused by: java.io.IOException: reset at com.acme.Conn.read(Conn.java:9) ... 2 common'"
+            result.getAttachment() == null
+    }
+
+    def 'throwables values are rendered the same way'() {
+        given:
+            def formatter = new TextFormatter().throwableRenderer(renderer)
+            def throwable = new IllegalArgumentException('bad')
+            throwable.stackTrace = CAUSE
+
+        expect:
+            formatter.format(Level.ERROR, 'failed', 'err', throwable).getString() ==
+                "evt=failed err='java.lang.IllegalArgumentException: bad at com.acme.Conn.read(Conn.java:9) " +
+                "at com.acme.Main.run(Main.java:7) ... 1 more'"
+    }
+
+    def 'the frames of a stack are cached'() {
+        given:
+            def first = newThrowable()
+            def second = newThrowable()
+
+        when:
+            def text = render(first)
+
+        then:
+            renderer.isCached(MAIN, 0)
+            renderer.isCached(CAUSE, 2)
+            !renderer.isCached(CAUSE, 0)
+            render(second) == text
+    }
+
+    def 'a stack evicts the one cached on the same slot'() {
+        given:
+            def single = new ThrowableRenderer.Builder().cacheSize(1).build()
+            def other = new RuntimeException()
+            other.stackTrace = CAUSE
+            def throwable = new RuntimeException()
+            throwable.stackTrace = MAIN
+
+        when:
+            single.appendTo(new StrBuilderResult(16), throwable)
+            single.appendTo(new StrBuilderResult(16), other)
+
+        then:
+            single.isCached(CAUSE, 0)
+            !single.isCached(MAIN, 0)
+    }
+
+    def 'throwables are still attached by default'() {
+        given:
+            def throwable = newThrowable()
+
+        expect:
+            new TextFormatter().format(Level.ERROR, 'failed', throwable).getAttachment() == throwable
+    }
+
+    private String render(Throwable throwable) {
+        renderer.appendTo(new StrBuilderResult(64), throwable).getString()
+    }
+
+    private static Throwable newThrowable() {
+        def cause = new IOException('reset')
+        cause.stackTrace = CAUSE
+        def throwable = new IllegalStateException("it's closed", cause)
+        throwable.stackTrace = MAIN
+        throwable
+    }
+
+    private static StackTraceElement frame(String className, String method, int line) {
+        new StackTraceElement(className, method, className.tokenize('.').last() + '.java', line)
+    }
+}
@@ -0,0 +1,89 @@
+package org.slog4j.format
+
+import org.apache.commons.lang3.time.FastDateFormat
+import org.slf4j.event.Level
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneId
+import java.time.ZoneOffset
+
+class TimestampRendererSpec extends Specification {
+
+    static class SettableClock extends Clock {
+        Instant instant
+
+        @Override
+        ZoneId getZone() {
+            ZoneOffset.UTC
+        }
+
+        @Override
+        Clock withZone(ZoneId zone) {
+            this
+        }
+
+        @Override
+        Instant instant() {
+            instant
+        }
+    }
+
+    static String render(TimestampRenderer renderer) {
+        def sbr = new StrBuilderResult(64)
+        renderer.appendTo(sbr).getString()
+    }
+
+    @Unroll
+    def 'renders #precision'() {
+        given:
+            def clock = new SettableClock(instant: Instant.ofEpochSecond(1506397907L, 801234567L))
+            def renderer = new TimestampRenderer(clock, ZoneId.of(zone), precision)
+
+        expect:
+            render(renderer) == expected
+            renderer.numeric == (precision == TimestampPrecision.EPOCH_MILLIS)
+
+        where:
+            precision                       | zone                  || expected
+            TimestampPrecision.MILLIS       | 'UTC'                 || '2017-09-26T03:51:47.801+0000'
+            TimestampPrecision.MICROS       | 'UTC'                 || '2017-09-26T03:51:47.801234+0000'
+            TimestampPrecision.NANOS        | 'UTC'                 || '2017-09-26T03:51:47.801234567+0000'
+            TimestampPrecision.EPOCH_MILLIS | 'UTC'                 || '1506397907801'
+            TimestampPrecision.MILLIS       | 'Asia/Kolkata'        || '2017-09-26T09:21:47.801+0530'
+            TimestampPrecision.MILLIS       | 'America/Sao_Paulo'   || '2017-09-26T00:51:47.801-0300'
+    }
+
+    def 'milliseconds are rendered as DATE_TIME_FORMAT does, across seconds and offset changes'() {
+        given:
+            def clock = new SettableClock()
+            def zone = 'America/Sao_Paulo'
+            def renderer = new TimestampRenderer(clock, ZoneId.of(zone), TimestampPrecision.MILLIS)
+            def reference = FastDateFormat.getInstance(BaseFormatter.DATE_TIME_FORMAT, TimeZone.getTimeZone(zone))
+            // daylight saving time started there at 2017-10-15T03:00:00Z
+            def start = Instant.parse('2017-10-15T02:59:58.000Z').toEpochMilli()
+
+        expect:
+            (0..<5000).step(7).every { int delta ->
+                clock.instant = Instant.ofEpochMilli(start + delta)
+                render(renderer) == reference.format(start + delta)
+            }
+    }
+
+    def 'the precision is configurable on the formatters'() {
+        given:
+            def clock = Clock.fixed(Instant.ofEpochSecond(1506397907L, 801234567L), ZoneOffset.UTC)
+            def textFormatter = new PureTextFormatter(clock)
+            def jsonFormatter = new PureJsonFormatter(clock)
+
+        when:
+            textFormatter.timestampPrecision(TimestampPrecision.EPOCH_MILLIS)
+            jsonFormatter.timestampPrecision(TimestampPrecision.EPOCH_MILLIS)
+
+        then:
+            textFormatter.format(Level.INFO, 'start').getString() == 'time=1506397907801 level=INFO evt=start'
+            jsonFormatter.format(Level.INFO, 'start').getString() == '{"time":1506397907801,"level":"INFO","evt":"start"}'
+    }
+}
@@ -0,0 +1,111 @@
+package org.slog4j.metrics
+
+import org.slf4j.event.Level
+import org.slog4j.SLogger
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.management.openmbean.CompositeData
+import javax.management.openmbean.TabularData
+import java.lang.management.ManagementFactory
+
+import static org.slog4j.AsyncSLoggerSpec.RecordingSLogger
+
+class EventMetricsSpec extends Specification {
+
+    def delegate = new RecordingSLogger()
+    def metrics = new EventMetrics('latencyMs', 'bytes')
+    def slog = metrics.wrap(delegate)
+
+    def 'events are counted by id and level and handed to the delegate'() {
+        when:
+            3.times { slog.info('REQUEST_DONE', 'path', '/x', 'latencyMs', 12) }
+            slog.warn('REQUEST_DONE', 'latencyMs', 2500L)
+            slog.error('FAILED', new RuntimeException('boom'))
+            def snapshot = metrics.snapshot()
+
+        then:
+            delegate.events.size() == 5
+            snapshot.getEventIds() == ['FAILED', 'REQUEST_DONE'] as Set
+            snapshot.getCount('REQUEST_DONE') == 4
+            snapshot.getCount('REQUEST_DONE', Level.WARN) == 1
+            snapshot.getCount('FAILED', Level.ERROR) == 1
+            snapshot.getCount('UNKNOWN') == 0
+            with(snapshot.getHistogram('REQUEST_DONE', 'latencyMs')) {
+                count == 4
+                min == 12
+                max == 2500
+                p50 == 12
+            }
+            snapshot.getHistograms('FAILED').isEmpty()
+    }
+
+    def 'numeric values are recorded from every kind of call'() {
+        given:
+            def template = SLogger.template('SENT', 'bytes', 'to')
+
+        when:
+            slog.atInfo('RECEIVED').with('bytes', 512).with('latencyMs', 3.6d).with('from', 'a').log()
+            slog.info(template, 1024, 'b')
+            slog.info('SENT', 'bytes', 'not a number')
+            def snapshot = metrics.snapshot()
+
+        then:
+            snapshot.getHistogram('RECEIVED', 'bytes').max == 512
+            snapshot.getHistogram('RECEIVED', 'latencyMs').max == 4
+            snapshot.getHistogram('SENT', 'bytes').count == 1
+            snapshot.getCount('SENT') == 2
+            delegate.events*.getAt(1) == ['RECEIVED', 'SENT', 'SENT']
+    }
+
+    @Unroll
+    def 'percentiles are within the bucket precision // #percentile'() {
+        given:
+            def histogram = new Histogram()
+            (1..100_000).each { histogram.record(it) }
+
+        when:
+            def value = histogram.snapshot().getValueAtPercentile(percentile)
+
+        then:
+            value >= expected
+            value <= expected * 1.04
+
+        where:
+            percentile | expected
+            50         | 50_000
+            90         | 90_000
+            99.9       | 99_900
+            100        | 100_000
+    }
+
+    def 'every value falls in a bucket whose bounds contain it'() {
+        expect:
+            [0L, 31L, 32L, 33L, 1000L, 123_456_789L, Long.MAX_VALUE].every { value ->
+                def index = Histogram.index(value)
+                Histogram.highestValue(index) >= value && (index == 0 || Histogram.highestValue(index - 1) < value)
+            }
+    }
+
+    def 'metrics are published through JMX'() {
+        given:
+            def server = ManagementFactory.getPlatformMBeanServer()
+            def name = metrics.registerMBean('spec')
+
+        when:
+            slog.info('REQUEST_DONE', 'latencyMs', 12)
+            slog.info('REQUEST_DONE', 'latencyMs', 20)
+
+        then:
+            server.getAttribute(name, 'TotalCount') == 2
+            def counts = server.getAttribute(name, 'Counts') as TabularData
+            counts.get(['REQUEST_DONE/INFO'] as Object[]).get('value') == 2
+            def histogram = (server.getAttribute(name, 'Histograms') as TabularData)
+                .get(['REQUEST_DONE/latencyMs'] as Object[]).get('value') as CompositeData
+            histogram.get('count') == 2
+            histogram.get('max') == 20
+
+        cleanup:
+            server.unregisterMBean(name)
+    }
+}
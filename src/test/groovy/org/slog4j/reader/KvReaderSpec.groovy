@@ -0,0 +1,185 @@
+package org.slog4j.reader
+
+import org.slf4j.event.Level
+import org.slog4j.SLogger
+import org.slog4j.format.TextFormatter
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+
+class KvReaderSpec extends Specification {
+
+    static final PROPERTIES = ['k0', 'plain', 'k1', 'with space', 'k2', "it's", 'k3', 'a\nb\r', 'k4', '[x]',
+                               'k5', 'café ✓', 'k6', '', 'k7', 'a=b', 'k8', "q 'x' \n", 'k9', '42', 'k10', '-7']
+
+    @TempDir
+    Path dir
+
+    def formatter = new TextFormatter()
+
+    @Unroll
+    def 'values read back as they were formatted // #source'() {
+        given:
+            def line = format(PROPERTIES as Object[])
+            def reader = read(source, line + '\n' + line)
+            def read = []
+
+        when:
+            while (reader.next()) {
+                def fields = reader.fields()
+                while (fields.next()) {
+                    read << fields.name().toString() << fields.value()
+                }
+            }
+
+        then:
+            read == (['evt', 'EVT'] + PROPERTIES) * 2
+
+        where:
+            source << ['chars', 'heap bytes', 'direct bytes']
+    }
+
+    def 'flat events are formatted again the same way'() {
+        given:
+            def line = format(PROPERTIES as Object[])
+            def reader = KvReader.of(line)
+            def objs = []
+
+        when:
+            reader.next()
+            def fields = reader.fields()
+            fields.next()
+            while (fields.next()) {
+                objs << fields.name().toString() << fields.value()
+            }
+
+        then:
+            formatter.format(Level.INFO, 'EVT', objs as Object[]).getString() == line
+            reader.line().toString() == line
+    }
+
+    def 'subfields are read through their own cursor'() {
+        given:
+            def reader = KvReader.of(format('order', [id: 3, who: 'John Smith', line: [sku: "x'y"], none: [:]]))
+
+        when:
+            reader.next()
+            def order = reader.field('order')
+            def subfields = order.subfields()
+            def read = [:]
+            while (subfields.next()) {
+                read[subfields.name().toString()] = subfields.isSubfield()
+                    ? subfields.subfields().with { it.next() ? it.value() : null }
+                    : subfields.value()
+            }
+
+        then:
+            order.isSubfield()
+            order.rawValue().toString() == "id=3 who='John Smith' line=[sku=x\\'y] none=[]"
+            read == [id: '3', who: 'John Smith', line: "x'y", none: null]
+    }
+
+    def 'placeholders are recognized'() {
+        given:
+            def failing = SLogger.lazy { throw new IllegalStateException() }
+            def reader = KvReader.of(formatter.format(Level.INFO, 'EVT', 'n', null, 'f', failing, new Object(),
+                'last').getString())
+
+        when:
+            reader.next()
+
+        then:
+            reader.field('n').isNull()
+            reader.field('f').isEvaluationFailed()
+            reader.field('').isNoConverter()
+            reader.field('').rawValue().toString() == 'java.lang.Object#_NO_CONVERTER_'
+            reader.field('last').isMissing()
+            !reader.field('last').isNull()
+    }
+
+    def 'integers are parsed without any string'() {
+        given:
+            def reader = KvReader.of(format('a', 42L, 'b', Long.MIN_VALUE))
+
+        expect:
+            reader.next()
+            reader.field('a').longValue() == 42L
+            reader.field('b').longValue() == Long.MIN_VALUE
+    }
+
+    @Unroll
+    def 'only integers are parsed // #value'() {
+        given:
+            def reader = KvReader.of(format('a', value))
+            reader.next()
+
+        when:
+            reader.field('a').longValue()
+
+        then:
+            thrown(NumberFormatException)
+
+        where:
+            value << ['x', '', '-', '9223372036854775808', '1 2']
+    }
+
+    def 'lines that are not events are skipped'() {
+        given:
+            def line = format('a', 1)
+            def reader = KvReader.of("$line\njava.lang.IllegalStateException: boom\n\tat a.B.c(B.java:1)\n\n" +
+                "x='unterminated\n$line\r\n")
+            int events = 0
+
+        when:
+            while (reader.next()) {
+                assert reader.line().toString() == line
+                events++
+            }
+
+        then:
+            events == 2
+            reader.skippedLines() == 4
+    }
+
+    def 'memory-mapped files are read up to their zero-filled tail'() {
+        given:
+            def line = format(PROPERTIES as Object[])
+            def file = dir.resolve('slog4j.0.log')
+            Files.write(file, ((line + '\n') * 3).getBytes(StandardCharsets.UTF_8))
+            Files.write(file, new byte[64], StandardOpenOption.APPEND)
+            def reader = KvReader.map(file)
+            int events = 0
+
+        when:
+            while (reader.next()) {
+                assert reader.field('k5').value() == PROPERTIES[11]
+                events++
+            }
+
+        then:
+            events == 3
+            reader.skippedLines() == 0
+    }
+
+    private String format(Object... objs) {
+        formatter.format(Level.INFO, 'EVT', objs).getString()
+    }
+
+    private static KvReader read(String source, String text) {
+        def bytes = text.getBytes(StandardCharsets.UTF_8)
+        switch (source) {
+            case 'chars':
+                return KvReader.of(text)
+            case 'heap bytes':
+                return KvReader.of(ByteBuffer.wrap(bytes))
+            default:
+                return KvReader.of(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip() as ByteBuffer)
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.slog4j.reader
+
+import org.slf4j.event.Level
+import org.slog4j.format.PureTextFormatter
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+
+class LogSearchSpec extends Specification {
+
+    static final START = Instant.parse('2023-06-01T10:00:00Z')
+
+    @TempDir
+    Path dir
+
+    def search = new LogSearch(new LogSearch.Config().blockSize(4096))
+
+    @Unroll
+    def 'events are found across files // #desc'() {
+        given:
+            def files = [write('app.0.log', 0, 1000), write('app.1.log', 1000, 1000)]
+
+        expect:
+            numbers(search.search(query, files)) == expected
+
+        where:
+            desc       | query                                                                      || expected
+            'event id' | new LogQuery().eventId('ORDER_FAILED').to(at(40))                          || [0, 10, 20, 30]
+            'level'    | new LogQuery().levels(Level.ERROR).from(at(995)).to(at(1020))              || [1000, 1010]
+            'time'     | new LogQuery().from(at(1500)).to(at(1502))                                 || [1500, 1501]
+            'field'    | new LogQuery().where('tenant', 'acme corp').to(at(10))                     || [0, 3, 6, 9]
+            'all'      | new LogQuery().eventId('ORDER_FAILED').where('tenant', 'other').to(at(40)) || [10, 20]
+    }
+
+    def 'only the blocks that may match are scanned'() {
+        given:
+            def index = search.index(write('app.0.log', 0, 1000))
+
+        expect:
+            index.blockCount() > 10
+            index.eventCount() == 1000
+            index.candidates(new LogQuery().from(at(500)).to(at(501))).size() == 1
+            index.candidates(new LogQuery().eventId('UNKNOWN')).isEmpty()
+            index.candidates(new LogQuery().levels(Level.WARN)).isEmpty()
+    }
+
+    def 'matches tell where their line starts'() {
+        given:
+            def file = write('app.0.log', 0, 100)
+
+        when:
+            def match = search.search(new LogQuery().where('n', '42'), [file])[0]
+
+        then:
+            match.file == file
+            new String(Files.readAllBytes(file), StandardCharsets.UTF_8).substring(match.offset as int)
+                .startsWith(match.line)
+    }
+
+    def 'the lines added to a file are indexed incrementally'() {
+        given:
+            def file = write('app.0.log', 0, 1000)
+            def blocks = search.index(file).blockCount()
+
+        when:
+            write('app.0.log', 1000, 100, StandardOpenOption.APPEND)
+            Files.write(file, 'partial'.bytes, StandardOpenOption.APPEND)
+            def index = search.index(file)
+
+        then:
+            index.eventCount() == 1100
+            index.blockCount() > blocks
+            index.indexedLength() == Files.size(file) - 'partial'.length()
+            numbers(search.search(new LogQuery().eventId('ORDER_FAILED').from(at(1050)), [file])) ==
+                (1050..1090).step(10)
+    }
+
+    def 'the index of a replaced file is rebuilt'() {
+        given:
+            def file = write('app.0.log', 0, 1000)
+            search.index(file)
+
+        when:
+            write('app.0.log', 5000, 20)
+
+        then:
+            search.index(file).eventCount() == 20
+            numbers(search.search(new LogQuery().eventId('ORDER_FAILED'), [file])) == [5000, 5010]
+    }
+
+    def 'every event id is posted to its blocks'() {
+        given:
+            def file = dir.resolve('ids.log')
+            def formatter = new PureTextFormatter(Clock.fixed(at(0), ZoneOffset.UTC))
+            file.toFile().text = (0..<500).collect {
+                formatter.format(Level.INFO, 'ID_' + (it % 200) + ((it % 3) ? '' : '_ü'), 'n', it).getString() + '\n'
+            }.join('')
+            def index = search.index(file)
+
+        expect:
+            index.blockCount() > 1
+            ['ID_0_ü', 'ID_1', 'ID_199', 'ID_17_ü'].every { !index.candidates(new LogQuery().eventId(it)).isEmpty() }
+            numbers(search.search(new LogQuery().eventId('ID_7'), [file])) == [7, 407]
+            numbers(search.search(new LogQuery().eventId('ID_7_ü'), [file])) == [207]
+    }
+
+    def 'indexes are written through temporary files of their own'() {
+        given:
+            def file = write('app.0.log', 0, 100)
+            Files.write(dir.resolve('app.0.log.idx.42.tmp'), 'left by a crash'.bytes)
+            def out = new StringWriter()
+
+        when:
+            search.index(file)
+            def status = LogSearchCli.run(['--evt', 'ORDER_FAILED', '--to', at(30).toString(), dir.toString()]
+                as String[], out, new StringBuilder())
+
+        then:
+            Files.list(dir).withCloseable { it.collect { it.fileName.toString() } as Set } ==
+                ['app.0.log', 'app.0.log.idx', 'app.0.log.idx.42.tmp'] as Set
+            status == 0
+            out.toString().readLines().size() == 3
+    }
+
+    def 'memory-mapped files are indexed up to their zero-filled tail'() {
+        given:
+            def file = write('app.0.log', 0, 10)
+            Files.write(file, new byte[64], StandardOpenOption.APPEND)
+
+        expect:
+            search.index(file).indexedLength() == Files.size(file) - 64
+            numbers(search.search(new LogQuery().levels(Level.ERROR), [file])) == [0]
+    }
+
+    def 'the command line searches the files of a directory'() {
+        given:
+            write('app.0.log', 0, 100)
+            def out = new StringWriter()
+            def err = new StringBuilder()
+
+        when:
+            def status = LogSearchCli.run(['--evt', 'ORDER_FAILED', '--where', 'tenant=acme corp', '--to',
+                                           at(50).toString(), dir.toString()] as String[], out, err)
+
+        then:
+            status == 0
+            out.toString().readLines().collect { (it =~ /n=(\d+)/)[0][1] as int } == [0, 30]
+            err.length() == 0
+    }
+
+    @Unroll
+    def 'the command line rejects bad arguments // #args'() {
+        given:
+            def err = new StringBuilder()
+
+        expect:
+            LogSearchCli.run(args as String[], new StringWriter(), err) == 2
+            err.toString().contains('usage: LogSearchCli')
+
+        where:
+            args << [[], ['--evt'], ['--level', 'NOPE', 'x.log'], ['--where', 'x', 'x.log'], ['--nope', 'x', 'x.log']]
+    }
+
+    private Path write(String name, int from, int count, StandardOpenOption... options) {
+        def lines = new StringBuilder()
+        for (int i = from; i < from + count; i++) {
+            def formatter = new PureTextFormatter(Clock.fixed(at(i), ZoneOffset.UTC))
+            def failed = (i % 10) == 0
+            lines << formatter.format(failed ? Level.ERROR : Level.INFO, failed ? 'ORDER_FAILED' : 'ORDER_PLACED',
+                'n', i, 'tenant', (i % 3) == 0 ? 'acme corp' : 'other').getString() << '\n'
+        }
+        Files.write(dir.resolve(name), lines.toString().getBytes(StandardCharsets.UTF_8), options)
+    }
+
+    private static Instant at(int second) {
+        START.plusSeconds(second)
+    }
+
+    private static List<Integer> numbers(List<LogMatch> matches) {
+        matches.collect { (it.line =~ /n=(\d+)/)[0][1] as int }
+    }
+}